@@ -670,7 +670,7 @@ dateExpression
     ;
 
 encoding
-    : PLAIN | DICTIONARY | RLE | DIFF | TS_2DIFF | GORILLA | REGULAR
+    : PLAIN | DICTIONARY | RLE | DIFF | TS_2DIFF | GORILLA | REGULAR | AUTO | CHIMP
     ;
 
 realLiteral
@@ -920,6 +920,14 @@ REGULAR
     : R E G U L A R
     ;
 
+AUTO
+    : A U T O
+    ;
+
+CHIMP
+    : C H I M P
+    ;
+
 BITMAP
     : B I T M A P
     ;
@@ -41,8 +41,12 @@ public class AsyncClientPool {
   private static final Logger logger = LoggerFactory.getLogger(AsyncClientPool.class);
   private long waitClientTimeutMS;
   private int maxConnectionForEachNode;
+  // no more clients are created for a node once it has so many clients in use
+  private int maxInflightForEachNode;
   private Map<ClusterNode, Deque<AsyncClient>> clientCaches = new ConcurrentHashMap<>();
   private Map<ClusterNode, Integer> nodeClientNumMap = new ConcurrentHashMap<>();
+  // how many callers are waiting for an available client of each node
+  private Map<ClusterNode, Integer> nodeWaiterNumMap = new ConcurrentHashMap<>();
   private AsyncClientFactory asyncClientFactory;
 
   public AsyncClientPool(AsyncClientFactory asyncClientFactory) {
@@ -50,6 +54,12 @@ public class AsyncClientPool {
     this.waitClientTimeutMS = ClusterDescriptor.getInstance().getConfig().getWaitClientTimeoutMS();
     this.maxConnectionForEachNode =
         ClusterDescriptor.getInstance().getConfig().getMaxClientPerNodePerMember();
+    int maxInflightRequest =
+        ClusterDescriptor.getInstance().getConfig().getMaxInflightRequestPerNodePerMember();
+    this.maxInflightForEachNode =
+        maxInflightRequest > 0
+            ? Math.max(maxInflightRequest, maxConnectionForEachNode)
+            : Integer.MAX_VALUE;
   }
 
   /**
@@ -72,7 +82,8 @@ public class AsyncClientPool {
    * @param activatedOnly if true, only return a client if the node's NodeStatus.isActivated ==
    *     true, which avoid unnecessary wait for already down nodes, but heartbeat attempts should
    *     always try to connect so the node can be reactivated ASAP
-   * @return if the node can connect, return the client, otherwise null
+   * @return if the node can connect, return the client, otherwise null, which is also returned
+   *     when the node has maxInflightForEachNode clients in use and none is returned in time
    * @throws IOException if the node can not be connected
    */
   public AsyncClient getClient(Node node, boolean activatedOnly) throws IOException {
@@ -108,7 +119,8 @@ public class AsyncClientPool {
 
   /**
    * Wait for a client to be returned for at most WAIT_CLIENT_TIMEOUT_MS milliseconds. If no client
-   * is returned beyond the timeout, a new client will be returned. WARNING: the caller must
+   * is returned beyond the timeout, a new client will be returned, unless the node already has
+   * maxInflightForEachNode clients in use, then null will be returned. WARNING: the caller must
    * synchronize on the pool.
    *
    * @param clientStack
@@ -121,10 +133,22 @@ public class AsyncClientPool {
       throws IOException {
     // wait for an available client
     long waitStart = System.currentTimeMillis();
-    while (clientStack.isEmpty()) {
-      try {
+    nodeWaiterNumMap.merge(clusterNode, 1, Integer::sum);
+    try {
+      while (clientStack.isEmpty()) {
         clientStack.wait(waitClientTimeutMS);
-        if (clientStack.isEmpty() && System.currentTimeMillis() - waitStart >= waitClientTimeutMS) {
+        if (clientStack.isEmpty()
+            && System.currentTimeMillis() - waitStart >= waitClientTimeutMS) {
+          if (nodeClientNumMap.getOrDefault(clusterNode, 0) >= maxInflightForEachNode) {
+            logger.warn(
+                "{} Cannot get an available client of {} after {}ms, and it already has {} "
+                    + "in-flight requests",
+                asyncClientFactory,
+                clusterNode,
+                waitClientTimeutMS,
+                maxInflightForEachNode);
+            return null;
+          }
           logger.warn(
               "{} Cannot get an available client after {}ms, create a new one.",
               asyncClientFactory,
@@ -133,17 +157,21 @@ public class AsyncClientPool {
           nodeClientNumMap.computeIfPresent(clusterNode, (n, oldValue) -> oldValue + 1);
           return asyncClient;
         }
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        logger.warn("Interrupted when waiting for an available client of {}", clusterNode);
-        return null;
       }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.warn("Interrupted when waiting for an available client of {}", clusterNode);
+      return null;
+    } finally {
+      nodeWaiterNumMap.merge(clusterNode, -1, Integer::sum);
     }
     return clientStack.pop();
   }
 
   /**
-   * Return a client of a node to the pool. Closed client should not be returned.
+   * Return a client of a node to the pool. Closed client should not be returned. If the client was
+   * created beyond the limit because the pool was exhausted and nobody is waiting for it, it will
+   * be closed instead, so the number of connections to a node converges to the limit after a burst.
    *
    * @param node
    * @param client
@@ -163,11 +191,25 @@ public class AsyncClientPool {
     Deque<AsyncClient> clientStack =
         clientCaches.computeIfAbsent(clusterNode, n -> new ArrayDeque<>());
     synchronized (clientStack) {
+      if (nodeClientNumMap.getOrDefault(clusterNode, 0) > maxConnectionForEachNode
+          && nodeWaiterNumMap.getOrDefault(clusterNode, 0) <= 0) {
+        closeClient(client);
+        nodeClientNumMap.computeIfPresent(clusterNode, (n, oldValue) -> oldValue - 1);
+        return;
+      }
       clientStack.push(client);
       clientStack.notifyAll();
     }
   }
 
+  private void closeClient(AsyncClient client) {
+    if (client instanceof AsyncDataClient) {
+      ((AsyncDataClient) client).close();
+    } else if (client instanceof AsyncMetaClient) {
+      ((AsyncMetaClient) client).close();
+    }
+  }
+
   void onError(Node node) {
     ClusterNode clusterNode = new ClusterNode(node);
     // clean all cached clients when network fails
@@ -175,12 +217,7 @@ public class AsyncClientPool {
         clientCaches.computeIfAbsent(clusterNode, n -> new ArrayDeque<>());
     synchronized (clientStack) {
       while (!clientStack.isEmpty()) {
-        AsyncClient client = clientStack.pop();
-        if (client instanceof AsyncDataClient) {
-          ((AsyncDataClient) client).close();
-        } else if (client instanceof AsyncMetaClient) {
-          ((AsyncMetaClient) client).close();
-        }
+        closeClient(clientStack.pop());
       }
       nodeClientNumMap.put(clusterNode, 0);
       clientStack.notifyAll();
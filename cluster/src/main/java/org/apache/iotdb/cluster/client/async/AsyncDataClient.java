@@ -24,6 +24,7 @@ import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.rpc.thrift.RaftService;
 import org.apache.iotdb.cluster.rpc.thrift.TSDataService.AsyncClient;
 import org.apache.iotdb.cluster.server.RaftServer;
+import org.apache.iotdb.cluster.server.monitor.RpcLatencyHistogram;
 import org.apache.iotdb.rpc.TNonblockingSocketWrapper;
 
 import org.apache.thrift.async.TAsyncClientManager;
@@ -48,6 +49,8 @@ public class AsyncDataClient extends AsyncClient {
 
   Node node;
   AsyncClientPool pool;
+  // when the current method is issued, to record its latency
+  private long callStartTime;
 
   public AsyncDataClient(
       TProtocolFactory protocolFactory,
@@ -72,8 +75,16 @@ public class AsyncDataClient extends AsyncClient {
     this.pool = pool;
   }
 
+  @Override
+  protected void checkReady() {
+    // every generated method checks whether the client is ready before it is issued
+    super.checkReady();
+    callStartTime = System.nanoTime();
+  }
+
   @Override
   public void onComplete() {
+    RpcLatencyHistogram.record(___currentMethod, System.nanoTime() - callStartTime, true);
     super.onComplete();
     // return itself to the pool if the job is done
     if (pool != null) {
@@ -85,6 +96,7 @@ public class AsyncDataClient extends AsyncClient {
   @SuppressWarnings("squid:S1135")
   @Override
   public void onError(Exception e) {
+    RpcLatencyHistogram.record(___currentMethod, System.nanoTime() - callStartTime, false);
     super.onError(e);
     if (pool != null) {
       pool.recreateClient(node);
@@ -23,6 +23,7 @@ import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.rpc.thrift.RaftService;
 import org.apache.iotdb.cluster.rpc.thrift.TSMetaService.AsyncClient;
 import org.apache.iotdb.cluster.server.RaftServer;
+import org.apache.iotdb.cluster.server.monitor.RpcLatencyHistogram;
 import org.apache.iotdb.rpc.TNonblockingSocketWrapper;
 
 import org.apache.thrift.async.TAsyncClientManager;
@@ -46,6 +47,8 @@ public class AsyncMetaClient extends AsyncClient {
   private static final Logger logger = LoggerFactory.getLogger(AsyncMetaClient.class);
   Node node;
   AsyncClientPool pool;
+  // when the current method is issued, to record its latency
+  private long callStartTime;
 
   public AsyncMetaClient(
       TProtocolFactory protocolFactory,
@@ -70,8 +73,16 @@ public class AsyncMetaClient extends AsyncClient {
     this.pool = pool;
   }
 
+  @Override
+  protected void checkReady() {
+    // every generated method checks whether the client is ready before it is issued
+    super.checkReady();
+    callStartTime = System.nanoTime();
+  }
+
   @Override
   public void onComplete() {
+    RpcLatencyHistogram.record(___currentMethod, System.nanoTime() - callStartTime, true);
     super.onComplete();
     // return itself to the pool if the job is done
     if (pool != null) {
@@ -83,6 +94,7 @@ public class AsyncMetaClient extends AsyncClient {
   @SuppressWarnings("squid:S1135")
   @Override
   public void onError(Exception e) {
+    RpcLatencyHistogram.record(___currentMethod, System.nanoTime() - callStartTime, false);
     super.onError(e);
     pool.recreateClient(node);
     // TODO: if e instance of network failure
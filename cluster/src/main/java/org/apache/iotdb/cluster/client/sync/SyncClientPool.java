@@ -40,8 +40,12 @@ public class SyncClientPool {
   private static final Logger logger = LoggerFactory.getLogger(SyncClientPool.class);
   private long waitClientTimeoutMS;
   private int maxConnectionForEachNode;
+  // no more clients are created for a node once it has so many clients in use
+  private int maxInflightForEachNode;
   private Map<ClusterNode, Deque<Client>> clientCaches = new ConcurrentHashMap<>();
   private Map<ClusterNode, Integer> nodeClientNumMap = new ConcurrentHashMap<>();
+  // how many callers are waiting for an available client of each node
+  private Map<ClusterNode, Integer> nodeWaiterNumMap = new ConcurrentHashMap<>();
   private SyncClientFactory syncClientFactory;
 
   public SyncClientPool(SyncClientFactory syncClientFactory) {
@@ -49,13 +53,20 @@ public class SyncClientPool {
     this.waitClientTimeoutMS = ClusterDescriptor.getInstance().getConfig().getWaitClientTimeoutMS();
     this.maxConnectionForEachNode =
         ClusterDescriptor.getInstance().getConfig().getMaxClientPerNodePerMember();
+    int maxInflightRequest =
+        ClusterDescriptor.getInstance().getConfig().getMaxInflightRequestPerNodePerMember();
+    this.maxInflightForEachNode =
+        maxInflightRequest > 0
+            ? Math.max(maxInflightRequest, maxConnectionForEachNode)
+            : Integer.MAX_VALUE;
   }
 
   /**
    * See getClient(Node node, boolean activatedOnly)
    *
    * @param node the node want to connect
-   * @return if the node can connect, return the client, otherwise null
+   * @return if the node can connect, return the client, otherwise null, which is also returned
+   *     when the node has maxInflightForEachNode clients in use and none is returned in time
    */
   public Client getClient(Node node) {
     return getClient(node, true);
@@ -70,7 +81,8 @@ public class SyncClientPool {
    * @param activatedOnly if true, only return a client if the node's NodeStatus.isActivated ==
    *     true, which avoid unnecessary wait for already down nodes, but heartbeat attempts should
    *     always try to connect so the node can be reactivated ASAP
-   * @return if the node can connect, return the client, otherwise null
+   * @return if the node can connect, return the client, otherwise null, which is also returned
+   *     when the node has maxInflightForEachNode clients in use and none is returned in time
    */
   public Client getClient(Node node, boolean activatedOnly) {
     ClusterNode clusterNode = new ClusterNode(node);
@@ -111,31 +123,45 @@ public class SyncClientPool {
   private Client waitForClient(Deque<Client> clientStack, ClusterNode clusterNode) {
     // wait for an available client
     long waitStart = System.currentTimeMillis();
-    while (clientStack.isEmpty()) {
-      try {
+    nodeWaiterNumMap.merge(clusterNode, 1, Integer::sum);
+    try {
+      while (clientStack.isEmpty()) {
         clientStack.wait(waitClientTimeoutMS);
         if (clientStack.isEmpty()
             && System.currentTimeMillis() - waitStart >= waitClientTimeoutMS) {
+          if (nodeClientNumMap.getOrDefault(clusterNode, 0) >= maxInflightForEachNode) {
+            logger.warn(
+                "Cannot get an available client of {} after {}ms, and it already has {} "
+                    + "in-flight requests",
+                clusterNode,
+                waitClientTimeoutMS,
+                maxInflightForEachNode);
+            return null;
+          }
           logger.warn(
               "Cannot get an available client after {}ms, create a new one", waitClientTimeoutMS);
           Client client = syncClientFactory.getSyncClient(clusterNode, this);
           nodeClientNumMap.computeIfPresent(clusterNode, (n, oldValue) -> oldValue + 1);
           return client;
         }
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        logger.warn("Interrupted when waiting for an available client of {}", clusterNode);
-        return null;
-      } catch (TTransportException e) {
-        logger.error("Cannot open transport for client {}", clusterNode, e);
-        return null;
       }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.warn("Interrupted when waiting for an available client of {}", clusterNode);
+      return null;
+    } catch (TTransportException e) {
+      logger.error("Cannot open transport for client {}", clusterNode, e);
+      return null;
+    } finally {
+      nodeWaiterNumMap.merge(clusterNode, -1, Integer::sum);
     }
     return clientStack.pop();
   }
 
   /**
-   * Return a client of a node to the pool. Closed client should not be returned.
+   * Return a client of a node to the pool. Closed client should not be returned. If the client was
+   * created beyond the limit because the pool was exhausted and nobody is waiting for it, it will
+   * be closed instead, so the number of connections to a node converges to the limit after a burst.
    *
    * @param node connection node
    * @param client push client to pool
@@ -145,6 +171,14 @@ public class SyncClientPool {
     // As clientCaches is ConcurrentHashMap, computeIfAbsent is thread safety.
     Deque<Client> clientStack = clientCaches.computeIfAbsent(clusterNode, n -> new ArrayDeque<>());
     synchronized (clientStack) {
+      if (nodeClientNumMap.getOrDefault(clusterNode, 0) > maxConnectionForEachNode
+          && nodeWaiterNumMap.getOrDefault(clusterNode, 0) <= 0) {
+        if (client.getInputProtocol() != null) {
+          client.getInputProtocol().getTransport().close();
+        }
+        nodeClientNumMap.computeIfPresent(clusterNode, (n, oldValue) -> oldValue - 1);
+        return;
+      }
       if (client.getInputProtocol() != null && client.getInputProtocol().getTransport().isOpen()) {
         clientStack.push(client);
         NodeStatusManager.getINSTANCE().activate(node);
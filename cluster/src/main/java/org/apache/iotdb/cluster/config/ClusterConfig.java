@@ -20,6 +20,7 @@ package org.apache.iotdb.cluster.config;
 
 import org.apache.iotdb.cluster.utils.ClusterConsistent;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -88,6 +89,14 @@ public class ClusterConfig {
    */
   private long waitClientTimeoutMS = 5 * 1000L;
 
+  /**
+   * Max number of in-flight requests (i.e., clients in use) of a ClientPool of a member to one
+   * node. When a node has so many clients, a caller that cannot get an available client within
+   * `wait_client_timeout_ms` gets no client instead of a new one. A non-positive value means no
+   * limit, and a value less than `max_client_pernode_permember_number` is raised to it.
+   */
+  private int maxInflightRequestPerNodePerMember = 2000;
+
   /**
    * ClientPool will have so many selector threads (TAsyncClientManager) to distribute to its
    * clients.
@@ -127,6 +136,18 @@ public class ClusterConfig {
 
   private int pullSnapshotRetryIntervalMs = (int) TimeUnit.SECONDS.toMillis(5);
 
+  /** How many remote files can be pulled concurrently when a FileSnapshot is installed. */
+  private int pullFileParallelism = 4;
+
+  /** The size of each chunk (in bytes) requested from the remote node when pulling a file. */
+  private int pullFileChunkSize = 1024 * 1024;
+
+  /**
+   * The max throughput (in MB/s) of pulling remote files by all snapshot installations of this
+   * node, 0 means no limit.
+   */
+  private int pullFileThroughputMbPerSec = 0;
+
   /**
    * The maximum value of the raft log index stored in the memory per raft group, These indexes are
    * used to index the location of the log on the disk
@@ -177,6 +198,31 @@ public class ClusterConfig {
 
   private boolean openServerRpcPort = false;
 
+  /**
+   * How long (in ms) a series that is found not existing when pulling remote schemas is remembered,
+   * during which its schema will not be pulled again. 0 means such series are not remembered.
+   */
+  private long nonExistentSeriesCacheTtlMs = 1000L;
+
+  /**
+   * The compression used for the logs sent to followers and the query results sent to other nodes.
+   * UNCOMPRESSED disables it, and a node can always read compressed payloads from other nodes.
+   */
+  private CompressionType rpcPayloadCompressionType = CompressionType.UNCOMPRESSED;
+
+  /** Payloads smaller than this (in bytes) are sent uncompressed. */
+  private int rpcPayloadCompressionThreshold = 4096;
+
+  /**
+   * How long (in ms) a last point cached by the coordinator of LAST queries stays valid. The
+   * inserts into data groups that do not include this node are visible to cached LAST queries only
+   * after the cached points expire. 0 disables the cache.
+   */
+  private long clusterLastCacheTtlMs = 0;
+
+  /** The max number of devices whose last points are cached by the coordinator. */
+  private int clusterLastCacheDeviceNum = 10000;
+
   /**
    * create a clusterConfig class. The internalIP will be set according to the server's hostname. If
    * there is something error for getting the ip of the hostname, then set the internalIp as
@@ -412,6 +458,30 @@ public class ClusterConfig {
     this.pullSnapshotRetryIntervalMs = pullSnapshotRetryIntervalMs;
   }
 
+  public int getPullFileParallelism() {
+    return pullFileParallelism;
+  }
+
+  public void setPullFileParallelism(int pullFileParallelism) {
+    this.pullFileParallelism = pullFileParallelism;
+  }
+
+  public int getPullFileChunkSize() {
+    return pullFileChunkSize;
+  }
+
+  public void setPullFileChunkSize(int pullFileChunkSize) {
+    this.pullFileChunkSize = pullFileChunkSize;
+  }
+
+  public int getPullFileThroughputMbPerSec() {
+    return pullFileThroughputMbPerSec;
+  }
+
+  public void setPullFileThroughputMbPerSec(int pullFileThroughputMbPerSec) {
+    this.pullFileThroughputMbPerSec = pullFileThroughputMbPerSec;
+  }
+
   public int getMaxRaftLogIndexSizeInMemory() {
     return maxRaftLogIndexSizeInMemory;
   }
@@ -504,6 +574,54 @@ public class ClusterConfig {
     this.openServerRpcPort = openServerRpcPort;
   }
 
+  public long getNonExistentSeriesCacheTtlMs() {
+    return nonExistentSeriesCacheTtlMs;
+  }
+
+  public void setNonExistentSeriesCacheTtlMs(long nonExistentSeriesCacheTtlMs) {
+    this.nonExistentSeriesCacheTtlMs = nonExistentSeriesCacheTtlMs;
+  }
+
+  public CompressionType getRpcPayloadCompressionType() {
+    return rpcPayloadCompressionType;
+  }
+
+  public void setRpcPayloadCompressionType(CompressionType rpcPayloadCompressionType) {
+    this.rpcPayloadCompressionType = rpcPayloadCompressionType;
+  }
+
+  public int getRpcPayloadCompressionThreshold() {
+    return rpcPayloadCompressionThreshold;
+  }
+
+  public void setRpcPayloadCompressionThreshold(int rpcPayloadCompressionThreshold) {
+    this.rpcPayloadCompressionThreshold = rpcPayloadCompressionThreshold;
+  }
+
+  public long getClusterLastCacheTtlMs() {
+    return clusterLastCacheTtlMs;
+  }
+
+  public void setClusterLastCacheTtlMs(long clusterLastCacheTtlMs) {
+    this.clusterLastCacheTtlMs = clusterLastCacheTtlMs;
+  }
+
+  public int getClusterLastCacheDeviceNum() {
+    return clusterLastCacheDeviceNum;
+  }
+
+  public void setClusterLastCacheDeviceNum(int clusterLastCacheDeviceNum) {
+    this.clusterLastCacheDeviceNum = clusterLastCacheDeviceNum;
+  }
+
+  public int getMaxInflightRequestPerNodePerMember() {
+    return maxInflightRequestPerNodePerMember;
+  }
+
+  public void setMaxInflightRequestPerNodePerMember(int maxInflightRequestPerNodePerMember) {
+    this.maxInflightRequestPerNodePerMember = maxInflightRequestPerNodePerMember;
+  }
+
   public long getWaitClientTimeoutMS() {
     return waitClientTimeoutMS;
   }
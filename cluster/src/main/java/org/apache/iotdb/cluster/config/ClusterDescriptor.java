@@ -23,6 +23,7 @@ import org.apache.iotdb.cluster.exception.BadSeedUrlFormatException;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import com.google.common.net.InetAddresses;
 import org.slf4j.Logger;
@@ -313,6 +314,58 @@ public class ClusterDescriptor {
             properties.getProperty(
                 "wait_client_timeout_ms", String.valueOf(config.getWaitClientTimeoutMS()))));
 
+    config.setMaxInflightRequestPerNodePerMember(
+        Integer.parseInt(
+            properties.getProperty(
+                "max_inflight_request_pernode_permember_number",
+                String.valueOf(config.getMaxInflightRequestPerNodePerMember()))));
+
+    config.setNonExistentSeriesCacheTtlMs(
+        Long.parseLong(
+            properties.getProperty(
+                "non_existent_series_cache_ttl_ms",
+                String.valueOf(config.getNonExistentSeriesCacheTtlMs()))));
+
+    config.setPullFileParallelism(
+        Integer.parseInt(
+            properties.getProperty(
+                "pull_file_parallelism", String.valueOf(config.getPullFileParallelism()))));
+
+    config.setPullFileChunkSize(
+        Integer.parseInt(
+            properties.getProperty(
+                "pull_file_chunk_size", String.valueOf(config.getPullFileChunkSize()))));
+
+    config.setPullFileThroughputMbPerSec(
+        Integer.parseInt(
+            properties.getProperty(
+                "pull_file_throughput_mb_per_sec",
+                String.valueOf(config.getPullFileThroughputMbPerSec()))));
+
+    config.setRpcPayloadCompressionType(
+        CompressionType.valueOf(
+            properties
+                .getProperty(
+                    "rpc_payload_compression_type", config.getRpcPayloadCompressionType().name())
+                .trim()));
+
+    config.setRpcPayloadCompressionThreshold(
+        Integer.parseInt(
+            properties.getProperty(
+                "rpc_payload_compression_threshold",
+                String.valueOf(config.getRpcPayloadCompressionThreshold()))));
+
+    config.setClusterLastCacheTtlMs(
+        Long.parseLong(
+            properties.getProperty(
+                "cluster_last_cache_ttl_ms", String.valueOf(config.getClusterLastCacheTtlMs()))));
+
+    config.setClusterLastCacheDeviceNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "cluster_last_cache_device_num",
+                String.valueOf(config.getClusterLastCacheDeviceNum()))));
+
     String consistencyLevel = properties.getProperty("consistency_level");
     if (consistencyLevel != null) {
       config.setConsistencyLevel(ConsistencyLevel.getConsistencyLevel(consistencyLevel));
@@ -30,6 +30,7 @@ import org.apache.iotdb.cluster.server.member.RaftMember;
 import org.apache.iotdb.cluster.server.monitor.Peer;
 import org.apache.iotdb.cluster.server.monitor.Timer;
 import org.apache.iotdb.cluster.utils.ClientUtils;
+import org.apache.iotdb.cluster.utils.PayloadCompressionUtils;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.utils.TestOnly;
@@ -42,6 +43,7 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
@@ -329,6 +331,14 @@ public class LogDispatcher {
       }
 
       request.setEntries(logList);
+      // only a receiver that has advertised it in its heartbeats can read compressed entries
+      if (peer.isCompressedEntriesSupported()) {
+        ByteBuffer compressedEntries = PayloadCompressionUtils.compressEntries(logList, receiver);
+        if (compressedEntries != null) {
+          request.setEntries(Collections.emptyList());
+          request.setCompressedEntries(compressedEntries);
+        }
+      }
       // set index for raft
       request.setPrevLogIndex(currBatch.get(firstIndex).getLog().getCurrLogIndex() - 1);
       try {
@@ -25,6 +25,7 @@ import org.apache.iotdb.cluster.log.logtypes.AddNodeLog;
 import org.apache.iotdb.cluster.log.logtypes.CloseFileLog;
 import org.apache.iotdb.cluster.log.logtypes.PhysicalPlanLog;
 import org.apache.iotdb.cluster.log.logtypes.RemoveNodeLog;
+import org.apache.iotdb.cluster.query.last.ClusterLastCache;
 import org.apache.iotdb.cluster.server.member.DataGroupMember;
 import org.apache.iotdb.cluster.server.member.MetaGroupMember;
 import org.apache.iotdb.cluster.utils.IOUtils;
@@ -35,11 +36,13 @@ import org.apache.iotdb.db.exception.metadata.StorageGroupNotSetException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertMultiTabletPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertRowsPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.db.qp.physical.sys.DeleteTimeSeriesPlan;
 import org.apache.iotdb.db.service.IoTDB;
 
 import org.slf4j.Logger;
@@ -86,7 +89,13 @@ public class DataLogApplier extends BaseApplier {
         } else if (plan instanceof InsertPlan) {
           applyInsert((InsertPlan) plan);
         } else {
-          applyPhysicalPlan(plan, dataGroupMember);
+          try {
+            applyPhysicalPlan(plan, dataGroupMember);
+          } finally {
+            if (plan instanceof DeletePlan || plan instanceof DeleteTimeSeriesPlan) {
+              ClusterLastCache.getINSTANCE().invalidate(plan.getPaths());
+            }
+          }
         }
       } else if (log instanceof CloseFileLog) {
         CloseFileLog closeFileLog = ((CloseFileLog) log);
@@ -138,5 +147,6 @@ public class DataLogApplier extends BaseApplier {
       }
     }
     applyPhysicalPlan(plan, dataGroupMember);
+    ClusterLastCache.getINSTANCE().onInsert(plan);
   }
 }
@@ -33,7 +33,9 @@ import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.server.handlers.caller.GenericHandler;
 import org.apache.iotdb.cluster.server.member.DataGroupMember;
 import org.apache.iotdb.cluster.server.member.RaftMember;
+import org.apache.iotdb.cluster.server.monitor.SnapshotPullProgress;
 import org.apache.iotdb.cluster.utils.ClientUtils;
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.StorageEngine;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
@@ -47,6 +49,7 @@ import org.apache.iotdb.db.utils.SchemaUtils;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.schema.TimeseriesSchema;
 
+import com.google.common.util.concurrent.RateLimiter;
 import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -66,6 +69,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * FileSnapshot records the data files in a slot and their md5 (or other verification). When the
@@ -179,10 +185,14 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
      * the "REMOTE_FILE_TEMP_DIR", and then load file functionality of IoTDB will be used to load
      * the files into the IoTDB instance.
      */
-    private static final String REMOTE_FILE_TEMP_DIR =
+    static final String REMOTE_FILE_TEMP_DIR =
         IoTDBDescriptor.getInstance().getConfig().getSystemDir() + File.separator + "remote";
 
     private static final Logger logger = LoggerFactory.getLogger(Installer.class);
+
+    /** Shared by all installers, so the limit applies to the whole node. */
+    private static final RateLimiter pullFileRateLimiter = RateLimiter.create(Double.MAX_VALUE);
+
     private DataGroupMember dataGroupMember;
     private SlotManager slotManager;
     private String name;
@@ -271,32 +281,44 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
     private void installFileSnapshotFiles(FileSnapshot snapshot, int slot, boolean isDataMigration)
         throws PullFileException {
       List<RemoteTsFileResource> remoteTsFileResources = snapshot.getDataFiles();
-      // pull file
-      for (int i = 0, remoteTsFileResourcesSize = remoteTsFileResources.size();
-          i < remoteTsFileResourcesSize;
-          i++) {
-        RemoteTsFileResource resource = remoteTsFileResources.get(i);
-        logger.info(
-            "Pulling {}/{} files, current: {}", i + 1, remoteTsFileResources.size(), resource);
-        try {
-          if (isDataMigration) {
-            // This means that the minimum plan index and maximum plan index of some files are the
-            // same,
-            // so the logic of judging index coincidence needs to remove the case of equal
-            resource.setMinPlanIndex(dataGroupMember.getLogManager().getLastLogIndex());
-            resource.setMaxPlanIndex(dataGroupMember.getLogManager().getLastLogIndex());
-            loadRemoteFile(resource);
-          } else {
-            if (!isFileAlreadyPulled(resource)) {
-              loadRemoteFile(resource);
-            } else {
-              // notify the snapshot provider to remove the hardlink
-              removeRemoteHardLink(resource);
-            }
+      SnapshotPullProgress progress =
+          SnapshotPullProgress.start(slot, remoteTsFileResources.size());
+      int parallelism =
+          Math.max(
+              1,
+              Math.min(
+                  ClusterDescriptor.getInstance().getConfig().getPullFileParallelism(),
+                  remoteTsFileResources.size()));
+      ExecutorService pullFilePool =
+          IoTDBThreadPoolFactory.newFixedThreadPool(parallelism, name + "-pull-file-" + slot);
+      List<Future<File>> pulledFiles = new ArrayList<>(remoteTsFileResources.size());
+      int loadedFileNum = 0;
+      try {
+        // files are pulled concurrently, but they are loaded in their original order
+        for (RemoteTsFileResource resource : remoteTsFileResources) {
+          pulledFiles.add(submitPullTask(resource, isDataMigration, pullFilePool, progress));
+        }
+
+        for (int i = 0, remoteTsFileResourcesSize = remoteTsFileResources.size();
+            i < remoteTsFileResourcesSize;
+            i++) {
+          RemoteTsFileResource resource = remoteTsFileResources.get(i);
+          Future<File> pulledFile = pulledFiles.get(i);
+          if (pulledFile != null) {
+            logger.info(
+                "Loading {}/{} files, current: {}", i + 1, remoteTsFileResourcesSize, resource);
+            loadRemoteFile(resource, waitForPulledFile(resource, pulledFile));
           }
-        } catch (IllegalPathException e) {
-          throw new PullFileException(resource.getTsFilePath(), resource.getSource(), e);
+          progress.onFileLoaded();
+          loadedFileNum++;
         }
+      } finally {
+        pullFilePool.shutdownNow();
+        // if the installation fails, the files that have been pulled will never be loaded
+        for (int i = loadedFileNum; i < pulledFiles.size(); i++) {
+          removePulledFile(pulledFiles.get(i));
+        }
+        SnapshotPullProgress.finish(slot);
       }
 
       // all files are loaded, the slot can be queried without accessing the previous holder
@@ -304,6 +326,90 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
       logger.info("{}: slot {} is ready", name, slot);
     }
 
+    /**
+     * Submit a task to pull "resource" into "pullFilePool".
+     *
+     * @return the future of the pulled temporary file, or null if the file need not to be pulled
+     */
+    private Future<File> submitPullTask(
+        RemoteTsFileResource resource,
+        boolean isDataMigration,
+        ExecutorService pullFilePool,
+        SnapshotPullProgress progress)
+        throws PullFileException {
+      try {
+        if (isDataMigration) {
+          // This means that the minimum plan index and maximum plan index of some files are the
+          // same,
+          // so the logic of judging index coincidence needs to remove the case of equal
+          resource.setMinPlanIndex(dataGroupMember.getLogManager().getLastLogIndex());
+          resource.setMaxPlanIndex(dataGroupMember.getLogManager().getLastLogIndex());
+        } else if (isFileAlreadyPulled(resource)) {
+          // notify the snapshot provider to remove the hardlink
+          removeRemoteHardLink(resource);
+          return null;
+        }
+      } catch (IllegalPathException e) {
+        throw new PullFileException(resource.getTsFilePath(), resource.getSource(), e);
+      }
+      return pullFilePool.submit(
+          () -> {
+            File tempFile = pullRemoteFile(resource, resource.getSource(), progress);
+            if (tempFile != null && Thread.currentThread().isInterrupted()) {
+              // the installation has failed, so the file will not be loaded
+              removeTempFiles(tempFile);
+              return null;
+            }
+            return tempFile;
+          });
+    }
+
+    /** Remove the temporary files of a pull task that have not been loaded. */
+    private void removePulledFile(Future<File> pulledFile) {
+      // an unfinished task has been interrupted and removes its files by itself
+      if (pulledFile == null || !pulledFile.isDone() || pulledFile.isCancelled()) {
+        return;
+      }
+      try {
+        File tempFile = pulledFile.get();
+        if (tempFile != null) {
+          removeTempFiles(tempFile);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        // the file is not pulled
+      }
+    }
+
+    /**
+     * Remove the local copy of a remote file, together with its resource file and modification
+     * file. Loading a file moves them away, so only those of a file that cannot be loaded remain.
+     */
+    private void removeTempFiles(File tempFile) {
+      String[] suffixes = {"", TsFileResource.RESOURCE_SUFFIX, ModificationFile.FILE_SUFFIX};
+      for (String suffix : suffixes) {
+        File file = new File(tempFile.getPath() + suffix);
+        try {
+          Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+          logger.warn("{}: Cannot remove temporary file {}", name, file, e);
+        }
+      }
+    }
+
+    private File waitForPulledFile(RemoteTsFileResource resource, Future<File> pulledFile)
+        throws PullFileException {
+      try {
+        return pulledFile.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new PullFileException(resource.toString(), resource.getSource(), e);
+      } catch (ExecutionException e) {
+        throw new PullFileException(resource.toString(), resource.getSource(), e);
+      }
+    }
+
     /**
      * Check if the file "resource" is a duplication of some local files. As all data file close is
      * controlled by the data group leader, the files with the same version should contain identical
@@ -362,21 +468,16 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
     }
 
     /**
-     * Load a remote file from the header of the data group that the file is in. As different IoTDB
-     * instances will name the file with the same version differently, we can only pull the file
-     * from the header currently.
+     * Load a remote file that has been pulled from the header of the data group that the file is
+     * in. As different IoTDB instances will name the file with the same version differently, we can
+     * only pull the file from the header currently.
      *
      * @param resource
+     * @param tempFile the local copy of the remote file, or null if it cannot be pulled
      */
-    private void loadRemoteFile(RemoteTsFileResource resource) throws PullFileException {
+    private void loadRemoteFile(RemoteTsFileResource resource, File tempFile)
+        throws PullFileException {
       Node sourceNode = resource.getSource();
-      // pull the file to a temporary directory
-      File tempFile;
-      try {
-        tempFile = pullRemoteFile(resource, sourceNode);
-      } catch (IOException e) {
-        throw new PullFileException(resource.toString(), sourceNode, e);
-      }
       if (tempFile != null) {
         resource.setFile(tempFile);
         try {
@@ -389,6 +490,9 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
           logger.error("{}: Cannot serialize {}", name, resource, e);
         } catch (IllegalPathException e) {
           logger.error("Illegal path when loading file {}", resource, e);
+        } finally {
+          // the files that are not moved into the storage group are useless now
+          removeTempFiles(tempFile);
         }
       }
       logger.error("{}: Cannot load remote file {} from node {}", name, resource, sourceNode);
@@ -430,10 +534,13 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
      *
      * @param resource the TsFile to be downloaded
      * @param node where to download the file
+     * @param progress where the downloaded bytes are recorded
      * @return the downloaded file or null if the file cannot be downloaded or its MD5 is not right
      * @throws IOException
      */
-    private File pullRemoteFile(RemoteTsFileResource resource, Node node) throws IOException {
+    private File pullRemoteFile(
+        RemoteTsFileResource resource, Node node, SnapshotPullProgress progress)
+        throws IOException {
       logger.info(
           "{}: pulling remote file {} from {}, plan index [{}, {}]",
           name,
@@ -453,37 +560,43 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
               + tempFileName;
       File tempFile = new File(REMOTE_FILE_TEMP_DIR, tempFilePath);
       tempFile.getParentFile().mkdirs();
-      if (pullRemoteFile(resource.getTsFile().getAbsolutePath(), node, tempFile)) {
+      if (pullRemoteFile(resource.getTsFile().getAbsolutePath(), node, tempFile, progress)) {
         // TODO-Cluster#353: implement file examination, may be replaced with other algorithm
         if (resource.isWithModification()) {
           File tempModFile =
               new File(REMOTE_FILE_TEMP_DIR, tempFilePath + ModificationFile.FILE_SUFFIX);
-          pullRemoteFile(resource.getModFile().getFilePath(), node, tempModFile);
+          pullRemoteFile(resource.getModFile().getFilePath(), node, tempModFile, progress);
         }
         return tempFile;
       }
+      // an interrupted pull may leave a partial file
+      removeTempFiles(tempFile);
       return null;
     }
 
     /**
-     * Download the file "remotePath" from "node" and store it to "dest" using up to 64KB chunks. If
-     * the network is bad, this method will retry upto 5 times before returning a failure.
+     * Download the file "remotePath" from "node" and store it to "dest" using chunks of
+     * "pull_file_chunk_size". If the network is bad, this method will retry upto 5 times before
+     * returning a failure.
      *
      * @param remotePath the file to be downloaded
      * @param node where to download the file
      * @param dest where to store the file
+     * @param progress where the downloaded bytes are recorded
      * @return true if the file is successfully downloaded, false otherwise
      * @throws IOException
      */
-    private boolean pullRemoteFile(String remotePath, Node node, File dest) throws IOException {
+    private boolean pullRemoteFile(
+        String remotePath, Node node, File dest, SnapshotPullProgress progress)
+        throws IOException {
       int pullFileRetry = 5;
       for (int i = 0; i < pullFileRetry; i++) {
         try (BufferedOutputStream bufferedOutputStream =
             new BufferedOutputStream(new FileOutputStream(dest))) {
           if (ClusterDescriptor.getInstance().getConfig().isUseAsyncServer()) {
-            downloadFileAsync(node, remotePath, bufferedOutputStream);
+            downloadFileAsync(node, remotePath, bufferedOutputStream, progress);
           } else {
-            downloadFileSync(node, remotePath, bufferedOutputStream);
+            downloadFileSync(node, remotePath, bufferedOutputStream, progress);
           }
 
           if (logger.isInfoEnabled()) {
@@ -519,11 +632,11 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
       return false;
     }
 
-    private void downloadFileAsync(Node node, String remotePath, OutputStream dest)
+    private void downloadFileAsync(
+        Node node, String remotePath, OutputStream dest, SnapshotPullProgress progress)
         throws IOException, TException, InterruptedException {
       long offset = 0;
-      // TODO-Cluster: use elaborate downloading techniques
-      int fetchSize = 64 * 1024;
+      int fetchSize = ClusterDescriptor.getInstance().getConfig().getPullFileChunkSize();
 
       while (true) {
         AsyncDataClient client = (AsyncDataClient) dataGroupMember.getAsyncClient(node);
@@ -536,10 +649,34 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
           break;
         }
         offset += len;
+        onChunkPulled(len, progress);
       }
       dest.flush();
     }
 
+    /** Record the pulled bytes and wait if the pulling throughput exceeds the limit. */
+    private void onChunkPulled(int len, SnapshotPullProgress progress) {
+      progress.onBytesPulled(len);
+      RateLimiter rateLimiter = getPullFileRateLimiter();
+      if (rateLimiter != null) {
+        rateLimiter.acquire(len);
+      }
+    }
+
+    /** @return the shared rate limiter of pulling files, or null if the throughput is unlimited */
+    private static RateLimiter getPullFileRateLimiter() {
+      int throughputMbPerSec =
+          ClusterDescriptor.getInstance().getConfig().getPullFileThroughputMbPerSec();
+      if (throughputMbPerSec <= 0) {
+        return null;
+      }
+      double throughput = throughputMbPerSec * 1024.0 * 1024.0;
+      if (pullFileRateLimiter.getRate() != throughput) {
+        pullFileRateLimiter.setRate(throughput);
+      }
+      return pullFileRateLimiter;
+    }
+
     private int writeBuffer(ByteBuffer buffer, OutputStream dest) throws IOException {
       if (buffer == null || buffer.limit() - buffer.position() == 0) {
         return 0;
@@ -555,7 +692,8 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
       return buffer.limit() - buffer.position();
     }
 
-    private void downloadFileSync(Node node, String remotePath, OutputStream dest)
+    private void downloadFileSync(
+        Node node, String remotePath, OutputStream dest, SnapshotPullProgress progress)
         throws IOException {
       SyncDataClient client = (SyncDataClient) dataGroupMember.getSyncClient(node);
       if (client == null) {
@@ -563,8 +701,7 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
       }
 
       long offset = 0;
-      // TODO-Cluster: use elaborate downloading techniques
-      int fetchSize = 64 * 1024;
+      int fetchSize = ClusterDescriptor.getInstance().getConfig().getPullFileChunkSize();
 
       try {
         while (true) {
@@ -574,6 +711,7 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
             break;
           }
           offset += len;
+          onChunkPulled(len, progress);
         }
       } catch (TException e) {
         client.getInputProtocol().getTransport().close();
@@ -109,6 +109,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -127,6 +128,9 @@ public class CMManager extends MManager {
   // only cache the series who is writing, we need not to cache series who is reading
   // because the read is slow, so pull from remote is little cost comparing to the disk io
   private RemoteMetaCache mRemoteMetaCache;
+  // series that are found not existing when pulling their schemas, so they will not be pulled
+  // again and again before the records expire
+  private NonExistentSeriesCache nonExistentSeriesCache;
   private MetaPuller metaPuller;
   private MetaGroupMember metaGroupMember;
   private Coordinator coordinator;
@@ -136,6 +140,10 @@ public class CMManager extends MManager {
     metaPuller = MetaPuller.getInstance();
     int remoteCacheSize = config.getmRemoteSchemaCacheSize();
     mRemoteMetaCache = new RemoteMetaCache(remoteCacheSize);
+    nonExistentSeriesCache =
+        new NonExistentSeriesCache(
+            remoteCacheSize,
+            ClusterDescriptor.getInstance().getConfig().getNonExistentSeriesCacheTtlMs());
   }
 
   private static class MManagerHolder {
@@ -218,6 +226,9 @@ public class CMManager extends MManager {
     try {
       seriesType = super.getSeriesType(path);
     } catch (PathNotExistException e) {
+      if (nonExistentSeriesCache.contains(path)) {
+        throw e;
+      }
       // pull from remote node
       List<IMeasurementSchema> schemas =
           metaPuller.pullMeasurementSchemas(Collections.singletonList(path));
@@ -239,6 +250,7 @@ public class CMManager extends MManager {
         }
         return measurementMNode.getDataType(path.getMeasurement());
       } else {
+        nonExistentSeriesCache.add(path);
         throw e;
       }
     }
@@ -295,6 +307,9 @@ public class CMManager extends MManager {
       try {
         node = (MeasurementMNode) super.getNodeByPath(fullPath);
       } catch (PathNotExistException e) {
+        if (nonExistentSeriesCache.contains(fullPath)) {
+          throw e;
+        }
         // pull from remote node
         List<IMeasurementSchema> schemas =
             metaPuller.pullMeasurementSchemas(Collections.singletonList(fullPath));
@@ -306,6 +321,7 @@ public class CMManager extends MManager {
           cacheMeta(fullPath, measurementMNode, true);
           node = measurementMNode;
         } else {
+          nonExistentSeriesCache.add(fullPath);
           throw e;
         }
       }
@@ -371,21 +387,57 @@ public class CMManager extends MManager {
     return failedMeasurementIndex;
   }
 
+  /**
+   * Pull the schemas of all measurements of "deviceId" in one request and cache them, so the other
+   * measurements of the device need not to be pulled one by one later. The measurements in
+   * "measurementList" that are not pulled are recorded as non-existent.
+   */
   private void pullSeriesSchemas(PartialPath deviceId, String[] measurementList)
       throws MetadataException {
-    List<PartialPath> schemasToPull = new ArrayList<>();
-    for (String s : measurementList) {
-      schemasToPull.add(deviceId.concatNode(s));
+    boolean allKnownNonExistent = true;
+    for (String measurement : measurementList) {
+      if (!nonExistentSeriesCache.contains(deviceId.concatNode(measurement))) {
+        allKnownNonExistent = false;
+        break;
+      }
+    }
+    if (allKnownNonExistent) {
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            "Schemas of {} in {} are known not existing",
+            Arrays.toString(measurementList),
+            deviceId);
+      }
+      return;
     }
-    List<IMeasurementSchema> schemas = metaPuller.pullMeasurementSchemas(schemasToPull);
+
+    List<IMeasurementSchema> schemas =
+        metaPuller.pullMeasurementSchemas(Collections.singletonList(deviceId), true);
+    Set<String> pulledMeasurements = new HashSet<>();
     for (IMeasurementSchema schema : schemas) {
       // TODO-Cluster: also pull alias?
       // take care, the pulled schema's measurement Id is only series name
       MeasurementMNode measurementMNode =
           new MeasurementMNode(null, schema.getMeasurementId(), schema, null);
+      if (schema instanceof VectorMeasurementSchema) {
+        for (String subSensorId : schema.getValueMeasurementIdList()) {
+          cacheMeta(deviceId.concatNode(subSensorId), measurementMNode, false);
+          pulledMeasurements.add(subSensorId);
+        }
+      }
       cacheMeta(deviceId.concatNode(schema.getMeasurementId()), measurementMNode, true);
+      pulledMeasurements.add(schema.getMeasurementId());
+    }
+    for (String measurement : measurementList) {
+      if (!pulledMeasurements.contains(measurement)) {
+        nonExistentSeriesCache.add(deviceId.concatNode(measurement));
+      }
     }
-    logger.debug("Pulled {}/{} schemas from remote", schemas.size(), measurementList.length);
+    logger.debug(
+        "Pulled {} schemas of {} from remote for {} measurements",
+        schemas.size(),
+        deviceId,
+        measurementList.length);
   }
 
   /*
@@ -400,6 +452,7 @@ public class CMManager extends MManager {
     cacheLock.writeLock().lock();
     mRemoteMetaCache.put(seriesPath, measurementMNode);
     cacheLock.writeLock().unlock();
+    nonExistentSeriesCache.invalidate(seriesPath);
   }
 
   @Override
@@ -517,8 +570,23 @@ public class CMManager extends MManager {
         config.getDefaultStorageGroupLevel());
   }
 
+  public long getRemoteSchemaCacheHitCount() {
+    return mRemoteMetaCache.hitCount.get();
+  }
+
+  public long getRemoteSchemaCacheMissCount() {
+    return mRemoteMetaCache.missCount.get();
+  }
+
+  public long getNonExistentSeriesCacheHitCount() {
+    return nonExistentSeriesCache.hitCount.get();
+  }
+
   private static class RemoteMetaCache extends LRUCache<PartialPath, MeasurementMNode> {
 
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
     RemoteMetaCache(int cacheSize) {
       super(cacheSize);
     }
@@ -535,12 +603,13 @@ public class CMManager extends MManager {
 
     @Override
     public synchronized MeasurementMNode get(PartialPath key) {
-      try {
-        return super.get(key);
-      } catch (IOException e) {
-        // not happening
-        return null;
+      MeasurementMNode measurementMNode = cache.get(key);
+      if (measurementMNode != null) {
+        hitCount.incrementAndGet();
+      } else {
+        missCount.incrementAndGet();
       }
+      return measurementMNode;
     }
 
     public synchronized boolean containsKey(PartialPath key) {
@@ -548,6 +617,58 @@ public class CMManager extends MManager {
     }
   }
 
+  /** Maps each series that is found not existing to the time when the record expires. */
+  private static class NonExistentSeriesCache extends LRUCache<PartialPath, Long> {
+
+    private final long ttlMs;
+    private final AtomicLong hitCount = new AtomicLong();
+
+    NonExistentSeriesCache(int cacheSize, long ttlMs) {
+      super(cacheSize);
+      this.ttlMs = ttlMs;
+    }
+
+    @Override
+    protected Long loadObjectByKey(PartialPath key) {
+      return null;
+    }
+
+    synchronized void add(PartialPath seriesPath) {
+      if (ttlMs > 0) {
+        cache.put(seriesPath, System.currentTimeMillis() + ttlMs);
+      }
+    }
+
+    synchronized boolean contains(PartialPath seriesPath) {
+      Long expireTime = cache.get(seriesPath);
+      if (expireTime == null) {
+        return false;
+      }
+      if (expireTime < System.currentTimeMillis()) {
+        cache.remove(seriesPath);
+        return false;
+      }
+      hitCount.incrementAndGet();
+      return true;
+    }
+
+    synchronized void invalidate(PartialPath seriesPath) {
+      cache.remove(seriesPath);
+    }
+
+    /**
+     * Remove the records of all series under "key". The match is by nodes, so root.sg.d10.s0 is not
+     * under root.sg.d1.
+     */
+    @Override
+    public synchronized void removeItem(PartialPath key) {
+      String prefix = key.getFullPath() + IoTDBConstant.PATH_SEPARATOR;
+      cache
+          .keySet()
+          .removeIf(s -> (s.getFullPath() + IoTDBConstant.PATH_SEPARATOR).startsWith(prefix));
+    }
+  }
+
   /**
    * create storage groups for CreateTimeseriesPlan, CreateMultiTimeseriesPlan and InsertPlan, also
    * create timeseries for InsertPlan. Only the three kind of plans can use this method.
@@ -723,6 +844,8 @@ public class CMManager extends MManager {
 
     List<String> seriesList = new ArrayList<>();
     PartialPath deviceId = insertPlan.getPrefixPath();
+    // the series of the device are going to be created
+    nonExistentSeriesCache.removeItem(deviceId);
     PartialPath storageGroupName;
     try {
       storageGroupName =
@@ -86,6 +86,19 @@ public class MetaPuller {
    */
   List<IMeasurementSchema> pullMeasurementSchemas(List<PartialPath> prefixPaths)
       throws MetadataException {
+    return pullMeasurementSchemas(prefixPaths, false);
+  }
+
+  /**
+   * Pull the timeseries schemas of given prefixPaths from remote nodes. All prefixPaths must
+   * contain the storage group.
+   *
+   * @param directChildrenOnly if true, each prefixPath is regarded as a device and only the
+   *     measurements directly under it are pulled, so their measurement ids are enough to locate
+   *     them; otherwise all series under the prefixPaths are pulled
+   */
+  List<IMeasurementSchema> pullMeasurementSchemas(
+      List<PartialPath> prefixPaths, boolean directChildrenOnly) throws MetadataException {
     logger.debug("{}: Pulling timeseries schemas of {}", metaGroupMember.getName(), prefixPaths);
     // split the paths by the data groups that will hold them
     Map<PartitionGroup, List<PartialPath>> partitionGroupPathMap = new HashMap<>();
@@ -109,7 +122,7 @@ public class MetaPuller {
         partitionGroupPathMap.entrySet()) {
       PartitionGroup partitionGroup = partitionGroupListEntry.getKey();
       List<PartialPath> paths = partitionGroupListEntry.getValue();
-      pullMeasurementSchemas(partitionGroup, paths, schemas);
+      pullMeasurementSchemas(partitionGroup, paths, schemas, directChildrenOnly);
     }
     if (logger.isDebugEnabled()) {
       logger.debug(
@@ -135,6 +148,19 @@ public class MetaPuller {
       PartitionGroup partitionGroup,
       List<PartialPath> prefixPaths,
       List<IMeasurementSchema> results) {
+    pullMeasurementSchemas(partitionGroup, prefixPaths, results, false);
+  }
+
+  /**
+   * Pull timeseries schemas of "prefixPaths" from "partitionGroup" and store them in "results".
+   * If "directChildrenOnly" is true, only the measurements directly under each prefix path are
+   * pulled.
+   */
+  public void pullMeasurementSchemas(
+      PartitionGroup partitionGroup,
+      List<PartialPath> prefixPaths,
+      List<IMeasurementSchema> results,
+      boolean directChildrenOnly) {
     if (partitionGroup.contains(metaGroupMember.getThisNode())) {
       // the node is in the target group, synchronize with leader should be enough
       try {
@@ -146,7 +172,11 @@ public class MetaPuller {
       }
       int preSize = results.size();
       for (PartialPath prefixPath : prefixPaths) {
-        IoTDB.metaManager.collectSeries(prefixPath, results);
+        if (directChildrenOnly) {
+          IoTDB.metaManager.collectDeviceSeries(prefixPath, results);
+        } else {
+          IoTDB.metaManager.collectSeries(prefixPath, results);
+        }
       }
       if (logger.isDebugEnabled()) {
         logger.debug(
@@ -164,6 +194,7 @@ public class MetaPuller {
     pullSchemaRequest.setHeader(partitionGroup.getHeader());
     pullSchemaRequest.setPrefixPaths(
         prefixPaths.stream().map(PartialPath::getFullPath).collect(Collectors.toList()));
+    pullSchemaRequest.setDirectChildrenOnly(directChildrenOnly);
 
     for (Node node : partitionGroup) {
       if (pullMeasurementSchemas(node, pullSchemaRequest, results)) {
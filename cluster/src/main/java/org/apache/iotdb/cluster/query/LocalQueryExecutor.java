@@ -42,6 +42,7 @@ import org.apache.iotdb.cluster.rpc.thrift.SingleSeriesQueryRequest;
 import org.apache.iotdb.cluster.server.member.DataGroupMember;
 import org.apache.iotdb.cluster.utils.ClusterQueryUtils;
 import org.apache.iotdb.cluster.utils.ClusterUtils;
+import org.apache.iotdb.cluster.utils.PayloadCompressionUtils;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
@@ -127,7 +128,8 @@ public class LocalQueryExecutor {
       DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
 
       SerializeUtils.serializeObjects(values, dataOutputStream);
-      return ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
+      return PayloadCompressionUtils.compress(
+          ByteBuffer.wrap(byteArrayOutputStream.toByteArray()), null);
     } else {
       return ByteBuffer.allocate(0);
     }
@@ -156,7 +158,8 @@ public class LocalQueryExecutor {
           dataGroupMember.getName(),
           readerId,
           batchData.length());
-      return ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
+      return PayloadCompressionUtils.compress(
+          ByteBuffer.wrap(byteArrayOutputStream.toByteArray()), null);
     } else {
       return ByteBuffer.allocate(0);
     }
@@ -192,7 +195,9 @@ public class LocalQueryExecutor {
             dataGroupMember.getName(),
             readerId,
             batchData.length());
-        byteBuffer = ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
+        byteBuffer =
+            PayloadCompressionUtils.compress(
+                ByteBuffer.wrap(byteArrayOutputStream.toByteArray()), null);
       } else {
         byteBuffer = ByteBuffer.allocate(0);
       }
@@ -452,7 +457,7 @@ public class LocalQueryExecutor {
     List<String> prefixPaths = request.getPrefixPaths();
     List<IMeasurementSchema> measurementSchemas = new ArrayList<>();
 
-    collectSeries(prefixPaths, measurementSchemas);
+    collectSeries(prefixPaths, measurementSchemas, request.isDirectChildrenOnly());
     if (logger.isDebugEnabled()) {
       logger.debug(
           "{}: Collected {} schemas for {} and other {} paths",
@@ -478,7 +483,10 @@ public class LocalQueryExecutor {
     return resp;
   }
 
-  private void collectSeries(List<String> prefixPaths, List<IMeasurementSchema> measurementSchemas)
+  private void collectSeries(
+      List<String> prefixPaths,
+      List<IMeasurementSchema> measurementSchemas,
+      boolean directChildrenOnly)
       throws MetadataException {
     // Due to add/remove node, some slots may in the state of PULLING, which will not contains the
     // corresponding schemas.
@@ -500,6 +508,8 @@ public class LocalQueryExecutor {
         prePartitionGroupPathMap
             .computeIfAbsent(slotPreviousHolderMap.get(slot), s -> new ArrayList<>())
             .add(new PartialPath(prefixPath));
+      } else if (directChildrenOnly) {
+        getCMManager().collectDeviceSeries(new PartialPath(prefixPath), measurementSchemas);
       } else {
         getCMManager().collectSeries(new PartialPath(prefixPath), measurementSchemas);
       }
@@ -512,7 +522,8 @@ public class LocalQueryExecutor {
         prePartitionGroupPathMap.entrySet()) {
       PartitionGroup partitionGroup = partitionGroupListEntry.getKey();
       List<PartialPath> paths = partitionGroupListEntry.getValue();
-      MetaPuller.getInstance().pullMeasurementSchemas(partitionGroup, paths, measurementSchemas);
+      MetaPuller.getInstance()
+          .pullMeasurementSchemas(partitionGroup, paths, measurementSchemas, directChildrenOnly);
     }
   }
 
@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.query.last;
+
+import org.apache.iotdb.cluster.config.ClusterDescriptor;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ClusterLastCache remembers the last points of series computed by ClusterLastQueryExecutor, so
+ * that a repeated LAST query can be answered by the coordinator without asking every data group.
+ *
+ * <p>An entry is kept fresh by the inserts that this node applies as a replica (through
+ * DataLogApplier) and is dropped by deletions that this node applies or coordinates. Inserts into
+ * data groups that this node does not belong to cannot be observed, so an entry also expires after
+ * "cluster_last_cache_ttl_ms", which bounds how stale a cached last point may be. The cache is
+ * disabled when the ttl is 0.
+ *
+ * <p>A LAST query that started before a deletion may finish after the deletion invalidated the
+ * cache, and its result may contain deleted points. So each invalidation starts a new epoch, and a
+ * result is cached only if no invalidation happened since the query read the epoch. The epoch is
+ * global rather than per series, as a series that is not cached has no entry to keep its epoch.
+ */
+public class ClusterLastCache {
+
+  private static final ClusterLastCache INSTANCE = new ClusterLastCache();
+
+  /** device -> (measurement -> cached last point), the least recently used devices are evicted */
+  private final Map<String, Map<String, CachedLast>> deviceCaches =
+      new LinkedHashMap<String, Map<String, CachedLast>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Entry<String, Map<String, CachedLast>> eldest) {
+          return size()
+              > ClusterDescriptor.getInstance().getConfig().getClusterLastCacheDeviceNum();
+        }
+      };
+
+  /** increased by every invalidation */
+  private long epoch = 0;
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  private ClusterLastCache() {}
+
+  public static ClusterLastCache getINSTANCE() {
+    return INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return getTtlMs() > 0;
+  }
+
+  private long getTtlMs() {
+    return ClusterDescriptor.getInstance().getConfig().getClusterLastCacheTtlMs();
+  }
+
+  /** @return the cached last point of "seriesPath", or null if it is not cached or expired */
+  public synchronized TimeValuePair get(PartialPath seriesPath) {
+    Map<String, CachedLast> measurementCaches = deviceCaches.get(seriesPath.getDevice());
+    CachedLast cachedLast =
+        measurementCaches == null ? null : measurementCaches.get(seriesPath.getMeasurement());
+    if (cachedLast == null || System.currentTimeMillis() - cachedLast.cacheTime > getTtlMs()) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return cachedLast.timeValuePair;
+  }
+
+  /** @return the current epoch, which should be read before a LAST query starts */
+  public synchronized long getEpoch() {
+    return epoch;
+  }
+
+  /**
+   * Cache the last point of "seriesPath" computed from all data groups.
+   *
+   * @param queryEpoch the epoch read before the query started, the point is not cached if the
+   *     cache has been invalidated since then
+   */
+  public synchronized void put(
+      PartialPath seriesPath, TimeValuePair timeValuePair, long queryEpoch) {
+    if (!isEnabled()
+        || queryEpoch != epoch
+        || timeValuePair == null
+        || timeValuePair.getValue() == null) {
+      return;
+    }
+    Map<String, CachedLast> measurementCaches =
+        deviceCaches.computeIfAbsent(seriesPath.getDevice(), d -> new HashMap<>());
+    CachedLast cachedLast = measurementCaches.get(seriesPath.getMeasurement());
+    if (cachedLast != null
+        && cachedLast.timeValuePair.getTimestamp() > timeValuePair.getTimestamp()) {
+      // a newer point has been applied during the query
+      return;
+    }
+    measurementCaches.put(seriesPath.getMeasurement(), new CachedLast(timeValuePair));
+  }
+
+  /**
+   * Advance the cached last points of the series in an applied insertion. Only the series that are
+   * already cached are updated, as a single insertion cannot tell the last point of a series.
+   */
+  public synchronized void onInsert(InsertPlan plan) {
+    if (!isEnabled()) {
+      return;
+    }
+    Map<String, CachedLast> measurementCaches =
+        deviceCaches.get(plan.getPrefixPath().getFullPath());
+    if (measurementCaches == null) {
+      return;
+    }
+    if (plan.isAligned()) {
+      // the columns of a vector do not map to the measurements one by one
+      deviceCaches.remove(plan.getPrefixPath().getFullPath());
+      return;
+    }
+    if (plan instanceof InsertRowPlan) {
+      onInsertRow((InsertRowPlan) plan, measurementCaches);
+    } else if (plan instanceof InsertTabletPlan) {
+      onInsertTablet((InsertTabletPlan) plan, measurementCaches);
+    }
+  }
+
+  private void onInsertRow(InsertRowPlan plan, Map<String, CachedLast> measurementCaches) {
+    String[] measurements = plan.getMeasurements();
+    Object[] values = plan.getValues();
+    TSDataType[] dataTypes = plan.getDataTypes();
+    for (int i = 0; i < measurements.length; i++) {
+      // failed measurements are set to null
+      if (measurements[i] == null || values[i] == null || dataTypes[i] == null) {
+        continue;
+      }
+      advance(
+          measurementCaches,
+          measurements[i],
+          new TimeValuePair(plan.getTime(), TsPrimitiveType.getByType(dataTypes[i], values[i])));
+    }
+  }
+
+  private void onInsertTablet(InsertTabletPlan plan, Map<String, CachedLast> measurementCaches) {
+    long[] times = plan.getTimes();
+    int rowCount = plan.getRowCount();
+    if (rowCount == 0) {
+      return;
+    }
+    String[] measurements = plan.getMeasurements();
+    BitMap[] bitMaps = plan.getBitMaps();
+    boolean lastRowIsLatest = true;
+    for (int i = 0; i < rowCount - 1; i++) {
+      if (times[i] > times[rowCount - 1]) {
+        lastRowIsLatest = false;
+        break;
+      }
+    }
+
+    for (int i = 0; i < measurements.length; i++) {
+      if (measurements[i] == null || !measurementCaches.containsKey(measurements[i])) {
+        continue;
+      }
+      if (!lastRowIsLatest
+          || plan.getColumns()[i] == null
+          || (bitMaps != null && bitMaps[i] != null && bitMaps[i].isMarked(rowCount - 1))) {
+        // the latest point of this column is unknown without scanning it
+        measurementCaches.remove(measurements[i]);
+        continue;
+      }
+      advance(measurementCaches, measurements[i], plan.composeLastTimeValuePair(i));
+    }
+  }
+
+  private void advance(
+      Map<String, CachedLast> measurementCaches, String measurement, TimeValuePair newPair) {
+    CachedLast cachedLast = measurementCaches.get(measurement);
+    if (cachedLast != null
+        && newPair != null
+        && newPair.getTimestamp() >= cachedLast.timeValuePair.getTimestamp()) {
+      // the ttl is not renewed, as other data groups may have received newer points
+      measurementCaches.put(measurement, new CachedLast(newPair, cachedLast.cacheTime));
+    }
+  }
+
+  /** Drop the cached last points of the series that match any of "paths". */
+  public synchronized void invalidate(List<PartialPath> paths) {
+    epoch++;
+    for (PartialPath path : paths) {
+      if (path.getFullPath().contains("*")) {
+        // too costly to match a pattern, as deletions with patterns are rare
+        deviceCaches.clear();
+        return;
+      }
+      // the path may be a device, a storage group or a series
+      String prefix = path.getFullPath() + ".";
+      deviceCaches.keySet().removeIf(device -> (device + ".").startsWith(prefix));
+      Map<String, CachedLast> measurementCaches = deviceCaches.get(path.getDevice());
+      if (measurementCaches != null) {
+        measurementCaches.remove(path.getMeasurement());
+      }
+    }
+  }
+
+  public synchronized void clear() {
+    epoch++;
+    deviceCaches.clear();
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  private static class CachedLast {
+
+    private final TimeValuePair timeValuePair;
+    private final long cacheTime;
+
+    CachedLast(TimeValuePair timeValuePair) {
+      this(timeValuePair, System.currentTimeMillis());
+    }
+
+    CachedLast(TimeValuePair timeValuePair, long cacheTime) {
+      this.timeValuePair = timeValuePair;
+      this.cacheTime = cacheTime;
+    }
+  }
+}
@@ -91,54 +91,90 @@ public class ClusterLastQueryExecutor extends LastQueryExecutor {
       IExpression expression,
       RawDataQueryPlan lastQueryPlan)
       throws IOException, QueryProcessException {
+    List<Pair<Boolean, TimeValuePair>> results = new ArrayList<>(seriesPaths.size());
+    for (int i = 0; i < seriesPaths.size(); i++) {
+      results.add(new Pair<>(true, new TimeValuePair(Long.MIN_VALUE, null)));
+    }
+
+    // the cached last points cannot be used when there is a value filter or a time filter, as
+    // the last point that satisfies the filter may be an earlier one
+    ClusterLastCache lastCache = ClusterLastCache.getINSTANCE();
+    boolean useCache = expression == null && lastCache.isEnabled();
+    // read before the cache is looked up, so that a deletion after that discards the results
+    long cacheEpoch = lastCache.getEpoch();
+    List<Integer> nonCachedIndices = new ArrayList<>();
+    List<PartialPath> nonCachedPaths = new ArrayList<>();
+    List<TSDataType> nonCachedDataTypes = new ArrayList<>();
+    for (int i = 0; i < seriesPaths.size(); i++) {
+      TimeValuePair cachedLast = useCache ? lastCache.get(seriesPaths.get(i)) : null;
+      if (cachedLast != null) {
+        results.get(i).right = cachedLast;
+      } else {
+        nonCachedIndices.add(i);
+        nonCachedPaths.add(seriesPaths.get(i));
+        nonCachedDataTypes.add(dataTypes.get(i));
+      }
+    }
+    if (nonCachedPaths.isEmpty()) {
+      return results;
+    }
+
     // calculate the global last from all data groups
     try {
       metaGroupMember.syncLeaderWithConsistencyCheck(false);
     } catch (CheckConsistencyException e) {
       throw new IOException(e);
     }
-    List<Pair<Boolean, TimeValuePair>> results = new ArrayList<>(seriesPaths.size());
-    for (int i = 0; i < seriesPaths.size(); i++) {
-      results.add(new Pair<>(true, new TimeValuePair(Long.MIN_VALUE, null)));
-    }
 
     List<PartitionGroup> globalGroups = metaGroupMember.getPartitionTable().getGlobalGroups();
     List<Future<List<Pair<Boolean, TimeValuePair>>>> groupFutures =
         new ArrayList<>(globalGroups.size());
-    List<Integer> dataTypeOrdinals = new ArrayList<>(dataTypes.size());
-    for (TSDataType dataType : dataTypes) {
+    List<Integer> dataTypeOrdinals = new ArrayList<>(nonCachedDataTypes.size());
+    for (TSDataType dataType : nonCachedDataTypes) {
       dataTypeOrdinals.add(dataType.ordinal());
     }
     for (PartitionGroup globalGroup : globalGroups) {
       GroupLastTask task =
           new GroupLastTask(
               globalGroup,
-              seriesPaths,
-              dataTypes,
+              nonCachedPaths,
+              nonCachedDataTypes,
               context,
               expression,
               lastQueryPlan,
               dataTypeOrdinals);
       groupFutures.add(lastQueryPool.submit(task));
     }
+    // a group that cannot be reached returns no result, and the merged results must not be cached
+    boolean allGroupsAnswered = true;
     for (Future<List<Pair<Boolean, TimeValuePair>>> groupFuture : groupFutures) {
       try {
         // merge results from each group
         List<Pair<Boolean, TimeValuePair>> timeValuePairs = groupFuture.get();
+        allGroupsAnswered &= timeValuePairs.size() == nonCachedPaths.size();
         for (int i = 0; i < timeValuePairs.size(); i++) {
+          Pair<Boolean, TimeValuePair> result = results.get(nonCachedIndices.get(i));
           if (timeValuePairs.get(i) != null
               && timeValuePairs.get(i).right != null
-              && timeValuePairs.get(i).right.getTimestamp() > results.get(i).right.getTimestamp()) {
-            results.get(i).right = timeValuePairs.get(i).right;
+              && timeValuePairs.get(i).right.getTimestamp() > result.right.getTimestamp()) {
+            result.right = timeValuePairs.get(i).right;
           }
         }
       } catch (InterruptedException e) {
         Thread.currentThread().interrupt();
         logger.warn("Query last of {} interrupted", seriesPaths);
+        return results;
       } catch (ExecutionException e) {
         throw new QueryProcessException(e, TSStatusCode.QUERY_PROCESS_ERROR.getStatusCode());
       }
     }
+
+    if (useCache && allGroupsAnswered) {
+      for (int i = 0; i < nonCachedPaths.size(); i++) {
+        lastCache.put(
+            nonCachedPaths.get(i), results.get(nonCachedIndices.get(i)).right, cacheEpoch);
+      }
+    }
     return results;
   }
 
@@ -24,6 +24,7 @@ import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.cluster.server.RaftServer;
 import org.apache.iotdb.cluster.server.handlers.caller.GenericHandler;
 import org.apache.iotdb.cluster.utils.ClientUtils;
+import org.apache.iotdb.cluster.utils.PayloadCompressionUtils;
 import org.apache.iotdb.db.query.reader.series.IReaderByTimestamp;
 import org.apache.iotdb.db.utils.SerializeUtils;
 
@@ -63,6 +64,7 @@ public class RemoteSeriesReaderByTimestamp implements IReaderByTimestamp {
       result = fetchResultSync(timestamps, length);
     }
 
+    result = PayloadCompressionUtils.decompress(result, sourceInfo.getCurrentNode());
     return SerializeUtils.deserializeObjects(result);
   }
 
@@ -24,6 +24,7 @@ import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.cluster.server.RaftServer;
 import org.apache.iotdb.cluster.server.handlers.caller.GenericHandler;
 import org.apache.iotdb.cluster.utils.ClientUtils;
+import org.apache.iotdb.cluster.utils.PayloadCompressionUtils;
 import org.apache.iotdb.db.utils.SerializeUtils;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.BatchData;
@@ -110,6 +111,7 @@ public class RemoteSimpleSeriesReader implements IPointReader {
       result = fetchResultSync();
     }
 
+    result = PayloadCompressionUtils.decompress(result, sourceInfo.getCurrentNode());
     cachedBatch = SerializeUtils.deserializeBatchData(result);
     if (logger.isDebugEnabled()) {
       logger.debug(
@@ -23,6 +23,7 @@ import org.apache.iotdb.cluster.client.sync.SyncDataClient;
 import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.cluster.server.RaftServer;
 import org.apache.iotdb.cluster.server.handlers.caller.GenericHandler;
+import org.apache.iotdb.cluster.utils.PayloadCompressionUtils;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.utils.SerializeUtils;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -146,7 +147,9 @@ public class RemoteMultSeriesReader extends AbstractMultPointReader {
 
     for (String path : result.keySet()) {
 
-      BatchData batchData = SerializeUtils.deserializeBatchData(result.get(path));
+      BatchData batchData =
+          SerializeUtils.deserializeBatchData(
+              PayloadCompressionUtils.decompress(result.get(path), sourceInfo.getCurrentNode()));
       if (logger.isDebugEnabled()) {
         logger.debug(
             "Fetched a batch from {}, size:{}",
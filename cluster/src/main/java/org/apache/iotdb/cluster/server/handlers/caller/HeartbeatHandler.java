@@ -138,6 +138,8 @@ public class HeartbeatHandler implements AsyncMethodCallback<HeartBeatResponse>
       peer.resetInconsistentHeartbeatNum();
     }
     peer.setLastHeartBeatIndex(lastLogIdx);
+    // followers of older versions leave it unset and receive plain entries
+    peer.setCompressedEntriesSupported(resp.isCompressedEntriesSupported());
   }
 
   @Override
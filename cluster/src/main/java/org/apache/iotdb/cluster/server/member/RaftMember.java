@@ -60,6 +60,7 @@ import org.apache.iotdb.cluster.server.monitor.Timer;
 import org.apache.iotdb.cluster.server.monitor.Timer.Statistic;
 import org.apache.iotdb.cluster.utils.ClientUtils;
 import org.apache.iotdb.cluster.utils.IOUtils;
+import org.apache.iotdb.cluster.utils.PayloadCompressionUtils;
 import org.apache.iotdb.cluster.utils.PlanSerializer;
 import org.apache.iotdb.cluster.utils.StatusUtils;
 import org.apache.iotdb.db.exception.BatchProcessException;
@@ -426,6 +427,8 @@ public abstract class RaftMember {
         // tell the leader the local log progress so it may decide whether to perform a catch up
         response.setLastLogIndex(logManager.getLastLogIndex());
         response.setLastLogTerm(logManager.getLastLogTerm());
+        // tell the leader that it may send compressed entries
+        response.setCompressedEntriesSupported(true);
 
         if (logger.isDebugEnabled()) {
           logger.debug(
@@ -555,7 +558,8 @@ public abstract class RaftMember {
   }
 
   /** Similar to appendEntry, while the incoming load is batch of logs instead of a single log. */
-  public long appendEntries(AppendEntriesRequest request) throws UnknownLogTypeException {
+  public long appendEntries(AppendEntriesRequest request)
+      throws UnknownLogTypeException, IOException {
     logger.debug("{} received an AppendEntriesRequest", name);
 
     // the term checked here is that of the leader, not that of the log
@@ -564,6 +568,12 @@ public abstract class RaftMember {
       return checkResult;
     }
 
+    if (request.isSetCompressedEntries()) {
+      request.setEntries(
+          PayloadCompressionUtils.decompressEntries(
+              request.compressedEntries, request.getLeader()));
+    }
+
     long response;
     List<Log> logs = new ArrayList<>();
     int logByteSize = 0;
@@ -1423,8 +1433,8 @@ public abstract class RaftMember {
   /**
    * Get an asynchronous thrift client of the given node.
    *
-   * @return an asynchronous thrift client or null if the caller tries to connect the local node or
-   *     the node cannot be reached.
+   * @return an asynchronous thrift client or null if the caller tries to connect the local node,
+   *     the node cannot be reached, or too many requests to the node are in flight.
    */
   public AsyncClient getAsyncClient(Node node) {
     return getAsyncClient(node, asyncClientPool, true);
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.server.monitor;
+
+import org.apache.iotdb.cluster.rpc.thrift.Node;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PayloadCompressionStatistic records how many bytes of logs and query results exchanged with each
+ * peer are before and after compression, so the benefit of compression can be observed per peer.
+ */
+public class PayloadCompressionStatistic {
+
+  private static final Map<Node, PayloadCompressionStatistic> peerStatistics =
+      new ConcurrentHashMap<>();
+
+  private final AtomicLong rawBytes = new AtomicLong();
+  private final AtomicLong wireBytes = new AtomicLong();
+
+  private PayloadCompressionStatistic() {}
+
+  /**
+   * Record that a payload of "rawSize" bytes is sent to or received from "peer" in "wireSize"
+   * bytes.
+   */
+  public static void record(Node peer, long rawSize, long wireSize) {
+    if (peer == null) {
+      return;
+    }
+    PayloadCompressionStatistic statistic =
+        peerStatistics.computeIfAbsent(peer, p -> new PayloadCompressionStatistic());
+    statistic.rawBytes.addAndGet(rawSize);
+    statistic.wireBytes.addAndGet(wireSize);
+  }
+
+  /** @return key: peer, value: the raw size divided by the size on the wire */
+  public static Map<Node, Double> getCompressionRatios() {
+    Map<Node, Double> ratios = new HashMap<>();
+    for (Entry<Node, PayloadCompressionStatistic> entry : peerStatistics.entrySet()) {
+      long wire = entry.getValue().wireBytes.get();
+      ratios.put(entry.getKey(), wire == 0 ? 1.0 : (double) entry.getValue().rawBytes.get() / wire);
+    }
+    return ratios;
+  }
+
+  public static void resetAll() {
+    peerStatistics.clear();
+  }
+}
@@ -28,6 +28,8 @@ public class Peer {
   private AtomicInteger inconsistentHeartbeatNum = new AtomicInteger();
   // lastLogIndex from the last heartbeat
   private long lastHeartBeatIndex;
+  // whether the last heartbeat says the peer can read compressed entries
+  private volatile boolean compressedEntriesSupported;
 
   public Peer(long nextIndex) {
     this.nextIndex = nextIndex;
@@ -67,4 +69,12 @@ public class Peer {
   public void setLastHeartBeatIndex(long lastHeartBeatIndex) {
     this.lastHeartBeatIndex = lastHeartBeatIndex;
   }
+
+  public boolean isCompressedEntriesSupported() {
+    return compressedEntriesSupported;
+  }
+
+  public void setCompressedEntriesSupported(boolean compressedEntriesSupported) {
+    this.compressedEntriesSupported = compressedEntriesSupported;
+  }
 }
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.server.monitor;
+
+import org.apache.thrift.async.TAsyncMethodCall;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * RpcLatencyHistogram records the latencies of one internal RPC method in buckets whose upper
+ * bounds grow exponentially (1us, 2us, 4us, ...), so that the percentiles of the latencies can be
+ * estimated with a fixed and small memory footprint. The histograms of all methods are kept in a
+ * static map and can be reported through ClusterMonitor.
+ */
+public class RpcLatencyHistogram {
+
+  private static final int BUCKET_NUM = 32;
+  private static final String CALL_SUFFIX = "_call";
+
+  private static final Map<String, RpcLatencyHistogram> methodHistograms =
+      new ConcurrentHashMap<>();
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_NUM);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong errorCount = new AtomicLong();
+  private final AtomicLong sumNanos = new AtomicLong();
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  /**
+   * Record the latency of a finished asynchronous call.
+   *
+   * @param call the finished call, whose class name indicates the method, e.g., "readFile_call"
+   * @param latencyNanos from when the call was issued to when it finished
+   * @param succeeded false if the call ended with an error or a timeout
+   */
+  public static void record(TAsyncMethodCall<?> call, long latencyNanos, boolean succeeded) {
+    if (call == null) {
+      return;
+    }
+    String methodName = call.getClass().getSimpleName();
+    if (methodName.endsWith(CALL_SUFFIX)) {
+      methodName = methodName.substring(0, methodName.length() - CALL_SUFFIX.length());
+    }
+    methodHistograms
+        .computeIfAbsent(methodName, m -> new RpcLatencyHistogram())
+        .add(latencyNanos, succeeded);
+  }
+
+  /**
+   * @return a multi-line string, each line contains the name, the number of calls and errors, the
+   *     average, 50th, 99th percentile and max latency (in ms) of one method
+   */
+  public static String getReport() {
+    StringBuilder report = new StringBuilder();
+    report.append(
+        String.format(
+            "%-30s %10s %8s %10s %10s %10s %10s%n",
+            "Method", "Count", "Errors", "Avg(ms)", "P50(ms)", "P99(ms)", "Max(ms)"));
+    for (Entry<String, RpcLatencyHistogram> entry : new TreeMap<>(methodHistograms).entrySet()) {
+      RpcLatencyHistogram histogram = entry.getValue();
+      long cnt = histogram.count.get();
+      report.append(
+          String.format(
+              "%-30s %10d %8d %10.3f %10.3f %10.3f %10.3f%n",
+              entry.getKey(),
+              cnt,
+              histogram.errorCount.get(),
+              cnt == 0 ? 0.0 : histogram.sumNanos.get() / 1_000_000.0 / cnt,
+              histogram.getPercentileMicros(0.5) / 1000.0,
+              histogram.getPercentileMicros(0.99) / 1000.0,
+              histogram.maxNanos.get() / 1_000_000.0));
+    }
+    return report.toString();
+  }
+
+  public static void resetAll() {
+    methodHistograms.clear();
+  }
+
+  void add(long latencyNanos, boolean succeeded) {
+    long latencyMicros = Math.max(latencyNanos / 1000, 0);
+    // the i-th bucket holds latencies in [2^(i-1), 2^i) us
+    int index = Math.min(64 - Long.numberOfLeadingZeros(latencyMicros), BUCKET_NUM - 1);
+    buckets.incrementAndGet(index);
+    count.incrementAndGet();
+    sumNanos.addAndGet(latencyNanos);
+    maxNanos.accumulateAndGet(latencyNanos, Math::max);
+    if (!succeeded) {
+      errorCount.incrementAndGet();
+    }
+  }
+
+  /** @return the upper bound (in us) of the bucket where the given percentile falls */
+  long getPercentileMicros(double percentile) {
+    long total = count.get();
+    if (total == 0) {
+      return 0;
+    }
+    long threshold = (long) Math.ceil(total * percentile);
+    long accumulated = 0;
+    for (int i = 0; i < BUCKET_NUM; i++) {
+      accumulated += buckets.get(i);
+      if (accumulated >= threshold) {
+        return 1L << i;
+      }
+    }
+    return 1L << (BUCKET_NUM - 1);
+  }
+
+  long getCount() {
+    return count.get();
+  }
+
+  long getErrorCount() {
+    return errorCount.get();
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.server.monitor;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SnapshotPullProgress records how many files and bytes of a slot have been pulled while a
+ * FileSnapshot of the slot is being installed, so that nodetool can show the progress of a data
+ * migration or a catch-up.
+ */
+public class SnapshotPullProgress implements Serializable {
+
+  private static final long serialVersionUID = -1792846519384250313L;
+
+  /** slot -> progress, only the slots that are being installed are recorded. */
+  private static final Map<Integer, SnapshotPullProgress> slotProgressMap =
+      new ConcurrentHashMap<>();
+
+  private final int slot;
+  private final int totalFileNum;
+  private final long startTime;
+  private final AtomicInteger loadedFileNum = new AtomicInteger();
+  private final AtomicLong pulledBytes = new AtomicLong();
+
+  private SnapshotPullProgress(int slot, int totalFileNum) {
+    this.slot = slot;
+    this.totalFileNum = totalFileNum;
+    this.startTime = System.currentTimeMillis();
+  }
+
+  /** Start tracking the installation of a snapshot with "totalFileNum" files into "slot". */
+  public static SnapshotPullProgress start(int slot, int totalFileNum) {
+    SnapshotPullProgress progress = new SnapshotPullProgress(slot, totalFileNum);
+    slotProgressMap.put(slot, progress);
+    return progress;
+  }
+
+  public static void finish(int slot) {
+    slotProgressMap.remove(slot);
+  }
+
+  /** @return a snapshot of the progresses of all slots that are being installed, sorted by slot */
+  public static Map<Integer, SnapshotPullProgress> getAll() {
+    return new TreeMap<>(slotProgressMap);
+  }
+
+  public void onBytesPulled(long bytes) {
+    pulledBytes.addAndGet(bytes);
+  }
+
+  /** A file is either loaded after it is pulled or skipped because it exists locally. */
+  public void onFileLoaded() {
+    loadedFileNum.incrementAndGet();
+  }
+
+  public int getSlot() {
+    return slot;
+  }
+
+  public int getTotalFileNum() {
+    return totalFileNum;
+  }
+
+  public int getLoadedFileNum() {
+    return loadedFileNum.get();
+  }
+
+  public long getPulledBytes() {
+    return pulledBytes.get();
+  }
+
+  public long getStartTime() {
+    return startTime;
+  }
+
+  @Override
+  public String toString() {
+    return "SnapshotPullProgress{"
+        + "slot="
+        + slot
+        + ", files="
+        + loadedFileNum
+        + "/"
+        + totalFileNum
+        + ", pulledBytes="
+        + pulledBytes
+        + '}';
+  }
+}
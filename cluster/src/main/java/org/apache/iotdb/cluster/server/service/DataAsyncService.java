@@ -107,6 +107,10 @@ public class DataAsyncService extends BaseAsyncService implements TSDataService.
           dataGroupMember.getLeader());
       AsyncDataClient client =
           (AsyncDataClient) dataGroupMember.getAsyncClient(dataGroupMember.getLeader());
+      if (client == null) {
+        resultHandler.onError(new LeaderUnknownException(dataGroupMember.getAllNodes()));
+        return;
+      }
       try {
         client.pullSnapshot(request, resultHandler);
       } catch (TException e) {
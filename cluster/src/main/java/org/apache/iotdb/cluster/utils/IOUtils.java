@@ -22,13 +22,12 @@ package org.apache.iotdb.cluster.utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 
 @SuppressWarnings("java:S1135")
 public class IOUtils {
@@ -52,14 +51,19 @@ public class IOUtils {
 
     ByteBuffer result;
     boolean fileExhausted;
-    try (BufferedInputStream bufferedInputStream =
-        new BufferedInputStream(new FileInputStream(file))) {
-      skipExactly(bufferedInputStream, offset);
-      byte[] bytes = new byte[length];
-      result = ByteBuffer.wrap(bytes);
-      int len = bufferedInputStream.read(bytes);
-      result.limit(Math.max(len, 0));
-      fileExhausted = bufferedInputStream.available() <= 0;
+    // read the requested range with a positional read, so the preceding bytes are neither skipped
+    // through a stream nor copied, and no more than the remaining bytes are allocated
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      int readLength = (int) Math.max(0, Math.min(length, fileSize - offset));
+      result = ByteBuffer.allocate(readLength);
+      while (result.hasRemaining()) {
+        if (channel.read(result, offset + result.position()) < 0) {
+          break;
+        }
+      }
+      result.flip();
+      fileExhausted = offset + result.limit() >= fileSize;
     }
 
     if (fileExhausted) {
@@ -72,12 +76,6 @@ public class IOUtils {
     return result;
   }
 
-  private static void skipExactly(InputStream stream, long byteToSkip) throws IOException {
-    while (byteToSkip > 0) {
-      byteToSkip -= stream.skip(byteToSkip);
-    }
-  }
-
   public static Throwable getRootCause(Throwable e) {
     Throwable curr = e;
     while (curr.getCause() != null) {
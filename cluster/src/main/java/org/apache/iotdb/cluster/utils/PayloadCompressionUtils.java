@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.utils;
+
+import org.apache.iotdb.cluster.config.ClusterConfig;
+import org.apache.iotdb.cluster.config.ClusterDescriptor;
+import org.apache.iotdb.cluster.rpc.thrift.Node;
+import org.apache.iotdb.cluster.server.monitor.PayloadCompressionStatistic;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PayloadCompressionUtils compresses the large payloads (logs and query results) exchanged between
+ * nodes using the compression configured by "rpc_payload_compression_type". A compressed payload
+ * is [COMPRESSED_MARKER, compression type, raw size, compressed bytes]. The payloads that may be
+ * compressed always start with a non-negative size when they are not compressed, so a receiver can
+ * tell the two kinds apart without knowing the configuration of the sender.
+ */
+public class PayloadCompressionUtils {
+
+  private static final Logger logger = LoggerFactory.getLogger(PayloadCompressionUtils.class);
+
+  private static final int COMPRESSED_MARKER = -1;
+  private static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES + Integer.BYTES;
+
+  private PayloadCompressionUtils() {
+    // util class
+  }
+
+  /**
+   * Compress "payload" if compression is enabled, the payload is not smaller than the threshold
+   * and it actually becomes smaller after compression.
+   *
+   * @param peer the node the payload is sent to, null if unknown
+   * @return the compressed payload, or "payload" itself if it is not compressed
+   */
+  public static ByteBuffer compress(ByteBuffer payload, Node peer) {
+    ClusterConfig config = ClusterDescriptor.getInstance().getConfig();
+    CompressionType compressionType = config.getRpcPayloadCompressionType();
+    int rawSize = payload.remaining();
+    if (compressionType == CompressionType.UNCOMPRESSED
+        || rawSize < config.getRpcPayloadCompressionThreshold()) {
+      return payload;
+    }
+
+    byte[] compressed;
+    try {
+      byte[] raw = new byte[rawSize];
+      payload.duplicate().get(raw);
+      compressed = ICompressor.getCompressor(compressionType).compress(raw);
+    } catch (IOException e) {
+      logger.warn("Cannot compress a payload of {} bytes with {}", rawSize, compressionType, e);
+      return payload;
+    }
+
+    int wireSize = HEADER_SIZE + compressed.length;
+    if (wireSize >= rawSize) {
+      PayloadCompressionStatistic.record(peer, rawSize, rawSize);
+      return payload;
+    }
+    PayloadCompressionStatistic.record(peer, rawSize, wireSize);
+    ByteBuffer result = ByteBuffer.allocate(wireSize);
+    result.putInt(COMPRESSED_MARKER);
+    result.put(compressionType.serialize());
+    result.putInt(rawSize);
+    result.put(compressed);
+    result.flip();
+    return result;
+  }
+
+  /**
+   * Decompress "payload" if it is compressed by compress().
+   *
+   * @param peer the node the payload is received from, null if unknown
+   * @return the decompressed payload, or "payload" itself if it is not compressed
+   */
+  public static ByteBuffer decompress(ByteBuffer payload, Node peer) throws IOException {
+    if (payload == null
+        || payload.remaining() < HEADER_SIZE
+        || payload.getInt(payload.position()) != COMPRESSED_MARKER) {
+      return payload;
+    }
+
+    int wireSize = payload.remaining();
+    ByteBuffer buffer = payload.duplicate();
+    buffer.getInt();
+    CompressionType compressionType = CompressionType.deserialize(buffer.get());
+    int rawSize = buffer.getInt();
+    byte[] compressed = new byte[buffer.remaining()];
+    buffer.get(compressed);
+    byte[] raw = new byte[rawSize];
+    IUnCompressor.getUnCompressor(compressionType)
+        .uncompress(compressed, 0, compressed.length, raw, 0);
+    PayloadCompressionStatistic.record(peer, rawSize, wireSize);
+    return ByteBuffer.wrap(raw);
+  }
+
+  /**
+   * Concatenate and compress the serialized logs in an AppendEntriesRequest, so that similar logs
+   * can be compressed together.
+   *
+   * @return the compressed logs, or null if they are not worth compressing
+   */
+  public static ByteBuffer compressEntries(List<ByteBuffer> entries, Node peer) {
+    if (ClusterDescriptor.getInstance().getConfig().getRpcPayloadCompressionType()
+        == CompressionType.UNCOMPRESSED) {
+      return null;
+    }
+    int size = Integer.BYTES;
+    for (ByteBuffer entry : entries) {
+      size += Integer.BYTES + entry.remaining();
+    }
+    ByteBuffer concatenated = ByteBuffer.allocate(size);
+    concatenated.putInt(entries.size());
+    for (ByteBuffer entry : entries) {
+      concatenated.putInt(entry.remaining());
+      concatenated.put(entry.duplicate());
+    }
+    concatenated.flip();
+
+    ByteBuffer compressed = compress(concatenated, peer);
+    return compressed == concatenated ? null : compressed;
+  }
+
+  /** Restore the serialized logs compressed by compressEntries(). */
+  public static List<ByteBuffer> decompressEntries(ByteBuffer compressedEntries, Node peer)
+      throws IOException {
+    ByteBuffer buffer = decompress(compressedEntries, peer);
+    int entryNum = buffer.getInt();
+    List<ByteBuffer> entries = new ArrayList<>(entryNum);
+    for (int i = 0; i < entryNum; i++) {
+      byte[] entry = new byte[buffer.getInt()];
+      buffer.get(entry);
+      entries.add(ByteBuffer.wrap(entry));
+    }
+    return entries;
+  }
+}
@@ -21,15 +21,20 @@ package org.apache.iotdb.cluster.utils.nodetool;
 import org.apache.iotdb.cluster.ClusterMain;
 import org.apache.iotdb.cluster.config.ClusterConstant;
 import org.apache.iotdb.cluster.config.ClusterDescriptor;
+import org.apache.iotdb.cluster.metadata.CMManager;
 import org.apache.iotdb.cluster.partition.PartitionGroup;
 import org.apache.iotdb.cluster.partition.PartitionTable;
 import org.apache.iotdb.cluster.partition.slot.SlotPartitionTable;
+import org.apache.iotdb.cluster.query.last.ClusterLastCache;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.rpc.thrift.RaftNode;
 import org.apache.iotdb.cluster.server.MetaClusterServer;
 import org.apache.iotdb.cluster.server.NodeCharacter;
 import org.apache.iotdb.cluster.server.member.DataGroupMember;
 import org.apache.iotdb.cluster.server.member.MetaGroupMember;
+import org.apache.iotdb.cluster.server.monitor.PayloadCompressionStatistic;
+import org.apache.iotdb.cluster.server.monitor.RpcLatencyHistogram;
+import org.apache.iotdb.cluster.server.monitor.SnapshotPullProgress;
 import org.apache.iotdb.cluster.server.monitor.Timer;
 import org.apache.iotdb.cluster.utils.nodetool.function.NodeToolCmd;
 import org.apache.iotdb.db.conf.IoTDBConstant;
@@ -142,6 +147,11 @@ public class ClusterMonitor implements ClusterMonitorMBean, IService {
     return member.collectAllPartitionMigrationStatus();
   }
 
+  @Override
+  public Map<Integer, SnapshotPullProgress> getSnapshotPullProgress() {
+    return SnapshotPullProgress.getAll();
+  }
+
   @Override
   public MultiKeyMap<Long, PartitionGroup> getDataPartition(
       String path, long startTime, long endTime) {
@@ -200,6 +210,40 @@ public class ClusterMonitor implements ClusterMonitorMBean, IService {
     return metaGroupMember.getAllNodeStatus();
   }
 
+  @Override
+  public double getRemoteSchemaCacheHitRatio() {
+    long hitCount = CMManager.getInstance().getRemoteSchemaCacheHitCount();
+    long requestCount = hitCount + CMManager.getInstance().getRemoteSchemaCacheMissCount();
+    return requestCount == 0 ? 0.0 : (double) hitCount / requestCount;
+  }
+
+  @Override
+  public long getRemoteSchemaCacheMissCount() {
+    return CMManager.getInstance().getRemoteSchemaCacheMissCount();
+  }
+
+  @Override
+  public long getNonExistentSeriesCacheHitCount() {
+    return CMManager.getInstance().getNonExistentSeriesCacheHitCount();
+  }
+
+  @Override
+  public double getClusterLastCacheHitRatio() {
+    long hitCount = ClusterLastCache.getINSTANCE().getHitCount();
+    long requestCount = hitCount + ClusterLastCache.getINSTANCE().getMissCount();
+    return requestCount == 0 ? 0.0 : (double) hitCount / requestCount;
+  }
+
+  @Override
+  public String getRpcLatencyReport() {
+    return RpcLatencyHistogram.getReport();
+  }
+
+  @Override
+  public Map<Node, Double> getRpcPayloadCompressionRatio() {
+    return PayloadCompressionStatistic.getCompressionRatios();
+  }
+
   private MetaGroupMember getMetaGroupMember() {
     MetaClusterServer metaClusterServer = ClusterMain.getMetaServer();
     if (metaClusterServer == null) {
@@ -238,5 +282,6 @@ public class ClusterMonitor implements ClusterMonitorMBean, IService {
   @Override
   public void resetInstrumenting() {
     Timer.Statistic.resetAll();
+    RpcLatencyHistogram.resetAll();
   }
 }
@@ -21,6 +21,7 @@ package org.apache.iotdb.cluster.utils.nodetool;
 import org.apache.iotdb.cluster.partition.PartitionGroup;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.server.NodeCharacter;
+import org.apache.iotdb.cluster.server.monitor.SnapshotPullProgress;
 import org.apache.iotdb.tsfile.utils.Pair;
 
 import org.apache.commons.collections4.map.MultiKeyMap;
@@ -44,6 +45,13 @@ public interface ClusterMonitorMBean {
    */
   Map<PartitionGroup, Integer> getSlotNumInDataMigration() throws Exception;
 
+  /**
+   * Get the progress of the snapshot installations of this node.
+   *
+   * @return key: slot, value: how many files and bytes of the slot have been pulled
+   */
+  Map<Integer, SnapshotPullProgress> getSnapshotPullProgress();
+
   /**
    * Get data partition information of input path and time range.
    *
@@ -74,12 +82,36 @@ public interface ClusterMonitorMBean {
    */
   Map<Node, Integer> getAllNodeStatus();
 
+  /** @return the hit ratio of the remote schema cache in CMManager, from 0.0 to 1.0 */
+  double getRemoteSchemaCacheHitRatio();
+
+  /** @return how many times a lookup misses the remote schema cache in CMManager */
+  long getRemoteSchemaCacheMissCount();
+
+  /** @return how many schema pulls are avoided because the series are known not existing */
+  long getNonExistentSeriesCacheHitCount();
+
+  /** @return the ratio of series in LAST queries answered by the coordinator's cache, 0.0 to 1.0 */
+  double getClusterLastCacheHitRatio();
+
+  /**
+   * @return A multi-line string with each line representing the invocation number, error number
+   *     and the average, 50th, 99th percentile and max latency of an internal RPC method.
+   */
+  String getRpcLatencyReport();
+
+  /**
+   * @return key: a peer, value: the raw size divided by the size on the wire of the logs and query
+   *     results exchanged with the peer that go through compression
+   */
+  Map<Node, Double> getRpcPayloadCompressionRatio();
+
   /**
    * @return A multi-line string with each line representing the total time consumption, invocation
    *     number, and average time consumption.
    */
   String getInstrumentingInfo();
 
-  /** Reset all instrumenting statistics in Timer. */
+  /** Reset all instrumenting statistics in Timer and the RPC latency histograms. */
   void resetInstrumenting();
 }
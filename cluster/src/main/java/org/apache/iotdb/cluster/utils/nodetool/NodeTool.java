@@ -22,6 +22,7 @@ import org.apache.iotdb.cluster.utils.nodetool.function.Header;
 import org.apache.iotdb.cluster.utils.nodetool.function.LogView;
 import org.apache.iotdb.cluster.utils.nodetool.function.Migration;
 import org.apache.iotdb.cluster.utils.nodetool.function.Partition;
+import org.apache.iotdb.cluster.utils.nodetool.function.Pulling;
 import org.apache.iotdb.cluster.utils.nodetool.function.Ring;
 import org.apache.iotdb.cluster.utils.nodetool.function.Slot;
 import org.apache.iotdb.cluster.utils.nodetool.function.Status;
@@ -44,6 +45,7 @@ public class NodeTool {
             Status.class,
             LogView.class,
             Migration.class,
+            Pulling.class,
             Header.class);
 
     int status = CommonUtils.runCli(commands, args, "nodetool", "Manage your IoTDB cluster");
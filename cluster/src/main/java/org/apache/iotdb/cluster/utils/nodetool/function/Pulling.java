@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.iotdb.cluster.utils.nodetool.function;
+
+import org.apache.iotdb.cluster.server.monitor.SnapshotPullProgress;
+import org.apache.iotdb.cluster.utils.nodetool.ClusterMonitorMBean;
+
+import io.airlift.airline.Command;
+
+import java.util.Map;
+
+import static org.apache.iotdb.cluster.utils.nodetool.Printer.msgPrintln;
+
+@Command(
+    name = "pulling",
+    description = "Print the progress of pulling snapshot files of each slot on the node.")
+public class Pulling extends NodeToolCmd {
+
+  @Override
+  public void execute(ClusterMonitorMBean proxy) {
+    Map<Integer, SnapshotPullProgress> slotProgressMap = proxy.getSnapshotPullProgress();
+    if (slotProgressMap == null || slotProgressMap.isEmpty()) {
+      msgPrintln("No slots are pulling snapshot files.");
+      return;
+    }
+    msgPrintln(String.format("%-10s  %15s  %20s  %15s", "Slot", "Files", "Pulled MB", "Elapsed s"));
+    long now = System.currentTimeMillis();
+    for (SnapshotPullProgress progress : slotProgressMap.values()) {
+      msgPrintln(
+          String.format(
+              "%-10d  %15s  %20.2f  %15d",
+              progress.getSlot(),
+              progress.getLoadedFileNum() + "/" + progress.getTotalFileNum(),
+              progress.getPulledBytes() / 1024.0 / 1024.0,
+              (now - progress.getStartTime()) / 1000));
+    }
+  }
+}
@@ -194,6 +194,36 @@ public class AsyncClientPoolTest {
     }
   }
 
+  @Test
+  public void testMaxInflight() throws IOException {
+    int maxClientPerNodePerMember = config.getMaxClientPerNodePerMember();
+    int maxInflightRequestPerNodePerMember = config.getMaxInflightRequestPerNodePerMember();
+    long waitClientTimeoutMS = config.getWaitClientTimeoutMS();
+    try {
+      config.setMaxClientPerNodePerMember(1);
+      config.setMaxInflightRequestPerNodePerMember(2);
+      config.setWaitClientTimeoutMS(10L);
+      testAsyncClientFactory = new TestAsyncClientFactory();
+      AsyncClientPool asyncClientPool = new AsyncClientPool(testAsyncClientFactory);
+
+      Node node = TestUtils.getNode(0);
+      AsyncClient client1 = asyncClientPool.getClient(node);
+      // an extra client is created after waiting
+      AsyncClient client2 = asyncClientPool.getClient(node);
+      assertNotNull(client2);
+      // but no more when the node has reached the in-flight limit
+      assertNull(asyncClientPool.getClient(node));
+
+      // a request can be issued again once an in-flight one finishes
+      asyncClientPool.putClient(node, client1);
+      assertNotNull(asyncClientPool.getClient(node));
+    } finally {
+      config.setMaxClientPerNodePerMember(maxClientPerNodePerMember);
+      config.setMaxInflightRequestPerNodePerMember(maxInflightRequestPerNodePerMember);
+      config.setWaitClientTimeoutMS(waitClientTimeoutMS);
+    }
+  }
+
   @Test
   public void testRecreateClient() throws IOException {
     testAsyncClientFactory = new TestAsyncClientFactory();
@@ -7,6 +7,7 @@ package org.apache.iotdb.cluster.client.sync;
 import org.apache.iotdb.cluster.common.TestSyncClient;
 import org.apache.iotdb.cluster.common.TestSyncClientFactory;
 import org.apache.iotdb.cluster.common.TestUtils;
+import org.apache.iotdb.cluster.config.ClusterConfig;
 import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.rpc.thrift.RaftService.Client;
@@ -143,6 +144,36 @@ public class SyncClientPoolTest {
     }
   }
 
+  @Test
+  public void testMaxInflight() {
+    ClusterConfig config = ClusterDescriptor.getInstance().getConfig();
+    int maxClientPerNodePerMember = config.getMaxClientPerNodePerMember();
+    int maxInflightRequestPerNodePerMember = config.getMaxInflightRequestPerNodePerMember();
+    long waitClientTimeoutMS = config.getWaitClientTimeoutMS();
+    try {
+      config.setMaxClientPerNodePerMember(1);
+      config.setMaxInflightRequestPerNodePerMember(2);
+      config.setWaitClientTimeoutMS(10L);
+      SyncClientPool syncClientPool = new SyncClientPool(testSyncClientFactory);
+
+      Node node = TestUtils.getNode(0);
+      Client client1 = syncClientPool.getClient(node);
+      // an extra client is created after waiting
+      Client client2 = syncClientPool.getClient(node);
+      assertNotNull(client2);
+      // but no more when the node has reached the in-flight limit
+      assertNull(syncClientPool.getClient(node));
+
+      // a request can be issued again once an in-flight one finishes
+      syncClientPool.putClient(node, client1);
+      assertNotNull(syncClientPool.getClient(node));
+    } finally {
+      config.setMaxClientPerNodePerMember(maxClientPerNodePerMember);
+      config.setMaxInflightRequestPerNodePerMember(maxInflightRequestPerNodePerMember);
+      config.setWaitClientTimeoutMS(waitClientTimeoutMS);
+    }
+  }
+
   @Test
   public void testWaitClientTimeOut() {
     int maxClientPerNodePerMember =
@@ -23,6 +23,7 @@ import org.apache.iotdb.cluster.common.TestAsyncClient;
 import org.apache.iotdb.cluster.common.TestMetaGroupMember;
 import org.apache.iotdb.cluster.common.TestSyncClient;
 import org.apache.iotdb.cluster.common.TestUtils;
+import org.apache.iotdb.cluster.config.ClusterConfig;
 import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.cluster.exception.UnknownLogTypeException;
 import org.apache.iotdb.cluster.log.LogDispatcher.SendLogRequest;
@@ -35,9 +36,11 @@ import org.apache.iotdb.cluster.rpc.thrift.RaftService.Client;
 import org.apache.iotdb.cluster.server.NodeCharacter;
 import org.apache.iotdb.cluster.server.Response;
 import org.apache.iotdb.cluster.server.member.RaftMember;
+import org.apache.iotdb.cluster.utils.PayloadCompressionUtils;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import org.apache.thrift.TException;
 import org.apache.thrift.async.AsyncMethodCallback;
@@ -45,25 +48,31 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertTrue;
+
 public class LogDispatcherTest {
 
   private RaftMember raftMember;
   private Map<Log, AtomicInteger> appendedEntries;
   private Set<Node> downNode;
+  private Set<Node> compressedReceivers;
 
   @Before
   public void setUp() {
     appendedEntries = new ConcurrentSkipListMap<>();
     downNode = new HashSet<>();
+    compressedReceivers = ConcurrentHashMap.newKeySet();
     raftMember =
         new TestMetaGroupMember() {
           @Override
@@ -93,7 +102,7 @@ public class LogDispatcherTest {
                           if (!downNode.contains(node)) {
                             try {
                               resultHandler.onComplete(mockedAppendEntries(request));
-                            } catch (UnknownLogTypeException e) {
+                            } catch (UnknownLogTypeException | IOException e) {
                               resultHandler.onError(e);
                             }
                           }
@@ -121,11 +130,14 @@ public class LogDispatcherTest {
               @Override
               public long appendEntries(AppendEntriesRequest request) throws TException {
                 try {
+                  if (request.isSetCompressedEntries()) {
+                    compressedReceivers.add(node);
+                  }
                   if (!downNode.contains(node)) {
                     return mockedAppendEntries(request);
                   }
                   return -1;
-                } catch (UnknownLogTypeException e) {
+                } catch (UnknownLogTypeException | IOException e) {
                   throw new TException(e);
                 }
               }
@@ -147,8 +159,12 @@ public class LogDispatcherTest {
     return Response.RESPONSE_AGREE;
   }
 
-  private long mockedAppendEntries(AppendEntriesRequest request) throws UnknownLogTypeException {
-    List<ByteBuffer> entries = request.getEntries();
+  private long mockedAppendEntries(AppendEntriesRequest request)
+      throws UnknownLogTypeException, IOException {
+    List<ByteBuffer> entries =
+        request.isSetCompressedEntries()
+            ? PayloadCompressionUtils.decompressEntries(request.compressedEntries, null)
+            : request.getEntries();
     List<Log> logs = new ArrayList<>();
     for (ByteBuffer entry : entries) {
       LogParser logParser = LogParser.getINSTANCE();
@@ -244,6 +260,39 @@ public class LogDispatcherTest {
     }
   }
 
+  @Test
+  public void testCompressOnlyForSupportingPeers() throws InterruptedException {
+    ClusterConfig config = ClusterDescriptor.getInstance().getConfig();
+    boolean useAsyncServer = config.isUseAsyncServer();
+    CompressionType compressionType = config.getRpcPayloadCompressionType();
+    int compressionThreshold = config.getRpcPayloadCompressionThreshold();
+    config.setUseAsyncServer(false);
+    config.setRpcPayloadCompressionType(CompressionType.GZIP);
+    config.setRpcPayloadCompressionThreshold(0);
+    Set<Node> supportingNodes = new HashSet<>();
+    for (int i = 1; i < 5; i++) {
+      supportingNodes.add(TestUtils.getNode(i));
+      raftMember.getPeerMap().get(TestUtils.getNode(i)).setCompressedEntriesSupported(true);
+    }
+    LogDispatcher dispatcher = new LogDispatcher(raftMember);
+    try {
+      List<Log> logs = TestUtils.prepareLargeTestLogs(20);
+      for (Log log : logs) {
+        SendLogRequest request = raftMember.buildSendLogRequest(log);
+        dispatcher.offer(request);
+      }
+      while (!checkResult(logs, 9)) {
+        // wait
+      }
+      assertTrue(supportingNodes.containsAll(compressedReceivers));
+    } finally {
+      dispatcher.close();
+      config.setUseAsyncServer(useAsyncServer);
+      config.setRpcPayloadCompressionType(compressionType);
+      config.setRpcPayloadCompressionThreshold(compressionThreshold);
+    }
+  }
+
   @SuppressWarnings("java:S2925")
   public boolean checkResult(List<Log> logs, int requestedSuccess) throws InterruptedException {
     for (Log log : logs) {
@@ -42,10 +42,13 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -132,6 +135,26 @@ public class FileSnapshotTest extends DataSnapshotTest {
     }
   }
 
+  @Test
+  public void testRemoveTempFilesAfterLoadFailure()
+      throws IOException, SnapshotInstallationException, WriteProcessException {
+    FileSnapshot snapshot = new FileSnapshot();
+    // the storage group of the files is not set, so the pulled files cannot be loaded
+    List<TsFileResource> tsFileResources = TestUtils.prepareTsFileResources(10, 3, 10, 10, true);
+    for (TsFileResource tsFileResource : tsFileResources) {
+      snapshot.addFile(tsFileResource, TestUtils.getNode(0));
+    }
+
+    SnapshotInstaller<FileSnapshot> defaultInstaller =
+        snapshot.getDefaultInstaller(dataGroupMember);
+    defaultInstaller.install(snapshot, 0, false);
+
+    File remoteDir = new File(FileSnapshot.Installer.REMOTE_FILE_TEMP_DIR);
+    try (Stream<Path> paths = Files.walk(remoteDir.toPath())) {
+      assertEquals(0, paths.filter(Files::isRegularFile).count());
+    }
+  }
+
   @Test
   public void testInstallSync()
       throws IOException, SnapshotInstallationException, IllegalPathException,
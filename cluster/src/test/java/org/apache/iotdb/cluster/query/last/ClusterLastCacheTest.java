@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.query.last;
+
+import org.apache.iotdb.cluster.config.ClusterConfig;
+import org.apache.iotdb.cluster.config.ClusterDescriptor;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ClusterLastCacheTest {
+
+  private ClusterConfig config = ClusterDescriptor.getInstance().getConfig();
+  private long prevTtl;
+  private ClusterLastCache lastCache = ClusterLastCache.getINSTANCE();
+
+  @Before
+  public void setUp() {
+    prevTtl = config.getClusterLastCacheTtlMs();
+    config.setClusterLastCacheTtlMs(60_000L);
+    lastCache.clear();
+  }
+
+  @After
+  public void tearDown() {
+    lastCache.clear();
+    config.setClusterLastCacheTtlMs(prevTtl);
+  }
+
+  @Test
+  public void testUpdateOnInsert() throws IllegalPathException {
+    PartialPath s0 = new PartialPath("root.sg.d0.s0");
+    PartialPath s1 = new PartialPath("root.sg.d0.s1");
+    lastCache.put(s0, new TimeValuePair(10, new TsPrimitiveType.TsInt(1)), lastCache.getEpoch());
+
+    InsertRowPlan plan =
+        new InsertRowPlan(
+            new PartialPath("root.sg.d0"),
+            20,
+            new String[] {"s0", "s1"},
+            new TSDataType[] {TSDataType.INT32, TSDataType.INT32},
+            new String[] {"2", "3"});
+    lastCache.onInsert(plan);
+    assertEquals(new TimeValuePair(20, new TsPrimitiveType.TsInt(2)), lastCache.get(s0));
+    // an insertion cannot tell the last point of a series that is not cached
+    assertNull(lastCache.get(s1));
+
+    // an older point does not replace the cached one
+    plan.setTime(5);
+    lastCache.onInsert(plan);
+    assertEquals(20, lastCache.get(s0).getTimestamp());
+  }
+
+  @Test
+  public void testInvalidate() throws IllegalPathException {
+    PartialPath s0 = new PartialPath("root.sg.d0.s0");
+    PartialPath s1 = new PartialPath("root.sg.d1.s0");
+    lastCache.put(s0, new TimeValuePair(10, new TsPrimitiveType.TsInt(1)), lastCache.getEpoch());
+    lastCache.put(s1, new TimeValuePair(10, new TsPrimitiveType.TsInt(1)), lastCache.getEpoch());
+
+    lastCache.invalidate(Collections.singletonList(new PartialPath("root.sg.d0")));
+    assertNull(lastCache.get(s0));
+    assertEquals(10, lastCache.get(s1).getTimestamp());
+
+    lastCache.invalidate(Collections.singletonList(new PartialPath("root.sg.*.s0")));
+    assertNull(lastCache.get(s1));
+  }
+
+  @Test
+  public void testStalePut() throws IllegalPathException {
+    PartialPath s0 = new PartialPath("root.sg.d0.s0");
+    // a query starts before a deletion and finishes after it
+    long queryEpoch = lastCache.getEpoch();
+    lastCache.invalidate(Collections.singletonList(new PartialPath("root.sg.d0")));
+    lastCache.put(s0, new TimeValuePair(10, new TsPrimitiveType.TsInt(1)), queryEpoch);
+    assertNull(lastCache.get(s0));
+
+    lastCache.put(s0, new TimeValuePair(10, new TsPrimitiveType.TsInt(1)), lastCache.getEpoch());
+    assertEquals(10, lastCache.get(s0).getTimestamp());
+  }
+
+  @Test
+  public void testExpire() throws IllegalPathException, InterruptedException {
+    PartialPath s0 = new PartialPath("root.sg.d0.s0");
+    config.setClusterLastCacheTtlMs(1);
+    lastCache.put(s0, new TimeValuePair(10, new TsPrimitiveType.TsInt(1)), lastCache.getEpoch());
+    Thread.sleep(10);
+    assertNull(lastCache.get(s0));
+  }
+}
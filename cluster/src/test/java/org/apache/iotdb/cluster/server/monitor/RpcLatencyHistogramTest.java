@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.server.monitor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RpcLatencyHistogramTest {
+
+  @Test
+  public void testPercentile() {
+    RpcLatencyHistogram histogram = new RpcLatencyHistogram();
+    // 99 calls of 100us and 1 failed call of 10ms
+    for (int i = 0; i < 99; i++) {
+      histogram.add(100_000L, true);
+    }
+    histogram.add(10_000_000L, false);
+
+    assertEquals(100, histogram.getCount());
+    assertEquals(1, histogram.getErrorCount());
+    // 100us falls into [64us, 128us)
+    assertEquals(128, histogram.getPercentileMicros(0.5));
+    assertEquals(128, histogram.getPercentileMicros(0.99));
+    // 10ms falls into [8192us, 16384us)
+    assertEquals(16384, histogram.getPercentileMicros(1.0));
+  }
+
+  @Test
+  public void testEmpty() {
+    RpcLatencyHistogram histogram = new RpcLatencyHistogram();
+    assertEquals(0, histogram.getPercentileMicros(0.99));
+    assertTrue(RpcLatencyHistogram.getReport().startsWith("Method"));
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.utils;
+
+import org.apache.iotdb.cluster.common.TestUtils;
+import org.apache.iotdb.cluster.config.ClusterConfig;
+import org.apache.iotdb.cluster.config.ClusterDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PayloadCompressionUtilsTest {
+
+  private ClusterConfig config = ClusterDescriptor.getInstance().getConfig();
+  private CompressionType prevCompressionType;
+  private int prevThreshold;
+
+  @Before
+  public void setUp() {
+    prevCompressionType = config.getRpcPayloadCompressionType();
+    prevThreshold = config.getRpcPayloadCompressionThreshold();
+    config.setRpcPayloadCompressionType(CompressionType.LZ4);
+    config.setRpcPayloadCompressionThreshold(100);
+  }
+
+  @After
+  public void tearDown() {
+    config.setRpcPayloadCompressionType(prevCompressionType);
+    config.setRpcPayloadCompressionThreshold(prevThreshold);
+  }
+
+  @Test
+  public void testCompressPayload() throws IOException {
+    ByteBuffer payload = ByteBuffer.allocate(4096);
+    for (int i = 0; i < 1024; i++) {
+      payload.putInt(i % 16);
+    }
+    payload.flip();
+
+    ByteBuffer compressed = PayloadCompressionUtils.compress(payload, TestUtils.getNode(0));
+    assertTrue(compressed.remaining() < payload.remaining());
+    assertEquals(payload, PayloadCompressionUtils.decompress(compressed, TestUtils.getNode(0)));
+  }
+
+  @Test
+  public void testBelowThreshold() throws IOException {
+    ByteBuffer payload = ByteBuffer.allocate(64);
+    payload.putInt(1);
+    payload.rewind();
+
+    assertSame(payload, PayloadCompressionUtils.compress(payload, null));
+    assertSame(payload, PayloadCompressionUtils.decompress(payload, null));
+  }
+
+  @Test
+  public void testCompressEntries() throws IOException {
+    List<ByteBuffer> entries = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      ByteBuffer entry = ByteBuffer.allocate(100);
+      entry.putLong(i);
+      entry.rewind();
+      entries.add(entry);
+    }
+
+    ByteBuffer compressed = PayloadCompressionUtils.compressEntries(entries, null);
+    assertNotNull(compressed);
+    assertEquals(entries, PayloadCompressionUtils.decompressEntries(compressed, null));
+
+    config.setRpcPayloadCompressionType(CompressionType.UNCOMPRESSED);
+    assertNull(PayloadCompressionUtils.compressEntries(entries, null));
+  }
+}
@@ -53,6 +53,8 @@ public class BasicDaoImpl implements BasicDao {
 
   private static long timestampRadioX = -1L;
 
+  private static final String M4_FUNCTION = "M4";
+
   @Value("${timestamp_precision}")
   private String timestampPrecision = "ms";
 
@@ -165,6 +167,13 @@ public class BasicDaoImpl implements BasicDao {
     }
 
     logger.info(sql);
+    if (M4_FUNCTION.equalsIgnoreCase(function) && !intervalLocal.equals("")) {
+      List<TimeValues> timeValues = new ArrayList<>();
+      for (List<TimeValues> points : jdbcTemplate.query(sql, new M4RowMapper(columnName))) {
+        timeValues.addAll(points);
+      }
+      return timeValues;
+    }
     return jdbcTemplate.query(sql, new TimeValuesRowMapper(columnName));
   }
 
@@ -209,4 +218,45 @@ public class BasicDaoImpl implements BasicDao {
       return tv;
     }
   }
+
+  /**
+   * Expand the result of M4 ("firstTime,firstValue,lastTime,lastValue,minValue,maxValue") of one
+   * time interval into the points to be drawn. The minimal and maximal values are placed between
+   * the first and the last point, as their timestamps are not returned.
+   */
+  static class M4RowMapper implements RowMapper<List<TimeValues>> {
+
+    String columnName;
+
+    M4RowMapper(String columnName) {
+      this.columnName = columnName;
+    }
+
+    @Override
+    public List<TimeValues> mapRow(ResultSet resultSet, int i) throws SQLException {
+      String valueString = resultSet.getString(columnName);
+      if (valueString == null) {
+        return Collections.emptyList();
+      }
+      String[] fields = valueString.split(",");
+      long firstTime = Long.parseLong(fields[0]) / timestampRadioX;
+      long lastTime = Long.parseLong(fields[2]) / timestampRadioX;
+      long middleTime = firstTime + (lastTime - firstTime) / 2;
+      List<TimeValues> points = new ArrayList<>(4);
+      points.add(createTimeValues(firstTime, fields[1]));
+      if (lastTime != firstTime) {
+        points.add(createTimeValues(middleTime, fields[4]));
+        points.add(createTimeValues(middleTime, fields[5]));
+        points.add(createTimeValues(lastTime, fields[3]));
+      }
+      return points;
+    }
+
+    private TimeValues createTimeValues(long time, String value) {
+      TimeValues tv = new TimeValues();
+      tv.setTime(time);
+      tv.setValue(Float.parseFloat(value));
+      return tv;
+    }
+  }
 }
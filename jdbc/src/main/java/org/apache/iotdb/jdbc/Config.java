@@ -53,4 +53,7 @@ public class Config {
 
   /** key of thrift max frame size */
   public static final String THRIFT_FRAME_MAX_SIZE = "thrift_max_frame_size";
+
+  /** key of whether PreparedStatements are prepared on the server */
+  public static final String PREPARE_ON_SERVER = "prepare_on_server";
 }
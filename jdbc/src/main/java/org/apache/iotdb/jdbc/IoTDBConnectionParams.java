@@ -31,6 +31,7 @@ public class IoTDBConnectionParams {
 
   private int thriftDefaultBufferSize = RpcUtils.THRIFT_DEFAULT_BUF_CAPACITY;
   private int thriftMaxFrameSize = RpcUtils.THRIFT_FRAME_MAX_SIZE;
+  private boolean prepareOnServer = false;
 
   public IoTDBConnectionParams(String url) {
     this.jdbcUriString = url;
@@ -99,4 +100,12 @@ public class IoTDBConnectionParams {
   public void setThriftMaxFrameSize(int thriftMaxFrameSize) {
     this.thriftMaxFrameSize = thriftMaxFrameSize;
   }
+
+  public boolean isPrepareOnServer() {
+    return prepareOnServer;
+  }
+
+  public void setPrepareOnServer(boolean prepareOnServer) {
+    this.prepareOnServer = prepareOnServer;
+  }
 }
@@ -18,8 +18,17 @@
  */
 package org.apache.iotdb.jdbc;
 
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.service.rpc.thrift.TSClosePreparedStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSIService.Iface;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareStatementResp;
+import org.apache.iotdb.service.rpc.thrift.TSStatus;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 
+import org.apache.thrift.TApplicationException;
+import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,15 +62,46 @@ public class IoTDBPreparedStatement extends IoTDBStatement implements PreparedSt
   private String sql;
   private static final String METHOD_NOT_SUPPORTED_STRING = "Method not supported";
   private static final Logger logger = LoggerFactory.getLogger(IoTDBPreparedStatement.class);
+  /** the type of a parameter whose literal is parsed by the server */
+  private static final int UNTYPED_PARAMETER = -1;
 
   /** save the SQL parameters as (paramLoc,paramValue) pairs. */
   private final Map<Integer, String> parameters = new LinkedHashMap<>();
+  /**
+   * the TSDataType ordinals of the parameters set by typed setters, so that the server binds them
+   * as values of their types instead of parsing their literals
+   */
+  private final Map<Integer, Integer> parameterTypes = new HashMap<>();
+
+  /**
+   * whether the statement is prepared on the server, so that the server parses it only once and
+   * the client only sends the parameters in each execution.
+   */
+  private boolean prepareOnServer;
+  /** the id of the statement on the server, -1 if the statement has not been prepared */
+  private long preparedStatementId = -1;
+  /** a reconnection opens a new session, where the statement must be prepared again */
+  private long preparedSessionId = -1;
+
+  private int parameterCount;
 
   IoTDBPreparedStatement(
       IoTDBConnection connection, Iface client, Long sessionId, String sql, ZoneId zoneId)
       throws SQLException {
+    this(connection, client, sessionId, sql, zoneId, false);
+  }
+
+  IoTDBPreparedStatement(
+      IoTDBConnection connection,
+      Iface client,
+      Long sessionId,
+      String sql,
+      ZoneId zoneId,
+      boolean prepareOnServer)
+      throws SQLException {
     super(connection, client, sessionId, zoneId);
     this.sql = sql;
+    this.prepareOnServer = prepareOnServer;
   }
 
   @Override
@@ -72,23 +112,115 @@ public class IoTDBPreparedStatement extends IoTDBStatement implements PreparedSt
   @Override
   public void clearParameters() {
     this.parameters.clear();
+    this.parameterTypes.clear();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    if (preparedStatementId != -1 && preparedSessionId == getSessionId()) {
+      try {
+        TSStatus closeResp =
+            client.closePreparedStatement(
+                new TSClosePreparedStatementReq(preparedSessionId, preparedStatementId));
+        RpcUtils.verifySuccess(closeResp);
+      } catch (Exception e) {
+        throw new SQLException("Error occurs when closing prepared statement.", e);
+      } finally {
+        preparedStatementId = -1;
+      }
+    }
+    super.close();
   }
 
   @Override
   public boolean execute() throws SQLException {
+    if (prepareOnServer && prepare()) {
+      return executePrepared();
+    }
     return super.execute(createCompleteSql(sql, parameters));
   }
 
   @Override
   public ResultSet executeQuery() throws SQLException {
+    if (prepareOnServer && prepare()) {
+      if (!executePrepared()) {
+        throw new SQLException(String.format("%s is not a query", sql));
+      }
+      return getResultSet();
+    }
     return super.executeQuery(createCompleteSql(sql, parameters));
   }
 
   @Override
   public int executeUpdate() throws SQLException {
+    if (prepareOnServer && prepare()) {
+      executePrepared();
+      return getLastUpdateCount();
+    }
     return super.executeUpdate(createCompleteSql(sql, parameters));
   }
 
+  /**
+   * Prepare the statement on the server if it has not been prepared in the current session.
+   *
+   * @return false if the server is of an older version that cannot prepare statements, then the
+   *     parameters will be substituted on the client side
+   */
+  private boolean prepare() throws SQLException {
+    checkConnection("prepare");
+    if (preparedStatementId != -1 && preparedSessionId == getSessionId()) {
+      return true;
+    }
+    try {
+      TSPrepareStatementResp resp =
+          client.prepareStatement(new TSPrepareStatementReq(getSessionId(), sql));
+      RpcUtils.verifySuccess(resp.getStatus());
+      preparedStatementId = resp.getPreparedStatementId();
+      preparedSessionId = getSessionId();
+      parameterCount = resp.getParameterCount();
+      return true;
+    } catch (TApplicationException e) {
+      logger.info("The server cannot prepare statements, parameters are set on the client", e);
+      prepareOnServer = false;
+      return false;
+    } catch (StatementExecutionException e) {
+      throw new SQLException(String.format("Fail to prepare %s", sql), e);
+    } catch (TException e) {
+      if (reConnect()) {
+        throw new SQLException(String.format("Fail to prepare %s", sql), e);
+      } else {
+        throw new SQLException(
+            String.format(
+                "Fail to reconnect to server when preparing %s. please check server status", sql),
+            e);
+      }
+    }
+  }
+
+  private boolean executePrepared() throws SQLException {
+    List<String> parameterList = new ArrayList<>(parameterCount);
+    List<Integer> typeList = new ArrayList<>(parameterCount);
+    for (int i = 1; i <= parameterCount; i++) {
+      if (!parameters.containsKey(i)) {
+        throw new SQLException("Parameter #" + i + " is unset");
+      }
+      parameterList.add(parameters.get(i));
+      typeList.add(parameterTypes.getOrDefault(i, UNTYPED_PARAMETER));
+    }
+    try {
+      return executePreparedSQL(preparedStatementId, parameterList, typeList, sql);
+    } catch (TException e) {
+      if (reConnect()) {
+        throw new SQLException(String.format("Fail to execute %s", sql), e);
+      } else {
+        throw new SQLException(
+            String.format(
+                "Fail to reconnect to server when executing %s. please check server status", sql),
+            e);
+      }
+    }
+  }
+
   @Override
   public ResultSetMetaData getMetaData() throws SQLException {
     throw new SQLException(METHOD_NOT_SUPPORTED_STRING);
@@ -233,7 +365,7 @@ public class IoTDBPreparedStatement extends IoTDBStatement implements PreparedSt
 
   @Override
   public void setBoolean(int parameterIndex, boolean x) {
-    this.parameters.put(parameterIndex, Boolean.toString(x));
+    setParameter(parameterIndex, Boolean.toString(x), TSDataType.BOOLEAN);
   }
 
   @Override
@@ -290,22 +422,22 @@ public class IoTDBPreparedStatement extends IoTDBStatement implements PreparedSt
 
   @Override
   public void setDouble(int parameterIndex, double x) {
-    this.parameters.put(parameterIndex, Double.toString(x));
+    setParameter(parameterIndex, Double.toString(x), TSDataType.DOUBLE);
   }
 
   @Override
   public void setFloat(int parameterIndex, float x) {
-    this.parameters.put(parameterIndex, Float.toString(x));
+    setParameter(parameterIndex, Float.toString(x), TSDataType.FLOAT);
   }
 
   @Override
   public void setInt(int parameterIndex, int x) {
-    this.parameters.put(parameterIndex, Integer.toString(x));
+    setParameter(parameterIndex, Integer.toString(x), TSDataType.INT32);
   }
 
   @Override
   public void setLong(int parameterIndex, long x) {
-    this.parameters.put(parameterIndex, Long.toString(x));
+    setParameter(parameterIndex, Long.toString(x), TSDataType.INT64);
   }
 
   @Override
@@ -408,7 +540,7 @@ public class IoTDBPreparedStatement extends IoTDBStatement implements PreparedSt
 
   @Override
   public void setString(int parameterIndex, String x) {
-    this.parameters.put(parameterIndex, x);
+    setParameter(parameterIndex, x, null);
   }
 
   @Override
@@ -425,8 +557,18 @@ public class IoTDBPreparedStatement extends IoTDBStatement implements PreparedSt
   public void setTimestamp(int parameterIndex, Timestamp x) {
     ZonedDateTime zonedDateTime =
         ZonedDateTime.ofInstant(Instant.ofEpochMilli(x.getTime()), super.zoneId);
-    this.parameters.put(
-        parameterIndex, zonedDateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+    setParameter(
+        parameterIndex, zonedDateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), null);
+  }
+
+  /** @param type the type of the value, or null if the value is a literal */
+  private void setParameter(int parameterIndex, String value, TSDataType type) {
+    this.parameters.put(parameterIndex, value);
+    if (type == null) {
+      this.parameterTypes.remove(parameterIndex);
+    } else {
+      this.parameterTypes.put(parameterIndex, type.ordinal());
+    }
   }
 
   @Override
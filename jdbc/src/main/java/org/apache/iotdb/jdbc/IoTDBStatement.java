@@ -25,6 +25,7 @@ import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.service.rpc.thrift.TSCancelOperationReq;
 import org.apache.iotdb.service.rpc.thrift.TSCloseOperationReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSExecutePreparedStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TSIService;
@@ -78,6 +79,8 @@ public class IoTDBStatement implements Statement {
   private long sessionId;
   private long stmtId = -1;
   private long queryId = -1;
+  /** the rows written by the last prepared statement executed */
+  private int lastUpdateCount = 0;
 
   /** Constructor of IoTDBStatement. */
   IoTDBStatement(
@@ -250,13 +253,48 @@ public class IoTDBStatement implements Statement {
   private boolean executeSQL(String sql) throws TException, SQLException {
     isCancelled = false;
     TSExecuteStatementReq execReq = new TSExecuteStatementReq(sessionId, sql, stmtId);
+    execReq.setFetchSize(getFetchRows());
+    execReq.setTimeout((long) queryTimeout * 1000);
+    TSExecuteStatementResp execResp = client.executeStatement(execReq);
+    return handleExecuteResp(sql, execResp, execReq.timeout);
+  }
+
+  /**
+   * Execute a statement that has been prepared on the server, the result is handled in the same way
+   * as executeSQL.
+   *
+   * @param parameterTypes the TSDataType ordinal of each parameter, -1 if the server should parse
+   *     the literal of the parameter
+   * @param sql the original sql, which is only used to describe the result set
+   */
+  boolean executePreparedSQL(
+      long preparedStatementId, List<String> parameters, List<Integer> parameterTypes, String sql)
+      throws TException, SQLException {
+    isCancelled = false;
+    TSExecutePreparedStatementReq execReq =
+        new TSExecutePreparedStatementReq(sessionId, preparedStatementId, parameters, stmtId);
+    execReq.setParameterTypes(parameterTypes);
+    execReq.setFetchSize(getFetchRows());
+    execReq.setTimeout((long) queryTimeout * 1000);
+    TSExecuteStatementResp execResp = client.executePreparedStatement(execReq);
+    lastUpdateCount = execResp.isSetUpdateCount() ? execResp.getUpdateCount() : 0;
+    return handleExecuteResp(sql, execResp, execReq.timeout);
+  }
+
+  int getLastUpdateCount() {
+    return lastUpdateCount;
+  }
+
+  private int getFetchRows() {
     int rows = fetchSize;
     if (maxRows != 0 && fetchSize > maxRows) {
       rows = maxRows;
     }
-    execReq.setFetchSize(rows);
-    execReq.setTimeout((long) queryTimeout * 1000);
-    TSExecuteStatementResp execResp = client.executeStatement(execReq);
+    return rows;
+  }
+
+  private boolean handleExecuteResp(String sql, TSExecuteStatementResp execResp, long timeout)
+      throws SQLException {
     try {
       RpcUtils.verifySuccess(execResp.getStatus());
     } catch (StatementExecutionException e) {
@@ -279,7 +317,7 @@ public class IoTDBStatement implements Statement {
                 queryId,
                 sessionId,
                 execResp.nonAlignQueryDataSet,
-                execReq.timeout);
+                timeout);
       } else {
         this.resultSet =
             new IoTDBJDBCResultSet(
@@ -293,7 +331,7 @@ public class IoTDBStatement implements Statement {
                 queryId,
                 sessionId,
                 execResp.queryDataSet,
-                execReq.timeout);
+                timeout);
       }
       return true;
     }
@@ -536,7 +574,7 @@ public class IoTDBStatement implements Statement {
     } catch (StatementExecutionException e) {
       throw new IoTDBSQLException(e.getMessage(), execResp.getStatus());
     }
-    return 0;
+    return execResp.isSetUpdateCount() ? execResp.getUpdateCount() : 0;
   }
 
   @Override
@@ -688,7 +726,7 @@ public class IoTDBStatement implements Statement {
     throw new SQLException("Not support setEscapeProcessing");
   }
 
-  private void checkConnection(String action) throws SQLException {
+  void checkConnection(String action) throws SQLException {
     if (connection == null || connection.isClosed()) {
       throw new SQLException(String.format("Cannot %s after connection has been closed!", action));
     }
@@ -717,7 +755,7 @@ public class IoTDBStatement implements Statement {
     }
   }
 
-  private boolean reConnect() {
+  boolean reConnect() {
     boolean flag = connection.reconnect();
     reInit();
     return flag;
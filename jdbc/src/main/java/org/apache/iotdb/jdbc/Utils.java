@@ -66,6 +66,9 @@ public class Utils {
       params.setThriftMaxFrameSize(
           Integer.parseInt(info.getProperty(Config.THRIFT_FRAME_MAX_SIZE)));
     }
+    if (info.containsKey(Config.PREPARE_ON_SERVER)) {
+      params.setPrepareOnServer(Boolean.parseBoolean(info.getProperty(Config.PREPARE_ON_SERVER)));
+    }
 
     return params;
   }
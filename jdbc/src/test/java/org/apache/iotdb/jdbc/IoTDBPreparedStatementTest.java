@@ -21,6 +21,7 @@ package org.apache.iotdb.jdbc;
 import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.service.rpc.thrift.*;
 import org.apache.iotdb.service.rpc.thrift.TSIService.Iface;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -31,6 +32,7 @@ import org.mockito.MockitoAnnotations;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.ZoneId;
+import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
@@ -346,4 +348,30 @@ public class IoTDBPreparedStatementTest {
         "INSERT INTO root.ln.wf01.wt01(timestamp,a,b,c,d,e,f) VALUES(2017-11-01T00:13:00,false,123,123234345,123.423,-1323.0,\"abc\")",
         argument.getValue().getStatement());
   }
+
+  @SuppressWarnings("resource")
+  @Test
+  public void testExecuteUpdateOnServer() throws Exception {
+    String sql = "INSERT INTO root.ln.wf01.wt01(timestamp,a,b) VALUES(?,?,?)";
+    TSPrepareStatementResp prepareResp =
+        new TSPrepareStatementResp(Status_SUCCESS).setPreparedStatementId(1).setParameterCount(3);
+    when(client.prepareStatement(any(TSPrepareStatementReq.class))).thenReturn(prepareResp);
+    when(client.executePreparedStatement(any(TSExecutePreparedStatementReq.class)))
+        .thenReturn(new TSExecuteStatementResp(Status_SUCCESS).setUpdateCount(1));
+
+    IoTDBPreparedStatement ps =
+        new IoTDBPreparedStatement(connection, client, sessionId, sql, zoneId, true);
+    ps.setLong(1, 12324);
+    ps.setInt(2, 123);
+    ps.setString(3, "abc");
+    assertEquals(1, ps.executeUpdate());
+
+    ArgumentCaptor<TSExecutePreparedStatementReq> argument =
+        ArgumentCaptor.forClass(TSExecutePreparedStatementReq.class);
+    verify(client).executePreparedStatement(argument.capture());
+    assertEquals(Arrays.asList("12324", "123", "abc"), argument.getValue().getParameters());
+    assertEquals(
+        Arrays.asList(TSDataType.INT64.ordinal(), TSDataType.INT32.ordinal(), -1),
+        argument.getValue().getParameterTypes());
+  }
 }
@@ -125,6 +125,18 @@ public class IoTDBConfig {
   /** Ratio of memory allocated for buffered arrays */
   private double bufferedArraysMemoryProportion = 0.6;
 
+  /**
+   * Whether to keep the values of numeric series (INT32, INT64, FLOAT and DOUBLE) in memtables in
+   * direct memory instead of the Java heap, the timestamps are still on the heap
+   */
+  private boolean enableOffHeapMemTable = false;
+
+  /**
+   * Direct memory for the values of memtables when enableOffHeapMemTable is true. It is accounted
+   * separately from allocateMemoryForWrite, and -XX:MaxDirectMemorySize should be larger than it.
+   */
+  private long offHeapMemoryForWrite = 2L * 1024 * 1024 * 1024;
+
   /** Flush proportion for system */
   private double flushProportion = 0.4;
 
@@ -251,6 +263,12 @@ public class IoTDBConfig {
   /** How many threads can concurrently query. When <= 0, use CPU core number. */
   private int concurrentQueryThread = Runtime.getRuntime().availableProcessors();
 
+  /**
+   * How many following devices' sub-queries an align by device query executes in advance while the
+   * current device is being read. 0 means the devices are queried one after another.
+   */
+  private int alignByDevicePrefetchNum = 4;
+
   /** How many threads can concurrently evaluate windows. When <= 0, use CPU core number. */
   private int concurrentWindowEvaluationThread = Runtime.getRuntime().availableProcessors();
 
@@ -358,12 +376,25 @@ public class IoTDBConfig {
   /** whether to cache meta data(ChunkMetaData and TsFileMetaData) or not. */
   private boolean metaDataCacheEnable = true;
 
-  /** Memory allocated for timeSeriesMetaData cache in read process */
-  private long allocateMemoryForTimeSeriesMetaDataCache = allocateMemoryForRead / 5;
+  /**
+   * Memory allocated for timeSeriesMetaData cache in read process, excluding the share of the
+   * MetadataIndexNode cache
+   */
+  private long allocateMemoryForTimeSeriesMetaDataCache =
+      allocateMemoryForRead / 5 - allocateMemoryForRead / 50;
 
   /** Memory allocated for chunk cache in read process */
   private long allocateMemoryForChunkCache = allocateMemoryForRead / 10;
 
+  /**
+   * Proportion of the memory of TimeSeriesMetadataCache that is used to cache the deserialized
+   * MetadataIndexNodes of TsFiles
+   */
+  private double metadataIndexNodeCacheProportion = 0.1;
+
+  /** Memory allocated for MetadataIndexNode cache in read process */
+  private long allocateMemoryForMetadataIndexNodeCache = allocateMemoryForRead / 50;
+
   /** Whether to enable Last cache */
   private boolean lastCacheEnable = true;
 
@@ -407,6 +438,18 @@ public class IoTDBConfig {
   /** the max executing time of query in ms. Unit: millisecond */
   private int queryTimeoutThreshold = 60000;
 
+  /**
+   * the max number of data queries that run at the same time, the others wait in the admission
+   * queue. 0 means the admission control is disabled.
+   */
+  private int maxConcurrentQueryNum = 0;
+
+  /** the max number of data queries waiting in the admission queue */
+  private int maxQueuedQueryNum = 1000;
+
+  /** the max time a data query waits in the admission queue. Unit: millisecond */
+  private long queryAdmissionTimeoutInMs = 60000;
+
   /** the max time to live of a session in ms. Unit: millisecond */
   private int sessionTimeoutThreshold = 0;
 
@@ -602,6 +645,18 @@ public class IoTDBConfig {
   /** the default fill interval in LinearFill and PreviousFill, -1 means infinite past time */
   private int defaultFillInterval = -1;
 
+  /**
+   * the intervals (in ascending order) of the rollups written beside sealed sequence TsFiles, empty
+   * means no rollups are written.
+   */
+  private long[] rollupIntervals = new long[0];
+
+  /**
+   * the max number of partial aggregation results of sealed time partitions that are cached, 0
+   * means the cache is disabled.
+   */
+  private int aggregationResultCacheSize = 0;
+
   /**
    * default TTL for storage groups that are not set TTL by statements, in ms.
    *
@@ -764,6 +819,22 @@ public class IoTDBConfig {
     this.concurrentWritingTimePartition = concurrentWritingTimePartition;
   }
 
+  public long[] getRollupIntervals() {
+    return rollupIntervals;
+  }
+
+  public void setRollupIntervals(long[] rollupIntervals) {
+    this.rollupIntervals = rollupIntervals;
+  }
+
+  public int getAggregationResultCacheSize() {
+    return aggregationResultCacheSize;
+  }
+
+  public void setAggregationResultCacheSize(int aggregationResultCacheSize) {
+    this.aggregationResultCacheSize = aggregationResultCacheSize;
+  }
+
   public int getDefaultFillInterval() {
     return defaultFillInterval;
   }
@@ -1108,6 +1179,14 @@ public class IoTDBConfig {
     this.concurrentQueryThread = concurrentQueryThread;
   }
 
+  public int getAlignByDevicePrefetchNum() {
+    return alignByDevicePrefetchNum;
+  }
+
+  public void setAlignByDevicePrefetchNum(int alignByDevicePrefetchNum) {
+    this.alignByDevicePrefetchNum = alignByDevicePrefetchNum;
+  }
+
   public int getConcurrentWindowEvaluationThread() {
     return concurrentWindowEvaluationThread;
   }
@@ -1220,6 +1299,30 @@ public class IoTDBConfig {
     this.queryTimeoutThreshold = queryTimeoutThreshold;
   }
 
+  public int getMaxConcurrentQueryNum() {
+    return maxConcurrentQueryNum;
+  }
+
+  public void setMaxConcurrentQueryNum(int maxConcurrentQueryNum) {
+    this.maxConcurrentQueryNum = maxConcurrentQueryNum;
+  }
+
+  public int getMaxQueuedQueryNum() {
+    return maxQueuedQueryNum;
+  }
+
+  public void setMaxQueuedQueryNum(int maxQueuedQueryNum) {
+    this.maxQueuedQueryNum = maxQueuedQueryNum;
+  }
+
+  public long getQueryAdmissionTimeoutInMs() {
+    return queryAdmissionTimeoutInMs;
+  }
+
+  public void setQueryAdmissionTimeoutInMs(long queryAdmissionTimeoutInMs) {
+    this.queryAdmissionTimeoutInMs = queryAdmissionTimeoutInMs;
+  }
+
   public int getSessionTimeoutThreshold() {
     return sessionTimeoutThreshold;
   }
@@ -1324,6 +1427,22 @@ public class IoTDBConfig {
     this.bufferedArraysMemoryProportion = bufferedArraysMemoryProportion;
   }
 
+  public boolean isEnableOffHeapMemTable() {
+    return enableOffHeapMemTable;
+  }
+
+  public void setEnableOffHeapMemTable(boolean enableOffHeapMemTable) {
+    this.enableOffHeapMemTable = enableOffHeapMemTable;
+  }
+
+  public long getOffHeapMemoryForWrite() {
+    return offHeapMemoryForWrite;
+  }
+
+  public void setOffHeapMemoryForWrite(long offHeapMemoryForWrite) {
+    this.offHeapMemoryForWrite = offHeapMemoryForWrite;
+  }
+
   public double getFlushProportion() {
     return flushProportion;
   }
@@ -1637,6 +1756,23 @@ public class IoTDBConfig {
     this.allocateMemoryForTimeSeriesMetaDataCache = allocateMemoryForTimeSeriesMetaDataCache;
   }
 
+  public double getMetadataIndexNodeCacheProportion() {
+    return metadataIndexNodeCacheProportion;
+  }
+
+  public void setMetadataIndexNodeCacheProportion(double metadataIndexNodeCacheProportion) {
+    this.metadataIndexNodeCacheProportion = metadataIndexNodeCacheProportion;
+  }
+
+  public long getAllocateMemoryForMetadataIndexNodeCache() {
+    return allocateMemoryForMetadataIndexNodeCache;
+  }
+
+  public void setAllocateMemoryForMetadataIndexNodeCache(
+      long allocateMemoryForMetadataIndexNodeCache) {
+    this.allocateMemoryForMetadataIndexNodeCache = allocateMemoryForMetadataIndexNodeCache;
+  }
+
   public long getAllocateMemoryForChunkCache() {
     return allocateMemoryForChunkCache;
   }
@@ -40,6 +40,7 @@ import java.net.InetAddress;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 import java.util.Properties;
 
 public class IoTDBDescriptor {
@@ -174,6 +175,16 @@ public class IoTDBDescriptor {
                   "buffered_arrays_memory_proportion",
                   Double.toString(conf.getBufferedArraysMemoryProportion()))));
 
+      conf.setEnableOffHeapMemTable(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_off_heap_memtable", Boolean.toString(conf.isEnableOffHeapMemTable()))));
+
+      conf.setOffHeapMemoryForWrite(
+          Long.parseLong(
+              properties.getProperty(
+                  "off_heap_memory_for_write", Long.toString(conf.getOffHeapMemoryForWrite()))));
+
       conf.setFlushProportion(
           Double.parseDouble(
               properties.getProperty(
@@ -360,6 +371,22 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "query_timeout_threshold", Integer.toString(conf.getQueryTimeoutThreshold()))));
 
+      conf.setMaxConcurrentQueryNum(
+          Integer.parseInt(
+              properties.getProperty(
+                  "max_concurrent_query_num", Integer.toString(conf.getMaxConcurrentQueryNum()))));
+
+      conf.setMaxQueuedQueryNum(
+          Integer.parseInt(
+              properties.getProperty(
+                  "max_queued_query_num", Integer.toString(conf.getMaxQueuedQueryNum()))));
+
+      conf.setQueryAdmissionTimeoutInMs(
+          Long.parseLong(
+              properties.getProperty(
+                  "query_admission_timeout_in_ms",
+                  Long.toString(conf.getQueryAdmissionTimeoutInMs()))));
+
       conf.setSessionTimeoutThreshold(
           Integer.parseInt(
               properties.getProperty(
@@ -424,6 +451,12 @@ public class IoTDBDescriptor {
         conf.setConcurrentQueryThread(Runtime.getRuntime().availableProcessors());
       }
 
+      conf.setAlignByDevicePrefetchNum(
+          Integer.parseInt(
+              properties.getProperty(
+                  "align_by_device_prefetch_num",
+                  Integer.toString(conf.getAlignByDevicePrefetchNum()))));
+
       conf.setmManagerCacheSize(
           Integer.parseInt(
               properties
@@ -613,6 +646,25 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "default_fill_interval", String.valueOf(conf.getDefaultFillInterval()))));
 
+      String rollupIntervals = properties.getProperty("rollup_intervals");
+      if (rollupIntervals != null) {
+        conf.setRollupIntervals(
+            Arrays.stream(rollupIntervals.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .mapToLong(Long::parseLong)
+                .filter(i -> i > 0)
+                .sorted()
+                .distinct()
+                .toArray());
+      }
+
+      conf.setAggregationResultCacheSize(
+          Integer.parseInt(
+              properties.getProperty(
+                  "aggregation_result_cache_size",
+                  String.valueOf(conf.getAggregationResultCacheSize()))));
+
       conf.setTagAttributeTotalSize(
           Integer.parseInt(
               properties.getProperty(
@@ -984,6 +1036,24 @@ public class IoTDBDescriptor {
                     "max_degree_of_index_node",
                     Integer.toString(
                         TSFileDescriptor.getInstance().getConfig().getMaxDegreeOfIndexNode()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setEnableValueSketch(
+            Boolean.parseBoolean(
+                properties.getProperty(
+                    "enable_value_sketch",
+                    Boolean.toString(
+                        TSFileDescriptor.getInstance().getConfig().isEnableValueSketch()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setChunkMetadataSpillThresholdInByte(
+            Long.parseLong(
+                properties.getProperty(
+                    "chunk_metadata_spill_threshold_in_byte",
+                    Long.toString(
+                        TSFileDescriptor.getInstance()
+                            .getConfig()
+                            .getChunkMetadataSpillThresholdInByte()))));
   }
 
   public void loadHotModifiedProps(Properties properties) throws QueryProcessException {
@@ -1112,6 +1182,11 @@ public class IoTDBDescriptor {
       return;
     }
 
+    // the memory shared by the TimeSeriesMetadataCache and the MetadataIndexNodeCache, which is
+    // split again from the whole share each time the properties are loaded
+    long timeSeriesMetadataMemory =
+        conf.getAllocateMemoryForTimeSeriesMetaDataCache()
+            + conf.getAllocateMemoryForMetadataIndexNodeCache();
     String queryMemoryAllocateProportion =
         properties.getProperty("chunk_timeseriesmeta_free_memory_proportion");
     if (queryMemoryAllocateProportion != null) {
@@ -1125,8 +1200,8 @@ public class IoTDBDescriptor {
         try {
           conf.setAllocateMemoryForChunkCache(
               maxMemoryAvailable * Integer.parseInt(proportions[0].trim()) / proportionSum);
-          conf.setAllocateMemoryForTimeSeriesMetaDataCache(
-              maxMemoryAvailable * Integer.parseInt(proportions[1].trim()) / proportionSum);
+          timeSeriesMetadataMemory =
+              maxMemoryAvailable * Integer.parseInt(proportions[1].trim()) / proportionSum;
           conf.setAllocateMemoryForReadWithoutCache(
               maxMemoryAvailable * Integer.parseInt(proportions[2].trim()) / proportionSum);
         } catch (Exception e) {
@@ -1140,6 +1215,18 @@ public class IoTDBDescriptor {
       conf.setMaxQueryDeduplicatedPathNum(
           Integer.parseInt(properties.getProperty("max_deduplicated_path_num")));
     }
+
+    // the MetadataIndexNodeCache takes its memory from the TimeSeriesMetadataCache
+    conf.setMetadataIndexNodeCacheProportion(
+        Double.parseDouble(
+            properties.getProperty(
+                "metadata_index_node_cache_proportion",
+                Double.toString(conf.getMetadataIndexNodeCacheProportion()))));
+    long metadataIndexNodeCacheMemory =
+        (long) (timeSeriesMetadataMemory * conf.getMetadataIndexNodeCacheProportion());
+    conf.setAllocateMemoryForMetadataIndexNodeCache(metadataIndexNodeCacheMemory);
+    conf.setAllocateMemoryForTimeSeriesMetaDataCache(
+        timeSeriesMetadataMemory - metadataIndexNodeCacheMemory);
   }
 
   @SuppressWarnings("squid:S3518") // "proportionSum" can't be zero
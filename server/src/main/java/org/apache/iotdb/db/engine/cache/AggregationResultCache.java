@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.query.aggregation.AggregateResult;
+import org.apache.iotdb.db.query.aggregation.AggregationType;
+import org.apache.iotdb.db.query.factory.AggregateResultFactory;
+import org.apache.iotdb.db.utils.TestOnly;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is used to cache the partial <code>AggregateResult</code>s of a series in a time
+ * interval inside a sealed time partition, i.e., a partition whose TsFiles are all closed, so that
+ * the dashboards that re-run the same aggregations only recompute the open partitions. The caching
+ * strategy is LRU.
+ *
+ * <p>A cached result is only valid for the files it was computed from, so it records a
+ * fingerprint of the files of the partition, which changes when an unsequence file is flushed
+ * into the partition or when the files are compacted or merged. The changes that keep the file
+ * names, i.e., deletions and in-place merges, invalidate all the cached results by increasing the
+ * version of the cache.
+ */
+public class AggregationResultCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(AggregationResultCache.class);
+  private static final int CACHE_SIZE =
+      IoTDBDescriptor.getInstance().getConfig().getAggregationResultCacheSize();
+  private static final boolean CACHE_ENABLE = CACHE_SIZE > 0;
+
+  private final Cache<AggregationResultCacheKey, CachedAggregateResult> lruCache;
+
+  private final AtomicLong version = new AtomicLong();
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong requestCount = new AtomicLong();
+
+  private AggregationResultCache() {
+    if (CACHE_ENABLE) {
+      logger.info("AggregationResultCache size = " + CACHE_SIZE);
+    }
+    lruCache = Caffeine.newBuilder().maximumSize(Math.max(CACHE_SIZE, 0)).recordStats().build();
+  }
+
+  public static AggregationResultCache getInstance() {
+    return AggregationResultCacheHolder.INSTANCE;
+  }
+
+  public static boolean isEnable() {
+    return CACHE_ENABLE;
+  }
+
+  /**
+   * The version should be got before the data of the query is read, and be used to put the
+   * results of the query, so that the results that may miss a concurrent deletion are never hit.
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
+  /**
+   * @param filesFingerprint the fingerprint of the files in the partition of the key
+   * @return the cached result, which should only be merged into other results, or null if there is
+   *     no valid cached result
+   */
+  public AggregateResult get(AggregationResultCacheKey key, long filesFingerprint) {
+    requestCount.incrementAndGet();
+    CachedAggregateResult cachedResult = lruCache.getIfPresent(key);
+    if (cachedResult == null) {
+      return null;
+    }
+    if (cachedResult.version != version.get()
+        || cachedResult.filesFingerprint != filesFingerprint) {
+      lruCache.invalidate(key);
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return cachedResult.result;
+  }
+
+  /** Put a copy of the result, as the result may be reused by the query. */
+  public void put(
+      AggregationResultCacheKey key,
+      AggregateResult result,
+      TSDataType seriesDataType,
+      long version,
+      long filesFingerprint) {
+    if (version != this.version.get()) {
+      return;
+    }
+    AggregateResult copy =
+        AggregateResultFactory.getAggrResultByType(
+            result.getAggregationType(), seriesDataType, result.isAscending());
+    merge(copy, result);
+    lruCache.put(key, new CachedAggregateResult(copy, version, filesFingerprint));
+  }
+
+  /** Merge a partial result into the target if the partial result is not empty. */
+  public static void merge(AggregateResult target, AggregateResult partialResult) {
+    if (partialResult.hasCandidateResult()) {
+      target.merge(partialResult);
+    }
+  }
+
+  /**
+   * @return the fingerprints of the files in each partition that has no unclosed file, the
+   *     partitions that have unclosed files are not included
+   */
+  public static Map<Long, Long> getSealedPartitions(QueryDataSource queryDataSource) {
+    Map<Long, Long> partitionFingerprints = new HashMap<>();
+    Set<Long> unsealedPartitions = new HashSet<>();
+    addFingerprints(
+        queryDataSource.getSeqResources(), partitionFingerprints, unsealedPartitions);
+    addFingerprints(
+        queryDataSource.getUnseqResources(), partitionFingerprints, unsealedPartitions);
+    partitionFingerprints.keySet().removeAll(unsealedPartitions);
+    return partitionFingerprints;
+  }
+
+  private static void addFingerprints(
+      List<TsFileResource> resources,
+      Map<Long, Long> partitionFingerprints,
+      Set<Long> unsealedPartitions) {
+    for (TsFileResource resource : resources) {
+      long partition = resource.getTimePartition();
+      if (!resource.isClosed()) {
+        unsealedPartitions.add(partition);
+      }
+      // an order-insensitive hash of the file paths, the files of a partition are usually few
+      long hash = resource.getTsFilePath().hashCode() * 0x9E3779B97F4A7C15L;
+      partitionFingerprints.merge(partition, hash ^ (hash >>> 29), Long::sum);
+    }
+  }
+
+  /** @return the first timestamp of the time partition */
+  public static long getPartitionStartTime(long partition) {
+    if (!StorageEngine.isEnablePartition()) {
+      return Long.MIN_VALUE;
+    }
+    long interval = StorageEngine.getTimePartitionInterval();
+    // time / interval rounds towards zero, so partition 0 covers both sides of 0
+    return partition > 0 ? partition * interval : (partition - 1) * interval + 1;
+  }
+
+  /** @return the last timestamp of the time partition */
+  public static long getPartitionEndTime(long partition) {
+    if (!StorageEngine.isEnablePartition()) {
+      return Long.MAX_VALUE;
+    }
+    long interval = StorageEngine.getTimePartitionInterval();
+    return partition >= 0 ? (partition + 1) * interval - 1 : partition * interval;
+  }
+
+  public double calculateAggregationResultHitRatio() {
+    long requests = requestCount.get();
+    return requests == 0 ? 0 : (double) hitCount.get() / requests;
+  }
+
+  public long getEvictionCount() {
+    return lruCache.stats().evictionCount();
+  }
+
+  public long getMaxSize() {
+    return CACHE_SIZE;
+  }
+
+  /** clear LRUCache, the results being computed by running queries will not be put either. */
+  public void clear() {
+    version.incrementAndGet();
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+  }
+
+  @TestOnly
+  public boolean isEmpty() {
+    return lruCache.asMap().isEmpty();
+  }
+
+  public static class AggregationResultCacheKey {
+
+    private final String seriesPath;
+    private final AggregationType aggregationType;
+    private final boolean ascending;
+    // both inclusive
+    private final long startTime;
+    private final long endTime;
+    private final long partition;
+
+    public AggregationResultCacheKey(
+        String seriesPath,
+        AggregationType aggregationType,
+        boolean ascending,
+        long startTime,
+        long endTime,
+        long partition) {
+      this.seriesPath = seriesPath;
+      this.aggregationType = aggregationType;
+      this.ascending = ascending;
+      this.startTime = startTime;
+      this.endTime = endTime;
+      this.partition = partition;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      AggregationResultCacheKey that = (AggregationResultCacheKey) o;
+      return ascending == that.ascending
+          && startTime == that.startTime
+          && endTime == that.endTime
+          && partition == that.partition
+          && aggregationType == that.aggregationType
+          && Objects.equals(seriesPath, that.seriesPath);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(seriesPath, aggregationType, ascending, startTime, endTime, partition);
+    }
+  }
+
+  private static class CachedAggregateResult {
+
+    private final AggregateResult result;
+    private final long version;
+    private final long filesFingerprint;
+
+    private CachedAggregateResult(AggregateResult result, long version, long filesFingerprint) {
+      this.result = result;
+      this.version = version;
+      this.filesFingerprint = filesFingerprint;
+    }
+  }
+
+  /** singleton pattern. */
+  private static class AggregationResultCacheHolder {
+
+    private static final AggregationResultCache INSTANCE = new AggregationResultCache();
+  }
+}
@@ -105,6 +105,36 @@ public class CacheHitRatioMonitor implements CacheHitRatioMonitorMXBean, IServic
     return TimeSeriesMetadataCache.getInstance().getAverageSize();
   }
 
+  @Override
+  public double getMetadataIndexNodeHitRatio() {
+    return MetadataIndexNodeCache.getInstance().calculateMetadataIndexNodeHitRatio();
+  }
+
+  @Override
+  public long getMetadataIndexNodeCacheEvictionCount() {
+    return MetadataIndexNodeCache.getInstance().getEvictionCount();
+  }
+
+  @Override
+  public long getMetadataIndexNodeCacheMaxMemory() {
+    return MetadataIndexNodeCache.getInstance().getMaxMemory();
+  }
+
+  @Override
+  public double getAggregationResultHitRatio() {
+    return AggregationResultCache.getInstance().calculateAggregationResultHitRatio();
+  }
+
+  @Override
+  public long getAggregationResultCacheEvictionCount() {
+    return AggregationResultCache.getInstance().getEvictionCount();
+  }
+
+  @Override
+  public long getAggregationResultCacheMaxSize() {
+    return AggregationResultCache.getInstance().getMaxSize();
+  }
+
   public static CacheHitRatioMonitor getInstance() {
     return instance;
   }
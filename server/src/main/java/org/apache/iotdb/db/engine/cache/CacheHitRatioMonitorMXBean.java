@@ -40,6 +40,18 @@ public interface CacheHitRatioMonitorMXBean {
 
   long getTimeSeriesMetaDataCacheAverageSize();
 
+  double getMetadataIndexNodeHitRatio();
+
+  long getMetadataIndexNodeCacheEvictionCount();
+
+  long getMetadataIndexNodeCacheMaxMemory();
+
+  double getAggregationResultHitRatio();
+
+  long getAggregationResultCacheEvictionCount();
+
+  long getAggregationResultCacheMaxSize();
+
   long getTotalMemTableSize();
 
   double getFlushThershold();
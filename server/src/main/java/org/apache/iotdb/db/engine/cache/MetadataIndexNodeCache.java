@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.utils.TestOnly;
+import org.apache.iotdb.tsfile.file.metadata.MetadataIndexEntry;
+import org.apache.iotdb.tsfile.file.metadata.MetadataIndexNode;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.controller.IMetadataIndexNodeCache;
+import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Objects;
+
+/**
+ * This class is used to cache the deserialized <code>MetadataIndexNode</code>s of closed TsFiles
+ * in IoTDB, so that the index nodes between TsFileMetadata and the leaf entries are not read from
+ * disk on every miss of TimeSeriesMetadataCache. It is shared by the readers of all files and the
+ * caching strategy is LRU.
+ */
+public class MetadataIndexNodeCache implements IMetadataIndexNodeCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(MetadataIndexNodeCache.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final long MEMORY_THRESHOLD_IN_METADATA_INDEX_NODE_CACHE =
+      config.getAllocateMemoryForMetadataIndexNodeCache();
+  private static final boolean CACHE_ENABLE =
+      config.isMetaDataCacheEnable() && MEMORY_THRESHOLD_IN_METADATA_INDEX_NODE_CACHE > 0;
+
+  private static final long KEY_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(MetadataIndexNodeCacheKey.class);
+  private static final long NODE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(MetadataIndexNode.class)
+          + RamUsageEstimator.shallowSizeOfInstance(ArrayList.class);
+  private static final long ENTRY_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(MetadataIndexEntry.class)
+          + RamUsageEstimator.NUM_BYTES_OBJECT_REF;
+
+  private final Cache<MetadataIndexNodeCacheKey, MetadataIndexNode> lruCache;
+
+  private MetadataIndexNodeCache() {
+    if (CACHE_ENABLE) {
+      logger.info("MetadataIndexNodeCache size = " + MEMORY_THRESHOLD_IN_METADATA_INDEX_NODE_CACHE);
+    }
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(MEMORY_THRESHOLD_IN_METADATA_INDEX_NODE_CACHE)
+            .weigher(
+                (MetadataIndexNodeCacheKey key, MetadataIndexNode node) ->
+                    (int) calculateRamSize(node))
+            .recordStats()
+            .build();
+  }
+
+  public static MetadataIndexNodeCache getInstance() {
+    return MetadataIndexNodeCacheHolder.INSTANCE;
+  }
+
+  /** @return whether the readers of closed files should use this cache */
+  public static boolean isEnable() {
+    return CACHE_ENABLE;
+  }
+
+  @Override
+  public MetadataIndexNode get(TsFileSequenceReader reader, long start, long end)
+      throws IOException {
+    MetadataIndexNodeCacheKey key = new MetadataIndexNodeCacheKey(reader.getFileName(), start);
+    MetadataIndexNode node = lruCache.getIfPresent(key);
+    if (node == null) {
+      // concurrent loads of the same node are harmless, the last one is kept
+      node = reader.readMetadataIndexNodeFromDisk(start, end);
+      lruCache.put(key, node);
+    }
+    return node;
+  }
+
+  /**
+   * The children of a node are only sized by their names, which is cheap enough compared to
+   * reading and deserializing the node.
+   */
+  private static long calculateRamSize(MetadataIndexNode node) {
+    long size = KEY_SIZE + NODE_SIZE;
+    for (MetadataIndexEntry entry : node.getChildren()) {
+      size += ENTRY_SIZE + RamUsageEstimator.sizeOf(entry.getName());
+    }
+    // the file path is shared by all keys of the file, so it is not counted
+    return size;
+  }
+
+  public double calculateMetadataIndexNodeHitRatio() {
+    return lruCache.stats().hitRate();
+  }
+
+  public long getEvictionCount() {
+    return lruCache.stats().evictionCount();
+  }
+
+  public long getMaxMemory() {
+    return MEMORY_THRESHOLD_IN_METADATA_INDEX_NODE_CACHE;
+  }
+
+  /** clear LRUCache. */
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+  }
+
+  /** remove the nodes of a file, which should be called when the file is removed */
+  public void remove(String filePath) {
+    if (!CACHE_ENABLE) {
+      return;
+    }
+    lruCache.asMap().keySet().removeIf(key -> key.filePath.equals(filePath));
+  }
+
+  @TestOnly
+  public boolean isEmpty() {
+    return lruCache.asMap().isEmpty();
+  }
+
+  private static class MetadataIndexNodeCacheKey {
+
+    private final String filePath;
+    private final long offset;
+
+    private MetadataIndexNodeCacheKey(String filePath, long offset) {
+      this.filePath = filePath;
+      this.offset = offset;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      MetadataIndexNodeCacheKey that = (MetadataIndexNodeCacheKey) o;
+      return offset == that.offset && Objects.equals(filePath, that.filePath);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(filePath, offset);
+    }
+  }
+
+  /** singleton pattern. */
+  private static class MetadataIndexNodeCacheHolder {
+
+    private static final MetadataIndexNodeCache INSTANCE = new MetadataIndexNodeCache();
+  }
+}
@@ -20,7 +20,9 @@
 package org.apache.iotdb.db.engine.compaction;
 
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.AggregationResultCache;
 import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.cache.MetadataIndexNodeCache;
 import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.engine.merge.manage.MergeManager;
 import org.apache.iotdb.db.engine.merge.manage.MergeResource;
@@ -342,6 +344,8 @@ public abstract class TsFileManagement {
       if (IoTDBDescriptor.getInstance().getConfig().isMetaDataCacheEnable()) {
         ChunkCache.getInstance().clear();
         TimeSeriesMetadataCache.getInstance().clear();
+        MetadataIndexNodeCache.getInstance().clear();
+        AggregationResultCache.getInstance().clear();
       }
     } finally {
       writeUnlock();
@@ -24,11 +24,14 @@ import org.apache.iotdb.db.engine.compaction.TsFileManagement;
 import org.apache.iotdb.db.engine.merge.manage.MergeManager;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
@@ -49,6 +52,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -72,28 +76,49 @@ public class CompactionUtils {
     throw new IllegalStateException("Utility class");
   }
 
+  /**
+   * @return the merged chunk and its metadata, or null if the chunks are not encoded or compressed
+   *     in the same way (e.g., the encodings of a series using AUTO are chosen per chunk), as the
+   *     pages of such chunks can not be decoded under one ChunkHeader
+   */
   private static Pair<ChunkMetadata, Chunk> readByAppendPageMerge(
       Map<TsFileSequenceReader, List<ChunkMetadata>> readerChunkMetadataMap) throws IOException {
-    ChunkMetadata newChunkMetadata = null;
-    Chunk newChunk = null;
+    List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+    List<Chunk> chunks = new ArrayList<>();
     for (Entry<TsFileSequenceReader, List<ChunkMetadata>> entry :
         readerChunkMetadataMap.entrySet()) {
       TsFileSequenceReader reader = entry.getKey();
-      List<ChunkMetadata> chunkMetadataList = entry.getValue();
-      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+      for (ChunkMetadata chunkMetadata : entry.getValue()) {
         Chunk chunk = reader.readMemChunk(chunkMetadata);
-        if (newChunkMetadata == null) {
-          newChunkMetadata = chunkMetadata;
-          newChunk = chunk;
-        } else {
-          newChunk.mergeChunk(chunk);
-          newChunkMetadata.mergeChunkMetadata(chunkMetadata);
+        if (!chunks.isEmpty() && !isSamePageFormat(chunks.get(0), chunk)) {
+          return null;
         }
+        chunkMetadataList.add(chunkMetadata);
+        chunks.add(chunk);
+      }
+    }
+    ChunkMetadata newChunkMetadata = null;
+    Chunk newChunk = null;
+    for (int i = 0; i < chunks.size(); i++) {
+      if (newChunkMetadata == null) {
+        newChunkMetadata = chunkMetadataList.get(i);
+        newChunk = chunks.get(i);
+      } else {
+        newChunk.mergeChunk(chunks.get(i));
+        newChunkMetadata.mergeChunkMetadata(chunkMetadataList.get(i));
       }
     }
     return new Pair<>(newChunkMetadata, newChunk);
   }
 
+  private static boolean isSamePageFormat(Chunk chunk, Chunk anotherChunk) {
+    ChunkHeader header = chunk.getHeader();
+    ChunkHeader anotherHeader = anotherChunk.getHeader();
+    return header.getDataType() == anotherHeader.getDataType()
+        && header.getEncodingType() == anotherHeader.getEncodingType()
+        && header.getCompressionType() == anotherHeader.getCompressionType();
+  }
+
   private static void readByDeserializePageMerge(
       Map<TsFileSequenceReader, List<ChunkMetadata>> readerChunkMetadataMap,
       Map<Long, TimeValuePair> timeValuePairMap,
@@ -149,7 +174,13 @@ public class CompactionUtils {
     }
   }
 
-  public static void writeByAppendPageMerge(
+  /**
+   * Append the pages of the chunks to one chunk of the new file.
+   *
+   * @return false if nothing is written because the chunks are not encoded or compressed in the
+   *     same way, then they should be merged by writeByDeserializePageMerge()
+   */
+  public static boolean writeByAppendPageMerge(
       String device,
       RateLimiter compactionWriteRateLimiter,
       Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry,
@@ -157,6 +188,9 @@ public class CompactionUtils {
       RestorableTsFileIOWriter writer)
       throws IOException {
     Pair<ChunkMetadata, Chunk> chunkPair = readByAppendPageMerge(entry.getValue());
+    if (chunkPair == null) {
+      return false;
+    }
     ChunkMetadata newChunkMetadata = chunkPair.left;
     Chunk newChunk = chunkPair.right;
     if (newChunkMetadata != null && newChunk != null) {
@@ -168,6 +202,7 @@ public class CompactionUtils {
       targetResource.updateStartTime(device, newChunkMetadata.getStartTime());
       targetResource.updateEndTime(device, newChunkMetadata.getEndTime());
     }
+    return true;
   }
 
   public static void writeByDeserializePageMerge(
@@ -263,6 +298,9 @@ public class CompactionUtils {
     Map<String, TsFileSequenceReader> tsFileSequenceReaderMap = new HashMap<>();
     try {
       RestorableTsFileIOWriter writer = new RestorableTsFileIOWriter(targetResource.getTsFile());
+      // the target file is not queried before it is closed, so its chunk metadata can be spilled
+      writer.setChunkMetadataSpillThreshold(
+          TSFileDescriptor.getInstance().getConfig().getChunkMetadataSpillThresholdInByte());
       Map<String, List<Modification>> modificationCache = new HashMap<>();
       RateLimiter compactionWriteRateLimiter =
           MergeManager.getINSTANCE().getMergeWriteRateLimiter();
@@ -389,19 +427,21 @@ public class CompactionUtils {
                       sensorReaderChunkMetadataListEntry,
                       targetResource,
                       writer);
-                } else if (isPageEnoughLarge) {
+                } else if (isPageEnoughLarge
+                    && writeByAppendPageMerge(
+                        device,
+                        compactionWriteRateLimiter,
+                        sensorReaderChunkMetadataListEntry,
+                        targetResource,
+                        writer)) {
+                  // append page in chunks, so we do not have to deserialize a chunk
                   logger.debug(
                       "{} [Compaction] page enough large, use append page merge", storageGroup);
-                  // append page in chunks, so we do not have to deserialize a chunk
-                  writeByAppendPageMerge(
-                      device,
-                      compactionWriteRateLimiter,
-                      sensorReaderChunkMetadataListEntry,
-                      targetResource,
-                      writer);
                 } else {
                   logger.debug(
-                      "{} [Compaction] page too small, use deserialize page merge", storageGroup);
+                      "{} [Compaction] page too small or chunks encoded differently, "
+                          + "use deserialize page merge",
+                      storageGroup);
                   // we have to deserialize chunks to merge pages
                   writeByDeserializePageMerge(
                       device,
@@ -427,6 +467,9 @@ public class CompactionUtils {
       }
       targetResource.serialize();
       writer.endFile();
+      if (sequence && devices.isEmpty()) {
+        mergeRollups(targetResource, tsFileResources);
+      }
       targetResource.close();
 
     } finally {
@@ -436,6 +479,38 @@ public class CompactionUtils {
     }
   }
 
+  /**
+   * Build the rollups of the target file of a sequence compaction by appending the rollups of the
+   * source files. Nothing is built if any source file has no usable rollups, as the rollups of the
+   * target file would be incomplete.
+   */
+  private static void mergeRollups(
+      TsFileResource targetResource, List<TsFileResource> tsFileResources) {
+    List<TsFileResource> sortedResources = new ArrayList<>(tsFileResources);
+    sortedResources.sort(
+        (o1, o2) -> TsFileManagement.compareFileName(o1.getTsFile(), o2.getTsFile()));
+    try {
+      TsFileRollup targetRollup = null;
+      for (TsFileResource tsFileResource : sortedResources) {
+        TsFileRollup sourceRollup = TsFileRollup.deserialize(tsFileResource);
+        if (sourceRollup == null) {
+          return;
+        }
+        if (targetRollup == null) {
+          targetRollup = sourceRollup;
+        } else if (!targetRollup.append(sourceRollup)) {
+          return;
+        }
+      }
+      if (targetRollup != null) {
+        targetRollup.serialize(targetResource);
+      }
+    } catch (IOException e) {
+      logger.warn("Cannot build the rollups of {}", targetResource, e);
+      TsFileRollup.remove(targetResource.getTsFile());
+    }
+  }
+
   private static TsFileSequenceReader buildReaderFromTsFileResource(
       TsFileResource levelResource,
       Map<String, TsFileSequenceReader> tsFileSequenceReaderMap,
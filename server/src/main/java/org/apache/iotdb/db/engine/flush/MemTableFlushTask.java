@@ -23,6 +23,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.flush.pool.FlushSubTaskPoolManager;
 import org.apache.iotdb.db.engine.memtable.IMemTable;
 import org.apache.iotdb.db.engine.memtable.IWritableMemChunk;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.exception.runtime.FlushRunTimeException;
 import org.apache.iotdb.db.rescon.SystemInfo;
 import org.apache.iotdb.db.utils.datastructure.TVList;
@@ -70,6 +71,9 @@ public class MemTableFlushTask {
 
   private IMemTable memTable;
 
+  /** the rollups of the file being written into, null if no rollup is built for the file */
+  private TsFileRollup rollup;
+
   private volatile long memSerializeTime = 0L;
   private volatile long ioTime = 0L;
 
@@ -80,7 +84,22 @@ public class MemTableFlushTask {
    */
   public MemTableFlushTask(
       IMemTable memTable, RestorableTsFileIOWriter writer, String storageGroup) {
+    this(memTable, writer, storageGroup, null);
+  }
+
+  /**
+   * @param memTable the memTable to flush
+   * @param writer the writer where memTable will be flushed to (current tsfile writer or vm writer)
+   * @param storageGroup current storage group
+   * @param rollup the rollups of the file that will be updated with the flushed data, or null
+   */
+  public MemTableFlushTask(
+      IMemTable memTable,
+      RestorableTsFileIOWriter writer,
+      String storageGroup,
+      TsFileRollup rollup) {
     this.memTable = memTable;
+    this.rollup = rollup;
     this.writer = writer;
     this.storageGroup = storageGroup;
     this.encodingTaskFuture = SUB_TASK_POOL_MANAGER.submit(encodingTask);
@@ -288,6 +307,7 @@ public class MemTableFlushTask {
               "Storage group {} memtable flushing to file {} starts to encoding data.",
               storageGroup,
               writer.getFile().getName());
+          String currentDevice = null;
           while (true) {
 
             Object task = null;
@@ -299,6 +319,9 @@ public class MemTableFlushTask {
               break;
             }
             if (task instanceof StartFlushGroupIOTask || task instanceof EndChunkGroupIoTask) {
+              if (task instanceof StartFlushGroupIOTask) {
+                currentDevice = ((StartFlushGroupIOTask) task).deviceId;
+              }
               try {
                 ioTaskQueue.put(task);
               } catch (
@@ -325,6 +348,10 @@ public class MemTableFlushTask {
                 seriesWriter = new ChunkWriterImpl(encodingMessage.right);
               }
               writeOneSeries(encodingMessage.left, seriesWriter, encodingMessage.right.getType());
+              if (rollup != null) {
+                rollup.update(
+                    currentDevice, encodingMessage.right.getMeasurementId(), encodingMessage.left);
+              }
               seriesWriter.sealCurrentPage();
               seriesWriter.clearPageWriter();
               try {
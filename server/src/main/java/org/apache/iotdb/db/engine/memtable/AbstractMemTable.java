@@ -46,7 +46,14 @@ import java.util.Map.Entry;
 
 public abstract class AbstractMemTable implements IMemTable {
 
+  private static final int MIN_INDEX_SIZE_TO_REBUILD = 1024;
+
   private final Map<String, Map<String, IWritableMemChunk>> memTableMap;
+  /**
+   * MeasurementMNode.memTableId -> chunk, a shortcut of memTableMap for the writes carrying
+   * MeasurementMNodes, so that they do not hash the device and the measurement every time
+   */
+  private final MemChunkIndex memChunkIndex = new MemChunkIndex();
   /**
    * The initial value is true because we want calculate the text data size when recover memTable!!
    */
@@ -115,6 +122,32 @@ public abstract class AbstractMemTable implements IMemTable {
         });
   }
 
+  /**
+   * get the chunk of the series of the MeasurementMNode, create it if it's not exist
+   *
+   * @param deviceId device id, it must be the full path of the parent of measurementMNode
+   * @param measurementMNode measurement node in the insert plan
+   */
+  private IWritableMemChunk createIfNotExistAndGet(
+      String deviceId, MeasurementMNode measurementMNode) {
+    // a node without parent may be shared by devices, e.g., the ones from templates or TSRecords
+    if (measurementMNode.getParent() == null) {
+      return createIfNotExistAndGet(deviceId, measurementMNode.getSchema());
+    }
+    long memTableId = measurementMNode.getMemTableId();
+    IWritableMemChunk memChunk = memChunkIndex.get(memTableId);
+    if (memChunk == null) {
+      memChunk = createIfNotExistAndGet(deviceId, measurementMNode.getSchema());
+      // the nodes made for each plan, e.g., from templates, bring new ids every time, so the
+      // index is rebuilt once it holds far more ids than series
+      if (memChunkIndex.size() > (seriesNumber << 1) + MIN_INDEX_SIZE_TO_REBUILD) {
+        memChunkIndex.clear();
+      }
+      memChunkIndex.put(memTableId, memChunk);
+    }
+    return memChunk;
+  }
+
   protected abstract IWritableMemChunk genMemSeries(IMeasurementSchema schema);
 
   @Override
@@ -139,11 +172,8 @@ public abstract class AbstractMemTable implements IMemTable {
                 measurementMNode.getSchema().getValueTSDataTypeList(),
                 vectorValue,
                 disableMemControl);
-        write(
-            insertRowPlan.getPrefixPath().getFullPath(),
-            measurementMNode.getSchema(),
-            insertRowPlan.getTime(),
-            vectorValue);
+        createIfNotExistAndGet(insertRowPlan.getPrefixPath().getFullPath(), measurementMNode)
+            .write(insertRowPlan.getTime(), vectorValue);
       }
     } else {
       for (MeasurementMNode measurementMNode : measurementMNodes) {
@@ -155,11 +185,8 @@ public abstract class AbstractMemTable implements IMemTable {
             MemUtils.getRecordSize(
                 measurementMNode.getSchema().getType(), values[columnIndex], disableMemControl);
 
-        write(
-            insertRowPlan.getPrefixPath().getFullPath(),
-            measurementMNode.getSchema(),
-            insertRowPlan.getTime(),
-            values[columnIndex]);
+        createIfNotExistAndGet(insertRowPlan.getPrefixPath().getFullPath(), measurementMNode)
+            .write(insertRowPlan.getTime(), values[columnIndex]);
         columnIndex++;
       }
     }
@@ -203,7 +230,7 @@ public abstract class AbstractMemTable implements IMemTable {
       IWritableMemChunk memSeries =
           createIfNotExistAndGet(
               insertTabletPlan.getPrefixPath().getFullPath(),
-              insertTabletPlan.getMeasurementMNodes()[i].getSchema());
+              insertTabletPlan.getMeasurementMNodes()[i]);
       if (insertTabletPlan.isAligned()) {
         VectorMeasurementSchema vectorSchema =
             (VectorMeasurementSchema) insertTabletPlan.getMeasurementMNodes()[i].getSchema();
@@ -288,6 +315,7 @@ public abstract class AbstractMemTable implements IMemTable {
   @Override
   public void clear() {
     memTableMap.clear();
+    memChunkIndex.clear();
     memSize = 0;
     seriesNumber = 0;
     totalPointsNum = 0;
@@ -367,6 +395,7 @@ public abstract class AbstractMemTable implements IMemTable {
       if (originalPath.matchFullPath(fullPath)) {
         if (startTimestamp == Long.MIN_VALUE && endTimestamp == Long.MAX_VALUE) {
           iter.remove();
+          memChunkIndex.clear();
         }
         int deletedPointsNumber = chunk.delete(startTimestamp, endTimestamp);
         totalPointsNum -= deletedPointsNumber;
@@ -377,6 +406,7 @@ public abstract class AbstractMemTable implements IMemTable {
         if (measurements.containsAll(schema.getValueMeasurementIdList())) {
           if (startTimestamp == Long.MIN_VALUE && endTimestamp == Long.MAX_VALUE) {
             iter.remove();
+            memChunkIndex.clear();
           }
           int deletedPointsNumber = chunk.delete(startTimestamp, endTimestamp);
           totalPointsNum -= deletedPointsNumber;
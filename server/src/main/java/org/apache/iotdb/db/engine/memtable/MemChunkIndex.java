@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.memtable;
+
+import java.util.Arrays;
+
+/**
+ * MemChunkIndex maps the memTableIds of MeasurementMNodes to the IWritableMemChunks of a memtable.
+ * It is an open-addressed hash table with linear probing over primitive long keys, so that a lookup
+ * neither hashes Strings nor allocates. It is only a shortcut of the memTableMap, entries are never
+ * removed one by one, and the whole index is cleared when it may be stale.
+ */
+class MemChunkIndex {
+
+  private static final int INITIAL_CAPACITY = 64;
+  private static final long EMPTY_KEY = 0;
+  // the golden ratio, used to spread the sequential ids over the table
+  private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+  private long[] keys;
+  private IWritableMemChunk[] values;
+  // capacity - 1, the capacity is always a power of 2
+  private int mask;
+  private int shift;
+  private int size;
+
+  MemChunkIndex() {
+    allocate(INITIAL_CAPACITY);
+  }
+
+  /** @return the chunk of the id, or null if it is not indexed */
+  IWritableMemChunk get(long id) {
+    int slot = slot(id);
+    long key;
+    while ((key = keys[slot]) != EMPTY_KEY) {
+      if (key == id) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return null;
+  }
+
+  /** @param id must be positive */
+  void put(long id, IWritableMemChunk memChunk) {
+    int slot = slot(id);
+    long key;
+    while ((key = keys[slot]) != EMPTY_KEY) {
+      if (key == id) {
+        values[slot] = memChunk;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = id;
+    values[slot] = memChunk;
+    // keep the load factor under 0.5 so that the probe sequences stay short
+    if (++size > keys.length >> 1) {
+      rehash(keys.length << 1);
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  void clear() {
+    if (keys.length > INITIAL_CAPACITY) {
+      allocate(INITIAL_CAPACITY);
+    } else {
+      Arrays.fill(keys, EMPTY_KEY);
+      Arrays.fill(values, null);
+    }
+    size = 0;
+  }
+
+  private int slot(long id) {
+    return (int) ((id * HASH_MULTIPLIER) >>> shift);
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new IWritableMemChunk[capacity];
+    mask = capacity - 1;
+    shift = Long.numberOfLeadingZeros(mask);
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    IWritableMemChunk[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY_KEY) {
+        int slot = slot(oldKeys[i]);
+        while (keys[slot] != EMPTY_KEY) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+}
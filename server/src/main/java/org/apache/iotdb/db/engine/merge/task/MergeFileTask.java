@@ -20,11 +20,14 @@
 package org.apache.iotdb.db.engine.merge.task;
 
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.AggregationResultCache;
 import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.cache.MetadataIndexNodeCache;
 import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.engine.merge.manage.MergeContext;
 import org.apache.iotdb.db.engine.merge.manage.MergeResource;
 import org.apache.iotdb.db.engine.merge.recover.MergeLogger;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.query.control.FileReaderManager;
@@ -205,6 +208,8 @@ public class MergeFileTask {
       oldFileWriter.endFile();
       updatePlanIndexes(seqFile);
       seqFile.serialize();
+      // the rollups do not include the merged unsequence data
+      TsFileRollup.remove(seqFile.getTsFile());
       mergeLogger.logFileMergeEnd();
       logger.debug("{} moved merged chunks of {} to the old file", taskName, seqFile);
 
@@ -356,6 +361,7 @@ public class MergeFileTask {
       }
 
       seqFile.serialize();
+      TsFileRollup.remove(seqFile.getTsFile());
       mergeLogger.logFileMergeEnd();
       logger.debug("{} moved unmerged chunks of {} to the new file", taskName, seqFile);
       FileReaderManager.getInstance().closeFileAndRemoveReader(seqFile.getTsFilePath());
@@ -378,6 +384,8 @@ public class MergeFileTask {
       if (IoTDBDescriptor.getInstance().getConfig().isMetaDataCacheEnable()) {
         ChunkCache.getInstance().clear();
         TimeSeriesMetadataCache.getInstance().clear();
+        MetadataIndexNodeCache.getInstance().clear();
+        AggregationResultCache.getInstance().clear();
       }
       seqFile.writeUnlock();
     }
@@ -21,6 +21,7 @@ package org.apache.iotdb.db.engine.querycontext;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.query.reader.chunk.MemChunkLoader;
 import org.apache.iotdb.db.utils.datastructure.TVList;
+import org.apache.iotdb.db.utils.datastructure.VectorTVList;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
@@ -31,6 +32,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.VectorColumns;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 
@@ -295,6 +297,23 @@ public class ReadOnlyMemChunk {
     return chunkPointReader;
   }
 
+  /** @return empty columns that can hold all the rows of this VECTOR chunk */
+  public VectorColumns createVectorColumns() {
+    List<TSDataType> valueDataTypes = ((VectorTVList) chunkData).getTsDataTypes();
+    return new VectorColumns(valueDataTypes.toArray(new TSDataType[0]), chunkDataSize);
+  }
+
+  /**
+   * Put the rows of this VECTOR chunk into columns created by {@link #createVectorColumns()},
+   * without creating an object for each value like {@link #getPointReader()}.
+   *
+   * @param times the times of the rows put, whose length should be the capacity of the columns
+   * @return the number of rows put
+   */
+  public int getVectorColumns(long[] times, VectorColumns columns) {
+    return ((VectorTVList) chunkData).getVectorColumns(chunkDataSize, deletionList, times, columns);
+  }
+
   public String getMeasurementUid() {
     return measurementUid;
   }
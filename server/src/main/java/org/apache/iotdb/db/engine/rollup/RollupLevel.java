@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.rollup;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RollupLevel holds the Statistics of a series in consecutive buckets of a fixed interval. A bucket
+ * starts at a multiple of the interval, and the buckets are in ascending order of their start
+ * times. Only the buckets that have data are kept.
+ */
+public class RollupLevel {
+
+  private final long interval;
+  private long[] bucketStartTimes = new long[16];
+  private final List<Statistics> buckets = new ArrayList<>();
+  /** memory of the Statistics of the buckets and their references in the list */
+  private long bucketsRamSize = 0;
+
+  public RollupLevel(long interval) {
+    this.interval = interval;
+  }
+
+  public long getInterval() {
+    return interval;
+  }
+
+  public int getBucketNum() {
+    return buckets.size();
+  }
+
+  /** @return the estimated memory of the buckets */
+  public long getRamSize() {
+    return RamUsageEstimator.sizeOf(bucketStartTimes) + bucketsRamSize;
+  }
+
+  /**
+   * @return the Statistics of the bucket where the time falls, which is created if it does not
+   *     exist, or null if the time is before the last bucket
+   */
+  Statistics getOrCreateBucket(long time, TSDataType dataType) {
+    long bucketStartTime = Math.floorDiv(time, interval) * interval;
+    int size = buckets.size();
+    if (size > 0) {
+      long lastStartTime = bucketStartTimes[size - 1];
+      if (lastStartTime == bucketStartTime) {
+        return buckets.get(size - 1);
+      } else if (lastStartTime > bucketStartTime) {
+        return null;
+      }
+    }
+    Statistics statistics = Statistics.getStatsByType(dataType);
+    // the rollups are too fine-grained to afford a sketch for each bucket
+    statistics.setSketch(null);
+    addBucket(bucketStartTime, statistics);
+    return statistics;
+  }
+
+  private void addBucket(long bucketStartTime, Statistics statistics) {
+    int size = buckets.size();
+    if (size == bucketStartTimes.length) {
+      bucketStartTimes = Arrays.copyOf(bucketStartTimes, size * 2);
+    }
+    bucketStartTimes[size] = bucketStartTime;
+    buckets.add(statistics);
+    bucketsRamSize += statistics.calculateRamSize() + RamUsageEstimator.NUM_BYTES_OBJECT_REF;
+  }
+
+  /**
+   * Append the buckets of another level, whose data must be after the data of this one. The two
+   * buckets with the same start time are merged.
+   *
+   * @return false if the buckets of another level are before the last bucket of this one
+   */
+  boolean append(RollupLevel another) {
+    if (another.buckets.isEmpty()) {
+      return true;
+    }
+    int size = buckets.size();
+    int i = 0;
+    if (size > 0) {
+      long lastStartTime = bucketStartTimes[size - 1];
+      if (another.bucketStartTimes[0] < lastStartTime) {
+        return false;
+      } else if (another.bucketStartTimes[0] == lastStartTime) {
+        buckets.get(size - 1).mergeStatistics(another.buckets.get(0));
+        i = 1;
+      }
+    }
+    for (; i < another.buckets.size(); i++) {
+      addBucket(another.bucketStartTimes[i], another.buckets.get(i));
+    }
+    return true;
+  }
+
+  /** @return the Statistics of the buckets in [startTime, endTime), in ascending order */
+  public List<Statistics> getBuckets(long startTime, long endTime) {
+    int size = buckets.size();
+    int from = Arrays.binarySearch(bucketStartTimes, 0, size, startTime);
+    from = from < 0 ? -from - 1 : from;
+    int to = Arrays.binarySearch(bucketStartTimes, 0, size, endTime);
+    to = to < 0 ? -to - 1 : to;
+    return from >= to ? new ArrayList<>() : buckets.subList(from, to);
+  }
+
+  void serializeTo(OutputStream outputStream) throws IOException {
+    ReadWriteIOUtils.write(interval, outputStream);
+    ReadWriteIOUtils.write(buckets.size(), outputStream);
+    for (int i = 0; i < buckets.size(); i++) {
+      ReadWriteIOUtils.write(bucketStartTimes[i], outputStream);
+      buckets.get(i).serialize(outputStream);
+    }
+  }
+
+  static RollupLevel deserializeFrom(InputStream inputStream, TSDataType dataType)
+      throws IOException {
+    RollupLevel level = new RollupLevel(ReadWriteIOUtils.readLong(inputStream));
+    int bucketNum = ReadWriteIOUtils.readInt(inputStream);
+    level.bucketStartTimes = new long[Math.max(bucketNum, 1)];
+    for (int i = 0; i < bucketNum; i++) {
+      long bucketStartTime = ReadWriteIOUtils.readLong(inputStream);
+      level.addBucket(bucketStartTime, Statistics.deserialize(inputStream, dataType));
+    }
+    return level;
+  }
+}
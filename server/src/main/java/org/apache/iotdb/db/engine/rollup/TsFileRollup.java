@@ -0,0 +1,500 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.rollup;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.iotdb.tsfile.fileSystem.fsFactory.FSFactory;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * TsFileRollup keeps the Statistics of each series of a sequence TsFile in buckets of the
+ * configured rollup intervals, so that GROUP BY queries over long ranges can be answered without
+ * reading the chunks. It is built while the memtables are flushed into the file (or by merging the
+ * rollups of the source files of a compaction), and is written into a ".rollup" file beside the
+ * TsFile when the TsFile is sealed.
+ *
+ * <p>The rollup file records the length of the TsFile. It is ignored if the TsFile has been
+ * changed since then, or if the TsFile has a modification file, so that deletions are respected.
+ */
+public class TsFileRollup {
+
+  private static final Logger logger = LoggerFactory.getLogger(TsFileRollup.class);
+  private static final FSFactory fsFactory = FSFactoryProducer.getFSFactory();
+
+  public static final String ROLLUP_SUFFIX = ".rollup";
+  private static final String TEMP_SUFFIX = ".temp";
+  private static final int INVALID_BLOCK_SIZE = -1;
+  private static final long BLOCK_NOT_FOUND = -2;
+
+  private final long[] intervals;
+  /** device -> measurement -> rollups of the series, null if the rollups of it are not valid */
+  private final Map<String, Map<String, SeriesRollup>> seriesRollups = new HashMap<>();
+  /** the estimated memory of the names and the valid rollups of the series updated */
+  private long ramSize = 0;
+
+  public TsFileRollup(long[] intervals) {
+    this.intervals = intervals;
+  }
+
+  /** @return a new TsFileRollup with the configured intervals, or null if rollup is disabled */
+  public static TsFileRollup createIfEnabled() {
+    long[] intervals = IoTDBDescriptor.getInstance().getConfig().getRollupIntervals();
+    return intervals.length == 0 ? null : new TsFileRollup(intervals);
+  }
+
+  /**
+   * Update the rollups of a series with the points in a sorted TVList, the points of the same time
+   * are deduplicated like the flush does, i.e., the last one is kept.
+   */
+  public void update(String device, String measurement, TVList tvList) {
+    TSDataType dataType = tvList.getDataType();
+    if (dataType == TSDataType.VECTOR) {
+      // aligned series are not rolled up, GROUP BY queries on them always read the raw data
+      return;
+    }
+    Map<String, SeriesRollup> measurementRollups = seriesRollups.get(device);
+    if (measurementRollups == null) {
+      measurementRollups = new HashMap<>();
+      seriesRollups.put(device, measurementRollups);
+      ramSize += RamUsageEstimator.sizeOf(device);
+    }
+    if (measurementRollups.containsKey(measurement)
+        && measurementRollups.get(measurement) == null) {
+      return;
+    }
+    SeriesRollup seriesRollup = measurementRollups.get(measurement);
+    if (seriesRollup == null) {
+      seriesRollup = new SeriesRollup(dataType, createLevels(intervals));
+      measurementRollups.put(measurement, seriesRollup);
+      ramSize += RamUsageEstimator.sizeOf(measurement);
+    }
+    long previousRamSize = seriesRollup.getRamSize();
+    if (seriesRollup.dataType != dataType || !seriesRollup.update(tvList)) {
+      // the data type is changed or the data is out of order, which is not expected in a
+      // sequence file, give up the rollups of the series
+      measurementRollups.put(measurement, null);
+      ramSize -= previousRamSize;
+    } else {
+      ramSize += seriesRollup.getRamSize() - previousRamSize;
+    }
+  }
+
+  private static List<RollupLevel> createLevels(long[] intervals) {
+    List<RollupLevel> levels = new ArrayList<>(intervals.length);
+    for (long interval : intervals) {
+      levels.add(new RollupLevel(interval));
+    }
+    return levels;
+  }
+
+  /**
+   * Append the rollups of another file whose data of each device is after the data of this one.
+   *
+   * @return false if the intervals of the two rollups are different
+   */
+  public boolean append(TsFileRollup another) {
+    if (!Arrays.equals(intervals, another.intervals)) {
+      return false;
+    }
+    for (Entry<String, Map<String, SeriesRollup>> deviceEntry :
+        another.seriesRollups.entrySet()) {
+      Map<String, SeriesRollup> measurementRollups =
+          seriesRollups.computeIfAbsent(deviceEntry.getKey(), d -> new HashMap<>());
+      for (Entry<String, SeriesRollup> measurementEntry : deviceEntry.getValue().entrySet()) {
+        String measurement = measurementEntry.getKey();
+        SeriesRollup anotherRollup = measurementEntry.getValue();
+        if (!measurementRollups.containsKey(measurement)) {
+          measurementRollups.put(
+              measurement,
+              anotherRollup == null
+                  ? null
+                  : new SeriesRollup(anotherRollup.dataType, createLevels(intervals)));
+        }
+        SeriesRollup seriesRollup = measurementRollups.get(measurement);
+        if (seriesRollup != null
+            && (anotherRollup == null || !seriesRollup.append(anotherRollup))) {
+          measurementRollups.put(measurement, null);
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the estimated memory of the rollups built by {@link #update}, which stay in memory
+   *     until the TsFile is sealed
+   */
+  public long getRamSize() {
+    return ramSize;
+  }
+
+  /**
+   * Write the rollups into the rollup file of the sealed TsFile of the resource. After the header,
+   * an index of the series is written, where the series are grouped by device. The index of each
+   * device is written with its length, and each series has the offset and the length of its
+   * block, so that one series can be read without reading the rollups of other series. A series
+   * whose rollups are not valid has a length of -1, so that it is not mistaken for a series
+   * without data in the file. Then the blocks are written in the order of the index, and the level
+   * of each interval in a block is written with its length.
+   */
+  public void serialize(TsFileResource resource) throws IOException {
+    PublicBAOS index = new PublicBAOS();
+    PublicBAOS blocks = new PublicBAOS();
+    PublicBAOS deviceIndex = new PublicBAOS();
+    PublicBAOS levelBuffer = new PublicBAOS();
+    ReadWriteIOUtils.write(seriesRollups.size(), index);
+    for (Entry<String, Map<String, SeriesRollup>> deviceEntry : seriesRollups.entrySet()) {
+      deviceIndex.reset();
+      ReadWriteIOUtils.write(deviceEntry.getValue().size(), deviceIndex);
+      for (Entry<String, SeriesRollup> measurementEntry : deviceEntry.getValue().entrySet()) {
+        SeriesRollup seriesRollup = measurementEntry.getValue();
+        writeString(measurementEntry.getKey(), deviceIndex);
+        if (seriesRollup == null) {
+          // the series exists in the file but its rollups are not valid
+          ReadWriteIOUtils.write(INVALID_BLOCK_SIZE, deviceIndex);
+          continue;
+        }
+        int blockOffset = blocks.size();
+        ReadWriteIOUtils.write(seriesRollup.dataType, blocks);
+        for (RollupLevel level : seriesRollup.levels) {
+          levelBuffer.reset();
+          level.serializeTo(levelBuffer);
+          ReadWriteIOUtils.write(levelBuffer.size(), blocks);
+          levelBuffer.writeTo(blocks);
+        }
+        ReadWriteIOUtils.write(blocks.size() - blockOffset, deviceIndex);
+        ReadWriteIOUtils.write((long) blockOffset, deviceIndex);
+      }
+      writeString(deviceEntry.getKey(), index);
+      ReadWriteIOUtils.write(deviceIndex.size(), index);
+      deviceIndex.writeTo(index);
+    }
+
+    File tsFile = resource.getTsFile();
+    File tempFile = fsFactory.getFile(tsFile.getPath() + ROLLUP_SUFFIX + TEMP_SUFFIX);
+    try (OutputStream outputStream = fsFactory.getBufferedOutputStream(tempFile.getPath())) {
+      ReadWriteIOUtils.write(tsFile.length(), outputStream);
+      ReadWriteIOUtils.write(intervals.length, outputStream);
+      for (long interval : intervals) {
+        ReadWriteIOUtils.write(interval, outputStream);
+      }
+      ReadWriteIOUtils.write(index.size(), outputStream);
+      index.writeTo(outputStream);
+      blocks.writeTo(outputStream);
+    }
+    fsFactory.moveFile(tempFile, fsFactory.getFile(tsFile.getPath() + ROLLUP_SUFFIX));
+  }
+
+  /**
+   * @return the rollups of all series in the rollup file of the resource, or null if the resource
+   *     has no usable rollup file
+   */
+  public static TsFileRollup deserialize(TsFileResource resource) throws IOException {
+    if (!isUsable(resource)) {
+      return null;
+    }
+    try (InputStream inputStream = fsFactory.getBufferedInputStream(getRollupPath(resource))) {
+      long[] intervals = readHeader(inputStream, resource);
+      if (intervals == null) {
+        return null;
+      }
+      TsFileRollup rollup = new TsFileRollup(intervals);
+      ByteBuffer index =
+          ByteBuffer.wrap(
+              ReadWriteIOUtils.readBytes(inputStream, ReadWriteIOUtils.readInt(inputStream)));
+      int deviceNum = ReadWriteIOUtils.readInt(index);
+      for (int i = 0; i < deviceNum; i++) {
+        Map<String, SeriesRollup> measurementRollups = new HashMap<>();
+        rollup.seriesRollups.put(readString(index), measurementRollups);
+        // the length of the index of the device
+        ReadWriteIOUtils.readInt(index);
+        int measurementNum = ReadWriteIOUtils.readInt(index);
+        for (int j = 0; j < measurementNum; j++) {
+          String measurement = readString(index);
+          if (ReadWriteIOUtils.readInt(index) == INVALID_BLOCK_SIZE) {
+            measurementRollups.put(measurement, null);
+            continue;
+          }
+          // the blocks are read in the order of the index, so the offset is not needed
+          ReadWriteIOUtils.readLong(index);
+          TSDataType dataType = ReadWriteIOUtils.readDataType(inputStream);
+          List<RollupLevel> levels = new ArrayList<>(intervals.length);
+          for (int k = 0; k < intervals.length; k++) {
+            // the length of the level
+            ReadWriteIOUtils.readInt(inputStream);
+            levels.add(RollupLevel.deserializeFrom(inputStream, dataType));
+          }
+          measurementRollups.put(measurement, new SeriesRollup(dataType, levels));
+        }
+      }
+      return rollup;
+    }
+  }
+
+  /**
+   * Read the rollups of one series of the given interval. Only the index of the series and the
+   * level of the interval are read, the rest of the file is skipped.
+   *
+   * @return the rollups, which are empty if the series has no data in the file, or null if the
+   *     resource has no usable rollup file, or the rollups of the series or the interval are not
+   *     available
+   */
+  public static RollupLevel loadRollupLevel(
+      TsFileResource resource, String device, String measurement, long interval)
+      throws IOException {
+    if (!isUsable(resource)) {
+      return null;
+    }
+    try (InputStream inputStream = fsFactory.getBufferedInputStream(getRollupPath(resource))) {
+      long[] intervals = readHeader(inputStream, resource);
+      if (intervals == null) {
+        return null;
+      }
+      int levelIndex = Arrays.binarySearch(intervals, interval);
+      if (levelIndex < 0) {
+        return null;
+      }
+      // the length of the index that is not read yet
+      long remainingIndexSize = ReadWriteIOUtils.readInt(inputStream);
+      int deviceNum = ReadWriteIOUtils.readInt(inputStream);
+      remainingIndexSize -= Integer.BYTES;
+      for (int i = 0; i < deviceNum; i++) {
+        byte[] seriesDevice =
+            ReadWriteIOUtils.readBytes(inputStream, ReadWriteIOUtils.readInt(inputStream));
+        int deviceIndexSize = ReadWriteIOUtils.readInt(inputStream);
+        remainingIndexSize -= Integer.BYTES * 2L + seriesDevice.length + deviceIndexSize;
+        if (!device.equals(new String(seriesDevice, TSFileConfig.STRING_CHARSET))) {
+          skipFully(inputStream, deviceIndexSize);
+          continue;
+        }
+        long blockOffset =
+            findBlockOffset(
+                ByteBuffer.wrap(ReadWriteIOUtils.readBytes(inputStream, deviceIndexSize)),
+                measurement);
+        if (blockOffset == INVALID_BLOCK_SIZE) {
+          return null;
+        } else if (blockOffset != BLOCK_NOT_FOUND) {
+          skipFully(inputStream, remainingIndexSize + blockOffset);
+          return readRollupLevel(inputStream, levelIndex);
+        }
+        break;
+      }
+      // the series has no data in the file
+      return new RollupLevel(interval);
+    }
+  }
+
+  /**
+   * @return the offset of the block of the measurement in the index of a device, INVALID_BLOCK_SIZE
+   *     if its rollups are not valid, or BLOCK_NOT_FOUND if it is not in the index
+   */
+  private static long findBlockOffset(ByteBuffer deviceIndex, String measurement) {
+    int measurementNum = ReadWriteIOUtils.readInt(deviceIndex);
+    for (int i = 0; i < measurementNum; i++) {
+      String seriesMeasurement = readString(deviceIndex);
+      int blockSize = ReadWriteIOUtils.readInt(deviceIndex);
+      if (blockSize == INVALID_BLOCK_SIZE) {
+        if (measurement.equals(seriesMeasurement)) {
+          return INVALID_BLOCK_SIZE;
+        }
+        continue;
+      }
+      long blockOffset = ReadWriteIOUtils.readLong(deviceIndex);
+      if (measurement.equals(seriesMeasurement)) {
+        return blockOffset;
+      }
+    }
+    return BLOCK_NOT_FOUND;
+  }
+
+  /** Read the level of the given index from the start of a block, skipping the levels before. */
+  private static RollupLevel readRollupLevel(InputStream inputStream, int levelIndex)
+      throws IOException {
+    TSDataType dataType = ReadWriteIOUtils.readDataType(inputStream);
+    for (int i = 0; i < levelIndex; i++) {
+      skipFully(inputStream, ReadWriteIOUtils.readInt(inputStream));
+    }
+    // the length of the level
+    ReadWriteIOUtils.readInt(inputStream);
+    return RollupLevel.deserializeFrom(inputStream, dataType);
+  }
+
+  /** @return the intervals, or null if the TsFile has been changed since the rollups are built */
+  private static long[] readHeader(InputStream inputStream, TsFileResource resource)
+      throws IOException {
+    long tsFileSize = ReadWriteIOUtils.readLong(inputStream);
+    if (tsFileSize != resource.getTsFileSize()) {
+      logger.debug("The rollup file of {} is out of date", resource);
+      return null;
+    }
+    long[] intervals = new long[ReadWriteIOUtils.readInt(inputStream)];
+    for (int i = 0; i < intervals.length; i++) {
+      intervals[i] = ReadWriteIOUtils.readLong(inputStream);
+    }
+    return intervals;
+  }
+
+  /** The strings are encoded with the charset of TsFile instead of the platform's. */
+  private static void writeString(String string, OutputStream outputStream) throws IOException {
+    byte[] bytes = string.getBytes(TSFileConfig.STRING_CHARSET);
+    ReadWriteIOUtils.write(bytes.length, outputStream);
+    outputStream.write(bytes);
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[ReadWriteIOUtils.readInt(buffer)];
+    buffer.get(bytes);
+    return new String(bytes, TSFileConfig.STRING_CHARSET);
+  }
+
+  private static void skipFully(InputStream inputStream, long length) throws IOException {
+    long remaining = length;
+    while (remaining > 0) {
+      long skipped = inputStream.skip(remaining);
+      if (skipped <= 0) {
+        throw new IOException("Unexpected end of the rollup file");
+      }
+      remaining -= skipped;
+    }
+  }
+
+  /**
+   * The rollups of a resource can be used if the file is sealed, not modified by deletions, and
+   * has a rollup file.
+   */
+  public static boolean isUsable(TsFileResource resource) {
+    return resource.isClosed()
+        && !resource.getModFile().exists()
+        && fsFactory.getFile(getRollupPath(resource)).exists();
+  }
+
+  private static String getRollupPath(TsFileResource resource) {
+    return resource.getTsFilePath() + ROLLUP_SUFFIX;
+  }
+
+  /** Remove the rollup file of a TsFile if it exists. */
+  public static void remove(File tsFile) {
+    try {
+      fsFactory.deleteIfExists(fsFactory.getFile(tsFile.getPath() + ROLLUP_SUFFIX));
+    } catch (IOException e) {
+      logger.error("Rollup file of {} cannot be deleted: {}", tsFile, e.getMessage());
+    }
+  }
+
+  /** The rollups of one series in all intervals. */
+  private static class SeriesRollup {
+
+    private final TSDataType dataType;
+    private final List<RollupLevel> levels;
+
+    private SeriesRollup(TSDataType dataType, List<RollupLevel> levels) {
+      this.dataType = dataType;
+      this.levels = levels;
+    }
+
+    private long getRamSize() {
+      long ramSize = 0;
+      for (RollupLevel level : levels) {
+        ramSize += level.getRamSize();
+      }
+      return ramSize;
+    }
+
+    /** @return false if the data is before the data that has been rolled up */
+    private boolean update(TVList tvList) {
+      int size = tvList.size();
+      for (int i = 0; i < size; i++) {
+        long time = tvList.getTime(i);
+        // skip duplicated data
+        if (i + 1 < size && time == tvList.getTime(i + 1)) {
+          continue;
+        }
+        for (RollupLevel level : levels) {
+          Statistics statistics = level.getOrCreateBucket(time, dataType);
+          if (statistics == null) {
+            return false;
+          }
+          updateStatistics(statistics, tvList, i, time);
+        }
+      }
+      return true;
+    }
+
+    private void updateStatistics(Statistics statistics, TVList tvList, int index, long time) {
+      switch (dataType) {
+        case BOOLEAN:
+          statistics.update(time, tvList.getBoolean(index));
+          break;
+        case INT32:
+          statistics.update(time, tvList.getInt(index));
+          break;
+        case INT64:
+          statistics.update(time, tvList.getLong(index));
+          break;
+        case FLOAT:
+          statistics.update(time, tvList.getFloat(index));
+          break;
+        case DOUBLE:
+          statistics.update(time, tvList.getDouble(index));
+          break;
+        case TEXT:
+          statistics.update(time, tvList.getBinary(index));
+          break;
+        default:
+          break;
+      }
+    }
+
+    private boolean append(SeriesRollup another) {
+      if (dataType != another.dataType) {
+        return false;
+      }
+      for (int i = 0; i < levels.size(); i++) {
+        if (!levels.get(i).append(another.levels.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
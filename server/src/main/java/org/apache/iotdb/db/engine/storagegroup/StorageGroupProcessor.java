@@ -23,6 +23,7 @@ import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.directories.DirectoryManager;
 import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.cache.AggregationResultCache;
 import org.apache.iotdb.db.engine.compaction.CompactionMergeTaskPoolManager;
 import org.apache.iotdb.db.engine.compaction.TsFileManagement;
 import org.apache.iotdb.db.engine.compaction.level.LevelCompactionTsFileManagement;
@@ -1818,6 +1819,8 @@ public class StorageGroupProcessor {
       }
       throw new IOException(e);
     } finally {
+      // the cached aggregation results may contain the deleted data
+      AggregationResultCache.getInstance().clear();
       writeUnlock();
     }
   }
@@ -34,6 +34,7 @@ import org.apache.iotdb.db.engine.modification.Deletion;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.StorageGroupProcessor.UpdateEndTimeCallBack;
 import org.apache.iotdb.db.exception.TsFileProcessorException;
 import org.apache.iotdb.db.exception.WriteProcessException;
@@ -45,6 +46,7 @@ import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.rescon.MemTableManager;
+import org.apache.iotdb.db.rescon.OffHeapArrayManager;
 import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
 import org.apache.iotdb.db.rescon.SystemInfo;
 import org.apache.iotdb.db.utils.MemUtils;
@@ -143,6 +145,15 @@ public class TsFileProcessor {
   /** total memtable size for mem control */
   private long totalMemTableSize;
 
+  /**
+   * the rollups of the data flushed into this file, only built for a new sequence file, and null
+   * if rollup is disabled or the rollups become incomplete
+   */
+  private TsFileRollup rollup;
+
+  /** the memory of the rollups that has been added to the storage group */
+  private long rollupMemCost;
+
   private static final String FLUSH_QUERY_WRITE_LOCKED = "{}: {} get flushQueryLock write lock";
   private static final String FLUSH_QUERY_WRITE_RELEASE =
       "{}: {} get flushQueryLock write lock released";
@@ -169,6 +180,7 @@ public class TsFileProcessor {
     this.writer = new RestorableTsFileIOWriter(tsfile);
     this.updateLatestFlushTimeCallback = updateLatestFlushTimeCallback;
     this.sequence = sequence;
+    this.rollup = sequence ? TsFileRollup.createIfEnabled() : null;
     logger.info("create a new tsfile processor {}", tsfile.getAbsolutePath());
     flushListeners.add(new WALFlushListener(this));
     closeFileListeners.add(closeTsFileCallback);
@@ -214,7 +226,11 @@ public class TsFileProcessor {
       checkMemCostAndAddToTspInfo(insertRowPlan);
     }
 
-    workMemTable.insert(insertRowPlan);
+    try {
+      workMemTable.insert(insertRowPlan);
+    } finally {
+      addHeapSegmentMemCost();
+    }
 
     if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
       try {
@@ -284,6 +300,8 @@ public class TsFileProcessor {
         results[i] = RpcUtils.getStatus(TSStatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
       }
       throw new WriteProcessException(e);
+    } finally {
+      addHeapSegmentMemCost();
     }
     for (int i = start; i < end; i++) {
       results[i] = RpcUtils.SUCCESS_STATUS;
@@ -493,6 +511,31 @@ public class TsFileProcessor {
     workMemTable.addTextDataSize(textDataIncrement);
   }
 
+  /**
+   * The values of off-heap TVLists are put on heap when the direct memory for write is used up,
+   * which is only known when they are allocated, so their size is added to the memtable cost after
+   * the insertion. The insertion is done, so only the following ones can be rejected.
+   */
+  private void addHeapSegmentMemCost() {
+    long heapSegmentSize = OffHeapArrayManager.takeHeapSegmentSize();
+    if (!enableMemControl || heapSegmentSize == 0) {
+      return;
+    }
+    storageGroupInfo.addStorageGroupMemCost(heapSegmentSize);
+    workMemTable.addTVListRamCost(heapSegmentSize);
+    if (storageGroupInfo.needToReportToSystem()) {
+      try {
+        SystemInfo.getInstance().reportStorageGroupStatus(storageGroupInfo, this);
+      } catch (WriteProcessRejectException e) {
+        logger.warn(
+            "{}: {} the memory for write is used up after putting off-heap values on heap",
+            storageGroupName,
+            tsFileResource.getTsFile().getName(),
+            e);
+      }
+    }
+  }
+
   /**
    * Delete data which belongs to the timeseries `deviceId.measurementId` and the timestamp of which
    * <= 'timestamp' in the deletion. <br>
@@ -877,9 +920,11 @@ public class TsFileProcessor {
       try {
         writer.mark();
         MemTableFlushTask flushTask =
-            new MemTableFlushTask(memTableToFlush, writer, storageGroupName);
+            new MemTableFlushTask(memTableToFlush, writer, storageGroupName, rollup);
         flushTask.syncFlushMemTable();
       } catch (Exception e) {
+        // the rollups may contain the data that is not flushed successfully
+        rollup = null;
         if (writer == null) {
           logger.info(
               "{}: {} is closed during flush, abandon flush task",
@@ -912,6 +957,7 @@ public class TsFileProcessor {
           Thread.currentThread().interrupt();
         }
       }
+      updateRollupMemCost();
     }
 
     for (FlushListener flushListener : flushListeners) {
@@ -1040,12 +1086,36 @@ public class TsFileProcessor {
     }
   }
 
+  /**
+   * The rollups grow with the flushed data and stay in memory until the file is sealed, so their
+   * memory is added to the storage group like the memtables, and is released when they are written
+   * or given up.
+   */
+  private void updateRollupMemCost() {
+    if (!enableMemControl) {
+      return;
+    }
+    long memCost = rollup == null ? 0 : rollup.getRamSize();
+    storageGroupInfo.addStorageGroupMemCost(memCost - rollupMemCost);
+    rollupMemCost = memCost;
+  }
+
   /** end file and write some meta */
   private void endFile() throws IOException, TsFileProcessorException {
     logger.info("Start to end file {}", tsFileResource);
     long closeStartTime = System.currentTimeMillis();
     tsFileResource.serialize();
     writer.endFile();
+    if (rollup != null) {
+      try {
+        rollup.serialize(tsFileResource);
+      } catch (IOException e) {
+        logger.warn("Cannot write the rollups of {}", tsFileResource, e);
+        TsFileRollup.remove(tsFileResource.getTsFile());
+      }
+      rollup = null;
+      updateRollupMemCost();
+    }
     logger.info("Ended file {}", tsFileResource);
 
     // remove this processor from Closing list in StorageGroupProcessor,
@@ -20,8 +20,10 @@ package org.apache.iotdb.db.engine.storagegroup;
 
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.MetadataIndexNodeCache;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.StorageGroupProcessor.UpgradeTsFileResourceCallBack;
 import org.apache.iotdb.db.engine.storagegroup.timeindex.DeviceTimeIndex;
 import org.apache.iotdb.db.engine.storagegroup.timeindex.ITimeIndex;
@@ -544,7 +546,10 @@ public class TsFileResource {
     modFile = null;
   }
 
-  /** Remove the data file, its resource file, and its modification file physically. */
+  /**
+   * Remove the data file, its resource file, its modification file and its rollup file
+   * physically.
+   */
   public void remove() {
     try {
       fsFactory.deleteIfExists(file);
@@ -557,6 +562,8 @@ public class TsFileResource {
     } catch (IOException e) {
       logger.error("ModificationFile {} cannot be deleted: {}", file, e.getMessage());
     }
+    TsFileRollup.remove(file);
+    MetadataIndexNodeCache.getInstance().remove(file.getPath());
   }
 
   public void removeResourceFile() {
@@ -578,6 +585,12 @@ public class TsFileResource {
           originModFile,
           fsFactory.getFile(targetDir, file.getName() + ModificationFile.FILE_SUFFIX));
     }
+    File originRollupFile = fsFactory.getFile(file.getPath() + TsFileRollup.ROLLUP_SUFFIX);
+    if (originRollupFile.exists()) {
+      fsFactory.moveFile(
+          originRollupFile,
+          fsFactory.getFile(targetDir, file.getName() + TsFileRollup.ROLLUP_SUFFIX));
+    }
   }
 
   @Override
@@ -779,6 +792,8 @@ public class TsFileResource {
           FSFactoryProducer.getFSFactory()
               .getFile(file.toPath() + TsFileResource.RESOURCE_SUFFIX)
               .toPath());
+      TsFileRollup.remove(file);
+      MetadataIndexNodeCache.getInstance().remove(file.getPath());
     }
   }
 
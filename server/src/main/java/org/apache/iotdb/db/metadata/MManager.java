@@ -1985,6 +1985,25 @@ public class MManager {
     collectMeasurementSchema(mNode, measurementSchemas);
   }
 
+  /**
+   * Collect the schemas of the measurements directly under "devicePath", the series of its
+   * sub-devices are not included.
+   */
+  public void collectDeviceSeries(
+      PartialPath devicePath, List<IMeasurementSchema> measurementSchemas) {
+    MNode mNode;
+    try {
+      mNode = getNodeByPath(devicePath);
+    } catch (MetadataException e) {
+      return;
+    }
+    for (MNode child : mNode.getChildren().values()) {
+      if (child instanceof MeasurementMNode) {
+        measurementSchemas.add(((MeasurementMNode) child).getSchema());
+      }
+    }
+  }
+
   /**
    * For a path, infer all storage groups it may belong to. The path can have wildcards.
    *
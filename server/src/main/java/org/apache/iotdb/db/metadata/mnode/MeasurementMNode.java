@@ -31,12 +31,15 @@ import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /** Represents an MNode which has a Measurement or Sensor attached to it. */
 public class MeasurementMNode extends MNode {
 
   private static final long serialVersionUID = -1199657856921206435L;
 
+  private static final AtomicLong MEM_TABLE_ID_GENERATOR = new AtomicLong();
+
   /** measurement's Schema for one timeseries represented by current leaf node */
   private IMeasurementSchema schema;
 
@@ -52,6 +55,9 @@ public class MeasurementMNode extends MNode {
   /** registered trigger */
   private TriggerExecutor triggerExecutor = null;
 
+  /** id to find the memory chunk of this series in memtables, 0 means not assigned yet */
+  private transient long memTableId = 0;
+
   /** @param alias alias of measurementName */
   public MeasurementMNode(
       MNode parent,
@@ -77,6 +83,18 @@ public class MeasurementMNode extends MNode {
     return schema;
   }
 
+  /**
+   * @return a positive id that is unique among all MeasurementMNodes, it is assigned when it is
+   *     first asked for and never changes
+   */
+  public long getMemTableId() {
+    if (memTableId == 0) {
+      // a racing thread may assign another id, which only costs a missed lookup in memtables
+      memTableId = MEM_TABLE_ID_GENERATOR.incrementAndGet();
+    }
+    return memTableId;
+  }
+
   public TimeValuePair getCachedLast() {
     return cachedLastValuePair;
   }
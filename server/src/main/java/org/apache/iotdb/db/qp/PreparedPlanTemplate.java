@@ -0,0 +1,339 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.qp;
+
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.qp.constant.SQLConstant;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.qp.utils.DatetimeUtils;
+import org.apache.iotdb.db.utils.CommonUtils;
+import org.apache.iotdb.db.utils.TypeInferenceUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PreparedPlanTemplate is a statement prepared on the server, whose parameters are marked by "?"
+ * outside quotes. Each parameter is given as a literal, as it would be written in the statement.
+ *
+ * <p>If the statement inserts one row and its parameters only appear in the time or the values, it
+ * is parsed only once when it is prepared, and each execution binds the parameters into a new
+ * InsertRowPlan without parsing. Otherwise, the parameters are substituted into the statement,
+ * which is then parsed as an ordinary one in each execution.
+ *
+ * <p>A parameter may come with its data type, e.g., it is set by setInt() of JDBC. A typed
+ * parameter is bound as a value of that type, and creates its series with that type if the series
+ * does not exist. The literal of an untyped parameter is bound like it is written in the statement.
+ *
+ * <p>The templates are shared by the prepared statements of the same text and time zone, so that a
+ * statement prepared again, e.g., by another connection, is not parsed again.
+ */
+public class PreparedPlanTemplate {
+
+  private static final Logger logger = LoggerFactory.getLogger(PreparedPlanTemplate.class);
+
+  /**
+   * When the statement is prepared, the i-th parameter is replaced by PLACEHOLDER_BASE + i, so that
+   * the statement can be parsed and the positions of the parameters can be found in the plan. The
+   * base is large enough not to be confused with the constants in a statement.
+   */
+  private static final long PLACEHOLDER_BASE = 8_765_432_100_000_000_000L;
+
+  /** the type of a parameter that is a literal */
+  public static final int UNTYPED_PARAMETER = -1;
+
+  private static final int CACHE_SIZE = 1024;
+  /** (time zone + statement) -> template */
+  private static final Cache<String, PreparedPlanTemplate> templateCache =
+      Caffeine.newBuilder().maximumSize(CACHE_SIZE).build();
+
+  private final String statement;
+  /** the statement split by the parameters, so there are (parts.size() - 1) parameters */
+  private final List<String> parts;
+
+  /** the plan parsed from the statement with placeholders, null if the statement is not bindable */
+  private InsertRowPlan insertTemplate;
+  /** the index of the parameter used as the time, -1 if the time is a constant */
+  private int timeParameterIndex = -1;
+  /** the index of the parameter used as each value, -1 if the value is a constant */
+  private int[] valueParameterIndexes;
+
+  public PreparedPlanTemplate(Planner planner, String statement, ZoneId zoneId, int fetchSize) {
+    this.statement = statement;
+    this.parts = splitStatement(statement);
+
+    List<String> placeholders = new ArrayList<>(getParameterCount());
+    for (int i = 0; i < getParameterCount(); i++) {
+      placeholders.add(String.valueOf(PLACEHOLDER_BASE + i));
+    }
+    PhysicalPlan plan;
+    try {
+      plan = planner.parseSQLToPhysicalPlan(substitute(placeholders), zoneId, fetchSize);
+    } catch (Exception e) {
+      // e.g., a parameter is where a number is not allowed, the statement will be parsed with the
+      // real parameters in each execution, and the errors are reported then
+      logger.debug("Cannot parse {} with placeholders, it will be parsed in executions", statement);
+      return;
+    }
+    if (plan instanceof InsertRowPlan) {
+      tryBuildInsertTemplate((InsertRowPlan) plan);
+    }
+  }
+
+  /** Get the template of the statement from the cache, or parse it if it is not cached. */
+  public static PreparedPlanTemplate getOrCreate(
+      Planner planner, String statement, ZoneId zoneId, int fetchSize) {
+    return templateCache.get(
+        zoneId.getId() + " " + statement,
+        k -> new PreparedPlanTemplate(planner, statement, zoneId, fetchSize));
+  }
+
+  public String getStatement() {
+    return statement;
+  }
+
+  public int getParameterCount() {
+    return parts.size() - 1;
+  }
+
+  /** @return whether an execution creates the plan by binding parameters instead of parsing */
+  public boolean isBindable() {
+    return insertTemplate != null;
+  }
+
+  /**
+   * Create the plan of an execution with untyped parameters.
+   *
+   * @param parameters the literals of the parameters in order
+   */
+  public PhysicalPlan bind(Planner planner, List<String> parameters, ZoneId zoneId, int fetchSize)
+      throws QueryProcessException {
+    return bind(planner, parameters, null, zoneId, fetchSize);
+  }
+
+  /**
+   * Create the plan of an execution.
+   *
+   * @param parameters the literals of the parameters in order
+   * @param parameterTypes the ordinal of the TSDataType of each parameter, or UNTYPED_PARAMETER if
+   *     a parameter is a literal, null if all parameters are literals
+   */
+  public PhysicalPlan bind(
+      Planner planner,
+      List<String> parameters,
+      List<Integer> parameterTypes,
+      ZoneId zoneId,
+      int fetchSize)
+      throws QueryProcessException {
+    if (parameters.size() != getParameterCount()
+        || (parameterTypes != null && parameterTypes.size() != getParameterCount())) {
+      throw new QueryProcessException(
+          String.format(
+              "%d parameters are expected but %d are given",
+              getParameterCount(), parameters.size()));
+    }
+    if (insertTemplate == null) {
+      // the literals of the typed parameters can also be written in the statement
+      return planner.parseSQLToPhysicalPlan(substitute(parameters), zoneId, fetchSize);
+    }
+
+    long time =
+        timeParameterIndex == -1
+            ? insertTemplate.getTime()
+            : parseTime(parameters.get(timeParameterIndex), zoneId);
+    Object[] templateValues = insertTemplate.getValues();
+    String[] values = new String[templateValues.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] =
+          valueParameterIndexes[i] == -1
+              ? (String) templateValues[i]
+              : parameters.get(valueParameterIndexes[i]);
+    }
+    InsertRowPlan plan =
+        new InsertRowPlan(
+            insertTemplate.getPrefixPath(),
+            time,
+            insertTemplate.getMeasurements().clone(),
+            values);
+    plan.setAligned(insertTemplate.isAligned());
+    if (parameterTypes != null) {
+      bindTypedValues(plan, parameters, parameterTypes);
+    }
+    return plan;
+  }
+
+  /**
+   * Bind the typed parameters as values of their types. Then the other literals are converted into
+   * the types inferred from them, as if the statement were parsed, so that the plan carries typed
+   * values only. The values are still converted into the types of the existing series when they
+   * are inserted, where a value of the right type is kept as it is.
+   */
+  private void bindTypedValues(
+      InsertRowPlan plan, List<String> parameters, List<Integer> parameterTypes)
+      throws QueryProcessException {
+    Object[] values = plan.getValues();
+    TSDataType[] dataTypes = plan.getDataTypes();
+    boolean hasTypedValue = false;
+    for (int i = 0; i < values.length; i++) {
+      int parameterIndex = valueParameterIndexes[i];
+      if (parameterIndex == -1 || parameterTypes.get(parameterIndex) == UNTYPED_PARAMETER) {
+        continue;
+      }
+      int type = parameterTypes.get(parameterIndex);
+      if (type < 0 || type >= TSDataType.values().length) {
+        throw new QueryProcessException("Unknown type of parameter: " + type);
+      }
+      TSDataType dataType = TSDataType.values()[type];
+      Object value = CommonUtils.parseValue(dataType, parameters.get(parameterIndex));
+      // a null stays a literal
+      if (value != null) {
+        dataTypes[i] = dataType;
+        values[i] = value;
+        hasTypedValue = true;
+      }
+    }
+    if (!hasTypedValue) {
+      return;
+    }
+    for (int i = 0; i < values.length; i++) {
+      if (dataTypes[i] != null) {
+        continue;
+      }
+      TSDataType dataType = TypeInferenceUtils.getPredictedDataType(values[i], true);
+      Object value = dataType == null ? null : CommonUtils.parseValue(dataType, (String) values[i]);
+      if (value != null) {
+        dataTypes[i] = dataType;
+        values[i] = value;
+      }
+    }
+  }
+
+  /**
+   * The template is kept only if every parameter is used exactly once as the time or a value, so
+   * that binding the parameters produces the same plan as parsing the substituted statement.
+   */
+  private void tryBuildInsertTemplate(InsertRowPlan plan) {
+    int[] usedTimes = new int[getParameterCount()];
+    int timeIndex = toParameterIndex(String.valueOf(plan.getTime()));
+    if (timeIndex != -1) {
+      usedTimes[timeIndex]++;
+    }
+    Object[] values = plan.getValues();
+    int[] valueIndexes = new int[values.length];
+    for (int i = 0; i < values.length; i++) {
+      if (!(values[i] instanceof String)) {
+        return;
+      }
+      valueIndexes[i] = toParameterIndex((String) values[i]);
+      if (valueIndexes[i] != -1) {
+        usedTimes[valueIndexes[i]]++;
+      }
+    }
+    for (int usedTime : usedTimes) {
+      if (usedTime != 1) {
+        return;
+      }
+    }
+    this.timeParameterIndex = timeIndex;
+    this.valueParameterIndexes = valueIndexes;
+    this.insertTemplate = plan;
+  }
+
+  private int toParameterIndex(String literal) {
+    long index;
+    try {
+      index = Long.parseLong(literal) - PLACEHOLDER_BASE;
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+    return index >= 0 && index < getParameterCount() ? (int) index : -1;
+  }
+
+  private long parseTime(String literal, ZoneId zoneId) throws QueryProcessException {
+    try {
+      return Long.parseLong(literal);
+    } catch (NumberFormatException e) {
+      // not a timestamp, try a datetime
+    }
+    if (literal.equalsIgnoreCase(SQLConstant.NOW_FUNC)) {
+      return DatetimeUtils.currentTime();
+    }
+    try {
+      return DatetimeUtils.convertDatetimeStrToLong(literal, zoneId);
+    } catch (Exception e) {
+      throw new QueryProcessException(
+          String.format(
+              "Input time format %s error. "
+                  + "Input like yyyy-MM-dd HH:mm:ss, yyyy-MM-ddTHH:mm:ss or "
+                  + "refer to user document for more info.",
+              literal));
+    }
+  }
+
+  private String substitute(List<String> parameters) {
+    StringBuilder sql = new StringBuilder(parts.get(0));
+    for (int i = 1; i < parts.size(); i++) {
+      sql.append(parameters.get(i - 1)).append(parts.get(i));
+    }
+    return sql.toString();
+  }
+
+  /** Split the statement by each "?" that is not quoted, in the same way as the JDBC driver. */
+  private static List<String> splitStatement(String sql) {
+    List<String> parts = new ArrayList<>();
+    int apCount = 0;
+    int off = 0;
+    boolean skip = false;
+
+    for (int i = 0; i < sql.length(); i++) {
+      char c = sql.charAt(i);
+      if (skip) {
+        skip = false;
+        continue;
+      }
+      switch (c) {
+        case '\'':
+          apCount++;
+          break;
+        case '\\':
+          skip = true;
+          break;
+        case '?':
+          if ((apCount & 1) == 0) {
+            parts.add(sql.substring(off, i));
+            off = i + 1;
+          }
+          break;
+        default:
+          break;
+      }
+    }
+    parts.add(sql.substring(off));
+    return parts;
+  }
+}
@@ -71,6 +71,11 @@ public class SQLConstant {
   public static final String AVG = "avg";
   public static final String SUM = "sum";
 
+  public static final String APPROX_COUNT_DISTINCT = "approx_count_distinct";
+  public static final String APPROX_MEDIAN = "approx_median";
+
+  public static final String M4 = "m4";
+
   public static final String ALL = "all";
 
   private static final Set<String> NATIVE_FUNCTION_NAMES =
@@ -85,7 +90,10 @@ public class SQLConstant {
               LAST_VALUE,
               COUNT,
               SUM,
-              AVG));
+              AVG,
+              APPROX_COUNT_DISTINCT,
+              APPROX_MEDIAN,
+              M4));
 
   public static final int TOK_WHERE = 23;
   public static final int TOK_INSERT = 24;
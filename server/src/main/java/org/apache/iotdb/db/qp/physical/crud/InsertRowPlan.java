@@ -29,6 +29,7 @@ import org.apache.iotdb.db.qp.logical.Operator;
 import org.apache.iotdb.db.qp.logical.Operator.OperatorType;
 import org.apache.iotdb.db.utils.CommonUtils;
 import org.apache.iotdb.db.utils.TestOnly;
+import org.apache.iotdb.db.utils.TypeInferenceUtils;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
@@ -260,8 +261,7 @@ public class InsertRowPlan extends InsertPlan {
         if (measurementMNodes[i].getSchema().getType() != TSDataType.VECTOR) {
           dataTypes[columnIndex] = measurementMNodes[i].getSchema().getType();
           try {
-            values[columnIndex] =
-                CommonUtils.parseValue(dataTypes[columnIndex], values[columnIndex].toString());
+            values[columnIndex] = toRegisteredType(dataTypes[columnIndex], values[columnIndex]);
           } catch (Exception e) {
             logger.warn(
                 "{}.{} data type is not consistent, input {}, registered {}",
@@ -283,8 +283,7 @@ public class InsertRowPlan extends InsertPlan {
           for (TSDataType dataType : measurementMNodes[i].getSchema().getValueTSDataTypeList()) {
             dataTypes[columnIndex] = dataType;
             try {
-              values[columnIndex] =
-                  CommonUtils.parseValue(dataTypes[columnIndex], values[columnIndex].toString());
+              values[columnIndex] = toRegisteredType(dataTypes[columnIndex], values[columnIndex]);
             } catch (Exception e) {
               logger.warn(
                   "{}.{} data type is not consistent, input {}, registered {}",
@@ -306,6 +305,19 @@ public class InsertRowPlan extends InsertPlan {
     }
   }
 
+  /**
+   * Converts a value to the registered type of its series. A value that a client has already bound
+   * with the registered type is kept as is instead of being printed and parsed again.
+   */
+  private static Object toRegisteredType(TSDataType dataType, Object value)
+      throws QueryProcessException {
+    if (!(value instanceof String)
+        && TypeInferenceUtils.getPredictedDataType(value, false) == dataType) {
+      return value;
+    }
+    return CommonUtils.parseValue(dataType, value.toString());
+  }
+
   @Override
   public long getMinTime() {
     return getTime();
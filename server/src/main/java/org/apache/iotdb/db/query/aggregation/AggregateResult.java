@@ -69,6 +69,14 @@ public abstract class AggregateResult {
   public abstract void updateResultFromStatistics(Statistics statistics)
       throws QueryProcessException;
 
+  /**
+   * Whether the result can be calculated using the statistics, e.g., the approximate aggregations
+   * need the ValueSketch, which the statistics of pages or older files do not have.
+   */
+  public boolean canUpdateFromStatistics(Statistics statistics) {
+    return true;
+  }
+
   /**
    * Aggregate results cannot be calculated using Statistics directly, using the data in each page
    *
@@ -298,7 +306,7 @@ public abstract class AggregateResult {
     this.binaryValue = binaryValue;
   }
 
-  protected boolean hasCandidateResult() {
+  public boolean hasCandidateResult() {
     return hasCandidateResult;
   }
 
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.aggregation.impl;
+
+import org.apache.iotdb.db.query.aggregation.AggregateResult;
+import org.apache.iotdb.db.query.aggregation.AggregationType;
+import org.apache.iotdb.db.query.reader.series.IReaderByTimestamp;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.file.metadata.statistics.ValueSketch;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The base of the approximate aggregations, which collect the values into a ValueSketch. The
+ * sketches in the chunk metadata and TimeseriesMetadata are merged directly, so that the data of
+ * sealed chunks need not be read.
+ */
+public abstract class ApproxAggrResult extends AggregateResult {
+
+  private TSDataType seriesDataType;
+  protected ValueSketch sketch;
+
+  protected ApproxAggrResult(
+      TSDataType resultDataType, AggregationType aggregationType, TSDataType seriesDataType) {
+    super(resultDataType, aggregationType);
+    this.seriesDataType = seriesDataType;
+    reset();
+  }
+
+  @Override
+  public boolean canUpdateFromStatistics(Statistics statistics) {
+    return statistics.getSketch() != null;
+  }
+
+  @Override
+  public void updateResultFromStatistics(Statistics statistics) {
+    sketch.merge(statistics.getSketch());
+    hasCandidateResult = true;
+  }
+
+  @Override
+  public void updateResultFromPageData(BatchData dataInThisPage) {
+    updateResultFromPageData(dataInThisPage, Long.MIN_VALUE, Long.MAX_VALUE);
+  }
+
+  @Override
+  public void updateResultFromPageData(BatchData dataInThisPage, long minBound, long maxBound) {
+    while (dataInThisPage.hasCurrent()) {
+      if (dataInThisPage.currentTime() >= maxBound || dataInThisPage.currentTime() < minBound) {
+        break;
+      }
+      updateSketch(dataInThisPage.currentValue());
+      dataInThisPage.next();
+    }
+  }
+
+  @Override
+  public void updateResultUsingTimestamps(
+      long[] timestamps, int length, IReaderByTimestamp dataReader) throws IOException {
+    Object[] values = dataReader.getValuesInTimestamps(timestamps, length);
+    for (int i = 0; i < length; i++) {
+      if (values[i] != null) {
+        updateSketch(values[i]);
+      }
+    }
+  }
+
+  @Override
+  public void updateResultUsingValues(long[] timestamps, int length, Object[] values) {
+    for (int i = 0; i < length; i++) {
+      if (values[i] != null) {
+        updateSketch(values[i]);
+      }
+    }
+  }
+
+  private void updateSketch(Object value) {
+    switch (seriesDataType) {
+      case INT32:
+        sketch.update((int) value);
+        break;
+      case INT64:
+        sketch.update((long) value);
+        break;
+      case FLOAT:
+        sketch.update((float) value);
+        break;
+      case DOUBLE:
+        sketch.update((double) value);
+        break;
+      case TEXT:
+      case BOOLEAN:
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format(
+                "Unsupported data type in aggregation %s : %s",
+                getAggregationType(), seriesDataType));
+    }
+    hasCandidateResult = true;
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public void merge(AggregateResult another) {
+    ApproxAggrResult anotherResult = (ApproxAggrResult) another;
+    if (anotherResult.hasCandidateResult()) {
+      sketch.merge(anotherResult.sketch);
+      hasCandidateResult = true;
+    }
+  }
+
+  @Override
+  public void reset() {
+    super.reset();
+    sketch = new ValueSketch();
+  }
+
+  @Override
+  protected void deserializeSpecificFields(ByteBuffer buffer) {
+    seriesDataType = TSDataType.deserialize(buffer.get());
+    sketch = ValueSketch.deserializeFrom(buffer);
+  }
+
+  @Override
+  protected void serializeSpecificFields(OutputStream outputStream) throws IOException {
+    ReadWriteIOUtils.write(seriesDataType, outputStream);
+    sketch.serializeTo(outputStream);
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.aggregation.impl;
+
+import org.apache.iotdb.db.query.aggregation.AggregationType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+/** Estimate the median by the logarithmic buckets in ValueSketch, whose relative error is 1%. */
+public class ApproxMedianAggrResult extends ApproxAggrResult {
+
+  public ApproxMedianAggrResult(TSDataType seriesDataType) {
+    super(TSDataType.DOUBLE, AggregationType.APPROX_MEDIAN, seriesDataType);
+  }
+
+  @Override
+  public Double getResult() {
+    if (!hasCandidateResult()) {
+      return null;
+    }
+    setDoubleValue(sketch.getQuantile(0.5));
+    return getDoubleValue();
+  }
+}
@@ -50,7 +50,7 @@ public class AvgAggrResult extends AggregateResult {
   }
 
   @Override
-  protected boolean hasCandidateResult() {
+  public boolean hasCandidateResult() {
     return cnt > 0;
   }
 
@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.aggregation.impl;
+
+import org.apache.iotdb.db.query.aggregation.AggregateResult;
+import org.apache.iotdb.db.query.aggregation.AggregationType;
+import org.apache.iotdb.db.query.reader.series.IReaderByTimestamp;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * M4 collects the first, last, minimal and maximal points of a series in a time range, which are
+ * enough to draw the line chart of the range in one pixel column exactly. All of them are
+ * available in the Statistics, so only the pages that cross the boundaries of the range need
+ * decoding.
+ *
+ * <p>The result is a string "firstTime,firstValue,lastTime,lastValue,minValue,maxValue". The
+ * timestamps of the minimal and maximal values are not in the Statistics and thus not returned,
+ * they are not needed for drawing as the two points lie in the same pixel column as the first and
+ * the last point.
+ */
+public class M4AggrResult extends AggregateResult {
+
+  private TSDataType seriesDataType;
+
+  private long firstTime;
+  private long lastTime;
+  private Comparable<Object> firstValue;
+  private Comparable<Object> lastValue;
+  private Comparable<Object> minValue;
+  private Comparable<Object> maxValue;
+
+  /**
+   * @param seriesDataType the type of the aggregated series, it is checked when the result is
+   *     updated, as a result being deserialized is created with its result type (TEXT) and gets the
+   *     series type from the serialized fields
+   */
+  public M4AggrResult(TSDataType seriesDataType) {
+    super(TSDataType.TEXT, AggregationType.M4);
+    this.seriesDataType = seriesDataType;
+    reset();
+  }
+
+  private void checkSeriesDataType() {
+    if (seriesDataType != TSDataType.INT32
+        && seriesDataType != TSDataType.INT64
+        && seriesDataType != TSDataType.FLOAT
+        && seriesDataType != TSDataType.DOUBLE) {
+      throw new UnSupportedDataTypeException(
+          String.format("Unsupported data type in aggregation M4 : %s", seriesDataType));
+    }
+  }
+
+  @Override
+  public Object getResult() {
+    if (!hasCandidateResult()) {
+      return null;
+    }
+    if (getBinaryValue() == null) {
+      setBinaryValue(
+          Binary.valueOf(
+              firstTime
+                  + ","
+                  + firstValue
+                  + ","
+                  + lastTime
+                  + ","
+                  + lastValue
+                  + ","
+                  + minValue
+                  + ","
+                  + maxValue));
+    }
+    return getBinaryValue();
+  }
+
+  @Override
+  public void updateResultFromStatistics(Statistics statistics) {
+    checkSeriesDataType();
+    updateFirst(statistics.getStartTime(), statistics.getFirstValue());
+    updateLast(statistics.getEndTime(), statistics.getLastValue());
+    updateMinMax(statistics.getMinValue());
+    updateMinMax(statistics.getMaxValue());
+  }
+
+  @Override
+  public void updateResultFromPageData(BatchData dataInThisPage) {
+    updateResultFromPageData(dataInThisPage, Long.MIN_VALUE, Long.MAX_VALUE);
+  }
+
+  @Override
+  public void updateResultFromPageData(BatchData dataInThisPage, long minBound, long maxBound) {
+    checkSeriesDataType();
+    while (dataInThisPage.hasCurrent()
+        && dataInThisPage.currentTime() < maxBound
+        && dataInThisPage.currentTime() >= minBound) {
+      updatePoint(dataInThisPage.currentTime(), dataInThisPage.currentValue());
+      dataInThisPage.next();
+    }
+  }
+
+  @Override
+  public void updateResultUsingTimestamps(
+      long[] timestamps, int length, IReaderByTimestamp dataReader) throws IOException {
+    Object[] values = dataReader.getValuesInTimestamps(timestamps, length);
+    updateResultUsingValues(timestamps, length, values);
+  }
+
+  @Override
+  public void updateResultUsingValues(long[] timestamps, int length, Object[] values) {
+    checkSeriesDataType();
+    for (int i = 0; i < length; i++) {
+      if (values[i] != null) {
+        updatePoint(timestamps[i], values[i]);
+      }
+    }
+  }
+
+  private void updatePoint(long time, Object value) {
+    updateFirst(time, value);
+    updateLast(time, value);
+    updateMinMax(value);
+  }
+
+  /** the points may be fed in either time order, so the first point is decided by its time */
+  @SuppressWarnings("unchecked")
+  private void updateFirst(long time, Object value) {
+    if (firstValue == null || time < firstTime) {
+      firstTime = time;
+      firstValue = (Comparable<Object>) value;
+      onUpdated();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void updateLast(long time, Object value) {
+    if (lastValue == null || time > lastTime) {
+      lastTime = time;
+      lastValue = (Comparable<Object>) value;
+      onUpdated();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void updateMinMax(Object value) {
+    Comparable<Object> comparable = (Comparable<Object>) value;
+    if (minValue == null || comparable.compareTo(minValue) < 0) {
+      minValue = comparable;
+      onUpdated();
+    }
+    if (maxValue == null || comparable.compareTo(maxValue) > 0) {
+      maxValue = comparable;
+      onUpdated();
+    }
+  }
+
+  /** the string result is built lazily in getResult() */
+  private void onUpdated() {
+    hasCandidateResult = true;
+    setBinaryValue(null);
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public void merge(AggregateResult another) {
+    M4AggrResult anotherM4 = (M4AggrResult) another;
+    if (!anotherM4.hasCandidateResult()) {
+      return;
+    }
+    updateFirst(anotherM4.firstTime, anotherM4.firstValue);
+    updateLast(anotherM4.lastTime, anotherM4.lastValue);
+    updateMinMax(anotherM4.minValue);
+    updateMinMax(anotherM4.maxValue);
+  }
+
+  @Override
+  public void reset() {
+    super.reset();
+    firstTime = Long.MAX_VALUE;
+    lastTime = Long.MIN_VALUE;
+    firstValue = null;
+    lastValue = null;
+    minValue = null;
+    maxValue = null;
+  }
+
+  @Override
+  public void serializeTo(OutputStream outputStream) throws IOException {
+    // make sure the string result is built before it is serialized
+    getResult();
+    super.serializeTo(outputStream);
+  }
+
+  @Override
+  protected void deserializeSpecificFields(ByteBuffer buffer) {
+    seriesDataType = TSDataType.deserialize(buffer.get());
+    firstTime = buffer.getLong();
+    lastTime = buffer.getLong();
+    firstValue = readValue(buffer);
+    lastValue = readValue(buffer);
+    minValue = readValue(buffer);
+    maxValue = readValue(buffer);
+  }
+
+  @Override
+  protected void serializeSpecificFields(OutputStream outputStream) throws IOException {
+    ReadWriteIOUtils.write(seriesDataType, outputStream);
+    ReadWriteIOUtils.write(firstTime, outputStream);
+    ReadWriteIOUtils.write(lastTime, outputStream);
+    writeValue(firstValue, outputStream);
+    writeValue(lastValue, outputStream);
+    writeValue(minValue, outputStream);
+    writeValue(maxValue, outputStream);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Comparable<Object> readValue(ByteBuffer buffer) {
+    switch (seriesDataType) {
+      case INT32:
+        return (Comparable<Object>) (Object) buffer.getInt();
+      case INT64:
+        return (Comparable<Object>) (Object) buffer.getLong();
+      case FLOAT:
+        return (Comparable<Object>) (Object) buffer.getFloat();
+      case DOUBLE:
+        return (Comparable<Object>) (Object) buffer.getDouble();
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format(
+                "Unsupported data type in aggregation %s : %s",
+                getAggregationType(), seriesDataType));
+    }
+  }
+
+  private void writeValue(Object value, OutputStream outputStream) throws IOException {
+    switch (seriesDataType) {
+      case INT32:
+        ReadWriteIOUtils.write((int) value, outputStream);
+        break;
+      case INT64:
+        ReadWriteIOUtils.write((long) value, outputStream);
+        break;
+      case FLOAT:
+        ReadWriteIOUtils.write((float) value, outputStream);
+        break;
+      case DOUBLE:
+        ReadWriteIOUtils.write((double) value, outputStream);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format(
+                "Unsupported data type in aggregation %s : %s",
+                getAggregationType(), seriesDataType));
+    }
+  }
+}
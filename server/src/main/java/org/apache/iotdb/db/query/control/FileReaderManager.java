@@ -20,6 +20,7 @@ package org.apache.iotdb.db.query.control;
 
 import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.MetadataIndexNodeCache;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.service.IService;
 import org.apache.iotdb.db.service.ServiceType;
@@ -178,6 +179,8 @@ public class FileReaderManager implements IService {
               .equals(TSFileConfig.VERSION_NUMBER_V2)) {
             throw new IOException("The version of this TsFile is not corrent. ");
           }
+        } else if (MetadataIndexNodeCache.isEnable()) {
+          tsFileReader.setMetadataIndexNodeCache(MetadataIndexNodeCache.getInstance());
         }
       }
       readerMap.put(filePath, tsFileReader);
@@ -249,6 +252,13 @@ public class FileReaderManager implements IService {
     }
   }
 
+  /** This method is only for unit tests. */
+  public synchronized int getReferenceCount(TsFileResource tsFile, boolean isClosed) {
+    AtomicInteger reference =
+        (isClosed ? closedReferenceMap : unclosedReferenceMap).get(tsFile.getTsFilePath());
+    return reference == null ? 0 : reference.get();
+  }
+
   /** This method is only for unit tests. */
   public synchronized boolean contains(TsFileResource tsFile, boolean isClosed) {
     return (isClosed && closedFileReaderMap.containsKey(tsFile.getTsFilePath()))
@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.control;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.cost.statistic.Measurement;
+import org.apache.iotdb.db.cost.statistic.Operation;
+import org.apache.iotdb.db.exception.StartupException;
+import org.apache.iotdb.db.exception.query.QueryRejectedRuntimeException;
+import org.apache.iotdb.db.service.IService;
+import org.apache.iotdb.db.service.JMXService;
+import org.apache.iotdb.db.service.ServiceType;
+import org.apache.iotdb.db.utils.TestOnly;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * QueryAdmissionController limits the number of the data queries that run at the same time and the
+ * sum of their estimated memory, so that a burst of heavy queries does not start all at once. The
+ * queries that cannot run wait in a queue ordered by {@link QueryPriority} and then by arrival,
+ * and only the head of the queue may be admitted, so that a query with a large memory estimation
+ * is not starved by the smaller ones behind it. A query is rejected if the queue is full or it
+ * waits longer than the admission timeout.
+ *
+ * <p>A query runs from {@link #admit} to {@link #release}, which is called when the resources of
+ * the query are released by {@link QueryResourceManager#endQuery(long)}.
+ */
+public class QueryAdmissionController implements QueryAdmissionControllerMXBean, IService {
+
+  private static final Logger logger = LoggerFactory.getLogger(QueryAdmissionController.class);
+
+  private final int maxConcurrentQueryNum;
+  private final int maxQueuedQueryNum;
+  private final long admissionTimeoutInMs;
+  private final long memoryBudget;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final PriorityQueue<QueuedQuery> queue =
+      new PriorityQueue<>(
+          Comparator.comparing((QueuedQuery q) -> q.priority)
+              .thenComparingLong(q -> q.arrivalSequence));
+  // query id -> estimated memory of the running queries, guarded by lock
+  private final Map<Long, Long> runningQueries = new HashMap<>();
+  private long usedMemory;
+  private long arrivalSequence;
+
+  private final AtomicLong admittedQueryNum = new AtomicLong();
+  private final AtomicLong rejectedQueryNum = new AtomicLong();
+  private final AtomicLong totalQueueWaitTime = new AtomicLong();
+  private final AtomicLong maxQueueWaitTime = new AtomicLong();
+
+  private QueryAdmissionController() {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    this.maxConcurrentQueryNum = config.getMaxConcurrentQueryNum();
+    this.maxQueuedQueryNum = config.getMaxQueuedQueryNum();
+    this.admissionTimeoutInMs = config.getQueryAdmissionTimeoutInMs();
+    this.memoryBudget = config.getAllocateMemoryForReadWithoutCache();
+  }
+
+  @TestOnly
+  QueryAdmissionController(
+      int maxConcurrentQueryNum,
+      int maxQueuedQueryNum,
+      long admissionTimeoutInMs,
+      long memoryBudget) {
+    this.maxConcurrentQueryNum = maxConcurrentQueryNum;
+    this.maxQueuedQueryNum = maxQueuedQueryNum;
+    this.admissionTimeoutInMs = admissionTimeoutInMs;
+    this.memoryBudget = memoryBudget;
+  }
+
+  public static QueryAdmissionController getInstance() {
+    return QueryAdmissionControllerHolder.INSTANCE;
+  }
+
+  public boolean isEnable() {
+    return maxConcurrentQueryNum > 0;
+  }
+
+  /**
+   * Block until the query can run.
+   *
+   * @param estimatedMemory the estimated memory of the query in bytes
+   * @throws QueryRejectedRuntimeException if the queue is full, the query waits longer than the
+   *     admission timeout or the thread is interrupted while waiting
+   */
+  public void admit(long queryId, long estimatedMemory, QueryPriority priority) {
+    long startTime = System.currentTimeMillis();
+    lock.lock();
+    try {
+      if (queue.isEmpty() && canRun(estimatedMemory)) {
+        run(queryId, estimatedMemory);
+        admittedQueryNum.incrementAndGet();
+        return;
+      }
+      if (queue.size() >= maxQueuedQueryNum) {
+        rejectedQueryNum.incrementAndGet();
+        throw new QueryRejectedRuntimeException(
+            String.format(
+                "Too many queries, %d queries are running and %d queries are waiting. Please "
+                    + "retry later or adjust max_concurrent_query_num and max_queued_query_num "
+                    + "in iotdb-engine.properties.",
+                runningQueries.size(), queue.size()));
+      }
+
+      QueuedQuery queuedQuery =
+          new QueuedQuery(
+              queryId, estimatedMemory, priority, arrivalSequence++, lock.newCondition());
+      queue.add(queuedQuery);
+      waitForAdmission(queuedQuery);
+      admittedQueryNum.incrementAndGet();
+      recordQueueWaitTime(startTime);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void waitForAdmission(QueuedQuery queuedQuery) {
+    long remainingNanos = TimeUnit.MILLISECONDS.toNanos(admissionTimeoutInMs);
+    try {
+      while (!queuedQuery.admitted) {
+        if (remainingNanos <= 0) {
+          abandon(queuedQuery);
+          throw new QueryRejectedRuntimeException(
+              String.format(
+                  "The query waited more than %dms for running, please retry later or adjust "
+                      + "query_admission_timeout_in_ms in iotdb-engine.properties.",
+                  admissionTimeoutInMs));
+        }
+        remainingNanos = queuedQuery.condition.awaitNanos(remainingNanos);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      abandon(queuedQuery);
+      throw new QueryRejectedRuntimeException(
+          "The query is interrupted while waiting for running.");
+    }
+  }
+
+  private void abandon(QueuedQuery queuedQuery) {
+    if (queuedQuery.admitted) {
+      // admitted right before the thread is interrupted
+      usedMemory -= runningQueries.remove(queuedQuery.queryId);
+    } else {
+      queue.remove(queuedQuery);
+    }
+    rejectedQueryNum.incrementAndGet();
+    // the queries behind it may be able to run now
+    admitQueuedQueries();
+  }
+
+  /** Release the resources of a query, it is ignored if the query was not admitted. */
+  public void release(long queryId) {
+    if (!isEnable()) {
+      return;
+    }
+    lock.lock();
+    try {
+      Long estimatedMemory = runningQueries.remove(queryId);
+      if (estimatedMemory == null) {
+        return;
+      }
+      usedMemory -= estimatedMemory;
+      admitQueuedQueries();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean canRun(long estimatedMemory) {
+    // a query larger than the memory budget runs alone
+    return runningQueries.size() < maxConcurrentQueryNum
+        && (usedMemory + estimatedMemory <= memoryBudget || runningQueries.isEmpty());
+  }
+
+  private void run(long queryId, long estimatedMemory) {
+    runningQueries.put(queryId, estimatedMemory);
+    usedMemory += estimatedMemory;
+  }
+
+  private void admitQueuedQueries() {
+    QueuedQuery head;
+    while ((head = queue.peek()) != null && canRun(head.estimatedMemory)) {
+      queue.poll();
+      run(head.queryId, head.estimatedMemory);
+      head.admitted = true;
+      head.condition.signal();
+    }
+  }
+
+  private void recordQueueWaitTime(long startTime) {
+    Measurement.INSTANCE.addOperationLatency(Operation.QUERY_ADMISSION_WAIT, startTime);
+    long waitTime = System.currentTimeMillis() - startTime;
+    totalQueueWaitTime.addAndGet(waitTime);
+    maxQueueWaitTime.accumulateAndGet(waitTime, Math::max);
+    if (logger.isDebugEnabled()) {
+      logger.debug("A query waited {}ms in the admission queue", waitTime);
+    }
+  }
+
+  @Override
+  public int getRunningQueryNum() {
+    lock.lock();
+    try {
+      return runningQueries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int getQueuedQueryNum() {
+    lock.lock();
+    try {
+      return queue.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long getUsedMemory() {
+    lock.lock();
+    try {
+      return usedMemory;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long getAdmittedQueryNum() {
+    return admittedQueryNum.get();
+  }
+
+  @Override
+  public long getRejectedQueryNum() {
+    return rejectedQueryNum.get();
+  }
+
+  @Override
+  public double getAverageQueueWaitTime() {
+    long admitted = admittedQueryNum.get();
+    return admitted == 0 ? 0 : (double) totalQueueWaitTime.get() / admitted;
+  }
+
+  @Override
+  public long getMaxQueueWaitTime() {
+    return maxQueueWaitTime.get();
+  }
+
+  @Override
+  public void start() throws StartupException {
+    try {
+      JMXService.registerMBean(this, ServiceType.QUERY_ADMISSION_SERVICE.getJmxName());
+    } catch (Exception e) {
+      throw new StartupException(this.getID().getName(), e.getMessage());
+    }
+  }
+
+  @Override
+  public void stop() {
+    JMXService.deregisterMBean(ServiceType.QUERY_ADMISSION_SERVICE.getJmxName());
+    logger.info("{}: stop {}...", IoTDBConstant.GLOBAL_DB_NAME, this.getID().getName());
+  }
+
+  @Override
+  public ServiceType getID() {
+    return ServiceType.QUERY_ADMISSION_SERVICE;
+  }
+
+  private static class QueuedQuery {
+
+    private final long queryId;
+    private final long estimatedMemory;
+    private final QueryPriority priority;
+    private final long arrivalSequence;
+    private final Condition condition;
+    private boolean admitted;
+
+    private QueuedQuery(
+        long queryId,
+        long estimatedMemory,
+        QueryPriority priority,
+        long arrivalSequence,
+        Condition condition) {
+      this.queryId = queryId;
+      this.estimatedMemory = estimatedMemory;
+      this.priority = priority;
+      this.arrivalSequence = arrivalSequence;
+      this.condition = condition;
+    }
+  }
+
+  private static class QueryAdmissionControllerHolder {
+
+    private static final QueryAdmissionController INSTANCE = new QueryAdmissionController();
+
+    private QueryAdmissionControllerHolder() {}
+  }
+}
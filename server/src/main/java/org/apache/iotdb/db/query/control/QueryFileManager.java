@@ -21,7 +21,6 @@ package org.apache.iotdb.db.query.control;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -50,8 +49,9 @@ public class QueryFileManager {
    * must be invoked.
    */
   void addQueryId(long queryId) {
-    sealedFilePathsMap.computeIfAbsent(queryId, x -> new HashSet<>());
-    unsealedFilePathsMap.computeIfAbsent(queryId, x -> new HashSet<>());
+    // the sub-queries of one query may add files concurrently, e.g., in AlignByDeviceDataSet
+    sealedFilePathsMap.computeIfAbsent(queryId, x -> ConcurrentHashMap.newKeySet());
+    unsealedFilePathsMap.computeIfAbsent(queryId, x -> ConcurrentHashMap.newKeySet());
   }
 
   /** Add the unique file paths to sealedFilePathsMap and unsealedFilePathsMap. */
@@ -116,9 +116,8 @@ public class QueryFileManager {
    */
   void addFilePathToMap(long queryId, TsFileResource tsFile, boolean isClosed) {
     Map<Long, Set<TsFileResource>> pathMap = isClosed ? sealedFilePathsMap : unsealedFilePathsMap;
-    // TODO this is not an atomic operation, is there concurrent problem?
-    if (!pathMap.get(queryId).contains(tsFile)) {
-      pathMap.get(queryId).add(tsFile);
+    // only the thread that really adds the file increases its reference
+    if (pathMap.get(queryId).add(tsFile)) {
       FileReaderManager.getInstance().increaseFileReaderReference(tsFile, isClosed);
     }
   }
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.control;
+
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.AlignByDevicePlan;
+import org.apache.iotdb.db.qp.physical.crud.FillQueryPlan;
+import org.apache.iotdb.db.qp.physical.crud.GroupByTimePlan;
+import org.apache.iotdb.db.qp.physical.crud.LastQueryPlan;
+import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
+import org.apache.iotdb.db.qp.physical.crud.UDFPlan;
+
+/**
+ * The priority classes of the data queries waiting in the admission queue of {@link
+ * QueryAdmissionController}, a query of a higher priority is always admitted before the queries of
+ * lower priorities.
+ */
+public enum QueryPriority {
+  /** cheap queries that are usually issued by dashboards frequently, e.g., last queries */
+  HIGH,
+  /** raw data queries and aggregations */
+  NORMAL,
+  /** queries that may read a lot of data or run user code, e.g., group by and UDF queries */
+  LOW;
+
+  /** @return the priority of the plan, or null if the plan is not a data query */
+  public static QueryPriority of(PhysicalPlan plan) {
+    if (!(plan instanceof QueryPlan)) {
+      return null;
+    }
+    if (plan instanceof LastQueryPlan) {
+      return HIGH;
+    }
+    if (plan instanceof GroupByTimePlan
+        || plan instanceof FillQueryPlan
+        || plan instanceof AlignByDevicePlan
+        || plan instanceof UDFPlan) {
+      return LOW;
+    }
+    return NORMAL;
+  }
+}
@@ -27,6 +27,7 @@ import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.query.PathNumOverLimitException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.exception.query.QueryRejectedRuntimeException;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.externalsort.serialize.IExternalSortFileDeserializer;
@@ -40,7 +41,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -109,6 +110,18 @@ public class QueryResourceManager {
 
   /** Register a new query. When a query request is created firstly, this method must be invoked. */
   public long assignQueryId(boolean isDataQuery, int fetchSize, int deduplicatedPathNum) {
+    return assignQueryId(isDataQuery, fetchSize, deduplicatedPathNum, null);
+  }
+
+  /**
+   * Register a new query, which waits in the admission queue of QueryAdmissionController with the
+   * given priority if the admission control is enabled.
+   *
+   * @param priority null if the query should not be controlled, e.g., the internal queries
+   * @throws QueryRejectedRuntimeException if the query is rejected by the admission control
+   */
+  public long assignQueryId(
+      boolean isDataQuery, int fetchSize, int deduplicatedPathNum, QueryPriority priority) {
     int maxDeduplicatedPathNum = getMaxDeduplicatedPathNum(fetchSize);
     if (deduplicatedPathNum > maxDeduplicatedPathNum) {
       throw new RuntimeException(
@@ -116,10 +129,15 @@ public class QueryResourceManager {
     }
     long queryId = queryIdAtom.incrementAndGet();
     if (isDataQuery) {
+      long estimatedMemoryUsage =
+          deduplicatedPathNum > 0
+              ? (long) deduplicatedPathNum * POINT_ESTIMATED_SIZE * (long) fetchSize
+              : 0;
+      if (priority != null && QueryAdmissionController.getInstance().isEnable()) {
+        QueryAdmissionController.getInstance().admit(queryId, estimatedMemoryUsage, priority);
+      }
       filePathsManager.addQueryId(queryId);
       if (deduplicatedPathNum > 0) {
-        long estimatedMemoryUsage =
-            (long) deduplicatedPathNum * POINT_ESTIMATED_SIZE * (long) fetchSize;
         // apply the memory successfully
         if (totalFreeMemoryForRead.addAndGet(-estimatedMemoryUsage) >= 0) {
           queryIdEstimatedMemoryMap.put(queryId, estimatedMemoryUsage);
@@ -147,7 +165,9 @@ public class QueryResourceManager {
    */
   public void registerTempExternalSortFile(
       long queryId, IExternalSortFileDeserializer deserializer) {
-    externalSortFileMap.computeIfAbsent(queryId, x -> new ArrayList<>()).add(deserializer);
+    externalSortFileMap
+        .computeIfAbsent(queryId, x -> Collections.synchronizedList(new ArrayList<>()))
+        .add(deserializer);
   }
 
   public QueryDataSource getQueryDataSource(
@@ -161,10 +181,10 @@ public class QueryResourceManager {
     // calculate the distinct number of seq and unseq tsfiles
     if (config.isEnablePerformanceTracing()) {
       seqFileNumMap
-          .computeIfAbsent(context.getQueryId(), k -> new HashSet<>())
+          .computeIfAbsent(context.getQueryId(), k -> ConcurrentHashMap.newKeySet())
           .addAll((queryDataSource.getSeqResources()));
       unseqFileNumMap
-          .computeIfAbsent(context.getQueryId(), k -> new HashSet<>())
+          .computeIfAbsent(context.getQueryId(), k -> ConcurrentHashMap.newKeySet())
           .addAll((queryDataSource.getUnseqResources()));
     }
     return queryDataSource;
@@ -226,6 +246,9 @@ public class QueryResourceManager {
 
     // remove query info in QueryTimeManager
     QueryTimeManager.getInstance().unRegisterQuery(queryId);
+
+    // let the queries waiting for admission run
+    QueryAdmissionController.getInstance().release(queryId);
   }
 
   private static class QueryTokenManagerHelper {
@@ -19,6 +19,8 @@
 package org.apache.iotdb.db.query.control;
 
 import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.qp.PreparedPlanTemplate;
+import org.apache.iotdb.db.query.dataset.AlignByDeviceDataSet;
 import org.apache.iotdb.db.query.dataset.UDTFDataSet;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 
@@ -55,6 +57,12 @@ public class SessionManager {
   // (queryId -> QueryDataSet)
   private final Map<Long, QueryDataSet> queryIdToDataSet = new ConcurrentHashMap<>();
 
+  // The preparedStatementId is unique in one IoTDB instance.
+  private final AtomicLong preparedStatementIdGenerator = new AtomicLong();
+  // (sessionId -> (preparedStatementId -> PreparedPlanTemplate))
+  private final Map<Long, Map<Long, PreparedPlanTemplate>> sessionIdToPreparedStatements =
+      new ConcurrentHashMap<>();
+
   private SessionManager() {
     // singleton
   }
@@ -87,6 +95,7 @@ public class SessionManager {
 
   public boolean releaseSessionResource(long sessionId) {
     sessionIdToZoneId.remove(sessionId);
+    sessionIdToPreparedStatements.remove(sessionId);
 
     for (long statementId :
         sessionIdToStatementId.getOrDefault(sessionId, Collections.emptySet())) {
@@ -133,9 +142,44 @@ public class SessionManager {
     }
   }
 
+  public long addPreparedStatement(long sessionId, PreparedPlanTemplate template) {
+    long preparedStatementId = preparedStatementIdGenerator.incrementAndGet();
+    sessionIdToPreparedStatements
+        .computeIfAbsent(sessionId, s -> new ConcurrentHashMap<>())
+        .put(preparedStatementId, template);
+    return preparedStatementId;
+  }
+
+  /** @return the prepared statement, or null if it is not prepared in the session */
+  public PreparedPlanTemplate getPreparedStatement(long sessionId, long preparedStatementId) {
+    Map<Long, PreparedPlanTemplate> preparedStatements =
+        sessionIdToPreparedStatements.get(sessionId);
+    return preparedStatements == null ? null : preparedStatements.get(preparedStatementId);
+  }
+
+  public void closePreparedStatement(long sessionId, long preparedStatementId) {
+    Map<Long, PreparedPlanTemplate> preparedStatements =
+        sessionIdToPreparedStatements.get(sessionId);
+    if (preparedStatements != null) {
+      preparedStatements.remove(preparedStatementId);
+    }
+  }
+
   public long requestQueryId(
       Long statementId, boolean isDataQuery, int fetchSize, int deduplicatedPathNum) {
-    long queryId = requestQueryId(isDataQuery, fetchSize, deduplicatedPathNum);
+    return requestQueryId(statementId, isDataQuery, fetchSize, deduplicatedPathNum, null);
+  }
+
+  /** @param priority the priority of the query in the admission control, null means no control */
+  public long requestQueryId(
+      Long statementId,
+      boolean isDataQuery,
+      int fetchSize,
+      int deduplicatedPathNum,
+      QueryPriority priority) {
+    long queryId =
+        QueryResourceManager.getInstance()
+            .assignQueryId(isDataQuery, fetchSize, deduplicatedPathNum, priority);
     statementIdToQueryId
         .computeIfAbsent(statementId, k -> new CopyOnWriteArraySet<>())
         .add(queryId);
@@ -151,6 +195,8 @@ public class SessionManager {
     QueryDataSet dataSet = queryIdToDataSet.remove(queryId);
     if (dataSet instanceof UDTFDataSet) {
       ((UDTFDataSet) dataSet).finalizeUDFs(queryId);
+    } else if (dataSet instanceof AlignByDeviceDataSet) {
+      ((AlignByDeviceDataSet) dataSet).endPrefetch();
     }
     QueryResourceManager.getInstance().endQuery(queryId);
   }
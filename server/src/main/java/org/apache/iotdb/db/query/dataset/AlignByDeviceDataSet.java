@@ -32,7 +32,9 @@ import org.apache.iotdb.db.qp.physical.crud.FillQueryPlan;
 import org.apache.iotdb.db.qp.physical.crud.GroupByTimePlan;
 import org.apache.iotdb.db.qp.physical.crud.RawDataQueryPlan;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.db.query.executor.IQueryRouter;
+import org.apache.iotdb.db.query.pool.AlignByDevicePoolManager;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.rpc.RedirectException;
 import org.apache.iotdb.tsfile.exception.filter.QueryFilterOptimizationException;
@@ -44,21 +46,33 @@ import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 import org.apache.iotdb.tsfile.utils.Binary;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
-/** This QueryDataSet is used for ALIGN_BY_DEVICE query result. */
+/**
+ * This QueryDataSet is used for ALIGN_BY_DEVICE query result.
+ *
+ * <p>The devices are queried one by one. For raw data queries, the sub-queries of the following
+ * devices are executed in advance by AlignByDevicePoolManager while the current device is being
+ * read, so that the latency of creating a sub-query is hidden. The rows are still returned in the
+ * order of the devices.
+ */
 public class AlignByDeviceDataSet extends QueryDataSet {
 
   private DataSetType dataSetType;
   private IQueryRouter queryRouter;
   private QueryContext context;
-  private IExpression expression;
 
   private List<String> measurements;
   private List<PartialPath> devices;
@@ -70,7 +84,9 @@ public class AlignByDeviceDataSet extends QueryDataSet {
   private GroupByTimePlan groupByTimePlan;
   private FillQueryPlan fillQueryPlan;
   private AggregationPlan aggregationPlan;
-  private RawDataQueryPlan rawDataQueryPlan;
+  // a new RawDataQueryPlan is created for each device from these two
+  private boolean ascending;
+  private boolean enableRedirect;
 
   private boolean curDataSetInitialized;
   private PartialPath currentDevice;
@@ -79,6 +95,13 @@ public class AlignByDeviceDataSet extends QueryDataSet {
   private List<String> executeColumns;
   private int pathsNum = 0;
 
+  // at most how many following devices are queried in advance, 0 if the devices are queried one
+  // after another
+  private int prefetchNum;
+  // the sub-queries submitted in advance, in the order of the devices, guarded by itself
+  private final Deque<DevicePrefetchTask> prefetchTasks = new ArrayDeque<>();
+  private volatile boolean prefetchEnded = false;
+
   public AlignByDeviceDataSet(
       AlignByDevicePlan alignByDevicePlan, QueryContext context, IQueryRouter queryRouter) {
     super(null, alignByDevicePlan.getDataTypes());
@@ -109,12 +132,17 @@ public class AlignByDeviceDataSet extends QueryDataSet {
         break;
       default:
         this.dataSetType = DataSetType.QUERY;
-        this.rawDataQueryPlan = new RawDataQueryPlan();
-        this.rawDataQueryPlan.setAscending(alignByDevicePlan.isAscending());
+        this.ascending = alignByDevicePlan.isAscending();
         // only redirect query for raw data query
-        this.rawDataQueryPlan.setEnableRedirect(alignByDevicePlan.isEnableRedirect());
+        this.enableRedirect = alignByDevicePlan.isEnableRedirect();
     }
 
+    // the plans of the other types are shared by all devices, so they can only be executed one
+    // device after another
+    this.prefetchNum =
+        dataSetType == DataSetType.QUERY
+            ? IoTDBDescriptor.getInstance().getConfig().getAlignByDevicePrefetchNum()
+            : 0;
     this.curDataSetInitialized = false;
     this.deviceIterator = devices.iterator();
   }
@@ -124,7 +152,6 @@ public class AlignByDeviceDataSet extends QueryDataSet {
   }
 
   @Override
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   public boolean hasNextWithoutConstraint() throws IOException {
     if (curDataSetInitialized && currentDataSet.hasNext()) {
       return true;
@@ -132,82 +159,20 @@ public class AlignByDeviceDataSet extends QueryDataSet {
       curDataSetInitialized = false;
     }
 
-    while (deviceIterator.hasNext()) {
-      currentDevice = deviceIterator.next();
-      // get all measurements of current device
-      Set<String> measurementOfGivenDevice = getDeviceMeasurements(currentDevice);
-
-      // extract paths and aggregations queried from all measurements
-      // executeColumns is for calculating rowRecord
-      executeColumns = new ArrayList<>();
-      List<PartialPath> executePaths = new ArrayList<>();
-      List<TSDataType> tsDataTypes = new ArrayList<>();
-      List<String> executeAggregations = new ArrayList<>();
-      for (String column : measurementDataTypeMap.keySet()) {
-        String measurement = column;
-        if (dataSetType == DataSetType.GROUPBYTIME || dataSetType == DataSetType.AGGREGATE) {
-          measurement = column.substring(column.indexOf('(') + 1, column.indexOf(')'));
-          if (measurementOfGivenDevice.contains(measurement)) {
-            executeAggregations.add(column.substring(0, column.indexOf('(')));
-          }
-        }
-        if (measurementOfGivenDevice.contains(measurement)) {
-          executeColumns.add(column);
-          executePaths.add(currentDevice.concatNode(measurement));
-          tsDataTypes.add(measurementDataTypeMap.get(column));
-        }
-      }
-
-      // get filter to execute for the current device
-      if (deviceToFilterMap != null) {
-        this.expression = deviceToFilterMap.get(currentDevice.getFullPath());
+    while (deviceIterator.hasNext() || hasPrefetchTask()) {
+      DeviceQuery deviceQuery = nextDeviceQuery();
+      if (deviceQuery == null) {
+        // the query has been closed
+        return false;
       }
+      currentDevice = deviceQuery.device;
+      executeColumns = deviceQuery.executeColumns;
+      currentDataSet = deviceQuery.dataSet;
 
       if (IoTDBDescriptor.getInstance().getConfig().isEnablePerformanceTracing()) {
         pathsNum += executeColumns.size();
       }
 
-      try {
-        switch (dataSetType) {
-          case GROUPBYTIME:
-            groupByTimePlan.setDeduplicatedPathsAndUpdate(executePaths);
-            groupByTimePlan.setDeduplicatedDataTypes(tsDataTypes);
-            groupByTimePlan.setDeduplicatedAggregations(executeAggregations);
-            groupByTimePlan.setExpression(expression);
-            groupByTimePlan.transformPaths(IoTDB.metaManager);
-            currentDataSet = queryRouter.groupBy(groupByTimePlan, context);
-            break;
-          case AGGREGATE:
-            aggregationPlan.setDeduplicatedPathsAndUpdate(executePaths);
-            aggregationPlan.setDeduplicatedAggregations(executeAggregations);
-            aggregationPlan.setDeduplicatedDataTypes(tsDataTypes);
-            aggregationPlan.setExpression(expression);
-            aggregationPlan.transformPaths(IoTDB.metaManager);
-            currentDataSet = queryRouter.aggregate(aggregationPlan, context);
-            break;
-          case FILL:
-            fillQueryPlan.setDeduplicatedDataTypes(tsDataTypes);
-            fillQueryPlan.setDeduplicatedPathsAndUpdate(executePaths);
-            fillQueryPlan.transformPaths(IoTDB.metaManager);
-            currentDataSet = queryRouter.fill(fillQueryPlan, context);
-            break;
-          case QUERY:
-            rawDataQueryPlan.setDeduplicatedPathsAndUpdate(executePaths);
-            rawDataQueryPlan.setDeduplicatedDataTypes(tsDataTypes);
-            rawDataQueryPlan.setExpression(expression);
-            rawDataQueryPlan.transformPaths(IoTDB.metaManager);
-            currentDataSet = queryRouter.rawDataQuery(rawDataQueryPlan, context);
-            break;
-          default:
-            throw new IOException("unsupported DataSetType");
-        }
-      } catch (QueryProcessException
-          | QueryFilterOptimizationException
-          | StorageEngineException
-          | MetadataException e) {
-        throw new IOException(e);
-      }
-
       if (currentDataSet.getEndPoint() != null) {
         org.apache.iotdb.service.rpc.thrift.EndPoint endPoint =
             new org.apache.iotdb.service.rpc.thrift.EndPoint();
@@ -224,6 +189,172 @@ public class AlignByDeviceDataSet extends QueryDataSet {
     return false;
   }
 
+  private boolean hasPrefetchTask() {
+    synchronized (prefetchTasks) {
+      return !prefetchTasks.isEmpty();
+    }
+  }
+
+  /**
+   * @return the sub-query of the next device, which may have been executed in advance, or null if
+   *     the prefetch has been ended
+   */
+  private DeviceQuery nextDeviceQuery() throws IOException {
+    if (prefetchNum <= 0) {
+      return executeDeviceQuery(deviceIterator.next());
+    }
+
+    int taskNum =
+        getPrefetchTaskNum(
+            prefetchNum,
+            QueryResourceManager.getInstance().getMaxDeduplicatedPathNum(fetchSize),
+            measurementDataTypeMap.size());
+    DevicePrefetchTask task;
+    // submitting and enqueuing the tasks are atomic to endPrefetch(), so that endPrefetch() can
+    // see every submitted task
+    synchronized (prefetchTasks) {
+      if (prefetchEnded) {
+        return null;
+      }
+      while (prefetchTasks.size() < taskNum && deviceIterator.hasNext()) {
+        DevicePrefetchTask newTask = new DevicePrefetchTask(deviceIterator.next());
+        newTask.future = AlignByDevicePoolManager.getInstance().submit(newTask);
+        prefetchTasks.add(newTask);
+      }
+      // the task stays in the queue until it finishes, so that endPrefetch() also waits for it
+      task = prefetchTasks.peek();
+    }
+    if (task == null) {
+      return null;
+    }
+    try {
+      return task.future.get();
+    } catch (CancellationException e) {
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    } finally {
+      synchronized (prefetchTasks) {
+        prefetchTasks.remove(task);
+      }
+    }
+  }
+
+  /**
+   * The series of all the devices being queried should fit in the free memory for read, and each
+   * device has at most columnNum series.
+   *
+   * @param prefetchNum how many following devices are configured to be queried in advance
+   * @param maxPathNum how many series the free memory for read can afford
+   * @return how many devices, including the current one, can be queried at the same time
+   */
+  static int getPrefetchTaskNum(int prefetchNum, int maxPathNum, int columnNum) {
+    int maxDeviceNum = maxPathNum / Math.max(columnNum, 1);
+    return Math.max(Math.min(prefetchNum + 1, maxDeviceNum), 1);
+  }
+
+  /**
+   * Wait for the sub-queries executed in advance and stop executing the rest of them, so that no
+   * resource is registered to the query after it ends. It must be called before the resources of
+   * the query are released.
+   */
+  public void endPrefetch() {
+    List<DevicePrefetchTask> tasks;
+    synchronized (prefetchTasks) {
+      prefetchEnded = true;
+      tasks = new ArrayList<>(prefetchTasks);
+      prefetchTasks.clear();
+    }
+    for (DevicePrefetchTask task : tasks) {
+      task.cancel();
+    }
+  }
+
+  /** Create the plan of the given device and execute it. */
+  private DeviceQuery executeDeviceQuery(PartialPath device) throws IOException {
+    // get all measurements of current device
+    Set<String> measurementOfGivenDevice = getDeviceMeasurements(device);
+
+    // extract paths and aggregations queried from all measurements
+    // executeColumns is for calculating rowRecord
+    List<String> deviceColumns = new ArrayList<>();
+    List<PartialPath> executePaths = new ArrayList<>();
+    List<TSDataType> tsDataTypes = new ArrayList<>();
+    List<String> executeAggregations = new ArrayList<>();
+    for (String column : measurementDataTypeMap.keySet()) {
+      String measurement = column;
+      if (dataSetType == DataSetType.GROUPBYTIME || dataSetType == DataSetType.AGGREGATE) {
+        measurement = column.substring(column.indexOf('(') + 1, column.indexOf(')'));
+        if (measurementOfGivenDevice.contains(measurement)) {
+          executeAggregations.add(column.substring(0, column.indexOf('(')));
+        }
+      }
+      if (measurementOfGivenDevice.contains(measurement)) {
+        deviceColumns.add(column);
+        executePaths.add(device.concatNode(measurement));
+        tsDataTypes.add(measurementDataTypeMap.get(column));
+      }
+    }
+
+    // get filter to execute for the current device
+    IExpression expression = null;
+    if (deviceToFilterMap != null) {
+      expression = deviceToFilterMap.get(device.getFullPath());
+    }
+
+    QueryDataSet dataSet;
+    try {
+      switch (dataSetType) {
+        case GROUPBYTIME:
+          groupByTimePlan.setDeduplicatedPathsAndUpdate(executePaths);
+          groupByTimePlan.setDeduplicatedDataTypes(tsDataTypes);
+          groupByTimePlan.setDeduplicatedAggregations(executeAggregations);
+          groupByTimePlan.setExpression(expression);
+          groupByTimePlan.transformPaths(IoTDB.metaManager);
+          dataSet = queryRouter.groupBy(groupByTimePlan, context);
+          break;
+        case AGGREGATE:
+          aggregationPlan.setDeduplicatedPathsAndUpdate(executePaths);
+          aggregationPlan.setDeduplicatedAggregations(executeAggregations);
+          aggregationPlan.setDeduplicatedDataTypes(tsDataTypes);
+          aggregationPlan.setExpression(expression);
+          aggregationPlan.transformPaths(IoTDB.metaManager);
+          dataSet = queryRouter.aggregate(aggregationPlan, context);
+          break;
+        case FILL:
+          fillQueryPlan.setDeduplicatedDataTypes(tsDataTypes);
+          fillQueryPlan.setDeduplicatedPathsAndUpdate(executePaths);
+          fillQueryPlan.transformPaths(IoTDB.metaManager);
+          dataSet = queryRouter.fill(fillQueryPlan, context);
+          break;
+        case QUERY:
+          RawDataQueryPlan rawDataQueryPlan = new RawDataQueryPlan();
+          rawDataQueryPlan.setAscending(ascending);
+          rawDataQueryPlan.setEnableRedirect(enableRedirect);
+          rawDataQueryPlan.setDeduplicatedPathsAndUpdate(executePaths);
+          rawDataQueryPlan.setDeduplicatedDataTypes(tsDataTypes);
+          rawDataQueryPlan.setExpression(expression);
+          rawDataQueryPlan.transformPaths(IoTDB.metaManager);
+          dataSet = queryRouter.rawDataQuery(rawDataQueryPlan, context);
+          break;
+        default:
+          throw new IOException("unsupported DataSetType");
+      }
+    } catch (QueryProcessException
+        | QueryFilterOptimizationException
+        | StorageEngineException
+        | MetadataException e) {
+      throw new IOException(e);
+    }
+    return new DeviceQuery(device, deviceColumns, dataSet);
+  }
+
   protected Set<String> getDeviceMeasurements(PartialPath device) throws IOException {
     try {
       MNode deviceNode = IoTDB.metaManager.getNodeByPath(device);
@@ -285,6 +416,43 @@ public class AlignByDeviceDataSet extends QueryDataSet {
     return rowRecord;
   }
 
+  /** The executed sub-query of one device. */
+  private static class DeviceQuery {
+
+    private final PartialPath device;
+    private final List<String> executeColumns;
+    private final QueryDataSet dataSet;
+
+    private DeviceQuery(PartialPath device, List<String> executeColumns, QueryDataSet dataSet) {
+      this.device = device;
+      this.executeColumns = executeColumns;
+      this.dataSet = dataSet;
+    }
+  }
+
+  private class DevicePrefetchTask implements Callable<DeviceQuery> {
+
+    private final PartialPath device;
+    private Future<DeviceQuery> future;
+
+    private DevicePrefetchTask(PartialPath device) {
+      this.device = device;
+    }
+
+    @Override
+    public synchronized DeviceQuery call() throws IOException {
+      if (prefetchEnded) {
+        return null;
+      }
+      return executeDeviceQuery(device);
+    }
+
+    /** Stop the task if it has not started, otherwise wait until it finishes. */
+    private synchronized void cancel() {
+      future.cancel(false);
+    }
+  }
+
   private enum DataSetType {
     GROUPBYTIME,
     AGGREGATE,
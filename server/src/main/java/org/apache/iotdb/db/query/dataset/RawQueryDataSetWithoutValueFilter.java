@@ -34,11 +34,11 @@ import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.ExceptionBatchData;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.common.SignalBatchData;
+import org.apache.iotdb.tsfile.read.common.VectorColumns;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
-import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -337,51 +337,57 @@ public class RawQueryDataSetWithoutValueFilter extends QueryDataSet
                 bufferIndex++;
                 break;
               case VECTOR:
-                for (TsPrimitiveType primitiveVal : cachedBatchDataArray[seriesIndex].getVector()) {
-                  if (primitiveVal == null) {
+                // read the values of the sub sensors from their columns without boxing them
+                VectorColumns columns = cachedBatchDataArray[seriesIndex].currentVectorColumns();
+                int row = cachedBatchDataArray[seriesIndex].getReadCurArrayIndex();
+                for (int column = 0; column < columns.getColumnNum(); column++) {
+                  if (columns.isNull(column, row)) {
                     currentBitmapList[bufferIndex] = (currentBitmapList[bufferIndex] << 1);
                     bufferIndex++;
                     continue;
                   }
                   currentBitmapList[bufferIndex] = (currentBitmapList[bufferIndex] << 1) | FLAG;
-                  switch (primitiveVal.getDataType()) {
+                  switch (columns.getDataType(column)) {
                     case INT32:
-                      int intVal = primitiveVal.getInt();
+                      int intVal = columns.getInt(column, row);
                       if (encoder != null && encoder.needEncode(minTime)) {
                         intVal = encoder.encodeInt(intVal, minTime);
                       }
                       ReadWriteIOUtils.write(intVal, valueBAOSList[bufferIndex]);
                       break;
                     case INT64:
-                      long longVal = primitiveVal.getLong();
+                      long longVal = columns.getLong(column, row);
                       if (encoder != null && encoder.needEncode(minTime)) {
                         longVal = encoder.encodeLong(longVal, minTime);
                       }
                       ReadWriteIOUtils.write(longVal, valueBAOSList[bufferIndex]);
                       break;
                     case FLOAT:
-                      float floatVal = primitiveVal.getFloat();
+                      float floatVal = columns.getFloat(column, row);
                       if (encoder != null && encoder.needEncode(minTime)) {
                         floatVal = encoder.encodeFloat(floatVal, minTime);
                       }
                       ReadWriteIOUtils.write(floatVal, valueBAOSList[bufferIndex]);
                       break;
                     case DOUBLE:
-                      double doubleVal = primitiveVal.getDouble();
+                      double doubleVal = columns.getDouble(column, row);
                       if (encoder != null && encoder.needEncode(minTime)) {
                         doubleVal = encoder.encodeDouble(doubleVal, minTime);
                       }
                       ReadWriteIOUtils.write(doubleVal, valueBAOSList[bufferIndex]);
                       break;
                     case BOOLEAN:
-                      ReadWriteIOUtils.write(primitiveVal.getBoolean(), valueBAOSList[bufferIndex]);
+                      ReadWriteIOUtils.write(
+                          columns.getBoolean(column, row), valueBAOSList[bufferIndex]);
                       break;
                     case TEXT:
-                      ReadWriteIOUtils.write(primitiveVal.getBinary(), valueBAOSList[bufferIndex]);
+                      ReadWriteIOUtils.write(
+                          columns.getBinary(column, row), valueBAOSList[bufferIndex]);
                       break;
                     default:
                       throw new UnSupportedDataTypeException(
-                          String.format("Data type %s is not supported.", type));
+                          String.format(
+                              "Data type %s is not supported.", columns.getDataType(column)));
                   }
                   bufferIndex++;
                 }
@@ -465,8 +471,10 @@ public class RawQueryDataSetWithoutValueFilter extends QueryDataSet
         hasNull = true;
       } else {
         if (TSDataType.VECTOR == cachedBatchDataArray[seriesIndex].getDataType()) {
-          for (TsPrimitiveType primitiveVal : cachedBatchDataArray[seriesIndex].getVector()) {
-            if (primitiveVal == null) {
+          VectorColumns columns = cachedBatchDataArray[seriesIndex].currentVectorColumns();
+          int row = cachedBatchDataArray[seriesIndex].getReadCurArrayIndex();
+          for (int column = 0; column < columns.getColumnNum(); column++) {
+            if (columns.isNull(column, row)) {
               hasNull = true;
               break;
             }
@@ -582,11 +590,13 @@ public class RawQueryDataSetWithoutValueFilter extends QueryDataSet
       } else {
         TSDataType dataType = dataTypes.get(seriesIndex);
         if (dataType == TSDataType.VECTOR) {
-          for (TsPrimitiveType primitiveVal : cachedBatchDataArray[seriesIndex].getVector()) {
-            if (primitiveVal == null) {
+          VectorColumns columns = cachedBatchDataArray[seriesIndex].currentVectorColumns();
+          int row = cachedBatchDataArray[seriesIndex].getReadCurArrayIndex();
+          for (int column = 0; column < columns.getColumnNum(); column++) {
+            if (columns.isNull(column, row)) {
               record.addField(null);
             } else {
-              record.addField(primitiveVal.getValue(), primitiveVal.getDataType());
+              record.addField(columns.getValue(column, row), columns.getDataType(column));
             }
           }
         } else {
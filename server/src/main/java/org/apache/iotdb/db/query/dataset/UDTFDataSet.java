@@ -40,10 +40,13 @@ import org.apache.iotdb.db.query.udf.core.input.InputLayer;
 import org.apache.iotdb.db.query.udf.core.reader.LayerPointReader;
 import org.apache.iotdb.db.query.udf.core.transformer.ArithmeticAdditionTransformer;
 import org.apache.iotdb.db.query.udf.core.transformer.ArithmeticDivisionTransformer;
+import org.apache.iotdb.db.query.udf.core.transformer.ArithmeticExpressionCompiler;
+import org.apache.iotdb.db.query.udf.core.transformer.ArithmeticExpressionCompiler.ColumnEvaluator;
 import org.apache.iotdb.db.query.udf.core.transformer.ArithmeticModuloTransformer;
 import org.apache.iotdb.db.query.udf.core.transformer.ArithmeticMultiplicationTransformer;
 import org.apache.iotdb.db.query.udf.core.transformer.ArithmeticNegationTransformer;
 import org.apache.iotdb.db.query.udf.core.transformer.ArithmeticSubtractionTransformer;
+import org.apache.iotdb.db.query.udf.core.transformer.CompiledArithmeticTransformer;
 import org.apache.iotdb.db.query.udf.core.transformer.RawQueryPointTransformer;
 import org.apache.iotdb.db.query.udf.core.transformer.Transformer;
 import org.apache.iotdb.db.query.udf.core.transformer.UDFQueryRowTransformer;
@@ -204,7 +207,22 @@ public abstract class UDTFDataSet extends QueryDataSet {
       return;
     }
 
-    // binary expression
+    // binary expression, evaluated batch by batch if it can be compiled
+    ArithmeticExpressionCompiler compiler =
+        new ArithmeticExpressionCompiler(
+            seriesName ->
+                udtfPlan.getDeduplicatedDataTypes().get(udtfPlan.getReaderIndex(seriesName)));
+    ColumnEvaluator evaluator = compiler.compile(expression);
+    if (evaluator != null) {
+      List<String> inputSeries = compiler.getInputSeries();
+      LayerPointReader[] inputReaders = new LayerPointReader[inputSeries.size()];
+      for (int i = 0; i < inputReaders.length; ++i) {
+        inputReaders[i] = constructPointReaderBySeriesName(inputSeries.get(i));
+      }
+      transformers[columnIndex] = new CompiledArithmeticTransformer(inputReaders, evaluator);
+      return;
+    }
+
     BinaryExpression binaryExpression = (BinaryExpression) expression;
     if (binaryExpression instanceof AdditionExpression) {
       transformers[columnIndex] =
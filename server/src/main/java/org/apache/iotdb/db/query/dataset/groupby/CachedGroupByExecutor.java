@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.dataset.groupby;
+
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.cache.AggregationResultCache;
+import org.apache.iotdb.db.engine.cache.AggregationResultCache.AggregationResultCacheKey;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.query.aggregation.AggregateResult;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CachedGroupByExecutor gets the results of the time intervals that are inside a sealed time
+ * partition from the AggregationResultCache, and calculates the other intervals (or the intervals
+ * that are not cached yet) by a LocalGroupByExecutor, whose results of sealed partitions are put
+ * into the cache.
+ */
+public class CachedGroupByExecutor implements GroupByExecutor {
+
+  private final LocalGroupByExecutor executor;
+  private final String seriesPath;
+  private final TSDataType dataType;
+  private final long cacheVersion;
+  // partition -> fingerprint of the files of the partition
+  private final Map<Long, Long> sealedPartitions;
+
+  private final List<AggregateResult> results = new ArrayList<>();
+
+  /**
+   * @param cacheVersion the version of the AggregationResultCache got before the executor is
+   *     created
+   */
+  public CachedGroupByExecutor(
+      LocalGroupByExecutor executor, PartialPath path, TSDataType dataType, long cacheVersion) {
+    this.executor = executor;
+    this.seriesPath = path.getFullPath();
+    this.dataType = dataType;
+    this.cacheVersion = cacheVersion;
+    this.sealedPartitions =
+        AggregationResultCache.getSealedPartitions(executor.getQueryDataSource());
+  }
+
+  @Override
+  public void addAggregateResult(AggregateResult aggrResult) {
+    results.add(aggrResult);
+    executor.addAggregateResult(aggrResult);
+  }
+
+  @Override
+  public List<AggregateResult> calcResult(long curStartTime, long curEndTime)
+      throws IOException, QueryProcessException {
+    long partition = StorageEngine.getTimePartition(curStartTime);
+    Long filesFingerprint = sealedPartitions.get(partition);
+    if (filesFingerprint == null || StorageEngine.getTimePartition(curEndTime - 1) != partition) {
+      return executor.calcResult(curStartTime, curEndTime);
+    }
+
+    AggregationResultCache cache = AggregationResultCache.getInstance();
+    List<AggregationResultCacheKey> keys = new ArrayList<>(results.size());
+    for (AggregateResult result : results) {
+      keys.add(
+          new AggregationResultCacheKey(
+              seriesPath,
+              result.getAggregationType(),
+              result.isAscending(),
+              curStartTime,
+              curEndTime - 1,
+              partition));
+    }
+    List<AggregateResult> cachedResults = new ArrayList<>(results.size());
+    for (AggregationResultCacheKey key : keys) {
+      AggregateResult cachedResult = cache.get(key, filesFingerprint);
+      if (cachedResult == null) {
+        break;
+      }
+      cachedResults.add(cachedResult);
+    }
+
+    if (cachedResults.size() == results.size()) {
+      for (int i = 0; i < results.size(); i++) {
+        AggregateResult result = results.get(i);
+        result.reset();
+        AggregationResultCache.merge(result, cachedResults.get(i));
+      }
+      return results;
+    }
+
+    List<AggregateResult> calculatedResults = executor.calcResult(curStartTime, curEndTime);
+    for (int i = 0; i < calculatedResults.size(); i++) {
+      cache.put(keys.get(i), calculatedResults.get(i), dataType, cacheVersion, filesFingerprint);
+    }
+    return calculatedResults;
+  }
+
+  @Override
+  public Pair<Long, Object> peekNextNotNullValue(long nextStartTime, long nextEndTime)
+      throws IOException {
+    return executor.peekNextNotNullValue(nextStartTime, nextEndTime);
+  }
+}
@@ -19,11 +19,14 @@
 
 package org.apache.iotdb.db.query.dataset.groupby;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.cache.AggregationResultCache;
 import org.apache.iotdb.db.engine.storagegroup.StorageGroupProcessor;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.metadata.VectorPartialPath;
 import org.apache.iotdb.db.qp.physical.crud.GroupByTimePlan;
 import org.apache.iotdb.db.query.aggregation.AggregateResult;
 import org.apache.iotdb.db.query.context.QueryContext;
@@ -34,6 +37,7 @@ import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.filter.GroupByFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.utils.Pair;
 
@@ -67,6 +71,8 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
    */
   private Map<PartialPath, List<Integer>> resultIndexes = new HashMap<>();
 
+  private GroupByTimePlan groupByTimePlan;
+
   public GroupByWithoutValueFilterDataSet() {}
 
   /** constructor. */
@@ -79,6 +85,7 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
 
   protected void initGroupBy(QueryContext context, GroupByTimePlan groupByTimePlan)
       throws StorageEngineException, QueryProcessException {
+    this.groupByTimePlan = groupByTimePlan;
     IExpression expression = groupByTimePlan.getExpression();
 
     Filter timeFilter = null;
@@ -187,7 +194,62 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
       TsFileFilter fileFilter,
       boolean ascending)
       throws StorageEngineException, QueryProcessException {
-    return new LocalGroupByExecutor(
-        path, allSensors, dataType, context, timeFilter, fileFilter, ascending);
+    long rollupInterval = getRollupInterval(path, timeFilter, fileFilter);
+    if (rollupInterval > 0) {
+      return new RollupGroupByExecutor(
+          path,
+          allSensors,
+          dataType,
+          context,
+          timeFilter,
+          ascending,
+          rollupInterval,
+          startTime,
+          endTime,
+          interval,
+          slidingStep);
+    }
+    // the version should be got before any data is read, see AggregationResultCache.getVersion()
+    long cacheVersion = AggregationResultCache.getInstance().getVersion();
+    LocalGroupByExecutor executor =
+        new LocalGroupByExecutor(
+            path, allSensors, dataType, context, timeFilter, fileFilter, ascending);
+    if (AggregationResultCache.isEnable()
+        && fileFilter == null
+        && timeFilter instanceof GroupByFilter
+        && !(path instanceof VectorPartialPath)
+        && executor.getQueryDataSource().getDataTTL() == Long.MAX_VALUE) {
+      return new CachedGroupByExecutor(executor, path, dataType, cacheVersion);
+    }
+    return executor;
+  }
+
+  /**
+   * The rollups can be used if there is no other filter than the time intervals, and the time
+   * intervals are aligned with the rollups. Aligned series have no rollups.
+   *
+   * @return the largest rollup interval that the time intervals are aligned with, or 0 if the
+   *     rollups cannot be used
+   */
+  private long getRollupInterval(PartialPath path, Filter timeFilter, TsFileFilter fileFilter) {
+    long[] rollupIntervals = IoTDBDescriptor.getInstance().getConfig().getRollupIntervals();
+    if (rollupIntervals.length == 0
+        || groupByTimePlan == null
+        || path instanceof VectorPartialPath
+        || fileFilter != null
+        || timeFilter.getClass() != GroupByFilter.class
+        || groupByTimePlan.isIntervalByMonth()
+        || groupByTimePlan.isSlidingStepByMonth()) {
+      return 0;
+    }
+    for (int i = rollupIntervals.length - 1; i >= 0; i--) {
+      long rollupInterval = rollupIntervals[i];
+      if (Math.floorMod(startTime, rollupInterval) == 0
+          && interval % rollupInterval == 0
+          && slidingStep % rollupInterval == 0) {
+        return rollupInterval;
+      }
+    }
+    return 0;
   }
 }
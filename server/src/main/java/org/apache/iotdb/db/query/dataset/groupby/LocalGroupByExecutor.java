@@ -88,6 +88,10 @@ public class LocalGroupByExecutor implements GroupByExecutor {
     this.ascending = ascending;
   }
 
+  QueryDataSource getQueryDataSource() {
+    return queryDataSource;
+  }
+
   public boolean isEmpty() {
     return queryDataSource.getSeqResources().isEmpty()
         && queryDataSource.getUnseqResources().isEmpty();
@@ -173,6 +177,27 @@ public class LocalGroupByExecutor implements GroupByExecutor {
     return true;
   }
 
+  /**
+   * The data before the current interval in the reading order will never be used, as the intervals
+   * are calculated in the reading order, but some intervals may be skipped, e.g., by a
+   * CachedGroupByExecutor.
+   */
+  private boolean isBeforeInterval(Statistics statistics, long curStartTime, long curEndTime) {
+    return ascending
+        ? statistics.getEndTime() < curStartTime
+        : statistics.getStartTime() >= curEndTime;
+  }
+
+  /** @return true if all the results that are not calculated can be updated by the statistics */
+  private boolean canUseStatistics(Statistics statistics) {
+    for (AggregateResult result : results) {
+      if (!result.hasFinalResult() && !result.canUpdateFromStatistics(statistics)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private void calcFromStatistics(Statistics pageStatistics) throws QueryProcessException {
     for (AggregateResult result : results) {
       // cacl is compile
@@ -210,12 +235,17 @@ public class LocalGroupByExecutor implements GroupByExecutor {
     // read from file first
     while (reader.hasNextFile()) {
       Statistics fileStatistics = reader.currentFileStatistics();
+      if (isBeforeInterval(fileStatistics, curStartTime, curEndTime)) {
+        reader.skipCurrentFile();
+        continue;
+      }
       if (fileStatistics.getStartTime() >= curEndTime) {
         return results;
       }
       // calc from fileMetaData
       if (reader.canUseCurrentFileStatistics()
-          && timeRange.contains(fileStatistics.getStartTime(), fileStatistics.getEndTime())) {
+          && timeRange.contains(fileStatistics.getStartTime(), fileStatistics.getEndTime())
+          && canUseStatistics(fileStatistics)) {
         calcFromStatistics(fileStatistics);
         reader.skipCurrentFile();
         continue;
@@ -274,17 +304,17 @@ public class LocalGroupByExecutor implements GroupByExecutor {
       throws IOException, QueryProcessException {
     while (reader.hasNextChunk()) {
       Statistics chunkStatistics = reader.currentChunkStatistics();
+      if (isBeforeInterval(chunkStatistics, curStartTime, curEndTime)) {
+        reader.skipCurrentChunk();
+        continue;
+      }
       if (chunkStatistics.getStartTime() >= curEndTime) {
-        if (ascending) {
-          return true;
-        } else {
-          reader.skipCurrentChunk();
-          continue;
-        }
+        return true;
       }
       // calc from chunkMetaData
       if (reader.canUseCurrentChunkStatistics()
-          && timeRange.contains(chunkStatistics.getStartTime(), chunkStatistics.getEndTime())) {
+          && timeRange.contains(chunkStatistics.getStartTime(), chunkStatistics.getEndTime())
+          && canUseStatistics(chunkStatistics)) {
         calcFromStatistics(chunkStatistics);
         reader.skipCurrentChunk();
         continue;
@@ -303,18 +333,18 @@ public class LocalGroupByExecutor implements GroupByExecutor {
       Statistics pageStatistics = reader.currentPageStatistics();
       // must be non overlapped page
       if (pageStatistics != null) {
+        if (isBeforeInterval(pageStatistics, curStartTime, curEndTime)) {
+          reader.skipCurrentPage();
+          continue;
+        }
         // current page max than time range
         if (pageStatistics.getStartTime() >= curEndTime) {
-          if (ascending) {
-            return true;
-          } else {
-            reader.skipCurrentPage();
-            continue;
-          }
+          return true;
         }
         // can use pageHeader
         if (reader.canUseCurrentPageStatistics()
-            && timeRange.contains(pageStatistics.getStartTime(), pageStatistics.getEndTime())) {
+            && timeRange.contains(pageStatistics.getStartTime(), pageStatistics.getEndTime())
+            && canUseStatistics(pageStatistics)) {
           calcFromStatistics(pageStatistics);
           reader.skipCurrentPage();
           if (isEndCalc()) {
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.dataset.groupby;
+
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.rollup.RollupLevel;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
+import org.apache.iotdb.db.engine.storagegroup.StorageGroupProcessor;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.query.aggregation.AggregateResult;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * RollupGroupByExecutor answers the leading time intervals of a GROUP BY query from the rollups of
+ * the sealed sequence files, and the rest from a LocalGroupByExecutor that only reads the data
+ * after them.
+ *
+ * <p>An interval is answered from the rollups if it ends before any data that is not rolled up,
+ * i.e., before the first sequence file without usable rollups and before the first unsequence
+ * file of the device. The interval, the sliding step and the start time of the query must be
+ * multiples of the rollup interval, which is checked by the caller.
+ */
+public class RollupGroupByExecutor implements GroupByExecutor {
+
+  private static final Logger logger = LoggerFactory.getLogger(RollupGroupByExecutor.class);
+
+  private final PartialPath path;
+  private final Set<String> allSensors;
+  private final TSDataType dataType;
+  private final QueryContext context;
+  private final Filter timeFilter;
+  private final boolean ascending;
+
+  private final List<AggregateResult> results = new ArrayList<>();
+  /** rollups of the covered files sorted by time */
+  private final List<RollupLevel> coveredLevels = new ArrayList<>();
+  /** the intervals starting before this time are calculated from the rollups */
+  private long delegateStartTime;
+
+  private LocalGroupByExecutor delegate;
+
+  @SuppressWarnings("squid:S107")
+  public RollupGroupByExecutor(
+      PartialPath path,
+      Set<String> allSensors,
+      TSDataType dataType,
+      QueryContext context,
+      Filter timeFilter,
+      boolean ascending,
+      long rollupInterval,
+      long startTime,
+      long endTime,
+      long interval,
+      long slidingStep)
+      throws StorageEngineException, QueryProcessException {
+    this.path = path;
+    this.allSensors = allSensors;
+    this.dataType = dataType;
+    this.context = context;
+    this.timeFilter = timeFilter;
+    this.ascending = ascending;
+
+    long rollupEndTime = loadRollups(rollupInterval);
+    // the number of intervals that end before rollupEndTime
+    long totalIntervalNum = (endTime - startTime + slidingStep - 1) / slidingStep;
+    long limit = Math.min(rollupEndTime, endTime);
+    long coveredIntervalNum =
+        limit - interval < startTime ? 0 : (limit - interval - startTime) / slidingStep + 1;
+    coveredIntervalNum = Math.min(coveredIntervalNum, totalIntervalNum);
+    // the last intervals are cut by the end time
+    if (coveredIntervalNum < totalIntervalNum
+        && endTime <= rollupEndTime
+        && Math.floorMod(endTime, rollupInterval) == 0) {
+      coveredIntervalNum = totalIntervalNum;
+    }
+    delegateStartTime = startTime + coveredIntervalNum * slidingStep;
+    logger.debug(
+        "{} intervals of {} are calculated from the rollups of {} files",
+        coveredIntervalNum,
+        path,
+        coveredLevels.size());
+  }
+
+  /** @return the time before which all data of the series is rolled up */
+  private long loadRollups(long rollupInterval)
+      throws StorageEngineException, QueryProcessException {
+    QueryDataSource queryDataSource =
+        QueryResourceManager.getInstance().getQueryDataSource(path, context, timeFilter);
+    if (queryDataSource.getDataTTL() != Long.MAX_VALUE) {
+      return Long.MIN_VALUE;
+    }
+    String device = path.getDevice();
+    long rollupEndTime = Long.MAX_VALUE;
+    for (TsFileResource unseqResource : queryDataSource.getUnseqResources()) {
+      rollupEndTime = Math.min(rollupEndTime, unseqResource.getStartTime(device));
+    }
+    List<TsFileResource> seqResources = new ArrayList<>(queryDataSource.getSeqResources());
+    seqResources.sort(Comparator.comparingLong(resource -> resource.getStartTime(device)));
+    for (TsFileResource seqResource : seqResources) {
+      long fileStartTime = seqResource.getStartTime(device);
+      if (fileStartTime >= rollupEndTime) {
+        break;
+      }
+      String measurement = path.getMeasurement();
+      RollupLevel level = null;
+      try {
+        level = TsFileRollup.loadRollupLevel(seqResource, device, measurement, rollupInterval);
+      } catch (IOException e) {
+        logger.warn("Cannot read the rollups of {}", seqResource, e);
+      }
+      if (level == null) {
+        return fileStartTime;
+      }
+      coveredLevels.add(level);
+    }
+    return rollupEndTime;
+  }
+
+  @Override
+  public void addAggregateResult(AggregateResult aggrResult) {
+    results.add(aggrResult);
+    // the rollups do not carry value sketches
+    Statistics probe = Statistics.getStatsByType(dataType);
+    probe.setSketch(null);
+    if (!aggrResult.canUpdateFromStatistics(probe)) {
+      coveredLevels.clear();
+      delegateStartTime = Long.MIN_VALUE;
+    }
+    if (delegate != null) {
+      delegate.addAggregateResult(aggrResult);
+    }
+  }
+
+  @Override
+  public List<AggregateResult> calcResult(long curStartTime, long curEndTime)
+      throws IOException, QueryProcessException {
+    if (curStartTime >= delegateStartTime) {
+      return getDelegate().calcResult(curStartTime, curEndTime);
+    }
+
+    for (AggregateResult result : results) {
+      result.reset();
+    }
+    for (int i = 0; i < coveredLevels.size(); i++) {
+      RollupLevel level = coveredLevels.get(ascending ? i : coveredLevels.size() - 1 - i);
+      List<Statistics> buckets = level.getBuckets(curStartTime, curEndTime);
+      for (int j = 0; j < buckets.size(); j++) {
+        Statistics bucket = buckets.get(ascending ? j : buckets.size() - 1 - j);
+        for (AggregateResult result : results) {
+          if (!result.hasFinalResult()) {
+            result.updateResultFromStatistics(bucket);
+          }
+        }
+      }
+    }
+    return results;
+  }
+
+  @Override
+  public Pair<Long, Object> peekNextNotNullValue(long nextStartTime, long nextEndTime)
+      throws IOException {
+    if (nextStartTime >= delegateStartTime) {
+      return getDelegate().peekNextNotNullValue(nextStartTime, nextEndTime);
+    }
+    try {
+      List<AggregateResult> aggregateResults = calcResult(nextStartTime, nextEndTime);
+      if (aggregateResults.isEmpty() || aggregateResults.get(0).getResult() == null) {
+        return null;
+      }
+      return new Pair<>(nextStartTime, aggregateResults.get(0).getResult());
+    } catch (QueryProcessException e) {
+      throw new IOException(e.getMessage(), e);
+    }
+  }
+
+  /** The executor of the data after the rolled up intervals is created when it is first used. */
+  private LocalGroupByExecutor getDelegate() throws IOException {
+    if (delegate != null) {
+      return delegate;
+    }
+    try {
+      List<StorageGroupProcessor> list =
+          StorageEngine.getInstance().mergeLock(Collections.singletonList(path));
+      try {
+        Filter filter =
+            delegateStartTime == Long.MIN_VALUE
+                ? timeFilter
+                : FilterFactory.and(timeFilter, TimeFilter.gtEq(delegateStartTime));
+        delegate =
+            new LocalGroupByExecutor(
+                path, allSensors, dataType, context, filter, null, ascending);
+      } finally {
+        StorageEngine.getInstance().mergeUnLock(list);
+      }
+    } catch (StorageEngineException | QueryProcessException e) {
+      throw new IOException(e.getMessage(), e);
+    }
+    for (AggregateResult result : results) {
+      delegate.addAggregateResult(result);
+    }
+    return delegate;
+  }
+}
@@ -22,11 +22,15 @@ package org.apache.iotdb.db.query.executor;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.cache.AggregationResultCache;
+import org.apache.iotdb.db.engine.cache.AggregationResultCache.AggregationResultCacheKey;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.StorageGroupProcessor;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.metadata.VectorPartialPath;
 import org.apache.iotdb.db.qp.physical.crud.AggregationPlan;
 import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
 import org.apache.iotdb.db.qp.physical.crud.RawDataQueryPlan;
@@ -43,13 +47,18 @@ import org.apache.iotdb.db.query.reader.series.SeriesReaderByTimestamp;
 import org.apache.iotdb.db.query.timegenerator.ServerTimeGenerator;
 import org.apache.iotdb.db.utils.FilePathUtils;
 import org.apache.iotdb.db.utils.QueryUtils;
+import org.apache.iotdb.db.utils.TimeValuePairUtils;
+import org.apache.iotdb.db.utils.TimeValuePairUtils.Intervals;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 import org.apache.iotdb.tsfile.read.query.timegenerator.TimeGenerator;
 
@@ -61,6 +70,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 import static org.apache.iotdb.tsfile.read.query.executor.ExecutorWithTimeGenerator.markFilterdPaths;
 
@@ -186,15 +197,57 @@ public class AggregationExecutor {
       TsFileFilter fileFilter)
       throws StorageEngineException, IOException, QueryProcessException {
 
+    // the version should be got before any data is read, see AggregationResultCache.getVersion()
+    long cacheVersion = AggregationResultCache.getInstance().getVersion();
     // construct series reader without value filter
     QueryDataSource queryDataSource =
         QueryResourceManager.getInstance().getQueryDataSource(seriesPath, context, timeFilter);
     if (fileFilter != null) {
       QueryUtils.filterQueryDataSource(queryDataSource, fileFilter);
     }
+
+    if (fileFilter == null
+        && AggregationResultCache.isEnable()
+        && queryDataSource.getDataTTL() == Long.MAX_VALUE
+        && !(seriesPath instanceof VectorPartialPath)
+        && isTimeInterval(timeFilter)) {
+      aggregateWithResultCache(
+          seriesPath,
+          measurements,
+          context,
+          queryDataSource,
+          timeFilter,
+          tsDataType,
+          ascAggregateResultList,
+          descAggregateResultList,
+          cacheVersion);
+      return;
+    }
+
     // update filter by TTL
     timeFilter = queryDataSource.updateFilterUsingTTL(timeFilter);
+    aggregateFromDataSource(
+        seriesPath,
+        measurements,
+        context,
+        queryDataSource,
+        timeFilter,
+        tsDataType,
+        ascAggregateResultList,
+        descAggregateResultList);
+  }
 
+  @SuppressWarnings("squid:S107")
+  private static void aggregateFromDataSource(
+      PartialPath seriesPath,
+      Set<String> measurements,
+      QueryContext context,
+      QueryDataSource queryDataSource,
+      Filter timeFilter,
+      TSDataType tsDataType,
+      List<AggregateResult> ascAggregateResultList,
+      List<AggregateResult> descAggregateResultList)
+      throws IOException, QueryProcessException {
     if (ascAggregateResultList != null && !ascAggregateResultList.isEmpty()) {
       IAggregateReader seriesReader =
           new SeriesAggregateReader(
@@ -225,6 +278,194 @@ public class AggregationExecutor {
     }
   }
 
+  /**
+   * Aggregate the sealed time partitions in the query interval separately, so that their partial
+   * results can be got from or put into the AggregationResultCache, and the unsealed partitions
+   * together. All partial results are merged into the given results.
+   */
+  @SuppressWarnings("squid:S107")
+  private static void aggregateWithResultCache(
+      PartialPath seriesPath,
+      Set<String> measurements,
+      QueryContext context,
+      QueryDataSource queryDataSource,
+      Filter timeFilter,
+      TSDataType tsDataType,
+      List<AggregateResult> ascAggregateResultList,
+      List<AggregateResult> descAggregateResultList,
+      long cacheVersion)
+      throws IOException, QueryProcessException {
+    Intervals intervals = TimeValuePairUtils.extractTimeInterval(timeFilter);
+    if (intervals.getIntervalSize() == 0) {
+      return;
+    }
+    long queryStartTime = intervals.getLowerBound(0);
+    long queryEndTime = intervals.getUpperBound(0);
+    List<AggregateResult> aggregateResultList = new ArrayList<>();
+    if (ascAggregateResultList != null) {
+      aggregateResultList.addAll(ascAggregateResultList);
+    }
+    if (descAggregateResultList != null) {
+      aggregateResultList.addAll(descAggregateResultList);
+    }
+
+    AggregationResultCache cache = AggregationResultCache.getInstance();
+    Map<Long, Long> sealedPartitions = AggregationResultCache.getSealedPartitions(queryDataSource);
+    for (Entry<Long, Long> entry : new TreeMap<>(sealedPartitions).entrySet()) {
+      long partition = entry.getKey();
+      long filesFingerprint = entry.getValue();
+      long startTime =
+          Math.max(queryStartTime, AggregationResultCache.getPartitionStartTime(partition));
+      long endTime = Math.min(queryEndTime, AggregationResultCache.getPartitionEndTime(partition));
+      if (startTime > endTime) {
+        continue;
+      }
+
+      List<AggregateResult> missedAscResults = new ArrayList<>();
+      List<AggregateResult> missedDescResults = new ArrayList<>();
+      List<AggregationResultCacheKey> missedAscKeys = new ArrayList<>();
+      List<AggregationResultCacheKey> missedDescKeys = new ArrayList<>();
+      List<AggregateResult> missedTargets = new ArrayList<>();
+      for (AggregateResult aggregateResult : aggregateResultList) {
+        AggregationResultCacheKey key =
+            new AggregationResultCacheKey(
+                seriesPath.getFullPath(),
+                aggregateResult.getAggregationType(),
+                aggregateResult.isAscending(),
+                startTime,
+                endTime,
+                partition);
+        AggregateResult cachedResult = cache.get(key, filesFingerprint);
+        if (cachedResult != null) {
+          AggregationResultCache.merge(aggregateResult, cachedResult);
+          continue;
+        }
+        AggregateResult missedResult =
+            AggregateResultFactory.getAggrResultByType(
+                aggregateResult.getAggregationType(), tsDataType, aggregateResult.isAscending());
+        if (missedResult.isAscending()) {
+          missedAscResults.add(missedResult);
+          missedAscKeys.add(key);
+        } else {
+          missedDescResults.add(missedResult);
+          missedDescKeys.add(key);
+        }
+        missedTargets.add(aggregateResult);
+      }
+      if (missedTargets.isEmpty()) {
+        continue;
+      }
+
+      QueryDataSource partitionDataSource =
+          new QueryDataSource(
+              filterByPartition(queryDataSource.getSeqResources(), partition, true),
+              filterByPartition(queryDataSource.getUnseqResources(), partition, true));
+      Filter partitionFilter =
+          FilterFactory.and(TimeFilter.gtEq(startTime), TimeFilter.ltEq(endTime));
+      aggregateFromDataSource(
+          seriesPath,
+          measurements,
+          context,
+          partitionDataSource,
+          partitionFilter,
+          tsDataType,
+          missedAscResults,
+          missedDescResults);
+      for (int i = 0; i < missedAscResults.size(); i++) {
+        cache.put(
+            missedAscKeys.get(i),
+            missedAscResults.get(i),
+            tsDataType,
+            cacheVersion,
+            filesFingerprint);
+      }
+      for (int i = 0; i < missedDescResults.size(); i++) {
+        cache.put(
+            missedDescKeys.get(i),
+            missedDescResults.get(i),
+            tsDataType,
+            cacheVersion,
+            filesFingerprint);
+      }
+      // the missed results are in the same order as their targets within each direction
+      int ascIndex = 0;
+      int descIndex = 0;
+      for (AggregateResult target : missedTargets) {
+        AggregationResultCache.merge(
+            target,
+            target.isAscending()
+                ? missedAscResults.get(ascIndex++)
+                : missedDescResults.get(descIndex++));
+      }
+    }
+
+    QueryDataSource unsealedDataSource =
+        new QueryDataSource(
+            filterByPartition(queryDataSource.getSeqResources(), sealedPartitions, false),
+            filterByPartition(queryDataSource.getUnseqResources(), sealedPartitions, false));
+    if (unsealedDataSource.getSeqResources().isEmpty()
+        && unsealedDataSource.getUnseqResources().isEmpty()) {
+      return;
+    }
+    List<AggregateResult> unsealedAscResults = new ArrayList<>();
+    List<AggregateResult> unsealedDescResults = new ArrayList<>();
+    for (AggregateResult aggregateResult : aggregateResultList) {
+      AggregateResult unsealedResult =
+          AggregateResultFactory.getAggrResultByType(
+              aggregateResult.getAggregationType(), tsDataType, aggregateResult.isAscending());
+      (unsealedResult.isAscending() ? unsealedAscResults : unsealedDescResults)
+          .add(unsealedResult);
+    }
+    aggregateFromDataSource(
+        seriesPath,
+        measurements,
+        context,
+        unsealedDataSource,
+        timeFilter,
+        tsDataType,
+        unsealedAscResults,
+        unsealedDescResults);
+    int ascIndex = 0;
+    int descIndex = 0;
+    for (AggregateResult target : aggregateResultList) {
+      AggregationResultCache.merge(
+          target,
+          target.isAscending()
+              ? unsealedAscResults.get(ascIndex++)
+              : unsealedDescResults.get(descIndex++));
+    }
+  }
+
+  private static List<TsFileResource> filterByPartition(
+      List<TsFileResource> resources, long partition, boolean inPartition) {
+    return resources.stream()
+        .filter(resource -> (resource.getTimePartition() == partition) == inPartition)
+        .collect(Collectors.toList());
+  }
+
+  private static List<TsFileResource> filterByPartition(
+      List<TsFileResource> resources, Map<Long, Long> partitions, boolean inPartitions) {
+    return resources.stream()
+        .filter(resource -> partitions.containsKey(resource.getTimePartition()) == inPartitions)
+        .collect(Collectors.toList());
+  }
+
+  /** @return true if the filter only selects one continuous time interval (or everything) */
+  private static boolean isTimeInterval(Filter filter) {
+    if (filter == null) {
+      return true;
+    }
+    if (filter instanceof AndFilter) {
+      return isTimeInterval(((AndFilter) filter).getLeft())
+          && isTimeInterval(((AndFilter) filter).getRight());
+    }
+    return filter instanceof TimeFilter.TimeGt
+        || filter instanceof TimeFilter.TimeGtEq
+        || filter instanceof TimeFilter.TimeLt
+        || filter instanceof TimeFilter.TimeLtEq
+        || filter instanceof TimeFilter.TimeEq;
+  }
+
   @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   private static void aggregateFromReader(
       IAggregateReader seriesReader, List<AggregateResult> aggregateResultList)
@@ -234,7 +475,9 @@ public class AggregationExecutor {
 
     while (seriesReader.hasNextFile()) {
       // cal by file statistics
-      if (seriesReader.canUseCurrentFileStatistics()) {
+      if (seriesReader.canUseCurrentFileStatistics()
+          && canUseStatistics(
+              aggregateResultList, isCalculatedArray, seriesReader.currentFileStatistics())) {
         Statistics fileStatistics = seriesReader.currentFileStatistics();
         remainingToCalculate =
             aggregateStatistics(
@@ -248,7 +491,9 @@ public class AggregationExecutor {
 
       while (seriesReader.hasNextChunk()) {
         // cal by chunk statistics
-        if (seriesReader.canUseCurrentChunkStatistics()) {
+        if (seriesReader.canUseCurrentChunkStatistics()
+            && canUseStatistics(
+                aggregateResultList, isCalculatedArray, seriesReader.currentChunkStatistics())) {
           Statistics chunkStatistics = seriesReader.currentChunkStatistics();
           remainingToCalculate =
               aggregateStatistics(
@@ -270,6 +515,20 @@ public class AggregationExecutor {
     }
   }
 
+  /** @return true if all the results that are not calculated can be updated by the statistics */
+  private static boolean canUseStatistics(
+      List<AggregateResult> aggregateResultList,
+      boolean[] isCalculatedArray,
+      Statistics statistics) {
+    for (int i = 0; i < aggregateResultList.size(); i++) {
+      if (!isCalculatedArray[i]
+          && !aggregateResultList.get(i).canUpdateFromStatistics(statistics)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /** Aggregate each result in the list with the statistics */
   private static int aggregateStatistics(
       List<AggregateResult> aggregateResultList,
@@ -303,7 +562,9 @@ public class AggregationExecutor {
       throws IOException, QueryProcessException {
     while (seriesReader.hasNextPage()) {
       // cal by page statistics
-      if (seriesReader.canUseCurrentPageStatistics()) {
+      if (seriesReader.canUseCurrentPageStatistics()
+          && canUseStatistics(
+              aggregateResultList, isCalculatedArray, seriesReader.currentPageStatistics())) {
         Statistics pageStatistic = seriesReader.currentPageStatistics();
         remainingToCalculate =
             aggregateStatistics(
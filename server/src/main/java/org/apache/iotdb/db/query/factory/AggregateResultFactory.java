@@ -67,6 +67,12 @@ public class AggregateResultFactory {
         return !ascending
             ? new LastValueDescAggrResult(dataType)
             : new LastValueAggrResult(dataType);
+      case SQLConstant.APPROX_COUNT_DISTINCT:
+        return new ApproxCountDistinctAggrResult(dataType);
+      case SQLConstant.APPROX_MEDIAN:
+        return new ApproxMedianAggrResult(dataType);
+      case SQLConstant.M4:
+        return new M4AggrResult(dataType);
       default:
         throw new IllegalArgumentException("Invalid Aggregation function: " + aggrFuncName);
     }
@@ -98,6 +104,12 @@ public class AggregateResultFactory {
         return new SumAggrResult(dataType);
       case SQLConstant.LAST_VALUE:
         return new LastValueDescAggrResult(dataType);
+      case SQLConstant.APPROX_COUNT_DISTINCT:
+        return new ApproxCountDistinctAggrResult(dataType);
+      case SQLConstant.APPROX_MEDIAN:
+        return new ApproxMedianAggrResult(dataType);
+      case SQLConstant.M4:
+        return new M4AggrResult(dataType);
       default:
         throw new IllegalArgumentException("Invalid Aggregation function: " + aggrFuncName);
     }
@@ -130,6 +142,12 @@ public class AggregateResultFactory {
         return new MinValueAggrResult(dataType);
       case EXTREME:
         return new ExtremeAggrResult(dataType);
+      case APPROX_COUNT_DISTINCT:
+        return new ApproxCountDistinctAggrResult(dataType);
+      case APPROX_MEDIAN:
+        return new ApproxMedianAggrResult(dataType);
+      case M4:
+        return new M4AggrResult(dataType);
       default:
         throw new IllegalArgumentException("Invalid Aggregation Type: " + aggregationType.name());
     }
@@ -45,7 +45,8 @@ public class MemChunkReader implements IChunkReader, IPointReader {
     // we treat one ReadOnlyMemChunk as one Page
     this.pageReaderList =
         Collections.singletonList(
-            new MemPageReader(timeValuePairIterator, readableChunk.getChunkMetaData(), filter));
+            new MemPageReader(
+                readableChunk, timeValuePairIterator, readableChunk.getChunkMetaData(), filter));
   }
 
   @Override
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.query.reader.chunk;
 
+import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.VectorChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -25,8 +26,14 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
+import org.apache.iotdb.tsfile.read.common.VectorColumns;
+import org.apache.iotdb.tsfile.read.filter.GroupByFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.BinaryFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.basic.UnaryFilter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
 import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
+import org.apache.iotdb.tsfile.read.filter.operator.NotFilter;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 
@@ -34,12 +41,24 @@ import java.io.IOException;
 
 public class MemPageReader implements IPageReader {
 
+  /** used to read the rows of a VECTOR chunk column by column, null if it is not known */
+  private final ReadOnlyMemChunk memChunk;
+
   private final IPointReader timeValuePairIterator;
   private final IChunkMetadata chunkMetadata;
   private Filter valueFilter;
 
   public MemPageReader(
       IPointReader timeValuePairIterator, IChunkMetadata chunkMetadata, Filter filter) {
+    this(null, timeValuePairIterator, chunkMetadata, filter);
+  }
+
+  public MemPageReader(
+      ReadOnlyMemChunk memChunk,
+      IPointReader timeValuePairIterator,
+      IChunkMetadata chunkMetadata,
+      Filter filter) {
+    this.memChunk = memChunk;
     this.timeValuePairIterator = timeValuePairIterator;
     this.chunkMetadata = chunkMetadata;
     this.valueFilter = filter;
@@ -55,6 +74,13 @@ public class MemPageReader implements IPageReader {
     } else {
       dataType = chunkMetadata.getDataType();
     }
+    // a value filter of a VECTOR is applied to the whole row, which is only available as a
+    // TsPrimitiveType[] from the point reader
+    if (dataType == TSDataType.VECTOR
+        && memChunk != null
+        && (valueFilter == null || isTimeFilter(valueFilter))) {
+      return getAllSatisfiedVectorData(ascending);
+    }
     BatchData batchData = BatchDataFactory.createBatchData(dataType, ascending, false);
     while (timeValuePairIterator.hasNextTimeValuePair()) {
       TimeValuePair timeValuePair = timeValuePairIterator.nextTimeValuePair();
@@ -67,6 +93,46 @@ public class MemPageReader implements IPageReader {
     return batchData.flip();
   }
 
+  /**
+   * read the rows of an aligned timeseries with more than one sub sensor column by column, the
+   * filter should be null or only depend on the time
+   */
+  private BatchData getAllSatisfiedVectorData(boolean ascending) {
+    VectorColumns columns = memChunk.createVectorColumns();
+    long[] times = new long[columns.getCapacity()];
+    int rowNum = memChunk.getVectorColumns(times, columns);
+    int count = 0;
+    for (int i = 0; i < rowNum; i++) {
+      // the filter only depends on the time
+      if (valueFilter != null && !valueFilter.satisfy(times[i], null)) {
+        continue;
+      }
+      if (count != i) {
+        times[count] = times[i];
+        columns.moveRow(i, count);
+      }
+      count++;
+    }
+    BatchData batchData = BatchDataFactory.createBatchData(TSDataType.VECTOR, ascending, false);
+    batchData.putVectors(times, columns, count);
+    return batchData.flip();
+  }
+
+  /** @return true if the filter is made up of time filters only */
+  private static boolean isTimeFilter(Filter filter) {
+    if (filter instanceof UnaryFilter) {
+      return ((UnaryFilter<?>) filter).getFilterType() == FilterType.TIME_FILTER;
+    } else if (filter instanceof GroupByFilter) {
+      return true;
+    } else if (filter instanceof BinaryFilter) {
+      return isTimeFilter(((BinaryFilter) filter).getLeft())
+          && isTimeFilter(((BinaryFilter) filter).getRight());
+    } else if (filter instanceof NotFilter) {
+      return isTimeFilter(((NotFilter) filter).getFilter());
+    }
+    return false;
+  }
+
   @Override
   public Statistics getStatistics() {
     return chunkMetadata.getStatistics();
@@ -26,7 +26,7 @@ import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.db.query.control.QueryTimeManager;
 import org.apache.iotdb.db.query.filter.TsFileFilter;
-import org.apache.iotdb.db.query.reader.universal.DescPriorityMergeReader;
+import org.apache.iotdb.db.query.reader.universal.LoserTreeMergeReader;
 import org.apache.iotdb.db.query.reader.universal.PriorityMergeReader;
 import org.apache.iotdb.db.query.reader.universal.PriorityMergeReader.MergeReaderPriority;
 import org.apache.iotdb.db.utils.FileLoaderUtils;
@@ -36,7 +36,6 @@ import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ITimeSeriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
-import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
@@ -104,7 +103,7 @@ public class SeriesReader {
   /*
    * point cache
    */
-  protected final PriorityMergeReader mergeReader;
+  protected final LoserTreeMergeReader mergeReader;
 
   /*
    * result cache
@@ -156,11 +155,10 @@ public class SeriesReader {
     this.valueFilter = valueFilter;
     if (ascending) {
       this.orderUtils = new AscTimeOrderUtils();
-      mergeReader = new PriorityMergeReader();
     } else {
       this.orderUtils = new DescTimeOrderUtils();
-      mergeReader = new DescPriorityMergeReader();
     }
+    mergeReader = new LoserTreeMergeReader(ascending);
 
     this.seqFileResource = new LinkedList<>(dataSource.getSeqResources());
     this.unseqFileResource = sortUnSeqFileResources(dataSource.getUnseqResources());
@@ -199,11 +197,10 @@ public class SeriesReader {
     this.valueFilter = valueFilter;
     if (ascending) {
       this.orderUtils = new AscTimeOrderUtils();
-      mergeReader = new PriorityMergeReader();
     } else {
       this.orderUtils = new DescTimeOrderUtils();
-      mergeReader = new DescPriorityMergeReader();
     }
+    mergeReader = new LoserTreeMergeReader(ascending);
 
     this.seqFileResource = new LinkedList<>(seqFileResource);
     this.unseqFileResource = sortUnSeqFileResources(unseqFileResource);
@@ -509,7 +506,7 @@ public class SeriesReader {
                 && orderUtils.isOverlapped(
                     firstPageReader.getStatistics(), unSeqPageReaders.peek().getStatistics())
             || (mergeReader.hasNextTimeValuePair()
-                && mergeReader.currentTimeValuePair().getTimestamp()
+                && mergeReader.currentTime()
                     >= firstPageReader.getStatistics().getStartTime()));
   }
 
@@ -592,10 +589,10 @@ public class SeriesReader {
      */
     if (mergeReader.hasNextTimeValuePair()
         && ((orderUtils.getAscending()
-                && mergeReader.currentTimeValuePair().getTimestamp()
+                && mergeReader.currentTime()
                     <= firstPageReader.getStatistics().getEndTime())
             || (!orderUtils.getAscending()
-                && mergeReader.currentTimeValuePair().getTimestamp()
+                && mergeReader.currentTime()
                     >= firstPageReader.getStatistics().getStartTime()))) {
       throw new IOException("overlapped data should be consumed first");
     }
@@ -686,15 +683,15 @@ public class SeriesReader {
           /*
            * get current first point in mergeReader, this maybe overlapped later
            */
-          TimeValuePair timeValuePair = mergeReader.currentTimeValuePair();
+          long currentTime = mergeReader.currentTime();
 
-          if (orderUtils.isExcessEndpoint(timeValuePair.getTimestamp(), currentPageEndPointTime)) {
+          if (orderUtils.isExcessEndpoint(currentTime, currentPageEndPointTime)) {
             /*
              * when the merged point excesses the currentPageEndPointTime, we have read all overlapped data before currentPageEndPointTime
              * 1. has cached batch data, we don't need to read more data, just use the cached data later
-             * 2. has first page reader, which means first page reader last endTime < currentTimeValuePair.getTimestamp(),
+             * 2. has first page reader, which means first page reader last endTime < currentTime,
              * we could just use the first page reader later
-             * 3. sequence page reader is not empty, which means first page reader last endTime < currentTimeValuePair.getTimestamp(),
+             * 3. sequence page reader is not empty, which means first page reader last endTime < currentTime,
              * we could use the first sequence page reader later
              */
             if (cachedBatchData.hasCurrent()
@@ -707,14 +704,13 @@ public class SeriesReader {
           }
 
           // unpack all overlapped data for the first timeValuePair
-          unpackAllOverlappedTsFilesToTimeSeriesMetadata(timeValuePair.getTimestamp());
-          unpackAllOverlappedTimeSeriesMetadataToCachedChunkMetadata(
-              timeValuePair.getTimestamp(), false);
-          unpackAllOverlappedChunkMetadataToPageReaders(timeValuePair.getTimestamp(), false);
-          unpackAllOverlappedUnseqPageReadersToMergeReader(timeValuePair.getTimestamp());
+          unpackAllOverlappedTsFilesToTimeSeriesMetadata(currentTime);
+          unpackAllOverlappedTimeSeriesMetadataToCachedChunkMetadata(currentTime, false);
+          unpackAllOverlappedChunkMetadataToPageReaders(currentTime, false);
+          unpackAllOverlappedUnseqPageReadersToMergeReader(currentTime);
 
           // update if there are unpacked unSeqPageReaders
-          timeValuePair = mergeReader.currentTimeValuePair();
+          currentTime = mergeReader.currentTime();
 
           // from now, the unsequence reader is all unpacked, so we don't need to consider it
           // we has first page reader now
@@ -722,10 +718,9 @@ public class SeriesReader {
             // if current timeValuePair excesses the first page reader's end time, we just use the
             // cached data
             if ((orderUtils.getAscending()
-                    && timeValuePair.getTimestamp() > firstPageReader.getStatistics().getEndTime())
+                    && currentTime > firstPageReader.getStatistics().getEndTime())
                 || (!orderUtils.getAscending()
-                    && timeValuePair.getTimestamp()
-                        < firstPageReader.getStatistics().getStartTime())) {
+                    && currentTime < firstPageReader.getStatistics().getStartTime())) {
               hasCachedNextOverlappedPage = cachedBatchData.hasCurrent();
               return hasCachedNextOverlappedPage;
             } else {
@@ -733,8 +728,7 @@ public class SeriesReader {
               // and update endTime to the max end time
               mergeReader.addReader(
                   firstPageReader
-                      .getAllSatisfiedPageData(orderUtils.getAscending())
-                      .getBatchDataIterator(),
+                      .getAllSatisfiedPageData(orderUtils.getAscending()),
                   firstPageReader.version,
                   orderUtils.getOverlapCheckTime(firstPageReader.getStatistics()));
               currentPageEndPointTime =
@@ -746,19 +740,16 @@ public class SeriesReader {
           // the seq page readers is not empty, just like first page reader
           if (!seqPageReaders.isEmpty()) {
             if ((orderUtils.getAscending()
-                    && timeValuePair.getTimestamp()
-                        > seqPageReaders.get(0).getStatistics().getEndTime())
+                    && currentTime > seqPageReaders.get(0).getStatistics().getEndTime())
                 || (!orderUtils.getAscending()
-                    && timeValuePair.getTimestamp()
-                        < seqPageReaders.get(0).getStatistics().getStartTime())) {
+                    && currentTime < seqPageReaders.get(0).getStatistics().getStartTime())) {
               hasCachedNextOverlappedPage = cachedBatchData.hasCurrent();
               return hasCachedNextOverlappedPage;
             } else {
               VersionPageReader pageReader = seqPageReaders.remove(0);
               mergeReader.addReader(
                   pageReader
-                      .getAllSatisfiedPageData(orderUtils.getAscending())
-                      .getBatchDataIterator(),
+                      .getAllSatisfiedPageData(orderUtils.getAscending()),
                   pageReader.version,
                   orderUtils.getOverlapCheckTime(pageReader.getStatistics()));
               currentPageEndPointTime = updateEndPointTime(currentPageEndPointTime, pageReader);
@@ -766,19 +757,11 @@ public class SeriesReader {
           }
 
           /*
-           * get the latest first point in mergeReader
+           * move the latest first point in mergeReader and the following points which cannot be
+           * overlapped by the data not unpacked yet
            */
-          timeValuePair = mergeReader.nextTimeValuePair();
-
-          Object valueForFilter =
-              timeValuePair.getValue().getDataType() == TSDataType.VECTOR
-                  ? timeValuePair.getValue().getVector()[0].getValue()
-                  : timeValuePair.getValue().getValue();
-          if (valueFilter == null
-              || valueFilter.satisfy(timeValuePair.getTimestamp(), valueForFilter)) {
-            cachedBatchData.putAnObject(
-                timeValuePair.getTimestamp(), timeValuePair.getValue().getValue());
-          }
+          mergeReader.nextRun(
+              cachedBatchData, getUnpackBoundary(), currentPageEndPointTime, valueFilter);
         }
         cachedBatchData.flip();
         hasCachedNextOverlappedPage = cachedBatchData.hasCurrent();
@@ -797,6 +780,53 @@ public class SeriesReader {
     }
   }
 
+  /**
+   * @return the points of mergeReader before the boundary (in the order of this reader) are not
+   *     overlapped by any data that is not unpacked yet, so they can be merged without checking
+   *     the files, chunks and pages again
+   */
+  private long getUnpackBoundary() {
+    boolean ascending = orderUtils.getAscending();
+    if (firstPageReader != null || !seqPageReaders.isEmpty()) {
+      return ascending ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+    long boundary = ascending ? Long.MAX_VALUE : Long.MIN_VALUE;
+    if (!unseqFileResource.isEmpty()) {
+      boundary = nearer(boundary, orderUtils.getOrderTime(unseqFileResource.get(0)));
+    }
+    TsFileResource nextSeqFile = orderUtils.getNextSeqFileResource(seqFileResource, false);
+    if (nextSeqFile != null) {
+      boundary = nearer(boundary, orderUtils.getOrderTime(nextSeqFile));
+    }
+    if (!seqTimeSeriesMetadata.isEmpty()) {
+      boundary =
+          nearer(boundary, orderUtils.getOrderTime(seqTimeSeriesMetadata.get(0).getStatistics()));
+    }
+    if (!unSeqTimeSeriesMetadata.isEmpty()) {
+      boundary =
+          nearer(boundary, orderUtils.getOrderTime(unSeqTimeSeriesMetadata.peek().getStatistics()));
+    }
+    if (firstTimeSeriesMetadata != null) {
+      boundary = nearer(boundary, orderUtils.getOrderTime(firstTimeSeriesMetadata.getStatistics()));
+    }
+    if (firstChunkMetadata != null) {
+      boundary = nearer(boundary, orderUtils.getOrderTime(firstChunkMetadata.getStatistics()));
+    }
+    if (!cachedChunkMetadata.isEmpty()) {
+      boundary =
+          nearer(boundary, orderUtils.getOrderTime(cachedChunkMetadata.peek().getStatistics()));
+    }
+    if (!unSeqPageReaders.isEmpty()) {
+      boundary =
+          nearer(boundary, orderUtils.getOrderTime(unSeqPageReaders.peek().getStatistics()));
+    }
+    return boundary;
+  }
+
+  private long nearer(long time, long another) {
+    return orderUtils.getAscending() ? Math.min(time, another) : Math.max(time, another);
+  }
+
   private long updateEndPointTime(long currentPageEndPointTime, VersionPageReader pageReader) {
     if (orderUtils.getAscending()) {
       return Math.min(currentPageEndPointTime, pageReader.getStatistics().getEndTime());
@@ -865,7 +895,7 @@ public class SeriesReader {
 
   private void putPageReaderToMergeReader(VersionPageReader pageReader) throws IOException {
     mergeReader.addReader(
-        pageReader.getAllSatisfiedPageData(orderUtils.getAscending()).getBatchDataIterator(),
+        pageReader.getAllSatisfiedPageData(orderUtils.getAscending()),
         pageReader.version,
         orderUtils.getOverlapCheckTime(pageReader.getStatistics()));
   }
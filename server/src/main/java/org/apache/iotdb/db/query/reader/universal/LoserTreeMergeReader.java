@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.reader.universal;
+
+import org.apache.iotdb.db.query.reader.universal.PriorityMergeReader.MergeReaderPriority;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import java.util.Arrays;
+
+/**
+ * LoserTreeMergeReader merges the BatchData of overlapped pages with different priorities. It
+ * differs from {@link PriorityMergeReader} in two ways:
+ *
+ * <p>1. The cursors are kept in a loser tree, so moving the winner costs log(k) comparisons of
+ * primitive times instead of a poll and an add on a heap, and no TimeValuePair is created.
+ *
+ * <p>2. The points are moved into the target BatchData in runs: the winner's points before the
+ * current point of the runner-up cannot be overlapped by other cursors, so they are copied
+ * without touching the tree.
+ *
+ * <p>Like PriorityMergeReader, when several cursors have points of the same time, the point of the
+ * cursor with the highest priority is returned and the others are skipped.
+ */
+public class LoserTreeMergeReader {
+
+  private static final int INITIAL_CAPACITY = 8;
+
+  private final boolean ascending;
+
+  private BatchData[] cursors = new BatchData[INITIAL_CAPACITY];
+  private MergeReaderPriority[] priorities = new MergeReaderPriority[INITIAL_CAPACITY];
+  private int size = 0;
+  private int exhaustedNum = 0;
+
+  /**
+   * losers[0] is the index of the winner cursor, losers[i] (i > 0) is the loser of the match at
+   * the internal node i, where the children of node i are 2i and 2i + 1, and the cursor j is at
+   * the leaf size + j
+   */
+  private int[] losers = new int[INITIAL_CAPACITY];
+
+  // max end time of all added readers in ascending order, or min start time in descending order
+  private long currentReadStopTime;
+
+  public LoserTreeMergeReader(boolean ascending) {
+    this.ascending = ascending;
+    this.currentReadStopTime = ascending ? Long.MIN_VALUE : Long.MAX_VALUE;
+  }
+
+  /**
+   * @param batchData the data of a page, which is read in the same order as this reader
+   * @param priority the data of higher priority overwrites the data of the same time
+   * @param endTime the end time (or start time in descending order) of the page
+   */
+  public void addReader(BatchData batchData, MergeReaderPriority priority, long endTime) {
+    if (!batchData.hasCurrent()) {
+      return;
+    }
+    currentReadStopTime =
+        ascending ? Math.max(currentReadStopTime, endTime) : Math.min(currentReadStopTime, endTime);
+    // remove the exhausted cursors before the tree is rebuilt
+    if (exhaustedNum > 0) {
+      int newSize = 0;
+      for (int i = 0; i < size; i++) {
+        if (cursors[i].hasCurrent()) {
+          cursors[newSize] = cursors[i];
+          priorities[newSize] = priorities[i];
+          newSize++;
+        }
+      }
+      Arrays.fill(cursors, newSize, size, null);
+      size = newSize;
+      exhaustedNum = 0;
+    }
+    if (size == cursors.length) {
+      cursors = Arrays.copyOf(cursors, size * 2);
+      priorities = Arrays.copyOf(priorities, size * 2);
+      losers = new int[size * 2];
+    }
+    cursors[size] = batchData;
+    priorities[size] = priority;
+    size++;
+    rebuild();
+  }
+
+  public long getCurrentReadStopTime() {
+    return currentReadStopTime;
+  }
+
+  public boolean hasNextTimeValuePair() {
+    return size > exhaustedNum;
+  }
+
+  /** @return the time of the next point, should be called only if hasNextTimeValuePair() */
+  public long currentTime() {
+    return cursors[losers[0]].currentTime();
+  }
+
+  /**
+   * Move the next point and the following points into the target while they are before the
+   * boundary and do not exceed the endpoint. The points that do not satisfy the value filter are
+   * skipped.
+   *
+   * @param boundary the points at or after it (in the order of this reader) are not moved except
+   *     the first one
+   * @param endpointTime the points after it (in the order of this reader) are not moved except the
+   *     first one
+   */
+  public void nextRun(BatchData target, long boundary, long endpointTime, Filter valueFilter) {
+    // the first point is always moved
+    int winner = losers[0];
+    long time = cursors[winner].currentTime();
+    putCurrent(target, cursors[winner], valueFilter);
+    cursors[winner].next();
+    skipOverwritten(winner, time);
+
+    while (hasNextTimeValuePair()) {
+      winner = losers[0];
+      BatchData cursor = cursors[winner];
+      if (!isInRun(cursor.currentTime(), boundary, endpointTime)) {
+        return;
+      }
+      // the points of the winner before the runner-up are not overlapped by other cursors
+      long runnerUpTime = boundary;
+      int runnerUp = getRunnerUp(winner);
+      if (runnerUp >= 0
+          && cursors[runnerUp].hasCurrent()
+          && isBefore(cursors[runnerUp].currentTime(), runnerUpTime)) {
+        runnerUpTime = cursors[runnerUp].currentTime();
+      }
+      do {
+        time = cursor.currentTime();
+        putCurrent(target, cursor, valueFilter);
+        cursor.next();
+      } while (cursor.hasCurrent() && isInRun(cursor.currentTime(), runnerUpTime, endpointTime));
+      skipOverwritten(winner, time);
+    }
+  }
+
+  /**
+   * Replay the tree after the winner is moved, and skip the points of other cursors which have
+   * the same time as the last moved point, as they are overwritten by it.
+   */
+  private void skipOverwritten(int winner, long time) {
+    if (!cursors[winner].hasCurrent()) {
+      exhaustedNum++;
+    }
+    replay(winner);
+    while (hasNextTimeValuePair() && cursors[losers[0]].currentTime() == time) {
+      int loser = losers[0];
+      cursors[loser].next();
+      if (!cursors[loser].hasCurrent()) {
+        exhaustedNum++;
+      }
+      replay(loser);
+    }
+  }
+
+  private void putCurrent(BatchData target, BatchData cursor, Filter valueFilter) {
+    long time = cursor.currentTime();
+    Object value = cursor.currentValue();
+    if (valueFilter != null) {
+      Object valueForFilter =
+          cursor.getDataType() == TSDataType.VECTOR
+              ? ((TsPrimitiveType[]) value)[0].getValue()
+              : value;
+      if (!valueFilter.satisfy(time, valueForFilter)) {
+        return;
+      }
+    }
+    target.putAnObject(time, value);
+  }
+
+  private boolean isInRun(long time, long boundary, long endpointTime) {
+    return isBefore(time, boundary) && (ascending ? time <= endpointTime : time >= endpointTime);
+  }
+
+  private boolean isBefore(long time, long another) {
+    return ascending ? time < another : time > another;
+  }
+
+  /** @return true if the cursor a should be returned before the cursor b */
+  private boolean beats(int a, int b) {
+    if (!cursors[a].hasCurrent()) {
+      return false;
+    }
+    if (!cursors[b].hasCurrent()) {
+      return true;
+    }
+    long timeA = cursors[a].currentTime();
+    long timeB = cursors[b].currentTime();
+    if (timeA != timeB) {
+      return isBefore(timeA, timeB);
+    }
+    return priorities[a].compareTo(priorities[b]) > 0;
+  }
+
+  private void rebuild() {
+    if (size == 1) {
+      losers[0] = 0;
+      return;
+    }
+    int[] winners = new int[size * 2];
+    for (int i = 0; i < size; i++) {
+      winners[size + i] = i;
+    }
+    for (int node = size - 1; node >= 1; node--) {
+      int left = winners[2 * node];
+      int right = winners[2 * node + 1];
+      if (beats(left, right)) {
+        winners[node] = left;
+        losers[node] = right;
+      } else {
+        winners[node] = right;
+        losers[node] = left;
+      }
+    }
+    losers[0] = winners[1];
+  }
+
+  /** replay the matches from the leaf of the cursor to the root after the cursor is moved */
+  private void replay(int cursor) {
+    int winner = cursor;
+    for (int node = (size + cursor) >> 1; node >= 1; node >>= 1) {
+      if (beats(losers[node], winner)) {
+        int tmp = losers[node];
+        losers[node] = winner;
+        winner = tmp;
+      }
+    }
+    losers[0] = winner;
+  }
+
+  /** @return the best of the cursors that lost to the winner, or -1 if there is only one cursor */
+  private int getRunnerUp(int winner) {
+    int runnerUp = -1;
+    for (int node = (size + winner) >> 1; node >= 1; node >>= 1) {
+      if (runnerUp < 0 || beats(losers[node], runnerUp)) {
+        runnerUp = losers[node];
+      }
+    }
+    return runnerUp;
+  }
+}
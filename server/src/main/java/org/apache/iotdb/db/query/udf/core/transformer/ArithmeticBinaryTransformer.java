@@ -86,7 +86,7 @@ public abstract class ArithmeticBinaryTransformer extends Transformer {
 
   protected abstract double evaluate(double leftOperand, double rightOperand);
 
-  private static double castCurrentValueToDoubleOperand(LayerPointReader layerPointReader)
+  static double castCurrentValueToDoubleOperand(LayerPointReader layerPointReader)
       throws IOException, QueryProcessException {
     switch (layerPointReader.getDataType()) {
       case INT32:
@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.udf.core.transformer;
+
+import org.apache.iotdb.db.query.expression.Expression;
+import org.apache.iotdb.db.query.expression.binary.AdditionExpression;
+import org.apache.iotdb.db.query.expression.binary.BinaryExpression;
+import org.apache.iotdb.db.query.expression.binary.DivisionExpression;
+import org.apache.iotdb.db.query.expression.binary.ModuloExpression;
+import org.apache.iotdb.db.query.expression.binary.MultiplicationExpression;
+import org.apache.iotdb.db.query.expression.binary.SubtractionExpression;
+import org.apache.iotdb.db.query.expression.unary.NegationExpression;
+import org.apache.iotdb.db.query.expression.unary.TimeSeriesOperand;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * ArithmeticExpressionCompiler compiles an arithmetic expression tree, e.g., (s1 + s2) * s3 / s4,
+ * into a tree of {@link ColumnEvaluator}s, each of which evaluates one operator over a batch of
+ * primitive double columns in a tight loop. Compared with the chain of arithmetic transformers,
+ * which evaluates one point at a time through virtual calls, the virtual calls are paid once per
+ * batch and the loops can be optimized (e.g., vectorized) by the JIT.
+ *
+ * <p>The input series are numbered by their first occurrences in the expression, and {@link
+ * #getInputSeries()} gives the names of the series in that order.
+ */
+public class ArithmeticExpressionCompiler {
+
+  private final Function<String, TSDataType> seriesDataTypeProvider;
+
+  private final List<String> inputSeries = new ArrayList<>();
+  private final Map<String, Integer> inputSeriesIndexes = new HashMap<>();
+
+  /** @param seriesDataTypeProvider series name -> data type of the series */
+  public ArithmeticExpressionCompiler(Function<String, TSDataType> seriesDataTypeProvider) {
+    this.seriesDataTypeProvider = seriesDataTypeProvider;
+  }
+
+  /**
+   * @return the compiled expression, or null if the expression contains operands that cannot be
+   *     compiled (e.g., UDFs or non-numeric series), and then it should be evaluated by the
+   *     arithmetic transformers
+   */
+  public ColumnEvaluator compile(Expression expression) {
+    if (expression instanceof TimeSeriesOperand) {
+      String seriesName = expression.toString();
+      if (!isNumeric(seriesDataTypeProvider.apply(seriesName))) {
+        return null;
+      }
+      int index =
+          inputSeriesIndexes.computeIfAbsent(
+              seriesName,
+              k -> {
+                inputSeries.add(k);
+                return inputSeries.size() - 1;
+              });
+      return new InputColumnEvaluator(index);
+    }
+
+    if (expression instanceof NegationExpression) {
+      ColumnEvaluator operand = compile(((NegationExpression) expression).getExpression());
+      return operand == null ? null : new NegationColumnEvaluator(operand);
+    }
+
+    if (!(expression instanceof BinaryExpression)) {
+      return null;
+    }
+    BinaryExpression binaryExpression = (BinaryExpression) expression;
+    ColumnEvaluator left = compile(binaryExpression.getLeftExpression());
+    ColumnEvaluator right = compile(binaryExpression.getRightExpression());
+    if (left == null || right == null) {
+      return null;
+    }
+    if (binaryExpression instanceof AdditionExpression) {
+      return new AdditionColumnEvaluator(left, right);
+    } else if (binaryExpression instanceof SubtractionExpression) {
+      return new SubtractionColumnEvaluator(left, right);
+    } else if (binaryExpression instanceof MultiplicationExpression) {
+      return new MultiplicationColumnEvaluator(left, right);
+    } else if (binaryExpression instanceof DivisionExpression) {
+      return new DivisionColumnEvaluator(left, right);
+    } else if (binaryExpression instanceof ModuloExpression) {
+      return new ModuloColumnEvaluator(left, right);
+    }
+    return null;
+  }
+
+  /** @return the names of the input series, the i-th of which is read from the i-th column */
+  public List<String> getInputSeries() {
+    return inputSeries;
+  }
+
+  private static boolean isNumeric(TSDataType dataType) {
+    return dataType == TSDataType.INT32
+        || dataType == TSDataType.INT64
+        || dataType == TSDataType.FLOAT
+        || dataType == TSDataType.DOUBLE;
+  }
+
+  public interface ColumnEvaluator {
+
+    /**
+     * @param inputColumns the values of the input series, which should not be modified
+     * @param size the number of rows in the batch
+     * @return the results of the first "size" rows, the array may be reused by the next call
+     */
+    double[] evaluate(double[][] inputColumns, int size);
+  }
+
+  private static class InputColumnEvaluator implements ColumnEvaluator {
+
+    private final int index;
+
+    private InputColumnEvaluator(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public double[] evaluate(double[][] inputColumns, int size) {
+      return inputColumns[index];
+    }
+  }
+
+  private static class NegationColumnEvaluator implements ColumnEvaluator {
+
+    private final ColumnEvaluator operand;
+    private double[] output = new double[0];
+
+    private NegationColumnEvaluator(ColumnEvaluator operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public double[] evaluate(double[][] inputColumns, int size) {
+      double[] values = operand.evaluate(inputColumns, size);
+      if (output.length < size) {
+        output = new double[size];
+      }
+      for (int i = 0; i < size; i++) {
+        output[i] = -values[i];
+      }
+      return output;
+    }
+  }
+
+  private abstract static class BinaryColumnEvaluator implements ColumnEvaluator {
+
+    private final ColumnEvaluator left;
+    private final ColumnEvaluator right;
+    private double[] output = new double[0];
+
+    private BinaryColumnEvaluator(ColumnEvaluator left, ColumnEvaluator right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public final double[] evaluate(double[][] inputColumns, int size) {
+      double[] leftValues = left.evaluate(inputColumns, size);
+      double[] rightValues = right.evaluate(inputColumns, size);
+      if (output.length < size) {
+        output = new double[size];
+      }
+      evaluate(leftValues, rightValues, output, size);
+      return output;
+    }
+
+    // each operator has its own loop so that the loop is monomorphic
+    protected abstract void evaluate(double[] left, double[] right, double[] output, int size);
+  }
+
+  private static class AdditionColumnEvaluator extends BinaryColumnEvaluator {
+
+    private AdditionColumnEvaluator(ColumnEvaluator left, ColumnEvaluator right) {
+      super(left, right);
+    }
+
+    @Override
+    protected void evaluate(double[] left, double[] right, double[] output, int size) {
+      for (int i = 0; i < size; i++) {
+        output[i] = left[i] + right[i];
+      }
+    }
+  }
+
+  private static class SubtractionColumnEvaluator extends BinaryColumnEvaluator {
+
+    private SubtractionColumnEvaluator(ColumnEvaluator left, ColumnEvaluator right) {
+      super(left, right);
+    }
+
+    @Override
+    protected void evaluate(double[] left, double[] right, double[] output, int size) {
+      for (int i = 0; i < size; i++) {
+        output[i] = left[i] - right[i];
+      }
+    }
+  }
+
+  private static class MultiplicationColumnEvaluator extends BinaryColumnEvaluator {
+
+    private MultiplicationColumnEvaluator(ColumnEvaluator left, ColumnEvaluator right) {
+      super(left, right);
+    }
+
+    @Override
+    protected void evaluate(double[] left, double[] right, double[] output, int size) {
+      for (int i = 0; i < size; i++) {
+        output[i] = left[i] * right[i];
+      }
+    }
+  }
+
+  private static class DivisionColumnEvaluator extends BinaryColumnEvaluator {
+
+    private DivisionColumnEvaluator(ColumnEvaluator left, ColumnEvaluator right) {
+      super(left, right);
+    }
+
+    @Override
+    protected void evaluate(double[] left, double[] right, double[] output, int size) {
+      for (int i = 0; i < size; i++) {
+        output[i] = left[i] / right[i];
+      }
+    }
+  }
+
+  private static class ModuloColumnEvaluator extends BinaryColumnEvaluator {
+
+    private ModuloColumnEvaluator(ColumnEvaluator left, ColumnEvaluator right) {
+      super(left, right);
+    }
+
+    @Override
+    protected void evaluate(double[] left, double[] right, double[] output, int size) {
+      for (int i = 0; i < size; i++) {
+        output[i] = left[i] % right[i];
+      }
+    }
+  }
+}
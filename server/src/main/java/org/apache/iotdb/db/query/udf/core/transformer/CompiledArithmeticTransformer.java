@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.udf.core.transformer;
+
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.query.udf.core.reader.LayerPointReader;
+import org.apache.iotdb.db.query.udf.core.transformer.ArithmeticExpressionCompiler.ColumnEvaluator;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import java.io.IOException;
+
+/**
+ * CompiledArithmeticTransformer evaluates an arithmetic expression compiled by {@link
+ * ArithmeticExpressionCompiler} batch by batch: the values of the input series at the timestamps
+ * that exist in all of them are collected into primitive columns, and then the whole batch is
+ * evaluated at once.
+ */
+public class CompiledArithmeticTransformer extends Transformer {
+
+  private static final int BATCH_SIZE = 1024;
+
+  private final LayerPointReader[] inputReaders;
+  private final ColumnEvaluator evaluator;
+
+  private final long[] times = new long[BATCH_SIZE];
+  private final double[][] inputColumns;
+  private double[] outputColumn;
+  private int batchSize;
+  private int batchIndex;
+
+  /**
+   * @param inputReaders the readers of the input series, in the order of {@link
+   *     ArithmeticExpressionCompiler#getInputSeries()}
+   */
+  public CompiledArithmeticTransformer(LayerPointReader[] inputReaders, ColumnEvaluator evaluator) {
+    this.inputReaders = inputReaders;
+    this.evaluator = evaluator;
+    inputColumns = new double[inputReaders.length][BATCH_SIZE];
+  }
+
+  @Override
+  protected boolean cacheValue() throws QueryProcessException, IOException {
+    if (batchIndex == batchSize && !cacheBatch()) {
+      return false;
+    }
+    cachedTime = times[batchIndex];
+    cachedDouble = outputColumn[batchIndex];
+    ++batchIndex;
+    return true;
+  }
+
+  private boolean cacheBatch() throws QueryProcessException, IOException {
+    batchSize = 0;
+    batchIndex = 0;
+    while (batchSize < BATCH_SIZE && cacheTime()) {
+      for (int i = 0; i < inputReaders.length; ++i) {
+        inputColumns[i][batchSize] =
+            ArithmeticBinaryTransformer.castCurrentValueToDoubleOperand(inputReaders[i]);
+        inputReaders[i].readyForNext();
+      }
+      ++batchSize;
+    }
+    if (batchSize == 0) {
+      return false;
+    }
+    outputColumn = evaluator.evaluate(inputColumns, batchSize);
+    return true;
+  }
+
+  /**
+   * finds the smallest, unconsumed timestamp that exists in all the input readers and then caches
+   * the timestamp in {@code times}.
+   *
+   * @return true if there has a timestamp that meets the requirements
+   */
+  private boolean cacheTime() throws QueryProcessException, IOException {
+    for (LayerPointReader reader : inputReaders) {
+      if (!reader.next()) {
+        return false;
+      }
+    }
+
+    long time = inputReaders[0].currentTime();
+    boolean aligned = false;
+    while (!aligned) {
+      aligned = true;
+      for (LayerPointReader reader : inputReaders) {
+        while (reader.currentTime() < time) {
+          reader.readyForNext();
+          if (!reader.next()) {
+            return false;
+          }
+        }
+        if (reader.currentTime() > time) {
+          time = reader.currentTime();
+          aligned = false;
+        }
+      }
+    }
+
+    times[batchSize] = time;
+    return true;
+  }
+
+  @Override
+  public TSDataType getDataType() {
+    return TSDataType.DOUBLE;
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+
+/**
+ * Manage the direct memory for the values of off-heap TVLists. Each segment holds ARRAY_SIZE
+ * values of 4 or 8 bytes. Segments are sliced from 1MB slabs of direct memory, returned to the
+ * pool when released and never freed, so that the direct memory is allocated at most
+ * offHeapMemoryForWrite in total. When it is used up, heap segments are returned instead, whose
+ * size is recorded for the writing thread and added to the memtable cost by TsFileProcessor.
+ */
+public class OffHeapArrayManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapArrayManager.class);
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final int SLAB_SIZE = 1024 * 1024;
+
+  /** value size (4 or 8) / 4 - 1 -> pooled direct segments */
+  @SuppressWarnings("unchecked")
+  private static final ArrayDeque<ByteBuffer>[] POOLED_SEGMENTS =
+      new ArrayDeque[] {new ArrayDeque<>(), new ArrayDeque<>()};
+
+  private static long memoryLimit = CONFIG.getOffHeapMemoryForWrite();
+
+  /** size of the direct memory allocated from the system, including the pooled segments */
+  private static long allocatedSize = 0;
+
+  /** size of the direct segments used by TVLists */
+  private static long usedSize = 0;
+
+  /** size of the heap segments returned to the current thread since the last take */
+  private static final ThreadLocal<long[]> HEAP_SEGMENT_SIZE =
+      ThreadLocal.withInitial(() -> new long[1]);
+
+  private OffHeapArrayManager() {}
+
+  /**
+   * Get a segment for ARRAY_SIZE values of the given size, in native byte order.
+   *
+   * @param valueSize 4 or 8
+   * @return a direct segment, or a heap one if the direct memory is used up
+   */
+  public static ByteBuffer allocate(int valueSize) {
+    int segmentSize = PrimitiveArrayManager.ARRAY_SIZE * valueSize;
+    ByteBuffer segment;
+    long currentUsedSize;
+    synchronized (OffHeapArrayManager.class) {
+      ArrayDeque<ByteBuffer> pool = POOLED_SEGMENTS[valueSize / 4 - 1];
+      if (pool.isEmpty() && !allocateSlab(pool, segmentSize)) {
+        HEAP_SEGMENT_SIZE.get()[0] += segmentSize;
+        return ByteBuffer.allocate(segmentSize).order(ByteOrder.nativeOrder());
+      }
+      segment = pool.poll();
+      usedSize += segmentSize;
+      currentUsedSize = usedSize;
+    }
+    SystemInfo.getInstance().reportOffHeapMemoryCost(currentUsedSize, memoryLimit);
+    return segment;
+  }
+
+  /** Return a segment got from {@link #allocate(int)}, heap segments are simply dropped. */
+  public static void release(ByteBuffer segment) {
+    if (!segment.isDirect()) {
+      return;
+    }
+    segment.clear();
+    long currentUsedSize;
+    synchronized (OffHeapArrayManager.class) {
+      POOLED_SEGMENTS[segment.capacity() / PrimitiveArrayManager.ARRAY_SIZE / 4 - 1].add(segment);
+      usedSize -= segment.capacity();
+      currentUsedSize = usedSize;
+    }
+    SystemInfo.getInstance().reportOffHeapMemoryCost(currentUsedSize, memoryLimit);
+  }
+
+  /**
+   * Get and reset the size of the heap segments returned to the current thread by {@link
+   * #allocate(int)}, which is not accounted as direct memory.
+   */
+  public static long takeHeapSegmentSize() {
+    long[] heapSegmentSize = HEAP_SEGMENT_SIZE.get();
+    long size = heapSegmentSize[0];
+    heapSegmentSize[0] = 0;
+    return size;
+  }
+
+  private static boolean allocateSlab(ArrayDeque<ByteBuffer> pool, int segmentSize) {
+    int slabSize = Math.max(SLAB_SIZE / segmentSize, 1) * segmentSize;
+    if (allocatedSize + slabSize > memoryLimit) {
+      if (allocatedSize + segmentSize > memoryLimit) {
+        LOGGER.debug("Off-heap memory for write {} is used up", memoryLimit);
+        return false;
+      }
+      // the tail of the direct memory
+      slabSize = segmentSize;
+    }
+    ByteBuffer slab = ByteBuffer.allocateDirect(slabSize);
+    allocatedSize += slabSize;
+    for (int position = 0; position < slabSize; position += segmentSize) {
+      slab.limit(position + segmentSize).position(position);
+      pool.add(slab.slice().order(ByteOrder.nativeOrder()));
+    }
+    return true;
+  }
+
+  public static synchronized long getAllocatedSize() {
+    return allocatedSize;
+  }
+
+  public static synchronized long getUsedSize() {
+    return usedSize;
+  }
+}
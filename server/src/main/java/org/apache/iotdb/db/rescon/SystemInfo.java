@@ -55,6 +55,9 @@ public class SystemInfo {
 
   private volatile boolean isEncodingFasterThanIo = true;
 
+  /** whether memtables are marked to flush since the direct memory usage exceeds the threshold */
+  private volatile boolean offHeapFlushRequested = false;
+
   /**
    * Report current mem cost of storage group to system. Called when the memory of storage group
    * newly accumulates to IoTDBConfig.getStorageGroupSizeReportThreshold()
@@ -200,11 +203,7 @@ public class SystemInfo {
       }
       TsFileProcessor selectedTsFileProcessor = allTsFileProcessors.peek();
       memCost += selectedTsFileProcessor.getWorkMemTableRamCost();
-      selectedTsFileProcessor.setWorkMemTableShouldFlush();
-      flushTaskSubmitThreadPool.submit(
-          () -> {
-            selectedTsFileProcessor.submitAFlushTask();
-          });
+      markFlush(selectedTsFileProcessor);
       if (selectedTsFileProcessor == currentTsFileProcessor) {
         isCurrentTsFileProcessorSelected = true;
       }
@@ -213,6 +212,66 @@ public class SystemInfo {
     return isCurrentTsFileProcessorSelected;
   }
 
+  private void markFlush(TsFileProcessor tsFileProcessor) {
+    tsFileProcessor.setWorkMemTableShouldFlush();
+    flushTaskSubmitThreadPool.submit(
+        () -> {
+          tsFileProcessor.submitAFlushTask();
+        });
+  }
+
+  /**
+   * Report the direct memory used by off-heap memtables, called by OffHeapArrayManager when it
+   * changes. When it exceeds the flush proportion of the limit, the largest working memtables are
+   * marked to flush, and they are not marked again until the usage drops below the threshold.
+   *
+   * @param usedSize direct memory used by memtables
+   * @param memoryLimit config.getOffHeapMemoryForWrite()
+   */
+  public void reportOffHeapMemoryCost(long usedSize, long memoryLimit) {
+    boolean exceeded = usedSize >= memoryLimit * config.getFlushProportion();
+    // fast path without locking, most reports do not change the status
+    if (exceeded == offHeapFlushRequested) {
+      return;
+    }
+    synchronized (this) {
+      if (exceeded && !offHeapFlushRequested) {
+        logger.info(
+            "Off-heap memory of memtables {} exceeds the flush threshold, call for flushing.",
+            usedSize);
+        offHeapFlushRequested = true;
+        chooseMemTablesToMarkFlushForOffHeap();
+      } else if (!exceeded) {
+        offHeapFlushRequested = false;
+      }
+    }
+  }
+
+  /**
+   * The direct memory used by a memtable grows with its heap cost (the timestamps), so flushing
+   * the memtables holding half of the total heap cost releases about half of the direct memory.
+   */
+  private void chooseMemTablesToMarkFlushForOffHeap() {
+    PriorityQueue<TsFileProcessor> allTsFileProcessors =
+        new PriorityQueue<>(
+            (o1, o2) -> Long.compare(o2.getWorkMemTableRamCost(), o1.getWorkMemTableRamCost()));
+    long totalCost = 0;
+    for (StorageGroupInfo storageGroupInfo : reportedStorageGroupMemCostMap.keySet()) {
+      for (TsFileProcessor tsFileProcessor : storageGroupInfo.getAllReportedTsp()) {
+        allTsFileProcessors.add(tsFileProcessor);
+        totalCost += tsFileProcessor.getWorkMemTableRamCost();
+      }
+    }
+    long memCost = 0;
+    while (memCost < totalCost / 2
+        && !allTsFileProcessors.isEmpty()
+        && allTsFileProcessors.peek().getWorkMemTableRamCost() > 0) {
+      TsFileProcessor selectedTsFileProcessor = allTsFileProcessors.poll();
+      memCost += selectedTsFileProcessor.getWorkMemTableRamCost();
+      markFlush(selectedTsFileProcessor);
+    }
+  }
+
   public boolean isRejected() {
     return rejected;
   }
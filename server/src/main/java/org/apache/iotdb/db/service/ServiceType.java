@@ -48,6 +48,9 @@ public enum ServiceType {
       "CACHE_HIT_RATIO_DISPLAY_SERVICE",
       generateJmxName(IoTDBConstant.IOTDB_PACKAGE, "Cache Hit Ratio")),
   QUERY_TIME_MANAGER("Query time manager", "Query time"),
+  QUERY_ADMISSION_SERVICE(
+      "Query Admission Controller",
+      generateJmxName(IoTDBConstant.IOTDB_PACKAGE, "Query Admission")),
 
   FLUSH_SERVICE(
       "Flush ServerService", generateJmxName("org.apache.iotdb.db.engine.pool", "Flush Manager")),
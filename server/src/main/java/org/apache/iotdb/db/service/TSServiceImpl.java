@@ -35,11 +35,13 @@ import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.db.exception.metadata.StorageGroupNotSetException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.exception.query.QueryRejectedRuntimeException;
 import org.apache.iotdb.db.exception.query.QueryTimeoutRuntimeException;
 import org.apache.iotdb.db.exception.runtime.SQLParserException;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.metrics.server.SqlArgument;
 import org.apache.iotdb.db.qp.Planner;
+import org.apache.iotdb.db.qp.PreparedPlanTemplate;
 import org.apache.iotdb.db.qp.constant.SQLConstant;
 import org.apache.iotdb.db.qp.executor.IPlanExecutor;
 import org.apache.iotdb.db.qp.executor.PlanExecutor;
@@ -73,6 +75,7 @@ import org.apache.iotdb.db.qp.physical.sys.ShowPlan;
 import org.apache.iotdb.db.qp.physical.sys.ShowQueryProcesslistPlan;
 import org.apache.iotdb.db.query.aggregation.AggregateResult;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryPriority;
 import org.apache.iotdb.db.query.control.QueryTimeManager;
 import org.apache.iotdb.db.query.control.SessionManager;
 import org.apache.iotdb.db.query.control.SessionTimeoutManager;
@@ -92,6 +95,7 @@ import org.apache.iotdb.service.rpc.thrift.EndPoint;
 import org.apache.iotdb.service.rpc.thrift.ServerProperties;
 import org.apache.iotdb.service.rpc.thrift.TSCancelOperationReq;
 import org.apache.iotdb.service.rpc.thrift.TSCloseOperationReq;
+import org.apache.iotdb.service.rpc.thrift.TSClosePreparedStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSCloseSessionReq;
 import org.apache.iotdb.service.rpc.thrift.TSCreateAlignedTimeseriesReq;
 import org.apache.iotdb.service.rpc.thrift.TSCreateMultiTimeseriesReq;
@@ -99,6 +103,7 @@ import org.apache.iotdb.service.rpc.thrift.TSCreateSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSCreateTimeseriesReq;
 import org.apache.iotdb.service.rpc.thrift.TSDeleteDataReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSExecutePreparedStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TSFetchMetadataReq;
@@ -117,6 +122,8 @@ import org.apache.iotdb.service.rpc.thrift.TSInsertTabletsReq;
 import org.apache.iotdb.service.rpc.thrift.TSLastDataQueryReq;
 import org.apache.iotdb.service.rpc.thrift.TSOpenSessionReq;
 import org.apache.iotdb.service.rpc.thrift.TSOpenSessionResp;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TSProtocolVersion;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
 import org.apache.iotdb.service.rpc.thrift.TSQueryNonAlignDataSet;
@@ -615,6 +622,86 @@ public class TSServiceImpl implements TSIService.Iface {
     }
   }
 
+  @Override
+  public TSPrepareStatementResp prepareStatement(TSPrepareStatementReq req) {
+    TSPrepareStatementResp resp = new TSPrepareStatementResp();
+    if (!checkLogin(req.getSessionId())) {
+      return resp.setStatus(getNotLoggedInStatus());
+    }
+
+    try {
+      PreparedPlanTemplate template =
+          PreparedPlanTemplate.getOrCreate(
+              processor,
+              req.getStatement(),
+              sessionManager.getZoneId(req.getSessionId()),
+              DEFAULT_FETCH_SIZE);
+      resp.setPreparedStatementId(
+          sessionManager.addPreparedStatement(req.getSessionId(), template));
+      resp.setParameterCount(template.getParameterCount());
+      return resp.setStatus(RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS));
+    } catch (Exception e) {
+      return resp.setStatus(
+          onNPEOrUnexpectedException(
+              e, "executing prepareStatement", TSStatusCode.EXECUTE_STATEMENT_ERROR));
+    }
+  }
+
+  @Override
+  public TSExecuteStatementResp executePreparedStatement(TSExecutePreparedStatementReq req) {
+    try {
+      if (!checkLogin(req.getSessionId())) {
+        return RpcUtils.getTSExecuteStatementResp(getNotLoggedInStatus());
+      }
+
+      PreparedPlanTemplate template =
+          sessionManager.getPreparedStatement(req.getSessionId(), req.getPreparedStatementId());
+      if (template == null) {
+        return RpcUtils.getTSExecuteStatementResp(
+            TSStatusCode.EXECUTE_STATEMENT_ERROR,
+            String.format(
+                "Prepared statement %d does not exist in session %d",
+                req.getPreparedStatementId(), req.getSessionId()));
+      }
+      PhysicalPlan physicalPlan =
+          template.bind(
+              processor,
+              req.getParameters(),
+              req.isSetParameterTypes() ? req.getParameterTypes() : null,
+              sessionManager.getZoneId(req.getSessionId()),
+              req.fetchSize);
+
+      return physicalPlan.isQuery()
+          ? internalExecuteQueryStatement(
+              template.getStatement(),
+              req.statementId,
+              physicalPlan,
+              req.fetchSize,
+              req.timeout,
+              sessionManager.getUsername(req.getSessionId()),
+              req.isEnableRedirectQuery())
+          : executeUpdateStatement(physicalPlan, req.getSessionId());
+    } catch (InterruptedException e) {
+      LOGGER.error(INFO_INTERRUPT_ERROR, req, e);
+      Thread.currentThread().interrupt();
+      return RpcUtils.getTSExecuteStatementResp(
+          onQueryException(e, "executing executePreparedStatement"));
+    } catch (Exception e) {
+      return RpcUtils.getTSExecuteStatementResp(
+          onQueryException(e, "executing executePreparedStatement"));
+    }
+  }
+
+  @Override
+  public TSStatus closePreparedStatement(TSClosePreparedStatementReq req) {
+    if (!checkLogin(req.getSessionId())) {
+      return getNotLoggedInStatus();
+    }
+
+    sessionManager.closePreparedStatement(req.getSessionId(), req.getPreparedStatementId());
+    return RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS);
+  }
+
   @Override
   public TSExecuteStatementResp executeQueryStatement(TSExecuteStatementReq req) {
     try {
@@ -739,7 +826,9 @@ public class TSServiceImpl implements TSIService.Iface {
       fetchSize = p.left;
 
       // generate the queryId for the operation
-      queryId = sessionManager.requestQueryId(statementId, true, fetchSize, p.right);
+      queryId =
+          sessionManager.requestQueryId(
+              statementId, true, fetchSize, p.right, QueryPriority.of(plan));
       // register query info to queryTimeManager
       if (!(plan instanceof ShowQueryProcesslistPlan)) {
         queryTimeManager.registerQuery(queryId, startTime, statement, timeout);
@@ -1182,10 +1271,29 @@ public class TSServiceImpl implements TSIService.Iface {
 
     status = executeNonQueryPlan(plan);
     TSExecuteStatementResp resp = RpcUtils.getTSExecuteStatementResp(status);
+    if (status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      resp.setUpdateCount(getUpdateCount(plan));
+    }
     long queryId = sessionManager.requestQueryId(false, DEFAULT_FETCH_SIZE, -1);
     return resp.setQueryId(queryId);
   }
 
+  /** @return the number of rows the plan writes, or 0 if it writes no rows */
+  private static int getUpdateCount(PhysicalPlan plan) {
+    if (plan instanceof InsertRowPlan) {
+      return 1;
+    } else if (plan instanceof InsertTabletPlan) {
+      return ((InsertTabletPlan) plan).getRowCount();
+    } else if (plan instanceof InsertMultiTabletPlan) {
+      return ((InsertMultiTabletPlan) plan).getTotalRowCount();
+    } else if (plan instanceof InsertRowsPlan) {
+      return ((InsertRowsPlan) plan).getRowCount();
+    } else if (plan instanceof InsertRowsOfOneDevicePlan) {
+      return ((InsertRowsOfOneDevicePlan) plan).getRowPlans().length;
+    }
+    return 0;
+  }
+
   private boolean executeNonQuery(PhysicalPlan plan)
       throws QueryProcessException, StorageGroupNotSetException, StorageEngineException {
     if (IoTDBDescriptor.getInstance().getConfig().isReadOnly()) {
@@ -1579,14 +1687,44 @@ public class TSServiceImpl implements TSIService.Iface {
         return getNotLoggedInStatus();
       }
 
+      TSStatus formatStatus =
+          checkTabletFormat(
+              req.isSetTimeEncoding(),
+              req.timeEncoding,
+              req.isSetCompressionType(),
+              req.compressionType,
+              req.types,
+              req.size);
+      if (formatStatus != null) {
+        return formatStatus;
+      }
+
       InsertTabletPlan insertTabletPlan =
           new InsertTabletPlan(new PartialPath(req.getPrefixPath()), req.measurements);
-      insertTabletPlan.setTimes(QueryDataSetUtils.readTimesFromBuffer(req.timestamps, req.size));
+      TSEncoding timeEncoding =
+          req.isSetTimeEncoding() ? TSEncoding.values()[req.timeEncoding] : TSEncoding.PLAIN;
+      CompressionType compressionType =
+          req.isSetCompressionType()
+              ? CompressionType.values()[req.compressionType]
+              : CompressionType.UNCOMPRESSED;
+      ByteBuffer timeBuffer =
+          QueryDataSetUtils.uncompressTabletBuffer(
+              req.timestamps,
+              compressionType,
+              QueryDataSetUtils.getMaxTimeBufferSize(req.size, timeEncoding));
+      ByteBuffer valueBuffer =
+          QueryDataSetUtils.uncompressTabletBuffer(
+              req.values,
+              compressionType,
+              QueryDataSetUtils.getMaxValueBufferSize(
+                  req.types, req.size, config.getThriftMaxFrameSize()));
+      insertTabletPlan.setTimes(
+          QueryDataSetUtils.readTimesFromBuffer(timeBuffer, req.size, timeEncoding));
       insertTabletPlan.setColumns(
           QueryDataSetUtils.readValuesFromBuffer(
-              req.values, req.types, req.types.size(), req.size));
+              valueBuffer, req.types, req.types.size(), req.size));
       insertTabletPlan.setBitMaps(
-          QueryDataSetUtils.readBitMapsFromBuffer(req.values, req.types.size(), req.size));
+          QueryDataSetUtils.readBitMapsFromBuffer(valueBuffer, req.types.size(), req.size));
       insertTabletPlan.setRowCount(req.size);
       insertTabletPlan.setDataTypes(req.types);
       insertTabletPlan.setAligned(req.isAligned);
@@ -1622,27 +1760,92 @@ public class TSServiceImpl implements TSIService.Iface {
   }
 
   private InsertTabletPlan constructInsertTabletPlan(TSInsertTabletsReq req, int i)
-      throws IllegalPathException {
+      throws IllegalPathException, IOException {
     InsertTabletPlan insertTabletPlan =
         new InsertTabletPlan(new PartialPath(req.deviceIds.get(i)), req.measurementsList.get(i));
+    TSEncoding timeEncoding =
+        req.isSetTimeEncoding() ? TSEncoding.values()[req.timeEncoding] : TSEncoding.PLAIN;
+    CompressionType compressionType =
+        req.isSetCompressionType()
+            ? CompressionType.values()[req.compressionType]
+            : CompressionType.UNCOMPRESSED;
+    ByteBuffer timeBuffer =
+        QueryDataSetUtils.uncompressTabletBuffer(
+            req.timestampsList.get(i),
+            compressionType,
+            QueryDataSetUtils.getMaxTimeBufferSize(req.sizeList.get(i), timeEncoding));
+    ByteBuffer valueBuffer =
+        QueryDataSetUtils.uncompressTabletBuffer(
+            req.valuesList.get(i),
+            compressionType,
+            QueryDataSetUtils.getMaxValueBufferSize(
+                req.typesList.get(i), req.sizeList.get(i), config.getThriftMaxFrameSize()));
     insertTabletPlan.setTimes(
-        QueryDataSetUtils.readTimesFromBuffer(req.timestampsList.get(i), req.sizeList.get(i)));
+        QueryDataSetUtils.readTimesFromBuffer(timeBuffer, req.sizeList.get(i), timeEncoding));
     insertTabletPlan.setColumns(
         QueryDataSetUtils.readValuesFromBuffer(
-            req.valuesList.get(i),
+            valueBuffer,
             req.typesList.get(i),
             req.measurementsList.get(i).size(),
             req.sizeList.get(i)));
     insertTabletPlan.setBitMaps(
         QueryDataSetUtils.readBitMapsFromBuffer(
-            req.valuesList.get(i), req.measurementsList.get(i).size(), req.sizeList.get(i)));
+            valueBuffer, req.measurementsList.get(i).size(), req.sizeList.get(i)));
     insertTabletPlan.setRowCount(req.sizeList.get(i));
     insertTabletPlan.setDataTypes(req.typesList.get(i));
     return insertTabletPlan;
   }
 
+  /**
+   * Check the wire format of a tablet sent by the client before decoding it, the enums are sent as
+   * ordinals.
+   *
+   * @return null if the tablet can be decoded, or the status to reply otherwise
+   */
+  private TSStatus checkTabletFormat(
+      boolean isSetTimeEncoding,
+      int timeEncoding,
+      boolean isSetCompressionType,
+      int compressionType,
+      List<Integer> types,
+      int size) {
+    if (isSetTimeEncoding && (timeEncoding < 0 || timeEncoding >= TSEncoding.values().length)) {
+      return RpcUtils.getStatus(
+          TSStatusCode.ILLEGAL_PARAMETER, "Unknown encoding of timestamps: " + timeEncoding);
+    }
+    if (isSetCompressionType
+        && (compressionType < 0 || compressionType >= CompressionType.values().length)) {
+      return RpcUtils.getStatus(
+          TSStatusCode.ILLEGAL_PARAMETER, "Unknown compression type: " + compressionType);
+    }
+    for (int type : types) {
+      if (type < 0 || type >= TSDataType.values().length) {
+        return RpcUtils.getStatus(TSStatusCode.ILLEGAL_PARAMETER, "Unknown data type: " + type);
+      }
+    }
+    if (size < 0) {
+      return RpcUtils.getStatus(TSStatusCode.ILLEGAL_PARAMETER, "Illegal size of tablet: " + size);
+    }
+    return null;
+  }
+
   /** construct one InsertMultiTabletPlan and process it */
-  public TSStatus insertTabletsInternal(TSInsertTabletsReq req) throws IllegalPathException {
+  public TSStatus insertTabletsInternal(TSInsertTabletsReq req)
+      throws IllegalPathException, IOException {
+    for (int i = 0; i < req.deviceIds.size(); i++) {
+      TSStatus formatStatus =
+          checkTabletFormat(
+              req.isSetTimeEncoding(),
+              req.timeEncoding,
+              req.isSetCompressionType(),
+              req.compressionType,
+              req.typesList.get(i),
+              req.sizeList.get(i));
+      if (formatStatus != null) {
+        return formatStatus;
+      }
+    }
+
     List<InsertTabletPlan> insertTabletPlanList = new ArrayList<>();
     InsertMultiTabletPlan insertMultiTabletPlan = new InsertMultiTabletPlan();
     for (int i = 0; i < req.deviceIds.size(); i++) {
@@ -2024,6 +2227,9 @@ public class TSServiceImpl implements TSIService.Iface {
     if (e instanceof QueryTimeoutRuntimeException) {
       DETAILED_FAILURE_QUERY_TRACE_LOGGER.warn(e.getMessage(), e);
       return RpcUtils.getStatus(TSStatusCode.TIME_OUT, getRootCause(e));
+    } else if (e instanceof QueryRejectedRuntimeException) {
+      DETAILED_FAILURE_QUERY_TRACE_LOGGER.warn(e.getMessage());
+      return RpcUtils.getStatus(TSStatusCode.QUERY_PROCESS_REJECT, e.getMessage());
     } else if (e instanceof ParseCancellationException) {
       DETAILED_FAILURE_QUERY_TRACE_LOGGER.warn(INFO_PARSING_SQL_ERROR, e);
       return RpcUtils.getStatus(
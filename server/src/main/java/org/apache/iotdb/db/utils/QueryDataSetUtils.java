@@ -20,8 +20,14 @@ package org.apache.iotdb.db.utils;
 
 import org.apache.iotdb.db.tools.watermark.WatermarkEncoder;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.decoder.DeltaBinaryDecoder;
+import org.apache.iotdb.tsfile.exception.encoding.TsFileDecodingException;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
@@ -180,6 +186,84 @@ public class QueryDataSetUtils {
     return times;
   }
 
+  /**
+   * @param encoding how the timestamps are encoded by the client, PLAIN or TS_2DIFF
+   * @throws TsFileDecodingException if the encoding is not supported
+   */
+  public static long[] readTimesFromBuffer(ByteBuffer buffer, int size, TSEncoding encoding) {
+    if (encoding == TSEncoding.PLAIN) {
+      return readTimesFromBuffer(buffer, size);
+    }
+    if (encoding != TSEncoding.TS_2DIFF) {
+      throw new TsFileDecodingException("Unsupported encoding of timestamps: " + encoding);
+    }
+    Decoder decoder = new DeltaBinaryDecoder.LongDeltaDecoder();
+    long[] times = new long[size];
+    for (int i = 0; i < size; i++) {
+      times[i] = decoder.readLong(buffer);
+    }
+    return times;
+  }
+
+  /**
+   * @return how many bytes the timestamps of a tablet take at most before compressed, a TS_2DIFF
+   *     block takes a header of 24 bytes besides the timestamps and may hold a single timestamp
+   */
+  public static long getMaxTimeBufferSize(int rows, TSEncoding encoding) {
+    return encoding == TSEncoding.TS_2DIFF ? rows * 32L : rows * 8L;
+  }
+
+  /**
+   * @param maxTextSize how many bytes the TEXT values of the tablet take at most
+   * @return how many bytes the values and bitmaps of a tablet take at most before compressed
+   */
+  public static long getMaxValueBufferSize(List<Integer> types, int rows, long maxTextSize) {
+    long size = 0;
+    boolean hasText = false;
+    for (int type : types) {
+      TSDataType dataType = TSDataType.values()[type];
+      if (dataType == TSDataType.TEXT) {
+        // the length of each value
+        size += rows * 4L;
+        hasText = true;
+      } else {
+        size += (long) rows * dataType.getDataTypeSize();
+      }
+      // the marker byte and the bitmap
+      size += 1 + rows / Byte.SIZE + 1;
+    }
+    return hasText ? size + maxTextSize : size;
+  }
+
+  /**
+   * Uncompress the timestamps or values of a tablet sent by the client, a compressed buffer starts
+   * with its uncompressed size.
+   *
+   * @param maxUncompressedSize the size the buffer can take at most before compressed
+   * @throws IOException if the uncompressed size sent by the client is negative or larger than
+   *     maxUncompressedSize
+   */
+  public static ByteBuffer uncompressTabletBuffer(
+      ByteBuffer buffer, CompressionType compressionType, long maxUncompressedSize)
+      throws IOException {
+    if (compressionType == CompressionType.UNCOMPRESSED) {
+      return buffer;
+    }
+    int uncompressedSize = buffer.getInt();
+    if (uncompressedSize < 0 || uncompressedSize > maxUncompressedSize) {
+      throw new IOException(
+          String.format(
+              "Illegal uncompressed size %d of a tablet buffer, it should be in [0, %d]",
+              uncompressedSize, maxUncompressedSize));
+    }
+    byte[] compressed = new byte[buffer.remaining()];
+    buffer.get(compressed);
+    byte[] uncompressed = new byte[uncompressedSize];
+    IUnCompressor.getUnCompressor(compressionType)
+        .uncompress(compressed, 0, compressed.length, uncompressed, 0);
+    return ByteBuffer.wrap(uncompressed);
+  }
+
   public static BitMap[] readBitMapsFromBuffer(ByteBuffer buffer, int columns, int size) {
     if (!buffer.hasRemaining()) {
       return null;
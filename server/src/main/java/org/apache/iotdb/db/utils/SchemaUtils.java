@@ -59,6 +59,7 @@ public class SchemaUtils {
     Set<TSEncoding> booleanSet = new HashSet<>();
     booleanSet.add(TSEncoding.PLAIN);
     booleanSet.add(TSEncoding.RLE);
+    booleanSet.add(TSEncoding.AUTO);
     schemaChecker.put(TSDataType.BOOLEAN, booleanSet);
 
     Set<TSEncoding> intSet = new HashSet<>();
@@ -66,6 +67,8 @@ public class SchemaUtils {
     intSet.add(TSEncoding.RLE);
     intSet.add(TSEncoding.TS_2DIFF);
     intSet.add(TSEncoding.GORILLA);
+    intSet.add(TSEncoding.AUTO);
+    intSet.add(TSEncoding.CHIMP);
     schemaChecker.put(TSDataType.INT32, intSet);
     schemaChecker.put(TSDataType.INT64, intSet);
 
@@ -75,12 +78,15 @@ public class SchemaUtils {
     floatSet.add(TSEncoding.TS_2DIFF);
     floatSet.add(TSEncoding.GORILLA_V1);
     floatSet.add(TSEncoding.GORILLA);
+    floatSet.add(TSEncoding.AUTO);
+    floatSet.add(TSEncoding.CHIMP);
     schemaChecker.put(TSDataType.FLOAT, floatSet);
     schemaChecker.put(TSDataType.DOUBLE, floatSet);
 
     Set<TSEncoding> textSet = new HashSet<>();
     textSet.add(TSEncoding.PLAIN);
     textSet.add(TSEncoding.DICTIONARY);
+    textSet.add(TSEncoding.AUTO);
     schemaChecker.put(TSDataType.TEXT, textSet);
   }
 
@@ -201,10 +207,14 @@ public class SchemaUtils {
       case SQLConstant.MIN_TIME:
       case SQLConstant.MAX_TIME:
       case SQLConstant.COUNT:
+      case SQLConstant.APPROX_COUNT_DISTINCT:
         return TSDataType.INT64;
       case SQLConstant.AVG:
       case SQLConstant.SUM:
+      case SQLConstant.APPROX_MEDIAN:
         return TSDataType.DOUBLE;
+      case SQLConstant.M4:
+        return TSDataType.TEXT;
       case SQLConstant.LAST_VALUE:
       case SQLConstant.FIRST_VALUE:
       case SQLConstant.MIN_VALUE:
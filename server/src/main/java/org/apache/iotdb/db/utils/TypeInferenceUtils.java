@@ -112,6 +112,7 @@ public class TypeInferenceUtils {
       case SQLConstant.MIN_TIME:
       case SQLConstant.MAX_TIME:
       case SQLConstant.COUNT:
+      case SQLConstant.APPROX_COUNT_DISTINCT:
         return TSDataType.INT64;
       case SQLConstant.MIN_VALUE:
       case SQLConstant.LAST_VALUE:
@@ -120,7 +121,10 @@ public class TypeInferenceUtils {
         return dataType;
       case SQLConstant.AVG:
       case SQLConstant.SUM:
+      case SQLConstant.APPROX_MEDIAN:
         return TSDataType.DOUBLE;
+      case SQLConstant.M4:
+        return TSDataType.TEXT;
       default:
         throw new IllegalArgumentException("Invalid Aggregation function: " + aggrFuncName);
     }
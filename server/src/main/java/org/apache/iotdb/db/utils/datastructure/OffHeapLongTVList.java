@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import java.nio.ByteBuffer;
+
+/** A long TVList whose values are stored off heap, see {@link OffHeapTVList}. */
+public class OffHeapLongTVList extends OffHeapTVList {
+
+  OffHeapLongTVList() {
+    super(8);
+  }
+
+  @Override
+  public void putLong(long timestamp, long value) {
+    putRawValue(timestamp, value);
+  }
+
+  @Override
+  public long getLong(int index) {
+    return getRawValue(index);
+  }
+
+  @Override
+  public void putLongs(long[] time, long[] value, int start, int end) {
+    putValues(time, value, start, end);
+  }
+
+  @Override
+  protected void copyValues(
+      Object src, int srcIndex, ByteBuffer segment, int elementIndex, int length) {
+    ByteBuffer buffer = segment.duplicate().order(segment.order());
+    buffer.position(elementIndex * 8);
+    buffer.asLongBuffer().put((long[]) src, srcIndex, length);
+  }
+
+  @Override
+  public OffHeapLongTVList clone() {
+    OffHeapLongTVList cloneList = new OffHeapLongTVList();
+    cloneValuesAs(cloneList);
+    return cloneList;
+  }
+
+  @Override
+  public TimeValuePair getTimeValuePair(int index) {
+    return new TimeValuePair(
+        getTime(index), TsPrimitiveType.getByType(TSDataType.INT64, getLong(index)));
+  }
+
+  @Override
+  protected TimeValuePair getTimeValuePair(
+      int index, long time, Integer floatPrecision, TSEncoding encoding) {
+    return new TimeValuePair(time, TsPrimitiveType.getByType(TSDataType.INT64, getLong(index)));
+  }
+
+  @Override
+  public TSDataType getDataType() {
+    return TSDataType.INT64;
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.rescon.OffHeapArrayManager;
+import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+
+/**
+ * A TVList whose values are stored in segments of direct memory got from OffHeapArrayManager, so
+ * that the values of the memtables do not stay in the old generation of the heap. The timestamps
+ * are still kept on heap. Values are handled as raw bits here, the subclasses convert them from
+ * and to the typed values.
+ */
+public abstract class OffHeapTVList extends TVList {
+
+  protected final List<ByteBuffer> values;
+
+  /** 4 or 8 */
+  protected final int valueSize;
+
+  private long[][] sortedValues;
+
+  private long pivotValue;
+
+  OffHeapTVList(int valueSize) {
+    super();
+    this.valueSize = valueSize;
+    values = new ArrayList<>();
+  }
+
+  protected long getRawValue(int index) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    ByteBuffer segment = values.get(index / ARRAY_SIZE);
+    int offset = (index % ARRAY_SIZE) * valueSize;
+    return valueSize == 8 ? segment.getLong(offset) : segment.getInt(offset);
+  }
+
+  private void setRawValue(int index, long rawValue) {
+    ByteBuffer segment = values.get(index / ARRAY_SIZE);
+    int offset = (index % ARRAY_SIZE) * valueSize;
+    if (valueSize == 8) {
+      segment.putLong(offset, rawValue);
+    } else {
+      segment.putInt(offset, (int) rawValue);
+    }
+  }
+
+  protected void putRawValue(long timestamp, long rawValue) {
+    checkExpansion();
+    int arrayIndex = size / ARRAY_SIZE;
+    int elementIndex = size % ARRAY_SIZE;
+    minTime = Math.min(minTime, timestamp);
+    timestamps.get(arrayIndex)[elementIndex] = timestamp;
+    setRawValue(size, rawValue);
+    size++;
+    if (sorted && size > 1 && timestamp < getTime(size - 2)) {
+      sorted = false;
+    }
+  }
+
+  protected void set(int index, long timestamp, long rawValue) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    int arrayIndex = index / ARRAY_SIZE;
+    int elementIndex = index % ARRAY_SIZE;
+    timestamps.get(arrayIndex)[elementIndex] = timestamp;
+    setRawValue(index, rawValue);
+  }
+
+  /** Copy [start, end) of the timestamps and the typed value array into the list. */
+  protected void putValues(long[] time, Object value, int start, int end) {
+    checkExpansion();
+    int idx = start;
+
+    updateMinTimeAndSorted(time, start, end);
+
+    while (idx < end) {
+      int inputRemaining = end - idx;
+      int arrayIdx = size / ARRAY_SIZE;
+      int elementIdx = size % ARRAY_SIZE;
+      int copyLength = Math.min(ARRAY_SIZE - elementIdx, inputRemaining);
+      System.arraycopy(time, idx, timestamps.get(arrayIdx), elementIdx, copyLength);
+      copyValues(value, idx, values.get(arrayIdx), elementIdx, copyLength);
+      idx += copyLength;
+      size += copyLength;
+      if (idx < end) {
+        checkExpansion();
+      }
+    }
+  }
+
+  /** Copy src[srcIndex, srcIndex + length) into the segment starting from the elementIndex. */
+  protected abstract void copyValues(
+      Object src, int srcIndex, ByteBuffer segment, int elementIndex, int length);
+
+  /** A clone is only read by queries, so it is kept on heap and never returned to the pool. */
+  protected void cloneValuesAs(OffHeapTVList cloneList) {
+    cloneAs(cloneList);
+    for (ByteBuffer segment : values) {
+      ByteBuffer cloneSegment = ByteBuffer.allocate(segment.capacity()).order(segment.order());
+      cloneSegment.put(segment.duplicate());
+      cloneSegment.clear();
+      cloneList.values.add(cloneSegment);
+    }
+  }
+
+  @Override
+  public void sort() {
+    if (sortedTimestamps == null || sortedTimestamps.length < size) {
+      sortedTimestamps =
+          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
+    }
+    if (sortedValues == null || sortedValues.length < size) {
+      sortedValues = (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
+    }
+    sort(0, size);
+    clearSortedValue();
+    clearSortedTime();
+    sorted = true;
+  }
+
+  @Override
+  void clearValue() {
+    for (ByteBuffer segment : values) {
+      OffHeapArrayManager.release(segment);
+    }
+    values.clear();
+  }
+
+  @Override
+  void clearSortedValue() {
+    if (sortedValues != null) {
+      sortedValues = null;
+    }
+  }
+
+  @Override
+  protected void setFromSorted(int src, int dest) {
+    set(
+        dest,
+        sortedTimestamps[src / ARRAY_SIZE][src % ARRAY_SIZE],
+        sortedValues[src / ARRAY_SIZE][src % ARRAY_SIZE]);
+  }
+
+  @Override
+  protected void set(int src, int dest) {
+    long srcT = getTime(src);
+    long srcV = getRawValue(src);
+    set(dest, srcT, srcV);
+  }
+
+  @Override
+  protected void setToSorted(int src, int dest) {
+    sortedTimestamps[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = getTime(src);
+    sortedValues[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = getRawValue(src);
+  }
+
+  @Override
+  protected void reverseRange(int lo, int hi) {
+    hi--;
+    while (lo < hi) {
+      long loT = getTime(lo);
+      long loV = getRawValue(lo);
+      long hiT = getTime(hi);
+      long hiV = getRawValue(hi);
+      set(lo++, hiT, hiV);
+      set(hi--, loT, loV);
+    }
+  }
+
+  @Override
+  protected void expandValues() {
+    values.add(OffHeapArrayManager.allocate(valueSize));
+  }
+
+  @Override
+  protected void saveAsPivot(int pos) {
+    pivotTime = getTime(pos);
+    pivotValue = getRawValue(pos);
+  }
+
+  @Override
+  protected void setPivotTo(int pos) {
+    set(pos, pivotTime, pivotValue);
+  }
+
+  @Override
+  protected void releaseLastValueArray() {
+    OffHeapArrayManager.release(values.remove(values.size() - 1));
+  }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.utils.datastructure;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
 import org.apache.iotdb.db.utils.TestOnly;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -61,6 +62,9 @@ public abstract class TVList {
   }
 
   public static TVList newList(TSDataType dataType) {
+    if (isOffHeap(dataType)) {
+      return newOffHeapList(dataType);
+    }
     switch (dataType) {
       case TEXT:
         return new BinaryTVList();
@@ -80,6 +84,37 @@ public abstract class TVList {
     return null;
   }
 
+  private static TVList newOffHeapList(TSDataType dataType) {
+    switch (dataType) {
+      case FLOAT:
+        return new OffHeapFloatTVList();
+      case INT32:
+        return new OffHeapIntTVList();
+      case INT64:
+        return new OffHeapLongTVList();
+      case DOUBLE:
+        return new OffHeapDoubleTVList();
+      default:
+        return null;
+    }
+  }
+
+  /** Whether the values of the given type are stored off heap, only numeric types can be. */
+  public static boolean isOffHeap(TSDataType dataType) {
+    if (!IoTDBDescriptor.getInstance().getConfig().isEnableOffHeapMemTable()) {
+      return false;
+    }
+    switch (dataType) {
+      case FLOAT:
+      case INT32:
+      case INT64:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
   public static TVList newVectorList(List<TSDataType> datatypes) {
     return new VectorTVList(datatypes);
   }
@@ -88,8 +123,11 @@ public abstract class TVList {
     long size = 0;
     // time size
     size += (long) PrimitiveArrayManager.ARRAY_SIZE * 8L;
-    // value size
-    size += (long) PrimitiveArrayManager.ARRAY_SIZE * (long) type.getDataTypeSize();
+    // value size, the off-heap values are accounted by OffHeapArrayManager, or by TsFileProcessor
+    // after the insertion when they are put on heap because the direct memory is used up
+    if (!isOffHeap(type)) {
+      size += (long) PrimitiveArrayManager.ARRAY_SIZE * (long) type.getDataTypeSize();
+    }
     return size;
   }
 
@@ -23,11 +23,14 @@ import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.VectorColumns;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
@@ -184,6 +187,92 @@ public class VectorTVList extends TVList {
     return TsPrimitiveType.getByType(TSDataType.VECTOR, vector);
   }
 
+  /**
+   * Put the first "size" rows into columns without creating an object for each value. The deleted
+   * rows and the rows of the same time are handled in the same way as {@link #getIterator}.
+   *
+   * @param times the times of the rows put
+   * @param columns the values of the rows put, whose types should be the same as this list
+   * @return the number of rows put
+   */
+  public int getVectorColumns(
+      int size, List<TimeRange> deletionList, long[] times, VectorColumns columns) {
+    int count = 0;
+    int deleteCursor = 0;
+    List<Integer> timeDuplicatedRowIndexList = null;
+    // the value index of each column of the current row
+    int[] valueIndexes = new int[values.size()];
+    for (int cur = 0; cur < size; cur++) {
+      long time = getTime(cur);
+      boolean isDeleted = false;
+      while (deletionList != null && deleteCursor < deletionList.size()) {
+        if (deletionList.get(deleteCursor).contains(time)) {
+          isDeleted = true;
+          break;
+        } else if (deletionList.get(deleteCursor).getMax() < time) {
+          deleteCursor++;
+        } else {
+          break;
+        }
+      }
+      if (isDeleted || (cur + 1 < size() && (time == getTime(cur + 1)))) {
+        if (timeDuplicatedRowIndexList == null) {
+          timeDuplicatedRowIndexList = new ArrayList<>();
+          timeDuplicatedRowIndexList.add(getValueIndex(cur));
+        }
+        timeDuplicatedRowIndexList.add(getValueIndex(cur + 1));
+        continue;
+      }
+      if (timeDuplicatedRowIndexList != null) {
+        for (int i = 0; i < values.size(); i++) {
+          valueIndexes[i] = getValidRowIndexForTimeDuplicatedRows(timeDuplicatedRowIndexList, i);
+        }
+        timeDuplicatedRowIndexList = null;
+      } else {
+        Arrays.fill(valueIndexes, getValueIndex(cur));
+      }
+      putVectorByValueIndex(valueIndexes, columns, count);
+      times[count++] = time;
+    }
+    return count;
+  }
+
+  private void putVectorByValueIndex(int[] valueIndexes, VectorColumns columns, int row) {
+    for (int i = 0; i < values.size(); i++) {
+      int arrayIndex = valueIndexes[i] / ARRAY_SIZE;
+      int elementIndex = valueIndexes[i] % ARRAY_SIZE;
+      if (bitMaps != null
+          && bitMaps.get(i) != null
+          && bitMaps.get(i).get(arrayIndex).isMarked(elementIndex)) {
+        columns.setNull(i, row);
+        continue;
+      }
+      Object columnValues = values.get(i).get(arrayIndex);
+      switch (dataTypes.get(i)) {
+        case TEXT:
+          columns.putBinary(i, row, ((Binary[]) columnValues)[elementIndex]);
+          break;
+        case FLOAT:
+          columns.putFloat(i, row, ((float[]) columnValues)[elementIndex]);
+          break;
+        case INT32:
+          columns.putInt(i, row, ((int[]) columnValues)[elementIndex]);
+          break;
+        case INT64:
+          columns.putLong(i, row, ((long[]) columnValues)[elementIndex]);
+          break;
+        case DOUBLE:
+          columns.putDouble(i, row, ((double[]) columnValues)[elementIndex]);
+          break;
+        case BOOLEAN:
+          columns.putBoolean(i, row, ((boolean[]) columnValues)[elementIndex]);
+          break;
+        default:
+          throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+      }
+    }
+  }
+
   @Override
   public TVList getTvListByColumnIndex(List<Integer> columns) {
     List<TSDataType> types = new ArrayList<>();
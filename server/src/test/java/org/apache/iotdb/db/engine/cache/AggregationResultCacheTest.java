@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.query.aggregation.AggregateResult;
+import org.apache.iotdb.db.query.aggregation.AggregationType;
+import org.apache.iotdb.db.query.factory.AggregateResultFactory;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AggregationResultCacheTest {
+
+  private static final String DEVICE = "root.sg.d1";
+  private static final long PARTITION_INTERVAL = 100;
+
+  private boolean prevEnablePartition;
+  private long prevPartitionInterval;
+
+  @Before
+  public void setUp() {
+    prevEnablePartition = StorageEngine.isEnablePartition();
+    prevPartitionInterval = StorageEngine.getTimePartitionInterval();
+    StorageEngine.setEnablePartition(true);
+    StorageEngine.setTimePartitionInterval(PARTITION_INTERVAL);
+  }
+
+  @After
+  public void tearDown() {
+    StorageEngine.setEnablePartition(prevEnablePartition);
+    StorageEngine.setTimePartitionInterval(prevPartitionInterval);
+  }
+
+  @Test
+  public void testPartitionTimeRange() {
+    for (long time : new long[] {-250, -101, -100, -99, -1, 0, 1, 99, 100, 250}) {
+      long partition = StorageEngine.getTimePartition(time);
+      long startTime = AggregationResultCache.getPartitionStartTime(partition);
+      long endTime = AggregationResultCache.getPartitionEndTime(partition);
+      assertTrue(startTime <= time && time <= endTime);
+      assertEquals(partition, StorageEngine.getTimePartition(startTime));
+      assertEquals(partition, StorageEngine.getTimePartition(endTime));
+      assertTrue(StorageEngine.getTimePartition(startTime - 1) != partition);
+      assertTrue(StorageEngine.getTimePartition(endTime + 1) != partition);
+    }
+  }
+
+  @Test
+  public void testSealedPartitions() {
+    TsFileResource sealedSeq = createResource("1-1-0-0.tsfile", 10, true);
+    TsFileResource sealedUnseq = createResource("2-2-0-0.tsfile", 50, true);
+    TsFileResource closedSeq = createResource("3-3-0-0.tsfile", 110, true);
+    TsFileResource unclosedUnseq = createResource("4-4-0-0.tsfile", 150, false);
+
+    QueryDataSource dataSource =
+        new QueryDataSource(
+            new ArrayList<>(Arrays.asList(sealedSeq, closedSeq)),
+            new ArrayList<>(Arrays.asList(sealedUnseq, unclosedUnseq)));
+    Map<Long, Long> sealedPartitions = AggregationResultCache.getSealedPartitions(dataSource);
+    assertEquals(Collections.singleton(0L), sealedPartitions.keySet());
+
+    // a new unsequence file in the partition changes the fingerprint
+    TsFileResource newUnseq = createResource("5-5-0-0.tsfile", 60, true);
+    dataSource.getUnseqResources().add(newUnseq);
+    assertNotEquals(
+        sealedPartitions.get(0L),
+        AggregationResultCache.getSealedPartitions(dataSource).get(0L));
+  }
+
+  @Test
+  public void testMergeEmptyResult() {
+    AggregateResult target =
+        AggregateResultFactory.getAggrResultByType(AggregationType.SUM, TSDataType.INT64, true);
+    AggregateResult empty =
+        AggregateResultFactory.getAggrResultByType(AggregationType.SUM, TSDataType.INT64, true);
+    AggregationResultCache.merge(target, empty);
+    assertFalse(target.hasCandidateResult());
+
+    AggregateResult partial =
+        AggregateResultFactory.getAggrResultByType(AggregationType.SUM, TSDataType.INT64, true);
+    BatchData batchData = new BatchData(TSDataType.INT64);
+    for (long time = 0; time < 10; time++) {
+      batchData.putLong(time, time);
+    }
+    partial.updateResultFromPageData(batchData);
+    AggregationResultCache.merge(target, partial);
+    AggregationResultCache.merge(target, empty);
+    assertEquals(45.0, (double) target.getResult(), 0.0);
+  }
+
+  private static TsFileResource createResource(String name, long startTime, boolean closed) {
+    List<String> dirs = Arrays.asList(TestConstant.BASE_OUTPUT_PATH, "root.sg", "0", name);
+    TsFileResource resource = new TsFileResource(new File(String.join(File.separator, dirs)));
+    resource.updateStartTime(DEVICE, startTime);
+    resource.updateEndTime(DEVICE, startTime);
+    resource.setClosed(closed);
+    return resource;
+  }
+}
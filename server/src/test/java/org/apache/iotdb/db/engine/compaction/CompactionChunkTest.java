@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.engine.compaction;
 
 import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.compaction.utils.CompactionUtils;
 import org.apache.iotdb.db.engine.merge.manage.MergeManager;
@@ -29,12 +30,19 @@ import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.reader.IChunkReader;
 import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderByTimestamp;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.apache.iotdb.tsfile.write.writer.RestorableTsFileIOWriter;
 
 import com.google.common.util.concurrent.RateLimiter;
@@ -47,6 +55,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -235,4 +244,100 @@ public class CompactionChunkTest extends LevelCompactionTest {
     }
     reader.close();
   }
+
+  @Test
+  public void testAppendMergeWithDifferentEncodings()
+      throws IOException, WriteProcessException, IllegalPathException {
+    int prevMergePagePointNumberThreshold =
+        IoTDBDescriptor.getInstance().getConfig().getMergePagePointNumberThreshold();
+    int prevMergeChunkPointNumberThreshold =
+        IoTDBDescriptor.getInstance().getConfig().getMergeChunkPointNumberThreshold();
+    // the pages are large enough to be appended, but the chunks are not
+    IoTDBDescriptor.getInstance().getConfig().setMergePagePointNumberThreshold(1);
+    IoTDBDescriptor.getInstance().getConfig().setMergeChunkPointNumberThreshold(Integer.MAX_VALUE);
+    try {
+      // the chunks of a series using AUTO may be encoded differently
+      TSEncoding[] encodings = {TSEncoding.PLAIN, TSEncoding.GORILLA};
+      Path path = new Path(deviceIds[0], measurementSchemas[0].getMeasurementId());
+      List<TsFileResource> sourceResources = new ArrayList<>();
+      for (int i = 0; i < encodings.length; i++) {
+        TsFileResource sourceResource =
+            new TsFileResource(
+                new File(
+                    tempSGDir,
+                    i
+                        + IoTDBConstant.FILE_NAME_SEPARATOR
+                        + i
+                        + IoTDBConstant.FILE_NAME_SEPARATOR
+                        + 0
+                        + IoTDBConstant.FILE_NAME_SEPARATOR
+                        + 0
+                        + ".tsfile"));
+        sourceResource.setClosed(true);
+        sourceResource.updatePlanIndexes((long) i);
+        TsFileWriter fileWriter = new TsFileWriter(sourceResource.getTsFile());
+        fileWriter.registerTimeseries(
+            path,
+            new MeasurementSchema(
+                path.getMeasurement(),
+                TSDataType.DOUBLE,
+                encodings[i],
+                CompressionType.UNCOMPRESSED));
+        for (long time = i * ptNum; time < (i + 1) * ptNum; time++) {
+          TSRecord record = new TSRecord(time, deviceIds[0]);
+          record.addTuple(new DoubleDataPoint(path.getMeasurement(), time));
+          fileWriter.write(record);
+          sourceResource.updateStartTime(deviceIds[0], time);
+          sourceResource.updateEndTime(deviceIds[0], time);
+        }
+        fileWriter.close();
+        sourceResources.add(sourceResource);
+      }
+
+      File file =
+          new File(
+              tempSGDir,
+              0
+                  + IoTDBConstant.FILE_NAME_SEPARATOR
+                  + 0
+                  + IoTDBConstant.FILE_NAME_SEPARATOR
+                  + 1
+                  + IoTDBConstant.FILE_NAME_SEPARATOR
+                  + 0
+                  + ".tsfile");
+      TsFileResource targetTsfileResource = new TsFileResource(file);
+      CompactionUtils.merge(
+          targetTsfileResource,
+          sourceResources,
+          COMPACTION_TEST_SG,
+          null,
+          new HashSet<>(),
+          true,
+          new ArrayList<>());
+
+      // the pages of both chunks can be decoded from the merged file
+      long time = 0;
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+        for (ChunkMetadata chunkMetadata : reader.getChunkMetadataList(path)) {
+          IChunkReader chunkReader = new ChunkReaderByTimestamp(reader.readMemChunk(chunkMetadata));
+          while (chunkReader.hasNextSatisfiedPage()) {
+            BatchData batchData = chunkReader.nextPageData();
+            for (int i = 0; i < batchData.length(); i++) {
+              assertEquals(time, batchData.getTimeByIndex(i));
+              assertEquals(time, batchData.getDoubleByIndex(i), 0.001);
+              time++;
+            }
+          }
+        }
+      }
+      assertEquals(encodings.length * ptNum, time);
+    } finally {
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setMergePagePointNumberThreshold(prevMergePagePointNumberThreshold);
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setMergeChunkPointNumberThreshold(prevMergeChunkPointNumberThreshold);
+    }
+  }
 }
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.memtable;
+
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.metadata.mnode.MNode;
+import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class MemChunkIndexTest {
+
+  @Test
+  public void testPutAndGet() {
+    MemChunkIndex index = new MemChunkIndex();
+    IWritableMemChunk[] memChunks = new IWritableMemChunk[1000];
+    for (int i = 0; i < memChunks.length; i++) {
+      memChunks[i] =
+          new WritableMemChunk(
+              new MeasurementSchema("s" + i, TSDataType.INT64, TSEncoding.PLAIN), null);
+      // sparse ids collide more than sequential ones
+      index.put((i + 1) * 1024L, memChunks[i]);
+    }
+    assertEquals(memChunks.length, index.size());
+    for (int i = 0; i < memChunks.length; i++) {
+      assertSame(memChunks[i], index.get((i + 1) * 1024L));
+    }
+    assertNull(index.get(1));
+
+    // put an existing id
+    index.put(1024L, memChunks[1]);
+    assertEquals(memChunks.length, index.size());
+    assertSame(memChunks[1], index.get(1024L));
+
+    index.clear();
+    assertEquals(0, index.size());
+    assertNull(index.get(1024L));
+  }
+
+  @Test
+  public void testInsertThroughIndex() throws IllegalPathException {
+    IMemTable memTable = new PrimitiveMemTable();
+    MNode device = new MNode(null, "root.sg.d1");
+    MeasurementMNode[] measurementMNodes = {
+      new MeasurementMNode(
+          device, "s0", new MeasurementSchema("s0", TSDataType.INT64, TSEncoding.PLAIN), null),
+      new MeasurementMNode(
+          device, "s1", new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN), null)
+    };
+    for (long time = 0; time < 10; time++) {
+      memTable.insert(insertRowPlan(time, measurementMNodes));
+    }
+    assertEquals(2, memTable.getSeriesNumber());
+    assertEquals(10, memTable.getCurrentChunkPointNum("root.sg.d1", "s0"));
+    assertEquals(10, memTable.getCurrentChunkPointNum("root.sg.d1", "s1"));
+
+    // the chunk removed by a deletion must not be reached through the index
+    memTable.delete(
+        new PartialPath("root.sg.d1.s0"),
+        new PartialPath("root.sg.d1"),
+        Long.MIN_VALUE,
+        Long.MAX_VALUE);
+    memTable.insert(insertRowPlan(10, measurementMNodes));
+    assertEquals(1, memTable.getCurrentChunkPointNum("root.sg.d1", "s0"));
+    assertEquals(11, memTable.getCurrentChunkPointNum("root.sg.d1", "s1"));
+
+    // nodes made for each plan, like the ones from templates, still write into the same chunk
+    for (long time = 11; time < 3000; time++) {
+      MeasurementMNode[] templateMNodes = {
+        new MeasurementMNode(device, "s0", measurementMNodes[0].getSchema(), null),
+        new MeasurementMNode(device, "s1", measurementMNodes[1].getSchema(), null)
+      };
+      memTable.insert(insertRowPlan(time, templateMNodes));
+    }
+    assertEquals(2990, memTable.getCurrentChunkPointNum("root.sg.d1", "s0"));
+    assertEquals(3000, memTable.getCurrentChunkPointNum("root.sg.d1", "s1"));
+  }
+
+  private InsertRowPlan insertRowPlan(long time, MeasurementMNode[] measurementMNodes)
+      throws IllegalPathException {
+    InsertRowPlan insertRowPlan =
+        new InsertRowPlan(
+            new PartialPath("root.sg.d1"),
+            time,
+            new String[] {"s0", "s1"},
+            new TSDataType[] {TSDataType.INT64, TSDataType.INT64},
+            new String[] {String.valueOf(time), String.valueOf(time)});
+    insertRowPlan.setMeasurementMNodes(measurementMNodes);
+    return insertRowPlan;
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.rollup;
+
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TsFileRollupTest {
+
+  private static final long[] INTERVALS = new long[] {10, 100};
+  private static final String DEVICE = "root.sg.d1";
+
+  private File tsFile;
+  private TsFileResource resource;
+
+  @Before
+  public void setUp() throws IOException {
+    tsFile = new File(TestConstant.BASE_OUTPUT_PATH.concat("rollup-test.tsfile"));
+    if (!tsFile.getParentFile().exists()) {
+      assertTrue(tsFile.getParentFile().mkdirs());
+    }
+    try (FileOutputStream outputStream = new FileOutputStream(tsFile)) {
+      outputStream.write(new byte[] {1, 2, 3});
+    }
+    resource = new TsFileResource(tsFile);
+    resource.setClosed(true);
+  }
+
+  @After
+  public void tearDown() {
+    resource.remove();
+  }
+
+  private static TVList createList(long startTime, long endTime) {
+    TVList tvList = TVList.newList(TSDataType.INT64);
+    for (long time = startTime; time < endTime; time++) {
+      tvList.putLong(time, time);
+    }
+    return tvList;
+  }
+
+  @Test
+  public void testSerializeAndLoad() throws IOException {
+    TsFileRollup rollup = new TsFileRollup(INTERVALS);
+    rollup.update(DEVICE, "s1", createList(0, 250));
+    rollup.update(DEVICE, "s1", createList(250, 300));
+    rollup.update(DEVICE, "s2", createList(0, 10));
+    rollup.serialize(resource);
+
+    RollupLevel level = TsFileRollup.loadRollupLevel(resource, DEVICE, "s1", 100);
+    assertNotNull(level);
+    assertEquals(3, level.getBucketNum());
+    List<Statistics> buckets = level.getBuckets(100, 300);
+    assertEquals(2, buckets.size());
+    assertEquals(100, buckets.get(0).getCount());
+    assertEquals(100, buckets.get(0).getStartTime());
+    assertEquals(199, buckets.get(0).getEndTime());
+    assertEquals(24950.0, buckets.get(1).getSumDoubleValue(), 0.0);
+
+    level = TsFileRollup.loadRollupLevel(resource, DEVICE, "s1", 10);
+    assertNotNull(level);
+    assertEquals(30, level.getBucketNum());
+
+    // the series has no data in the file
+    level = TsFileRollup.loadRollupLevel(resource, DEVICE, "s3", 10);
+    assertNotNull(level);
+    assertEquals(0, level.getBucketNum());
+
+    // the interval is not rolled up
+    assertNull(TsFileRollup.loadRollupLevel(resource, DEVICE, "s1", 50));
+  }
+
+  @Test
+  public void testLoadAmongDevices() throws IOException {
+    TsFileRollup rollup = new TsFileRollup(INTERVALS);
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        rollup.update(DEVICE + i, "s" + j, createList(i * 100 + j * 10, 500));
+      }
+    }
+    // the rollups of root.sg.d11.s1 are not valid
+    rollup.update(DEVICE + 1, "s1", createList(0, 10));
+    rollup.serialize(resource);
+
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        RollupLevel level = TsFileRollup.loadRollupLevel(resource, DEVICE + i, "s" + j, 10);
+        if (i == 1 && j == 1) {
+          assertNull(level);
+          continue;
+        }
+        assertNotNull(level);
+        assertEquals(50 - i * 10 - j, level.getBucketNum());
+        Statistics firstBucket = level.getBuckets(0, 500).get(0);
+        assertEquals(i * 100 + j * 10, firstBucket.getStartTime());
+
+        level = TsFileRollup.loadRollupLevel(resource, DEVICE + i, "s" + j, 100);
+        assertNotNull(level);
+        assertEquals(5 - i, level.getBucketNum());
+        assertEquals(499L, level.getBuckets(400, 500).get(0).getLastValue());
+      }
+    }
+    assertEquals(0, TsFileRollup.loadRollupLevel(resource, DEVICE + 3, "s0", 10).getBucketNum());
+    assertEquals(0, TsFileRollup.loadRollupLevel(resource, DEVICE + 0, "s3", 10).getBucketNum());
+
+    // the rollups read as a whole are the same
+    TsFileRollup deserialized = TsFileRollup.deserialize(resource);
+    assertNotNull(deserialized);
+    deserialized.serialize(resource);
+    assertNull(TsFileRollup.loadRollupLevel(resource, DEVICE + 1, "s1", 10));
+    RollupLevel level = TsFileRollup.loadRollupLevel(resource, DEVICE + 2, "s2", 100);
+    assertNotNull(level);
+    assertEquals(3, level.getBucketNum());
+    assertEquals(220, level.getBuckets(0, 500).get(0).getStartTime());
+  }
+
+  @Test
+  public void testNonAsciiNames() throws IOException {
+    TsFileRollup rollup = new TsFileRollup(INTERVALS);
+    rollup.update(DEVICE + "设备", "温度", createList(0, 500));
+    rollup.update(DEVICE, "s1", createList(100, 500));
+    rollup.serialize(resource);
+
+    // the index of a device is skipped or read by the length of its name in bytes
+    RollupLevel level = TsFileRollup.loadRollupLevel(resource, DEVICE, "s1", 10);
+    assertNotNull(level);
+    assertEquals(100, level.getBuckets(0, 600).get(0).getStartTime());
+    level = TsFileRollup.loadRollupLevel(resource, DEVICE + "设备", "温度", 10);
+    assertNotNull(level);
+    assertEquals(0, level.getBuckets(0, 600).get(0).getStartTime());
+
+    TsFileRollup deserialized = TsFileRollup.deserialize(resource);
+    assertNotNull(deserialized);
+    deserialized.serialize(resource);
+    assertNotNull(TsFileRollup.loadRollupLevel(resource, DEVICE + "设备", "温度", 100));
+  }
+
+  @Test
+  public void testOutOfOrder() throws IOException {
+    TsFileRollup rollup = new TsFileRollup(INTERVALS);
+    rollup.update(DEVICE, "s1", createList(100, 200));
+    rollup.update(DEVICE, "s1", createList(0, 50));
+    rollup.update(DEVICE, "s2", createList(0, 50));
+    rollup.serialize(resource);
+
+    assertNull(TsFileRollup.loadRollupLevel(resource, DEVICE, "s1", 10));
+    assertNotNull(TsFileRollup.loadRollupLevel(resource, DEVICE, "s2", 10));
+  }
+
+  @Test
+  public void testAppend() throws IOException {
+    TsFileRollup rollup = new TsFileRollup(INTERVALS);
+    rollup.update(DEVICE, "s1", createList(0, 150));
+    TsFileRollup another = new TsFileRollup(INTERVALS);
+    another.update(DEVICE, "s1", createList(150, 300));
+    another.update(DEVICE, "s2", createList(150, 300));
+    assertTrue(rollup.append(another));
+    assertFalse(rollup.append(new TsFileRollup(new long[] {10})));
+    rollup.serialize(resource);
+
+    RollupLevel level = TsFileRollup.loadRollupLevel(resource, DEVICE, "s1", 100);
+    assertNotNull(level);
+    assertEquals(3, level.getBucketNum());
+    Statistics bucket = level.getBuckets(100, 200).get(0);
+    assertEquals(100, bucket.getCount());
+    assertEquals(100L, bucket.getMinValue());
+    assertEquals(199L, bucket.getMaxValue());
+
+    level = TsFileRollup.loadRollupLevel(resource, DEVICE, "s2", 100);
+    assertNotNull(level);
+    assertEquals(150, level.getBuckets(0, 300).get(0).getStartTime());
+  }
+
+  @Test
+  public void testRamSize() {
+    TsFileRollup rollup = new TsFileRollup(INTERVALS);
+    rollup.update(DEVICE, "s1", createList(0, 100));
+    long ramSize = rollup.getRamSize();
+    assertTrue(ramSize > 0);
+
+    // no bucket is created
+    rollup.update(DEVICE, "s1", createList(95, 100));
+    assertEquals(ramSize, rollup.getRamSize());
+
+    rollup.update(DEVICE, "s1", createList(100, 300));
+    assertTrue(rollup.getRamSize() > ramSize);
+
+    // the rollups of the series are given up, only its name is left
+    rollup.update(DEVICE, "s1", createList(0, 10));
+    assertTrue(rollup.getRamSize() < ramSize);
+  }
+
+  @Test
+  public void testUnusable() throws IOException {
+    TsFileRollup rollup = new TsFileRollup(INTERVALS);
+    rollup.update(DEVICE, "s1", createList(0, 100));
+    rollup.serialize(resource);
+    assertTrue(TsFileRollup.isUsable(resource));
+
+    // the TsFile is changed after the rollups are written
+    try (FileOutputStream outputStream = new FileOutputStream(tsFile, true)) {
+      outputStream.write(new byte[] {4});
+    }
+    assertNull(TsFileRollup.loadRollupLevel(resource, DEVICE, "s1", 10));
+
+    TsFileRollup.remove(tsFile);
+    assertFalse(TsFileRollup.isUsable(resource));
+  }
+}
@@ -695,6 +695,42 @@ public class MManagerBasicTest {
     }
   }
 
+  @Test
+  public void testCollectDeviceSeries() throws MetadataException {
+    MManager manager = IoTDB.metaManager;
+    manager.setStorageGroup(new PartialPath("root.laptop"));
+    manager.createTimeseries(
+        new PartialPath("root.laptop.d1.s1"),
+        TSDataType.INT32,
+        TSEncoding.PLAIN,
+        CompressionType.GZIP,
+        null);
+    manager.createTimeseries(
+        new PartialPath("root.laptop.d1.s2"),
+        TSDataType.DOUBLE,
+        TSEncoding.GORILLA,
+        CompressionType.GZIP,
+        null);
+    manager.createTimeseries(
+        new PartialPath("root.laptop.d1.d2.s3"),
+        TSDataType.INT64,
+        TSEncoding.PLAIN,
+        CompressionType.GZIP,
+        null);
+
+    List<IMeasurementSchema> schemas = new ArrayList<>();
+    manager.collectDeviceSeries(new PartialPath("root.laptop.d1"), schemas);
+    Set<String> measurements = new TreeSet<>();
+    for (IMeasurementSchema schema : schemas) {
+      measurements.add(schema.getMeasurementId());
+    }
+    assertEquals(new TreeSet<>(Arrays.asList("s1", "s2")), measurements);
+
+    schemas.clear();
+    manager.collectDeviceSeries(new PartialPath("root.laptop.d3"), schemas);
+    assertTrue(schemas.isEmpty());
+  }
+
   @Test
   public void testGetDevicesWithGivenPrefix() {
     MManager manager = IoTDB.metaManager;
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.qp;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.utils.CommonUtils;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PreparedPlanTemplateTest {
+
+  private Planner processor = new Planner();
+  private ZoneId zoneId = ZoneId.systemDefault();
+
+  @Before
+  public void setUp() {
+    EnvironmentUtils.envSetUp();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testBindInsert() throws QueryProcessException {
+    String sql = "insert into root.vehicle.d0(timestamp, s0, s1, s2) values(?, ?, 'a?c', ?)";
+    PreparedPlanTemplate template = new PreparedPlanTemplate(processor, sql, zoneId, 1024);
+    assertTrue(template.isBindable());
+    assertEquals(3, template.getParameterCount());
+
+    for (int i = 0; i < 3; i++) {
+      InsertRowPlan bound =
+          (InsertRowPlan)
+              template.bind(
+                  processor, Arrays.asList(String.valueOf(i), "10" + i, "2.5"), zoneId, 1024);
+      InsertRowPlan parsed =
+          (InsertRowPlan)
+              processor.parseSQLToPhysicalPlan(
+                  "insert into root.vehicle.d0(timestamp, s0, s1, s2) values("
+                      + i
+                      + ", 10"
+                      + i
+                      + ", 'a?c', 2.5)",
+                  zoneId,
+                  1024);
+      assertEquals(parsed.getPrefixPath(), bound.getPrefixPath());
+      assertEquals(parsed.getTime(), bound.getTime());
+      assertArrayEquals(parsed.getMeasurements(), bound.getMeasurements());
+      assertArrayEquals(parsed.getValues(), bound.getValues());
+    }
+  }
+
+  @Test
+  public void testBindDatetime() throws QueryProcessException {
+    String sql = "insert into root.vehicle.d0(timestamp, s0) values(?, 1)";
+    PreparedPlanTemplate template = new PreparedPlanTemplate(processor, sql, zoneId, 1024);
+    assertTrue(template.isBindable());
+
+    InsertRowPlan bound =
+        (InsertRowPlan)
+            template.bind(
+                processor, Collections.singletonList("2021-01-01T00:00:00.001"), zoneId, 1024);
+    InsertRowPlan parsed =
+        (InsertRowPlan)
+            processor.parseSQLToPhysicalPlan(
+                "insert into root.vehicle.d0(timestamp, s0) values(2021-01-01T00:00:00.001, 1)",
+                zoneId,
+                1024);
+    assertEquals(parsed.getTime(), bound.getTime());
+  }
+
+  @Test
+  public void testParseQuery() throws QueryProcessException {
+    String sql = "select s0 from root.vehicle.d0 where time > ? and s0 > ?";
+    PreparedPlanTemplate template = new PreparedPlanTemplate(processor, sql, zoneId, 1024);
+    assertFalse(template.isBindable());
+    assertEquals(2, template.getParameterCount());
+
+    PhysicalPlan plan = template.bind(processor, Arrays.asList("10", "5"), zoneId, 1024);
+    assertTrue(plan.isQuery());
+  }
+
+  @Test
+  public void testBindTyped() throws QueryProcessException {
+    String sql = "insert into root.vehicle.d0(timestamp, s0, s1, s2) values(?, ?, ?, 'abc')";
+    PreparedPlanTemplate template = new PreparedPlanTemplate(processor, sql, zoneId, 1024);
+
+    InsertRowPlan bound =
+        (InsertRowPlan)
+            template.bind(
+                processor,
+                Arrays.asList("1", "10", "2.5"),
+                Arrays.asList(
+                    TSDataType.INT64.ordinal(),
+                    TSDataType.INT32.ordinal(),
+                    PreparedPlanTemplate.UNTYPED_PARAMETER),
+                zoneId,
+                1024);
+    assertEquals(1, bound.getTime());
+    // the typed parameter is bound as a value of its type
+    assertEquals(TSDataType.INT32, bound.getDataTypes()[0]);
+    assertEquals(10, bound.getValues()[0]);
+    // the other literals are converted as if they were parsed
+    TSDataType floatingType =
+        IoTDBDescriptor.getInstance().getConfig().getFloatingStringInferType();
+    assertEquals(floatingType, bound.getDataTypes()[1]);
+    assertEquals(CommonUtils.parseValue(floatingType, "2.5"), bound.getValues()[1]);
+    assertEquals(TSDataType.TEXT, bound.getDataTypes()[2]);
+    assertEquals(new Binary("abc"), bound.getValues()[2]);
+  }
+
+  @Test(expected = QueryProcessException.class)
+  public void testUnknownParameterType() throws QueryProcessException {
+    String sql = "insert into root.vehicle.d0(timestamp, s0) values(1, ?)";
+    PreparedPlanTemplate template = new PreparedPlanTemplate(processor, sql, zoneId, 1024);
+    template.bind(
+        processor, Collections.singletonList("1"), Collections.singletonList(100), zoneId, 1024);
+  }
+
+  @Test
+  public void testSharedTemplate() {
+    String sql = "insert into root.vehicle.d0(timestamp, s0) values(?, ?)";
+    PreparedPlanTemplate template = PreparedPlanTemplate.getOrCreate(processor, sql, zoneId, 1024);
+    assertSame(template, PreparedPlanTemplate.getOrCreate(processor, sql, zoneId, 1024));
+    assertNotSame(
+        template, PreparedPlanTemplate.getOrCreate(processor, sql, ZoneId.of("UTC+01:00"), 1024));
+  }
+
+  @Test(expected = QueryProcessException.class)
+  public void testWrongParameterCount() throws QueryProcessException {
+    String sql = "insert into root.vehicle.d0(timestamp, s0) values(?, ?)";
+    PreparedPlanTemplate template = new PreparedPlanTemplate(processor, sql, zoneId, 1024);
+    template.bind(processor, Collections.singletonList("1"), zoneId, 1024);
+  }
+}
@@ -23,8 +23,11 @@ import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.qp.constant.SQLConstant;
 import org.apache.iotdb.db.query.aggregation.impl.AvgAggrResult;
 import org.apache.iotdb.db.query.factory.AggregateResultFactory;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.file.metadata.statistics.ValueSketch;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -291,4 +294,119 @@ public class AggregateResultTest {
     AggregateResult result = AggregateResult.deserializeFrom(byteBuffer);
     Assert.assertEquals(2d, (double) result.getResult(), 0.01);
   }
+
+  @Test
+  public void approxCountDistinctAggrResultTest() throws QueryProcessException, IOException {
+    AggregateResult approxAggrResult1 =
+        AggregateResultFactory.getAggrResultByName(
+            SQLConstant.APPROX_COUNT_DISTINCT, TSDataType.INT64, true);
+    AggregateResult approxAggrResult2 =
+        AggregateResultFactory.getAggrResultByName(
+            SQLConstant.APPROX_COUNT_DISTINCT, TSDataType.INT64, true);
+
+    Statistics statistics = Statistics.getStatsByType(TSDataType.INT64);
+    statistics.setSketch(null);
+    statistics.update(1L, 1L);
+    Assert.assertFalse(approxAggrResult1.canUpdateFromStatistics(statistics));
+    statistics.setSketch(new ValueSketch());
+    for (long i = 0; i < 100; i++) {
+      statistics.update(i, i % 50);
+    }
+    Assert.assertTrue(approxAggrResult1.canUpdateFromStatistics(statistics));
+    approxAggrResult1.updateResultFromStatistics(statistics);
+
+    BatchData batchData = new BatchData(TSDataType.INT64);
+    for (long i = 0; i < 100; i++) {
+      batchData.putLong(i, i);
+    }
+    batchData.resetBatchData();
+    approxAggrResult2.updateResultFromPageData(batchData);
+    approxAggrResult1.merge(approxAggrResult2);
+    Assert.assertEquals(100L, (long) approxAggrResult1.getResult());
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    approxAggrResult1.serializeTo(outputStream);
+    ByteBuffer byteBuffer = ByteBuffer.wrap(outputStream.toByteArray());
+    AggregateResult result = AggregateResult.deserializeFrom(byteBuffer);
+    Assert.assertEquals(100L, (long) result.getResult());
+  }
+
+  @Test
+  public void approxMedianAggrResultTest() throws QueryProcessException, IOException {
+    AggregateResult approxAggrResult1 =
+        AggregateResultFactory.getAggrResultByName(
+            SQLConstant.APPROX_MEDIAN, TSDataType.DOUBLE, true);
+    AggregateResult approxAggrResult2 =
+        AggregateResultFactory.getAggrResultByName(
+            SQLConstant.APPROX_MEDIAN, TSDataType.DOUBLE, true);
+    Assert.assertNull(approxAggrResult1.getResult());
+
+    Statistics statistics1 = Statistics.getStatsByType(TSDataType.DOUBLE);
+    Statistics statistics2 = Statistics.getStatsByType(TSDataType.DOUBLE);
+    statistics1.setSketch(new ValueSketch());
+    statistics2.setSketch(new ValueSketch());
+    for (int i = 1; i <= 100; i++) {
+      statistics1.update(i, i * 1.0);
+      statistics2.update(i + 100, i + 100.0);
+    }
+
+    approxAggrResult1.updateResultFromStatistics(statistics1);
+    approxAggrResult2.updateResultFromStatistics(statistics2);
+    approxAggrResult1.merge(approxAggrResult2);
+    Assert.assertEquals(100d, (double) approxAggrResult1.getResult(), 1);
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    approxAggrResult1.serializeTo(outputStream);
+    ByteBuffer byteBuffer = ByteBuffer.wrap(outputStream.toByteArray());
+    AggregateResult result = AggregateResult.deserializeFrom(byteBuffer);
+    Assert.assertEquals(100d, (double) result.getResult(), 1);
+  }
+
+  @Test
+  public void m4AggrResultTest() throws QueryProcessException, IOException {
+    AggregateResult m4AggrResult1 =
+        AggregateResultFactory.getAggrResultByName(SQLConstant.M4, TSDataType.INT64, true);
+    AggregateResult m4AggrResult2 =
+        AggregateResultFactory.getAggrResultByName(SQLConstant.M4, TSDataType.INT64, true);
+    Assert.assertNull(m4AggrResult1.getResult());
+
+    Statistics statistics = Statistics.getStatsByType(TSDataType.INT64);
+    statistics.update(10L, 5L);
+    statistics.update(20L, -3L);
+    statistics.update(30L, 7L);
+    m4AggrResult1.updateResultFromStatistics(statistics);
+    Assert.assertEquals("10,5,30,7,-3,7", m4AggrResult1.getResult().toString());
+
+    BatchData batchData = new BatchData(TSDataType.INT64);
+    batchData.putLong(1L, 2L);
+    batchData.putLong(40L, 9L);
+    batchData.putLong(50L, 4L);
+    m4AggrResult2.updateResultFromPageData(batchData, 0, 45);
+    Assert.assertEquals("1,2,40,9,2,9", m4AggrResult2.getResult().toString());
+
+    m4AggrResult1.merge(m4AggrResult2);
+    Assert.assertEquals("1,2,40,9,-3,9", m4AggrResult1.getResult().toString());
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    m4AggrResult1.serializeTo(outputStream);
+    ByteBuffer byteBuffer = ByteBuffer.wrap(outputStream.toByteArray());
+    AggregateResult result = AggregateResult.deserializeFrom(byteBuffer);
+    Assert.assertEquals("1,2,40,9,-3,9", result.getResult().toString());
+
+    // the series type is restored, so the deserialized result can be merged further
+    result.merge(m4AggrResult2);
+    outputStream.reset();
+    result.serializeTo(outputStream);
+    result = AggregateResult.deserializeFrom(ByteBuffer.wrap(outputStream.toByteArray()));
+    Assert.assertEquals("1,2,40,9,-3,9", result.getResult().toString());
+
+    AggregateResult textM4AggrResult =
+        AggregateResultFactory.getAggrResultByName(SQLConstant.M4, TSDataType.TEXT, true);
+    try {
+      textM4AggrResult.updateResultFromStatistics(Statistics.getStatsByType(TSDataType.TEXT));
+      Assert.fail();
+    } catch (UnSupportedDataTypeException e) {
+      // M4 only supports numeric series
+    }
+  }
 }
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.control;
+
+import org.apache.iotdb.db.exception.query.QueryRejectedRuntimeException;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class QueryAdmissionControllerTest {
+
+  @Test
+  public void testConcurrencyLimit() throws InterruptedException {
+    QueryAdmissionController controller = new QueryAdmissionController(1, 10, 10000, 100);
+    controller.admit(1, 10, QueryPriority.NORMAL);
+
+    CountDownLatch admitted = new CountDownLatch(1);
+    Thread waiting =
+        new Thread(
+            () -> {
+              controller.admit(2, 10, QueryPriority.NORMAL);
+              admitted.countDown();
+            });
+    waiting.start();
+    waitUntilQueued(controller, 1);
+    assertEquals(1, controller.getRunningQueryNum());
+    assertEquals(1, admitted.getCount());
+
+    controller.release(1);
+    assertTrue(admitted.await(10, TimeUnit.SECONDS));
+    waiting.join();
+    assertEquals(1, controller.getRunningQueryNum());
+    assertEquals(0, controller.getQueuedQueryNum());
+    assertEquals(2, controller.getAdmittedQueryNum());
+
+    controller.release(2);
+    assertEquals(0, controller.getRunningQueryNum());
+    assertEquals(0, controller.getUsedMemory());
+  }
+
+  @Test
+  public void testMemoryBudget() {
+    QueryAdmissionController controller = new QueryAdmissionController(10, 10, 10, 100);
+    controller.admit(1, 60, QueryPriority.NORMAL);
+    try {
+      controller.admit(2, 60, QueryPriority.NORMAL);
+      fail("the query should time out as the memory budget is exhausted");
+    } catch (QueryRejectedRuntimeException e) {
+      assertEquals(1, controller.getRejectedQueryNum());
+    }
+    assertEquals(60, controller.getUsedMemory());
+    controller.release(1);
+
+    // a query larger than the budget still runs when it is alone
+    controller.admit(3, 200, QueryPriority.NORMAL);
+    assertEquals(200, controller.getUsedMemory());
+    controller.release(3);
+  }
+
+  @Test
+  public void testQueueFull() throws InterruptedException {
+    QueryAdmissionController controller = new QueryAdmissionController(1, 1, 10000, 100);
+    controller.admit(1, 10, QueryPriority.NORMAL);
+    Thread waiting = new Thread(() -> controller.admit(2, 10, QueryPriority.NORMAL));
+    waiting.start();
+    waitUntilQueued(controller, 1);
+
+    try {
+      controller.admit(3, 10, QueryPriority.NORMAL);
+      fail("the query should be rejected as the queue is full");
+    } catch (QueryRejectedRuntimeException e) {
+      assertEquals(1, controller.getRejectedQueryNum());
+    }
+    controller.release(1);
+    waiting.join();
+    controller.release(2);
+    assertEquals(0, controller.getRunningQueryNum());
+  }
+
+  @Test
+  public void testPriority() throws InterruptedException {
+    QueryAdmissionController controller = new QueryAdmissionController(1, 10, 10000, 100);
+    controller.admit(0, 10, QueryPriority.NORMAL);
+
+    List<Long> admittedOrder = new CopyOnWriteArrayList<>();
+    QueryPriority[] priorities = {QueryPriority.LOW, QueryPriority.NORMAL, QueryPriority.HIGH};
+    Thread[] threads = new Thread[priorities.length];
+    for (int i = 0; i < priorities.length; i++) {
+      long queryId = i + 1L;
+      QueryPriority priority = priorities[i];
+      threads[i] =
+          new Thread(
+              () -> {
+                controller.admit(queryId, 10, priority);
+                admittedOrder.add(queryId);
+                controller.release(queryId);
+              });
+      threads[i].start();
+      waitUntilQueued(controller, i + 1);
+    }
+
+    controller.release(0);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(3L, (long) admittedOrder.get(0));
+    assertEquals(2L, (long) admittedOrder.get(1));
+    assertEquals(1L, (long) admittedOrder.get(2));
+  }
+
+  private void waitUntilQueued(QueryAdmissionController controller, int queuedNum)
+      throws InterruptedException {
+    while (controller.getQueuedQueryNum() < queuedNum) {
+      Thread.sleep(1);
+    }
+  }
+}
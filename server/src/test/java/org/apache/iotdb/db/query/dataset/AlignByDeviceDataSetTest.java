@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.storagegroup.StorageGroupProcessor;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.qp.Planner;
+import org.apache.iotdb.db.qp.executor.IPlanExecutor;
+import org.apache.iotdb.db.qp.executor.PlanExecutor;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.db.query.control.SessionManager;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AlignByDeviceDataSetTest {
+
+  private static final int DEVICE_NUM = 8;
+  private static final int POINT_NUM = 100;
+  private static final String QUERY = "select * from root.vehicle.* align by device";
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private final IPlanExecutor queryExecutor = new PlanExecutor();
+  private final Planner processor = new Planner();
+  private int prevPrefetchNum;
+  private int prevMaxDeduplicatedPathNum;
+
+  public AlignByDeviceDataSetTest() throws Exception {}
+
+  @Before
+  public void setUp() throws Exception {
+    prevPrefetchNum = config.getAlignByDevicePrefetchNum();
+    prevMaxDeduplicatedPathNum = config.getMaxQueryDeduplicatedPathNum();
+    EnvironmentUtils.envSetUp();
+    execute("SET STORAGE GROUP TO root.vehicle");
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      execute(
+          String.format(
+              "CREATE TIMESERIES root.vehicle.d%d.s0 WITH DATATYPE=INT32, ENCODING=RLE", i));
+      execute(
+          String.format(
+              "CREATE TIMESERIES root.vehicle.d%d.s1 WITH DATATYPE=INT64, ENCODING=RLE", i));
+    }
+    for (int time = 1; time <= POINT_NUM; time++) {
+      for (int i = 0; i < DEVICE_NUM; i++) {
+        // d0 has no s1, so that a device with fewer columns is also queried
+        if (i == 0) {
+          execute(
+              String.format("insert into root.vehicle.d0(timestamp,s0) values(%d,%d)", time, time));
+        } else {
+          execute(
+              String.format(
+                  "insert into root.vehicle.d%d(timestamp,s0,s1) values(%d,%d,%d)",
+                  i, time, time * i, time * 10L * i));
+        }
+      }
+      // the first half is in sealed files and the second half is in the memtable
+      if (time == POINT_NUM / 2) {
+        execute("flush");
+      }
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    EnvironmentUtils.cleanEnv();
+    config.setAlignByDevicePrefetchNum(prevPrefetchNum);
+    config.setMaxQueryDeduplicatedPathNum(prevMaxDeduplicatedPathNum);
+  }
+
+  @Test
+  public void testPrefetchKeepsDeviceOrder() throws Exception {
+    config.setAlignByDevicePrefetchNum(0);
+    List<String> expected = queryAll();
+    Assert.assertEquals(DEVICE_NUM * POINT_NUM, expected.size());
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      Assert.assertTrue(expected.get(i * POINT_NUM).contains("root.vehicle.d" + i));
+    }
+
+    config.setAlignByDevicePrefetchNum(4);
+    Assert.assertEquals(expected, queryAll());
+    // more than the devices
+    config.setAlignByDevicePrefetchNum(DEVICE_NUM * 2);
+    Assert.assertEquals(expected, queryAll());
+  }
+
+  @Test
+  public void testMemoryCappedWindow() throws Exception {
+    Assert.assertEquals(5, AlignByDeviceDataSet.getPrefetchTaskNum(4, 1000, 2));
+    // only 3 devices with 2 columns fit in 7 series
+    Assert.assertEquals(3, AlignByDeviceDataSet.getPrefetchTaskNum(4, 7, 2));
+    // the current device is always queried
+    Assert.assertEquals(1, AlignByDeviceDataSet.getPrefetchTaskNum(4, 1, 2));
+    Assert.assertEquals(1, AlignByDeviceDataSet.getPrefetchTaskNum(0, 1000, 2));
+
+    config.setAlignByDevicePrefetchNum(0);
+    List<String> expected = queryAll();
+    // the memory only affords one device, so the devices are queried one after another
+    config.setAlignByDevicePrefetchNum(4);
+    config.setMaxQueryDeduplicatedPathNum(2);
+    Assert.assertEquals(expected, queryAll());
+  }
+
+  @Test
+  public void testCloseWithPrefetchTasks() throws Exception {
+    config.setAlignByDevicePrefetchNum(DEVICE_NUM);
+    long queryId = QueryResourceManager.getInstance().assignQueryId(true, 1024, 0);
+    QueryDataSet dataSet =
+        queryExecutor.processQuery(
+            processor.parseSQLToPhysicalPlan(QUERY), new QueryContext(queryId));
+    Assert.assertTrue(dataSet instanceof AlignByDeviceDataSet);
+    SessionManager.getInstance().setDataset(queryId, dataSet);
+    // the following devices are being queried while the first one is read
+    Assert.assertTrue(dataSet.hasNext());
+    dataSet.next();
+    SessionManager.getInstance().releaseQueryResource(queryId);
+
+    StorageGroupProcessor storageGroupProcessor =
+        StorageEngine.getInstance().getProcessor(new PartialPath("root.vehicle"));
+    List<TsFileResource> resources =
+        new ArrayList<>(storageGroupProcessor.getSequenceFileTreeSet());
+    resources.addAll(storageGroupProcessor.getUnSequenceFileList());
+    Assert.assertFalse(resources.isEmpty());
+    for (TsFileResource resource : resources) {
+      Assert.assertEquals(
+          resource.getTsFilePath(),
+          0,
+          FileReaderManager.getInstance().getReferenceCount(resource, true));
+      Assert.assertEquals(
+          resource.getTsFilePath(),
+          0,
+          FileReaderManager.getInstance().getReferenceCount(resource, false));
+    }
+  }
+
+  private List<String> queryAll() throws Exception {
+    QueryDataSet dataSet =
+        queryExecutor.processQuery(
+            processor.parseSQLToPhysicalPlan(QUERY), EnvironmentUtils.TEST_QUERY_CONTEXT);
+    Assert.assertTrue(dataSet instanceof AlignByDeviceDataSet);
+    List<String> rows = new ArrayList<>();
+    while (dataSet.hasNext()) {
+      rows.add(dataSet.next().toString());
+    }
+    return rows;
+  }
+
+  private void execute(String sql) throws Exception {
+    queryExecutor.processNonQuery(processor.parseSQLToPhysicalPlan(sql));
+  }
+}
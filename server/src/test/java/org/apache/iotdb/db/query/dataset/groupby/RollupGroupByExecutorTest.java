@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset.groupby;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.qp.Planner;
+import org.apache.iotdb.db.qp.executor.IPlanExecutor;
+import org.apache.iotdb.db.qp.executor.PlanExecutor;
+import org.apache.iotdb.db.query.aggregation.AggregateResult;
+import org.apache.iotdb.db.query.factory.AggregateResultFactory;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.GroupByFilter;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class RollupGroupByExecutorTest {
+
+  private static final long[] ROLLUP_INTERVALS = new long[] {10, 100};
+  private static final int POINT_NUM = 1000;
+  private static final String[] AGGREGATIONS = {
+    "count", "sum", "avg", "max_value", "min_value", "first_value", "last_value", "max_time",
+    "min_time"
+  };
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private final IPlanExecutor queryExecutor = new PlanExecutor();
+  private final Planner processor = new Planner();
+  private long[] prevRollupIntervals;
+
+  public RollupGroupByExecutorTest() throws Exception {}
+
+  @Before
+  public void setUp() throws Exception {
+    prevRollupIntervals = config.getRollupIntervals();
+    config.setRollupIntervals(ROLLUP_INTERVALS);
+    EnvironmentUtils.envSetUp();
+    execute("SET STORAGE GROUP TO root.vehicle");
+    execute("CREATE TIMESERIES root.vehicle.d0.s0 WITH DATATYPE=INT64, ENCODING=RLE");
+    execute("CREATE TIMESERIES root.vehicle.d0.s1 WITH DATATYPE=DOUBLE, ENCODING=GORILLA");
+    for (int time = 0; time < POINT_NUM; time++) {
+      execute(
+          String.format(
+              "insert into root.vehicle.d0(timestamp,s0,s1) values(%d,%d,%f)",
+              time, time % 97, time * 0.5));
+      // three sealed files with rollups, and the rest in the memtable
+      if (time % 250 == 249 && time < 750) {
+        execute("flush");
+      }
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    EnvironmentUtils.cleanEnv();
+    config.setRollupIntervals(prevRollupIntervals);
+  }
+
+  @Test
+  public void testSameAsRawData() throws Exception {
+    List<TsFileResource> seqResources = getSeqResources();
+    Assert.assertEquals(4, seqResources.size());
+    for (int i = 0; i < 3; i++) {
+      Assert.assertTrue(TsFileRollup.isUsable(seqResources.get(i)));
+    }
+
+    assertExecutorSameAsRawData("root.vehicle.d0.s0", TSDataType.INT64, 0, 1000, 100, 100);
+    assertExecutorSameAsRawData("root.vehicle.d0.s1", TSDataType.DOUBLE, 0, 1000, 100, 100);
+    assertExecutorSameAsRawData("root.vehicle.d0.s0", TSDataType.INT64, 20, 990, 30, 10);
+    assertExecutorSameAsRawData("root.vehicle.d0.s0", TSDataType.INT64, 100, 700, 200, 300);
+
+    assertQuerySameAsRawData("group by ([0, 1000), 100ms)");
+    assertQuerySameAsRawData("group by ([0, 1000), 200ms, 100ms)");
+    assertQuerySameAsRawData("group by ([20, 990), 30ms, 10ms)");
+    assertQuerySameAsRawData("group by ([0, 1000), 100ms) order by time desc");
+    // not aligned with the rollups
+    assertQuerySameAsRawData("group by ([5, 1000), 100ms)");
+  }
+
+  @Test
+  public void testFallbackWithoutRollups() throws Exception {
+    // a merge or a compaction removes the rollups of the files it rewrites
+    TsFileRollup.remove(getSeqResources().get(1).getTsFile());
+    assertExecutorSameAsRawData("root.vehicle.d0.s0", TSDataType.INT64, 0, 1000, 100, 100);
+    assertQuerySameAsRawData("group by ([0, 1000), 100ms)");
+    assertQuerySameAsRawData("group by ([0, 1000), 100ms) order by time desc");
+  }
+
+  @Test
+  public void testFallbackWithUnseqDataAndDeletions() throws Exception {
+    // the unsequence data overlaps the second file
+    execute("insert into root.vehicle.d0(timestamp,s0,s1) values(300,1000,-1.0)");
+    execute("flush");
+    assertExecutorSameAsRawData("root.vehicle.d0.s0", TSDataType.INT64, 0, 1000, 100, 100);
+    assertQuerySameAsRawData("group by ([0, 1000), 100ms)");
+
+    // the first file has a modification file
+    execute("delete from root.vehicle.d0.s0 where time >= 50 and time <= 120");
+    Assert.assertFalse(TsFileRollup.isUsable(getSeqResources().get(0)));
+    assertExecutorSameAsRawData("root.vehicle.d0.s0", TSDataType.INT64, 0, 1000, 100, 100);
+    assertQuerySameAsRawData("group by ([0, 1000), 100ms)");
+  }
+
+  private List<TsFileResource> getSeqResources() throws Exception {
+    return new ArrayList<>(
+        StorageEngine.getInstance()
+            .getProcessor(new PartialPath("root.vehicle"))
+            .getSequenceFileTreeSet());
+  }
+
+  /** Compare the results of a RollupGroupByExecutor and a LocalGroupByExecutor in each interval */
+  private void assertExecutorSameAsRawData(
+      String path,
+      TSDataType dataType,
+      long startTime,
+      long endTime,
+      long interval,
+      long slidingStep)
+      throws Exception {
+    PartialPath partialPath = new PartialPath(path);
+    GroupByFilter timeFilter = new GroupByFilter(interval, slidingStep, startTime, endTime);
+    GroupByExecutor rollupExecutor =
+        new RollupGroupByExecutor(
+            partialPath,
+            Collections.singleton(partialPath.getMeasurement()),
+            dataType,
+            EnvironmentUtils.TEST_QUERY_CONTEXT,
+            timeFilter,
+            true,
+            ROLLUP_INTERVALS[0],
+            startTime,
+            endTime,
+            interval,
+            slidingStep);
+    GroupByExecutor rawExecutor =
+        new LocalGroupByExecutor(
+            partialPath,
+            Collections.singleton(partialPath.getMeasurement()),
+            dataType,
+            EnvironmentUtils.TEST_QUERY_CONTEXT,
+            timeFilter,
+            null,
+            true);
+    for (String aggregation : AGGREGATIONS) {
+      rollupExecutor.addAggregateResult(
+          AggregateResultFactory.getAggrResultByName(aggregation, dataType, true));
+      rawExecutor.addAggregateResult(
+          AggregateResultFactory.getAggrResultByName(aggregation, dataType, true));
+    }
+    for (long curStartTime = startTime; curStartTime < endTime; curStartTime += slidingStep) {
+      long curEndTime = Math.min(curStartTime + interval, endTime);
+      Assert.assertEquals(
+          path + " [" + curStartTime + ", " + curEndTime + ")",
+          toString(rawExecutor.calcResult(curStartTime, curEndTime)),
+          toString(rollupExecutor.calcResult(curStartTime, curEndTime)));
+    }
+  }
+
+  private String toString(List<AggregateResult> aggregateResults) {
+    List<Object> results = new ArrayList<>();
+    for (AggregateResult aggregateResult : aggregateResults) {
+      results.add(aggregateResult.getResult());
+    }
+    return results.toString();
+  }
+
+  /** Compare the results of a GROUP BY query with and without the rollups */
+  private void assertQuerySameAsRawData(String groupBy) throws Exception {
+    StringBuilder sql = new StringBuilder("select ");
+    for (int i = 0; i < AGGREGATIONS.length; i++) {
+      sql.append(i == 0 ? "" : ", ").append(AGGREGATIONS[i]).append("(s0), ");
+      sql.append(AGGREGATIONS[i]).append("(s1)");
+    }
+    sql.append(" from root.vehicle.d0 ").append(groupBy);
+    List<String> rollupResults = query(sql.toString());
+    config.setRollupIntervals(new long[0]);
+    try {
+      Assert.assertEquals(groupBy, query(sql.toString()), rollupResults);
+    } finally {
+      config.setRollupIntervals(ROLLUP_INTERVALS);
+    }
+  }
+
+  private List<String> query(String sql) throws Exception {
+    QueryDataSet dataSet =
+        queryExecutor.processQuery(
+            processor.parseSQLToPhysicalPlan(sql), EnvironmentUtils.TEST_QUERY_CONTEXT);
+    List<String> rows = new ArrayList<>();
+    while (dataSet.hasNext()) {
+      rows.add(dataSet.next().toString());
+    }
+    Assert.assertFalse(rows.isEmpty());
+    return rows;
+  }
+
+  private void execute(String sql) throws Exception {
+    queryExecutor.processNonQuery(processor.parseSQLToPhysicalPlan(sql));
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.chunk;
+
+import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+import org.apache.iotdb.db.utils.datastructure.VectorTVList;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.schema.VectorMeasurementSchema;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class MemPageReaderTest {
+
+  private static final int ROW_NUM = 200;
+
+  private final VectorMeasurementSchema schema =
+      new VectorMeasurementSchema(
+          "vector",
+          new String[] {"s0", "s1", "s2"},
+          new TSDataType[] {TSDataType.INT32, TSDataType.DOUBLE, TSDataType.TEXT});
+
+  @Test
+  public void testNoFilter() throws Exception {
+    List<String> rows = readVectorChunk(null);
+    // the rows in [50, 60] are deleted
+    Assert.assertEquals(ROW_NUM - 11, rows.size());
+    Assert.assertEquals("0 [null, null, 0]", rows.get(0));
+    Assert.assertEquals("1 [1, 0.5, 1]", rows.get(1));
+  }
+
+  @Test
+  public void testTimeFilter() throws Exception {
+    Filter filter = FilterFactory.and(TimeFilter.gtEq(20L), TimeFilter.lt(150L));
+    List<String> rows = readVectorChunk(filter);
+    Assert.assertEquals(150 - 20 - 11, rows.size());
+    Assert.assertEquals("20 [20, null, 20]", rows.get(0));
+
+    rows = readVectorChunk(TimeFilter.not(TimeFilter.lt(190L)));
+    Assert.assertEquals(ROW_NUM - 190, rows.size());
+  }
+
+  @Test
+  public void testValueFilter() throws Exception {
+    // a value filter is applied to the whole row like before, so the row whose first sub sensor is
+    // 10 is not filtered out
+    Filter filter = ValueFilter.in(Collections.singleton(10), true);
+    List<String> rows = readVectorChunk(filter);
+    Assert.assertEquals(ROW_NUM - 11, rows.size());
+    Assert.assertTrue(rows.contains("10 [10, null, 10]"));
+  }
+
+  /**
+   * Read the chunk column by column with the given filter, and check the result is the same as
+   * reading it row by row.
+   */
+  private List<String> readVectorChunk(Filter filter) throws Exception {
+    ReadOnlyMemChunk rowChunk = createMemChunk();
+    List<String> expected =
+        toRows(
+            new MemPageReader(rowChunk.getPointReader(), rowChunk.getChunkMetaData(), filter)
+                .getAllSatisfiedPageData(true));
+
+    ReadOnlyMemChunk columnChunk = createMemChunk();
+    MemPageReader reader =
+        new MemPageReader(
+            columnChunk, columnChunk.getPointReader(), columnChunk.getChunkMetaData(), filter);
+    Assert.assertEquals(expected, toRows(reader.getAllSatisfiedPageData(true)));
+
+    columnChunk = createMemChunk();
+    reader =
+        new MemPageReader(
+            columnChunk, columnChunk.getPointReader(), columnChunk.getChunkMetaData(), filter);
+    List<String> descRows = toRows(reader.getAllSatisfiedPageData(false));
+    Collections.reverse(descRows);
+    Assert.assertEquals(expected, descRows);
+    return expected;
+  }
+
+  /** s0 is null in the rows whose time is a multiple of 3, and s1 is null in those of 5. */
+  private ReadOnlyMemChunk createMemChunk() throws Exception {
+    VectorTVList tvList = (VectorTVList) TVList.newVectorList(schema.getValueTSDataTypeList());
+    for (int i = ROW_NUM - 1; i >= 0; i--) {
+      tvList.putVector(
+          i,
+          new Object[] {
+            i % 3 == 0 ? null : i,
+            i % 5 == 0 ? null : i / 2.0,
+            new Binary(String.valueOf(i))
+          });
+    }
+    tvList.sort();
+    return new ReadOnlyMemChunk(
+        schema, tvList, tvList.size(), Collections.singletonList(new TimeRange(50, 60)));
+  }
+
+  private List<String> toRows(BatchData batchData) {
+    List<String> rows = new ArrayList<>();
+    while (batchData.hasCurrent()) {
+      rows.add(batchData.currentTime() + " " + Arrays.toString(batchData.getVector()));
+      batchData.next();
+    }
+    return rows;
+  }
+}
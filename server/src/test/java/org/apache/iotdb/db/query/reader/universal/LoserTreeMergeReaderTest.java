@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.reader.universal;
+
+import org.apache.iotdb.db.query.reader.universal.PriorityMergeReader.MergeReaderPriority;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LoserTreeMergeReaderTest {
+
+  @Test
+  public void testMerge() {
+    // 2 series
+    test(
+        new long[] {1, 2, 3, 4, 5, 6},
+        new long[] {2, 2, 2, 1, 2, 2},
+        new long[] {1, 2, 3, 4, 5},
+        new long[] {1, 2, 3, 5, 6});
+    test(
+        new long[] {1, 2, 3, 4, 5, 6, 7, 8},
+        new long[] {1, 1, 1, 1, 1, 2, 2, 2},
+        new long[] {1, 2, 3, 4, 5},
+        new long[] {6, 7, 8});
+
+    // 3 series
+    test(
+        new long[] {1, 2, 3, 4, 5, 6, 7},
+        new long[] {3, 3, 3, 1, 3, 2, 3},
+        new long[] {1, 2, 3, 4, 5},
+        new long[] {1, 2, 3, 5, 6},
+        new long[] {1, 2, 3, 5, 7});
+    test(
+        new long[] {1, 2, 3, 4, 5, 6},
+        new long[] {1, 1, 2, 3, 2, 3},
+        new long[] {1, 2},
+        new long[] {3, 5},
+        new long[] {4, 6});
+
+    // 5 series, which makes an unbalanced tree
+    test(
+        new long[] {1, 2, 3, 4, 5, 6, 7, 8, 9},
+        new long[] {1, 5, 2, 3, 4, 5, 1, 5, 3},
+        new long[] {1, 7},
+        new long[] {3, 5},
+        new long[] {4, 9},
+        new long[] {5, 6},
+        new long[] {2, 6, 8});
+  }
+
+  @Test
+  public void testRunBoundary() {
+    LoserTreeMergeReader reader = new LoserTreeMergeReader(true);
+    reader.addReader(createBatchData(true, 1, 1, 2, 3, 4, 5), new MergeReaderPriority(1, 0), 5);
+    Assert.assertEquals(5, reader.getCurrentReadStopTime());
+
+    // the points at or after the boundary are left in the reader
+    BatchData target = BatchDataFactory.createBatchData(TSDataType.INT64, true, true);
+    reader.nextRun(target, 3, Long.MAX_VALUE, null);
+    target.flip();
+    assertTimes(target, 1, 2);
+    Assert.assertEquals(3, reader.currentTime());
+
+    // the points after the endpoint are left in the reader
+    target = BatchDataFactory.createBatchData(TSDataType.INT64, true, true);
+    reader.nextRun(target, Long.MAX_VALUE, 4, null);
+    target.flip();
+    assertTimes(target, 3, 4);
+
+    // the first point is always moved
+    target = BatchDataFactory.createBatchData(TSDataType.INT64, true, true);
+    reader.nextRun(target, 0, 0, null);
+    target.flip();
+    assertTimes(target, 5);
+    Assert.assertFalse(reader.hasNextTimeValuePair());
+  }
+
+  @Test
+  public void testDescWithValueFilter() {
+    LoserTreeMergeReader reader = new LoserTreeMergeReader(false);
+    reader.addReader(createBatchData(false, 1, 1, 3, 5), new MergeReaderPriority(1, 0), 1);
+    reader.addReader(createBatchData(false, 2, 2, 3, 4), new MergeReaderPriority(2, 0), 2);
+    Assert.assertEquals(1, reader.getCurrentReadStopTime());
+
+    BatchData target = BatchDataFactory.createBatchData(TSDataType.INT64, false, true);
+    while (reader.hasNextTimeValuePair()) {
+      reader.nextRun(target, Long.MIN_VALUE, Long.MIN_VALUE, ValueFilter.gtEq(2L));
+    }
+    target.flip();
+    assertTimes(target, 4, 3, 2);
+  }
+
+  private void test(long[] retTimestamp, long[] retValue, long[]... sources) {
+    LoserTreeMergeReader reader = new LoserTreeMergeReader(true);
+    for (int i = 0; i < sources.length; i++) {
+      reader.addReader(
+          createBatchData(true, i + 1, sources[i]), new MergeReaderPriority(i + 1, 0), 0);
+    }
+
+    BatchData target = BatchDataFactory.createBatchData(TSDataType.INT64, true, true);
+    while (reader.hasNextTimeValuePair()) {
+      reader.nextRun(target, Long.MAX_VALUE, Long.MAX_VALUE, null);
+    }
+    target.flip();
+    int i = 0;
+    while (target.hasCurrent()) {
+      Assert.assertEquals(retTimestamp[i], target.currentTime());
+      Assert.assertEquals(retValue[i], target.getLong());
+      target.next();
+      i++;
+    }
+    Assert.assertEquals(retTimestamp.length, i);
+  }
+
+  /** @return a BatchData of the given times and the same value, which is read in the order */
+  private BatchData createBatchData(boolean ascending, long value, long... times) {
+    BatchData batchData = BatchDataFactory.createBatchData(TSDataType.INT64, ascending, false);
+    for (long time : times) {
+      batchData.putLong(time, value);
+    }
+    return batchData.flip();
+  }
+
+  private void assertTimes(BatchData batchData, long... times) {
+    for (long time : times) {
+      Assert.assertTrue(batchData.hasCurrent());
+      Assert.assertEquals(time, batchData.currentTime());
+      batchData.next();
+    }
+    Assert.assertFalse(batchData.hasCurrent());
+  }
+}
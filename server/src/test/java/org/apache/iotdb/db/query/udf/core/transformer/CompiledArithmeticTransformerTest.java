@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.udf.core.transformer;
+
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.query.expression.Expression;
+import org.apache.iotdb.db.query.expression.binary.AdditionExpression;
+import org.apache.iotdb.db.query.expression.binary.DivisionExpression;
+import org.apache.iotdb.db.query.expression.binary.ModuloExpression;
+import org.apache.iotdb.db.query.expression.binary.MultiplicationExpression;
+import org.apache.iotdb.db.query.expression.unary.FunctionExpression;
+import org.apache.iotdb.db.query.expression.unary.NegationExpression;
+import org.apache.iotdb.db.query.expression.unary.TimeSeriesOperand;
+import org.apache.iotdb.db.query.udf.core.reader.LayerPointReader;
+import org.apache.iotdb.db.query.udf.core.transformer.ArithmeticExpressionCompiler.ColumnEvaluator;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledArithmeticTransformerTest {
+
+  private static final int POINT_NUM = 5000;
+
+  private final Map<String, TSDataType> dataTypes = new HashMap<>();
+
+  private Expression series(String name, TSDataType dataType) throws IllegalPathException {
+    dataTypes.put("root.sg.d." + name, dataType);
+    return new TimeSeriesOperand(new PartialPath("root.sg.d." + name));
+  }
+
+  @Test
+  public void testSameAsInterpreter() throws Exception {
+    Expression expression =
+        new DivisionExpression(series("s1", TSDataType.INT32), series("s2", TSDataType.INT64));
+    ArithmeticExpressionCompiler compiler = new ArithmeticExpressionCompiler(dataTypes::get);
+    ColumnEvaluator evaluator = compiler.compile(expression);
+    assertNotNull(evaluator);
+    assertEquals(Arrays.asList("root.sg.d.s1", "root.sg.d.s2"), compiler.getInputSeries());
+
+    // s1 has all the timestamps and s2 has the even ones
+    LayerPointReader compiled =
+        new CompiledArithmeticTransformer(
+            new LayerPointReader[] {
+              new ArrayPointReader(TSDataType.INT32, 1), new ArrayPointReader(TSDataType.INT64, 2)
+            },
+            evaluator);
+    LayerPointReader interpreted =
+        new ArithmeticDivisionTransformer(
+            new ArrayPointReader(TSDataType.INT32, 1), new ArrayPointReader(TSDataType.INT64, 2));
+
+    int count = 0;
+    while (interpreted.next()) {
+      assertTrue(compiled.next());
+      assertEquals(interpreted.currentTime(), compiled.currentTime());
+      assertEquals(interpreted.currentDouble(), compiled.currentDouble(), 0);
+      interpreted.readyForNext();
+      compiled.readyForNext();
+      ++count;
+    }
+    assertFalse(compiled.next());
+    assertEquals(POINT_NUM / 2, count);
+  }
+
+  @Test
+  public void testNestedExpression() throws Exception {
+    Expression s1 = series("s1", TSDataType.FLOAT);
+    Expression s2 = series("s2", TSDataType.DOUBLE);
+    Expression s3 = series("s3", TSDataType.INT64);
+    // (s1 + s2) * -s3 % s1
+    Expression expression =
+        new ModuloExpression(
+            new MultiplicationExpression(
+                new AdditionExpression(s1, s2), new NegationExpression(s3)),
+            s1);
+    ArithmeticExpressionCompiler compiler = new ArithmeticExpressionCompiler(dataTypes::get);
+    ColumnEvaluator evaluator = compiler.compile(expression);
+    assertNotNull(evaluator);
+    List<String> inputSeries = compiler.getInputSeries();
+    assertEquals(Arrays.asList("root.sg.d.s1", "root.sg.d.s2", "root.sg.d.s3"), inputSeries);
+
+    LayerPointReader transformer =
+        new CompiledArithmeticTransformer(
+            new LayerPointReader[] {
+              new ArrayPointReader(TSDataType.FLOAT, 1),
+              new ArrayPointReader(TSDataType.DOUBLE, 2),
+              new ArrayPointReader(TSDataType.INT64, 3)
+            },
+            evaluator);
+    for (long time = 0; time < POINT_NUM; time += 6) {
+      assertTrue(transformer.next());
+      assertEquals(time, transformer.currentTime());
+      double value = time;
+      assertEquals(((value + value) * -value) % value, transformer.currentDouble(), 0);
+      transformer.readyForNext();
+    }
+    assertFalse(transformer.next());
+  }
+
+  @Test
+  public void testFallback() throws Exception {
+    Expression text = series("s1", TSDataType.TEXT);
+    Expression number = series("s2", TSDataType.INT32);
+    assertNull(
+        new ArithmeticExpressionCompiler(dataTypes::get)
+            .compile(new AdditionExpression(text, number)));
+
+    Expression udf = new FunctionExpression("sin");
+    assertNull(
+        new ArithmeticExpressionCompiler(dataTypes::get)
+            .compile(new AdditionExpression(number, udf)));
+  }
+
+  /** The value at each timestamp is the timestamp, and only the multiples of step exist. */
+  private static class ArrayPointReader implements LayerPointReader {
+
+    private final TSDataType dataType;
+    private final int step;
+    private long time = 0;
+
+    private ArrayPointReader(TSDataType dataType, int step) {
+      this.dataType = dataType;
+      this.step = step;
+    }
+
+    @Override
+    public boolean next() throws QueryProcessException, IOException {
+      return time < POINT_NUM;
+    }
+
+    @Override
+    public void readyForNext() {
+      time += step;
+    }
+
+    @Override
+    public TSDataType getDataType() {
+      return dataType;
+    }
+
+    @Override
+    public long currentTime() {
+      return time;
+    }
+
+    @Override
+    public int currentInt() {
+      return (int) time;
+    }
+
+    @Override
+    public long currentLong() {
+      return time;
+    }
+
+    @Override
+    public float currentFloat() {
+      return time;
+    }
+
+    @Override
+    public double currentDouble() {
+      return time;
+    }
+
+    @Override
+    public boolean currentBoolean() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Binary currentBinary() {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.rescon.OffHeapArrayManager;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OffHeapTVListTest {
+  public static double delta = 0.001d;
+
+  @Test
+  public void testSortOutOfOrder() {
+    OffHeapDoubleTVList tvList = new OffHeapDoubleTVList();
+    for (int i = 1000; i >= 0; i--) {
+      tvList.putDouble(i, i + 0.5);
+    }
+    tvList.sort();
+    for (int i = 0; i < tvList.size; i++) {
+      Assert.assertEquals(i + 0.5, tvList.getDouble(i), delta);
+      Assert.assertEquals(i, tvList.getTime(i));
+    }
+    tvList.clear();
+  }
+
+  @Test
+  public void testPutBatch() {
+    OffHeapIntTVList tvList = new OffHeapIntTVList();
+    long[] times = new long[1000];
+    int[] values = new int[1000];
+    for (int i = 0; i < 1000; i++) {
+      times[i] = 1000 - i;
+      values[i] = 1000 - i;
+    }
+    tvList.putInt(0, 0);
+    tvList.putInts(times, values, 0, 1000);
+    tvList.sort();
+    for (int i = 0; i < tvList.size; i++) {
+      Assert.assertEquals(i, tvList.getInt(i));
+      Assert.assertEquals(i, tvList.getTime(i));
+    }
+    tvList.clear();
+  }
+
+  @Test
+  public void testCloneAndRelease() {
+    OffHeapLongTVList tvList = new OffHeapLongTVList();
+    for (long i = 0; i < 1000; i++) {
+      tvList.putLong(i, Long.MAX_VALUE - i);
+    }
+    OffHeapLongTVList cloneList = tvList.clone();
+    tvList.clear();
+    for (int i = 0; i < cloneList.size; i++) {
+      Assert.assertEquals(Long.MAX_VALUE - i, cloneList.getLong(i));
+    }
+
+    long usedSize = OffHeapArrayManager.getUsedSize();
+    OffHeapFloatTVList floatList = new OffHeapFloatTVList();
+    for (int i = 0; i < 1000; i++) {
+      floatList.putFloat(i, -i);
+    }
+    Assert.assertEquals(999, floatList.delete(0, 998));
+    Assert.assertEquals(-999f, floatList.getFloat(0), delta);
+    floatList.clear();
+    Assert.assertEquals(usedSize, OffHeapArrayManager.getUsedSize());
+  }
+}
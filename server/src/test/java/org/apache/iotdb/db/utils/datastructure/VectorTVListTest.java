@@ -19,6 +19,11 @@
 package org.apache.iotdb.db.utils.datastructure;
 
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.VectorColumns;
+import org.apache.iotdb.tsfile.read.reader.IPointReader;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
 
@@ -26,7 +31,10 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class VectorTVListTest {
@@ -140,4 +148,96 @@ public class VectorTVListTest {
       }
     }
   }
+
+  @Test
+  public void testGetVectorColumns() throws IOException {
+    List<TSDataType> dataTypes = new ArrayList<>();
+    dataTypes.add(TSDataType.BOOLEAN);
+    dataTypes.add(TSDataType.INT32);
+    dataTypes.add(TSDataType.INT64);
+    dataTypes.add(TSDataType.FLOAT);
+    dataTypes.add(TSDataType.DOUBLE);
+    dataTypes.add(TSDataType.TEXT);
+    VectorTVList tvList = new VectorTVList(dataTypes);
+    for (int i = 1000; i >= 0; i--) {
+      tvList.putVector(i, createVector(i, i));
+      if (i % 7 == 0) {
+        // a row of a duplicated time, whose nulls are different from the first one
+        tvList.putVector(i, createVector(i + 1, i * 10));
+      }
+    }
+    tvList.sort();
+
+    assertVectorColumns(tvList, tvList.size, null);
+    assertVectorColumns(tvList, tvList.size, Collections.emptyList());
+    assertVectorColumns(
+        tvList,
+        tvList.size,
+        Arrays.asList(new TimeRange(-10, 3), new TimeRange(14, 35), new TimeRange(700, 700)));
+    // the rows put after the chunk is got by a query are not read
+    assertVectorColumns(tvList, tvList.size - 10, Collections.singletonList(new TimeRange(7, 7)));
+  }
+
+  @Test
+  public void testGetVectorColumnsWithBitMaps() throws IOException {
+    List<TSDataType> dataTypes = new ArrayList<>();
+    BitMap[] bitMaps = new BitMap[3];
+    for (int i = 0; i < 3; i++) {
+      dataTypes.add(TSDataType.INT64);
+      bitMaps[i] = new BitMap(1001);
+    }
+    VectorTVList tvList = new VectorTVList(dataTypes);
+    long[][] vectorArray = new long[3][1001];
+    long[] times = new long[1001];
+    for (int i = 0; i <= 1000; i++) {
+      // every time appears twice
+      times[i] = i / 2;
+      for (int j = 0; j < 3; j++) {
+        vectorArray[j][i] = i;
+        if ((i + j) % 3 == 0) {
+          bitMaps[j].mark(i);
+        }
+      }
+    }
+    tvList.putVectors(times, bitMaps, vectorArray, 0, 1001);
+
+    assertVectorColumns(tvList, tvList.size, null);
+    assertVectorColumns(
+        tvList, tvList.size, Arrays.asList(new TimeRange(0, 0), new TimeRange(100, 200)));
+  }
+
+  private Object[] createVector(int nullSeed, int value) {
+    Object[] vector = new Object[6];
+    vector[0] = nullSeed % 2 == 0 ? null : value % 3 == 0;
+    vector[1] = nullSeed % 3 == 0 ? null : value;
+    vector[2] = nullSeed % 5 == 0 ? null : (long) value;
+    vector[3] = nullSeed % 2 == 1 ? null : value / 2.0f;
+    vector[4] = nullSeed % 3 == 1 ? null : value / 4.0;
+    vector[5] = nullSeed % 5 == 1 ? null : Binary.valueOf(String.valueOf(value));
+    return vector;
+  }
+
+  /** the rows put into columns should be the same as the rows read by the iterator */
+  private void assertVectorColumns(VectorTVList tvList, int size, List<TimeRange> deletionList)
+      throws IOException {
+    List<String> expected = new ArrayList<>();
+    IPointReader iterator = tvList.getIterator(0, TSEncoding.PLAIN, size, deletionList);
+    while (iterator.hasNextTimeValuePair()) {
+      TimeValuePair timeValuePair = iterator.nextTimeValuePair();
+      expected.add(
+          timeValuePair.getTimestamp()
+              + " "
+              + Arrays.toString(timeValuePair.getValue().getVector()));
+    }
+
+    VectorColumns columns =
+        new VectorColumns(tvList.getTsDataTypes().toArray(new TSDataType[0]), size);
+    long[] times = new long[size];
+    int rowNum = tvList.getVectorColumns(size, deletionList, times, columns);
+    List<String> actual = new ArrayList<>();
+    for (int i = 0; i < rowNum; i++) {
+      actual.add(times[i] + " " + Arrays.toString(columns.get(i)));
+    }
+    Assert.assertEquals(expected, actual);
+  }
 }
@@ -67,6 +67,7 @@ public enum TSStatusCode {
   WRITE_PROCESS_ERROR(412),
   WRITE_PROCESS_REJECT(413),
   QUERY_ID_NOT_EXIST(414),
+  QUERY_PROCESS_REJECT(415),
 
   UNSUPPORTED_INDEX_FUNC_ERROR(421),
   UNSUPPORTED_INDEX_TYPE_ERROR(422),
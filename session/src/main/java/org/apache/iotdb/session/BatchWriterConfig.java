@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session;
+
+/** The thresholds of a SessionBatchWriter, use BatchWriterConfig.builder() to create one. */
+public class BatchWriterConfig {
+
+  public static final int DEFAULT_MAX_BATCH_ROWS = 10_000;
+  public static final int DEFAULT_MAX_ROWS_PER_DEVICE = 1024;
+  public static final long DEFAULT_MAX_DELAY_MS = 100;
+  public static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 4;
+
+  /** a batch is sent once it buffers so many rows of all devices */
+  private final int maxBatchRows;
+  /** a batch is sent once the tablet of any device in it is full */
+  private final int maxRowsPerDevice;
+  /** a buffered row is sent no later than about this delay */
+  private final long maxDelayMs;
+  /** writes block when so many batches are being sent */
+  private final int maxInFlightRequests;
+
+  private BatchWriterConfig(
+      int maxBatchRows, int maxRowsPerDevice, long maxDelayMs, int maxInFlightRequests) {
+    this.maxBatchRows = maxBatchRows;
+    this.maxRowsPerDevice = maxRowsPerDevice;
+    this.maxDelayMs = maxDelayMs;
+    this.maxInFlightRequests = maxInFlightRequests;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public int getMaxBatchRows() {
+    return maxBatchRows;
+  }
+
+  public int getMaxRowsPerDevice() {
+    return maxRowsPerDevice;
+  }
+
+  public long getMaxDelayMs() {
+    return maxDelayMs;
+  }
+
+  public int getMaxInFlightRequests() {
+    return maxInFlightRequests;
+  }
+
+  public static class Builder {
+    private int maxBatchRows = DEFAULT_MAX_BATCH_ROWS;
+    private int maxRowsPerDevice = DEFAULT_MAX_ROWS_PER_DEVICE;
+    private long maxDelayMs = DEFAULT_MAX_DELAY_MS;
+    private int maxInFlightRequests = DEFAULT_MAX_IN_FLIGHT_REQUESTS;
+
+    public Builder maxBatchRows(int maxBatchRows) {
+      this.maxBatchRows = maxBatchRows;
+      return this;
+    }
+
+    public Builder maxRowsPerDevice(int maxRowsPerDevice) {
+      this.maxRowsPerDevice = maxRowsPerDevice;
+      return this;
+    }
+
+    public Builder maxDelayMs(long maxDelayMs) {
+      this.maxDelayMs = maxDelayMs;
+      return this;
+    }
+
+    public Builder maxInFlightRequests(int maxInFlightRequests) {
+      this.maxInFlightRequests = maxInFlightRequests;
+      return this;
+    }
+
+    public BatchWriterConfig build() {
+      if (maxBatchRows <= 0 || maxRowsPerDevice <= 0 || maxDelayMs <= 0) {
+        throw new IllegalArgumentException(
+            "maxBatchRows, maxRowsPerDevice and maxDelayMs should be positive");
+      }
+      if (maxInFlightRequests <= 0) {
+        throw new IllegalArgumentException("maxInFlightRequests should be positive");
+      }
+      return new BatchWriterConfig(
+          maxBatchRows, maxRowsPerDevice, maxDelayMs, maxInFlightRequests);
+    }
+  }
+}
@@ -57,7 +57,6 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -106,6 +105,9 @@ public class Session {
 
   protected boolean enableQueryRedirection = false;
 
+  /** serializes the tablets into reused buffers, the encoding and compression are optional */
+  private final TabletEncoder tabletEncoder = new TabletEncoder();
+
   public Session(String host, int rpcPort) {
     this(
         host,
@@ -1129,14 +1131,16 @@ public class Session {
         throw new BatchExecutionException(
             "Times in InsertOneDeviceRecords are not in ascending order");
       }
-    } else {
+    } else if (!checkSorted(times)) {
       // sort
-      Integer[] index = new Integer[times.size()];
-      for (int i = 0; i < times.size(); i++) {
-        index[i] = i;
+      long[] sortedTimes = new long[len];
+      for (int i = 0; i < len; i++) {
+        sortedTimes[i] = times.get(i);
+      }
+      int[] index = SessionUtils.sortTimes(sortedTimes, len);
+      for (int i = 0; i < len; i++) {
+        times.set(i, sortedTimes[i]);
       }
-      Arrays.sort(index, Comparator.comparingLong(times::get));
-      times.sort(Long::compareTo);
       // sort measurementList
       measurementsList = sortList(measurementsList, index);
       // sort typesList
@@ -1155,7 +1159,7 @@ public class Session {
   }
 
   @SuppressWarnings("squid:S3740")
-  private List sortList(List source, Integer[] index) {
+  private List sortList(List source, int[] index) {
     Object[] result = new Object[source.size()];
     for (int i = 0; i < index.length; i++) {
       result[i] = source.get(index[i]);
@@ -1280,6 +1284,8 @@ public class Session {
       }
     } catch (RedirectException e) {
       handleRedirection(tablet.prefixPath, e.getEndPoint());
+    } finally {
+      tabletEncoder.release();
     }
   }
 
@@ -1303,6 +1309,8 @@ public class Session {
       }
     } catch (RedirectException e) {
       handleRedirection(tablet.prefixPath, e.getEndPoint());
+    } finally {
+      tabletEncoder.release();
     }
   }
 
@@ -1337,8 +1345,7 @@ public class Session {
         request.setIsAligned(tablet.isAligned());
       }
     }
-    request.setTimestamps(SessionUtils.getTimeBuffer(tablet));
-    request.setValues(SessionUtils.getValueBuffer(tablet));
+    tabletEncoder.encode(tablet, request);
     request.setSize(tablet.rowSize);
     return request;
   }
@@ -1365,18 +1372,33 @@ public class Session {
    */
   public void insertTablets(Map<String, Tablet> tablets, boolean sorted)
       throws IoTDBConnectionException, StatementExecutionException {
-    if (enableCacheLeader) {
-      insertTabletsWithLeaderCache(tablets, sorted);
-    } else {
-      TSInsertTabletsReq request = genTSInsertTabletsReq(new ArrayList<>(tablets.values()), sorted);
-      try {
-        defaultSessionConnection.insertTablets(request);
-      } catch (RedirectException ignored) {
-        // ignored
+    try {
+      if (enableCacheLeader) {
+        insertTabletsWithLeaderCache(tablets, sorted);
+      } else {
+        TSInsertTabletsReq request =
+            genTSInsertTabletsReq(new ArrayList<>(tablets.values()), sorted);
+        try {
+          defaultSessionConnection.insertTablets(request);
+        } catch (RedirectException ignored) {
+          // ignored
+        }
       }
+    } finally {
+      tabletEncoder.release();
     }
   }
 
+  /**
+   * Create a writer that buffers rows into tablets and sends them with this session in the
+   * background. Only one batch is sent at a time, use SessionPool.newBatchWriter() to send several
+   * batches concurrently. As a session is not thread-safe, it should not be used by others until
+   * the writer is closed.
+   */
+  public SessionBatchWriter newBatchWriter(BatchWriterConfig config) {
+    return new SessionBatchWriter(tablets -> insertTablets(tablets, false), config, 1);
+  }
+
   private void insertTabletsWithLeaderCache(Map<String, Tablet> tablets, boolean sorted)
       throws IoTDBConnectionException, StatementExecutionException {
     EndPoint endPoint;
@@ -1443,8 +1465,7 @@ public class Session {
     }
     request.addToMeasurementsList(measurements);
     request.addToTypesList(dataTypes);
-    request.addToTimestampsList(SessionUtils.getTimeBuffer(tablet));
-    request.addToValuesList(SessionUtils.getValueBuffer(tablet));
+    tabletEncoder.encode(tablet, request);
     request.addToSizeList(tablet.rowSize);
   }
 
@@ -1464,7 +1485,11 @@ public class Session {
   public void testInsertTablet(Tablet tablet, boolean sorted)
       throws IoTDBConnectionException, StatementExecutionException {
     TSInsertTabletReq request = genTSInsertTabletReq(tablet, sorted);
-    defaultSessionConnection.testInsertTablet(request);
+    try {
+      defaultSessionConnection.testInsertTablet(request);
+    } finally {
+      tabletEncoder.release();
+    }
   }
 
   /**
@@ -1483,7 +1508,11 @@ public class Session {
   public void testInsertTablets(Map<String, Tablet> tablets, boolean sorted)
       throws IoTDBConnectionException, StatementExecutionException {
     TSInsertTabletsReq request = genTSInsertTabletsReq(new ArrayList<>(tablets.values()), sorted);
-    defaultSessionConnection.testInsertTablets(request);
+    try {
+      defaultSessionConnection.testInsertTablets(request);
+    } finally {
+      tabletEncoder.release();
+    }
   }
 
   /**
@@ -1719,13 +1748,11 @@ public class Session {
      * following part of code sort the batch data by time,
      * so we can insert continuous data in value list to get a better performance
      */
-    // sort to get index, and use index to sort value list
-    Integer[] index = new Integer[tablet.rowSize];
-    for (int i = 0; i < tablet.rowSize; i++) {
-      index[i] = i;
+    if (checkSorted(tablet)) {
+      return;
     }
-    Arrays.sort(index, Comparator.comparingLong(o -> tablet.timestamps[o]));
-    Arrays.sort(tablet.timestamps, 0, tablet.rowSize);
+    // sort to get index, and use index to sort value list
+    int[] index = SessionUtils.sortTimes(tablet.timestamps, tablet.rowSize);
     int columnIndex = 0;
     for (int i = 0; i < tablet.getSchemas().size(); i++) {
       IMeasurementSchema schema = tablet.getSchemas().get(i);
@@ -1757,7 +1784,7 @@ public class Session {
    * @param index index
    * @return sorted list
    */
-  private Object sortList(Object valueList, TSDataType dataType, Integer[] index) {
+  private Object sortList(Object valueList, TSDataType dataType, int[] index) {
     switch (dataType) {
       case BOOLEAN:
         boolean[] boolValues = (boolean[]) valueList;
@@ -1813,7 +1840,7 @@ public class Session {
    * @param index index
    * @return sorted bitMap
    */
-  private BitMap sortBitMap(BitMap bitMap, Integer[] index) {
+  private BitMap sortBitMap(BitMap bitMap, int[] index) {
     BitMap sortedBitMap = new BitMap(bitMap.getSize());
     for (int i = 0; i < index.length; i++) {
       if (bitMap.isMarked(index[i])) {
@@ -1904,6 +1931,32 @@ public class Session {
     this.enableQueryRedirection = enableQueryRedirection;
   }
 
+  public TSEncoding getTabletTimeEncoding() {
+    return tabletEncoder.getTimeEncoding();
+  }
+
+  /**
+   * Set how the timestamps of tablets are encoded on the wire, TS_2DIFF shrinks the timestamps of
+   * regular intervals to a few bits each but costs some CPU on both sides. PLAIN by default.
+   *
+   * @param timeEncoding PLAIN or TS_2DIFF
+   */
+  public void setTabletTimeEncoding(TSEncoding timeEncoding) {
+    tabletEncoder.setTimeEncoding(timeEncoding);
+  }
+
+  public CompressionType getTabletCompressionType() {
+    return tabletEncoder.getCompressionType();
+  }
+
+  /**
+   * Set how the timestamps and values of tablets are compressed on the wire, e.g., LZ4 for a
+   * bandwidth-constrained network. UNCOMPRESSED by default.
+   */
+  public void setTabletCompressionType(CompressionType compressionType) {
+    tabletEncoder.setCompressionType(compressionType);
+  }
+
   public static class Builder {
     private String host = Config.DEFAULT_HOST;
     private int rpcPort = Config.DEFAULT_PORT;
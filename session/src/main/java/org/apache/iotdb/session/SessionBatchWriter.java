@@ -0,0 +1,318 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * SessionBatchWriter accumulates rows into one Tablet per device and sends the tablets of all
+ * devices with one insertTablets request when the batch is large or old enough, so that the
+ * callers neither block on each row nor build the batches by themselves. Each write returns a
+ * future that completes when the batch containing the row is written.
+ *
+ * <p>The writer created by Session.newBatchWriter() sends one batch at a time because a Session is
+ * not thread-safe, while the one created by SessionPool.newBatchWriter() sends up to
+ * maxInFlightRequests batches with different sessions. The batches are sent through
+ * Session.insertTablets(), so they follow the cached leaders of the devices.
+ */
+public class SessionBatchWriter implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(SessionBatchWriter.class);
+
+  /** How a batch is sent, e.g., Session.insertTablets(). */
+  @FunctionalInterface
+  public interface TabletsInserter {
+
+    void insertTablets(Map<String, Tablet> tablets)
+        throws IoTDBConnectionException, StatementExecutionException;
+  }
+
+  private final TabletsInserter inserter;
+  private final BatchWriterConfig config;
+  private final Semaphore inFlightPermits;
+  private final ExecutorService sendExecutor;
+  private final ScheduledExecutorService flushTimer;
+  /** the futures of the batches being sent */
+  private final Set<CompletableFuture<Void>> inFlightFutures = ConcurrentHashMap.newKeySet();
+
+  // the batch being accumulated, guarded by this
+  private Map<String, DeviceBuffer> deviceBuffers = new HashMap<>();
+  private CompletableFuture<Void> batchFuture = new CompletableFuture<>();
+  private int batchRowNum;
+  private long batchStartTime;
+  private boolean closed;
+
+  /**
+   * @param inserter sends a batch, it is called by at most maxInFlightRequests threads
+   * @param maxInFlightRequests overrides the one in config as the inserter may not be thread-safe
+   */
+  public SessionBatchWriter(
+      TabletsInserter inserter, BatchWriterConfig config, int maxInFlightRequests) {
+    this.inserter = inserter;
+    this.config = config;
+    this.inFlightPermits = new Semaphore(maxInFlightRequests);
+    AtomicInteger threadNum = new AtomicInteger();
+    this.sendExecutor =
+        Executors.newFixedThreadPool(
+            maxInFlightRequests,
+            daemonThreadFactory(() -> "SessionBatchWriter-send-" + threadNum.incrementAndGet()));
+    this.flushTimer =
+        Executors.newSingleThreadScheduledExecutor(
+            daemonThreadFactory(() -> "SessionBatchWriter-timer"));
+    long checkInterval = Math.max(1, config.getMaxDelayMs() / 2);
+    flushTimer.scheduleWithFixedDelay(
+        this::flushIfExpired, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+  }
+
+  private static ThreadFactory daemonThreadFactory(
+      Supplier<String> nameSupplier) {
+    return r -> {
+      Thread thread = new Thread(r, nameSupplier.get());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Buffer a row of a device. The measurements of a device may vary between rows, the absent ones
+   * are null. The caller is blocked if the batch should be sent but maxInFlightRequests batches are
+   * being sent.
+   *
+   * @return a future that completes when the batch containing the row is written, or completes
+   *     exceptionally with the IoTDBConnectionException or StatementExecutionException of the batch
+   * @throws IllegalStateException if the writer is closed
+   */
+  public CompletableFuture<Void> write(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values)
+      throws InterruptedException {
+    if (measurements.size() != types.size() || measurements.size() != values.size()) {
+      throw new IllegalArgumentException(
+          "measurements, types and values should have the same size");
+    }
+    CompletableFuture<Void> future;
+    boolean batchFull;
+    while (true) {
+      synchronized (this) {
+        if (closed) {
+          throw new IllegalStateException("The batch writer is closed");
+        }
+        future = tryAppend(deviceId, time, measurements, types, values);
+        if (future != null) {
+          batchFull = batchRowNum >= config.getMaxBatchRows();
+          break;
+        }
+      }
+      // the tablet of the device is full or does not match the row, send the batch first
+      sendBatch();
+    }
+    if (batchFull) {
+      sendBatch();
+    }
+    return future;
+  }
+
+  /** @return the future of the current batch, or null if the row cannot be put into the batch */
+  private CompletableFuture<Void> tryAppend(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values) {
+    DeviceBuffer buffer = deviceBuffers.get(deviceId);
+    if (buffer == null) {
+      buffer = new DeviceBuffer(deviceId, measurements, types, config.getMaxRowsPerDevice());
+      buffer.append(time, measurements, values);
+      deviceBuffers.put(deviceId, buffer);
+    } else if (buffer.isFull() || !buffer.accepts(measurements, types)) {
+      return null;
+    } else {
+      buffer.append(time, measurements, values);
+    }
+    if (batchRowNum++ == 0) {
+      batchStartTime = System.currentTimeMillis();
+    }
+    return batchFuture;
+  }
+
+  /**
+   * Send the buffered rows without waiting for the thresholds.
+   *
+   * @return a future that completes when all the batches being sent are done
+   */
+  public CompletableFuture<Void> flush() throws InterruptedException {
+    sendBatch();
+    return CompletableFuture.allOf(inFlightFutures.toArray(new CompletableFuture[0]));
+  }
+
+  private void flushIfExpired() {
+    synchronized (this) {
+      if (batchRowNum == 0
+          || System.currentTimeMillis() - batchStartTime < config.getMaxDelayMs()) {
+        return;
+      }
+    }
+    try {
+      sendBatch();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Hand the current batch to a sending thread, block if no thread is available. */
+  private void sendBatch() throws InterruptedException {
+    inFlightPermits.acquire();
+    Map<String, Tablet> tablets = new HashMap<>();
+    CompletableFuture<Void> future;
+    synchronized (this) {
+      if (batchRowNum == 0) {
+        // sent by others
+        inFlightPermits.release();
+        return;
+      }
+      for (Entry<String, DeviceBuffer> entry : deviceBuffers.entrySet()) {
+        tablets.put(entry.getKey(), entry.getValue().tablet);
+      }
+      future = batchFuture;
+      deviceBuffers = new HashMap<>();
+      batchFuture = new CompletableFuture<>();
+      batchRowNum = 0;
+      inFlightFutures.add(future);
+    }
+    try {
+      sendExecutor.execute(() -> send(tablets, future));
+    } catch (RejectedExecutionException e) {
+      // the writer is closed
+      inFlightFutures.remove(future);
+      inFlightPermits.release();
+      future.completeExceptionally(e);
+    }
+  }
+
+  private void send(Map<String, Tablet> tablets, CompletableFuture<Void> future) {
+    try {
+      inserter.insertTablets(tablets);
+      future.complete(null);
+    } catch (IoTDBConnectionException | StatementExecutionException | RuntimeException e) {
+      logger.warn("Failed to write a batch of {} devices", tablets.size(), e);
+      future.completeExceptionally(e);
+    } finally {
+      inFlightFutures.remove(future);
+      inFlightPermits.release();
+    }
+  }
+
+  /** Send the buffered rows, wait until all the batches are done and stop the threads. */
+  @Override
+  public void close() throws InterruptedException {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+    flushTimer.shutdownNow();
+    try {
+      flush().join();
+    } catch (CompletionException e) {
+      // the failures are reported by the futures of the writes
+    } finally {
+      sendExecutor.shutdown();
+    }
+  }
+
+  private static class DeviceBuffer {
+
+    private final Tablet tablet;
+    private final Map<String, TSDataType> measurementTypes = new HashMap<>();
+
+    private DeviceBuffer(
+        String deviceId, List<String> measurements, List<TSDataType> types, int maxRowNumber) {
+      List<IMeasurementSchema> schemas = new ArrayList<>(measurements.size());
+      for (int i = 0; i < measurements.size(); i++) {
+        schemas.add(new MeasurementSchema(measurements.get(i), types.get(i)));
+        measurementTypes.put(measurements.get(i), types.get(i));
+      }
+      tablet = new Tablet(deviceId, schemas, maxRowNumber);
+    }
+
+    private boolean isFull() {
+      return tablet.rowSize == tablet.getMaxRowNumber();
+    }
+
+    /** @return true if the tablet contains all the measurements of the row with the same types */
+    private boolean accepts(List<String> measurements, List<TSDataType> types) {
+      for (int i = 0; i < measurements.size(); i++) {
+        if (types.get(i) != measurementTypes.get(measurements.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void append(long time, List<String> measurements, List<Object> values) {
+      int rowIndex = tablet.rowSize;
+      tablet.addTimestamp(rowIndex, time);
+      for (int i = 0; i < measurements.size(); i++) {
+        tablet.addValue(measurements.get(i), rowIndex, values.get(i));
+      }
+      if (measurements.size() < measurementTypes.size()) {
+        Set<String> presentMeasurements = new HashSet<>(measurements);
+        for (String measurement : measurementTypes.keySet()) {
+          if (!presentMeasurements.contains(measurement)) {
+            tablet.addValue(measurement, rowIndex, null);
+          }
+        }
+      }
+      tablet.rowSize++;
+    }
+  }
+}
@@ -38,9 +38,20 @@ import java.util.List;
 public class SessionUtils {
 
   private static final Logger logger = LoggerFactory.getLogger(SessionUtils.class);
+  private static final int INSERTION_SORT_THRESHOLD = 16;
 
   public static ByteBuffer getTimeBuffer(Tablet tablet) {
-    ByteBuffer timeBuffer = ByteBuffer.allocate(tablet.getTimeBytesSize());
+    return getTimeBuffer(tablet, ByteBuffer.allocate(tablet.getTimeBytesSize()));
+  }
+
+  /**
+   * Serialize the timestamps of the tablet into the given buffer, which is cleared first.
+   *
+   * @param timeBuffer whose capacity is no less than tablet.getTimeBytesSize()
+   * @return the flipped timeBuffer
+   */
+  public static ByteBuffer getTimeBuffer(Tablet tablet, ByteBuffer timeBuffer) {
+    timeBuffer.clear();
     for (int i = 0; i < tablet.rowSize; i++) {
       timeBuffer.putLong(tablet.timestamps[i]);
     }
@@ -48,9 +59,19 @@ public class SessionUtils {
     return timeBuffer;
   }
 
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   public static ByteBuffer getValueBuffer(Tablet tablet) {
-    ByteBuffer valueBuffer = ByteBuffer.allocate(tablet.getTotalValueOccupation());
+    return getValueBuffer(tablet, ByteBuffer.allocate(tablet.getTotalValueOccupation()));
+  }
+
+  /**
+   * Serialize the values and bitmaps of the tablet into the given buffer, which is cleared first.
+   *
+   * @param valueBuffer whose capacity is no less than tablet.getTotalValueOccupation()
+   * @return the flipped valueBuffer
+   */
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  public static ByteBuffer getValueBuffer(Tablet tablet, ByteBuffer valueBuffer) {
+    valueBuffer.clear();
     int indexOfValues = 0;
     for (int i = 0; i < tablet.getSchemas().size(); i++) {
       IMeasurementSchema schema = tablet.getSchemas().get(i);
@@ -158,6 +179,67 @@ public class SessionUtils {
     }
   }
 
+  /**
+   * Sort the first size timestamps in ascending order with a stable merge sort.
+   *
+   * @return the permutation, the i-th sorted timestamp was at index[i] before sorting
+   */
+  public static int[] sortTimes(long[] times, int size) {
+    int[] index = new int[size];
+    for (int i = 0; i < size; i++) {
+      index[i] = i;
+    }
+    long[] timeBuffer = new long[size];
+    System.arraycopy(times, 0, timeBuffer, 0, size);
+    mergeSort(timeBuffer, index.clone(), times, index, 0, size);
+    return index;
+  }
+
+  /**
+   * Sort src[lo, hi) into dest[lo, hi), both arrays hold the same elements initially and src is
+   * used as the scratch space.
+   */
+  private static void mergeSort(
+      long[] srcTimes, int[] srcIndex, long[] destTimes, int[] destIndex, int lo, int hi) {
+    if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+      insertionSort(destTimes, destIndex, lo, hi);
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    // sort both halves into src with dest as the scratch space, then merge them back into dest
+    mergeSort(destTimes, destIndex, srcTimes, srcIndex, lo, mid);
+    mergeSort(destTimes, destIndex, srcTimes, srcIndex, mid, hi);
+    if (srcTimes[mid - 1] <= srcTimes[mid]) {
+      System.arraycopy(srcTimes, lo, destTimes, lo, hi - lo);
+      System.arraycopy(srcIndex, lo, destIndex, lo, hi - lo);
+      return;
+    }
+    for (int i = lo, p = lo, q = mid; i < hi; i++) {
+      if (q >= hi || (p < mid && srcTimes[p] <= srcTimes[q])) {
+        destTimes[i] = srcTimes[p];
+        destIndex[i] = srcIndex[p++];
+      } else {
+        destTimes[i] = srcTimes[q];
+        destIndex[i] = srcIndex[q++];
+      }
+    }
+  }
+
+  private static void insertionSort(long[] times, int[] index, int lo, int hi) {
+    for (int i = lo + 1; i < hi; i++) {
+      long time = times[i];
+      int idx = index[i];
+      int j = i - 1;
+      while (j >= lo && times[j] > time) {
+        times[j + 1] = times[j];
+        index[j + 1] = index[j];
+        j--;
+      }
+      times[j + 1] = time;
+      index[j + 1] = idx;
+    }
+  }
+
   public static List<EndPoint> parseSeedNodeUrls(List<String> nodeUrls) {
     if (nodeUrls == null) {
       throw new NumberFormatException("nodeUrls is null");
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.rpc.BatchExecutionException;
+import org.apache.iotdb.service.rpc.thrift.TSInsertTabletReq;
+import org.apache.iotdb.service.rpc.thrift.TSInsertTabletsReq;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.encoding.encoder.DeltaBinaryEncoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * TabletEncoder serializes the timestamps and values of tablets for insertTablet(s) requests. The
+ * buffers are reused by the following requests after release() is called, so that sending a
+ * tablet does not allocate and zero a new buffer of its whole size. Optionally, the timestamps are
+ * encoded by TS_2DIFF and both buffers are compressed to reduce the network traffic, each
+ * compressed buffer starts with its uncompressed size. It is not thread-safe, each Session owns
+ * one.
+ */
+class TabletEncoder {
+
+  private static final int MIN_BUFFER_SIZE = 1024;
+  /** larger buffers are not reused to avoid holding too much memory after a huge tablet */
+  private static final int MAX_REUSED_BUFFER_SIZE = 16 * 1024 * 1024;
+
+  private static final int MAX_REUSED_BUFFER_NUM = 16;
+
+  private TSEncoding timeEncoding = TSEncoding.PLAIN;
+  private CompressionType compressionType = CompressionType.UNCOMPRESSED;
+  private ICompressor compressor;
+
+  private final Deque<ByteBuffer> freeBuffers = new ArrayDeque<>();
+  private final List<ByteBuffer> usedBuffers = new ArrayList<>();
+  private final DeltaBinaryEncoder timeEncoder = new DeltaBinaryEncoder.LongDeltaEncoder();
+  private final PublicBAOS encodedTimes = new PublicBAOS();
+  private byte[] compressedBytes = new byte[0];
+
+  TSEncoding getTimeEncoding() {
+    return timeEncoding;
+  }
+
+  /** @param timeEncoding PLAIN or TS_2DIFF */
+  void setTimeEncoding(TSEncoding timeEncoding) {
+    if (timeEncoding != TSEncoding.PLAIN && timeEncoding != TSEncoding.TS_2DIFF) {
+      throw new IllegalArgumentException(
+          "Timestamps of a tablet can only be encoded by PLAIN or TS_2DIFF, not " + timeEncoding);
+    }
+    this.timeEncoding = timeEncoding;
+  }
+
+  CompressionType getCompressionType() {
+    return compressionType;
+  }
+
+  void setCompressionType(CompressionType compressionType) {
+    // the session only ships the libraries of these compressors
+    if (compressionType != CompressionType.UNCOMPRESSED
+        && compressionType != CompressionType.SNAPPY
+        && compressionType != CompressionType.LZ4
+        && compressionType != CompressionType.GZIP) {
+      throw new IllegalArgumentException(
+          "Tablets can only be compressed by SNAPPY, LZ4 or GZIP, not " + compressionType);
+    }
+    this.compressionType = compressionType;
+    this.compressor =
+        compressionType == CompressionType.UNCOMPRESSED
+            ? null
+            : ICompressor.getCompressor(compressionType);
+  }
+
+  void encode(Tablet tablet, TSInsertTabletReq request) throws BatchExecutionException {
+    request.setTimestamps(encodeTimes(tablet));
+    request.setValues(encodeValues(tablet));
+    if (timeEncoding != TSEncoding.PLAIN) {
+      request.setTimeEncoding(timeEncoding.ordinal());
+    }
+    if (compressionType != CompressionType.UNCOMPRESSED) {
+      request.setCompressionType(compressionType.ordinal());
+    }
+  }
+
+  void encode(Tablet tablet, TSInsertTabletsReq request) throws BatchExecutionException {
+    request.addToTimestampsList(encodeTimes(tablet));
+    request.addToValuesList(encodeValues(tablet));
+    if (timeEncoding != TSEncoding.PLAIN) {
+      request.setTimeEncoding(timeEncoding.ordinal());
+    }
+    if (compressionType != CompressionType.UNCOMPRESSED) {
+      request.setCompressionType(compressionType.ordinal());
+    }
+  }
+
+  ByteBuffer encodeTimes(Tablet tablet) throws BatchExecutionException {
+    if (timeEncoding == TSEncoding.PLAIN) {
+      return compress(SessionUtils.getTimeBuffer(tablet, borrow(tablet.getTimeBytesSize())));
+    }
+    encodedTimes.reset();
+    for (int i = 0; i < tablet.rowSize; i++) {
+      timeEncoder.encode(tablet.timestamps[i], encodedTimes);
+    }
+    timeEncoder.flush(encodedTimes);
+    ByteBuffer encoded = ByteBuffer.wrap(encodedTimes.getBuf(), 0, encodedTimes.size());
+    if (compressor != null) {
+      return compress(encoded);
+    }
+    // encodedTimes is reused by the next tablet
+    ByteBuffer timeBuffer = borrow(encodedTimes.size());
+    timeBuffer.put(encoded);
+    timeBuffer.flip();
+    return timeBuffer;
+  }
+
+  ByteBuffer encodeValues(Tablet tablet) throws BatchExecutionException {
+    return compress(SessionUtils.getValueBuffer(tablet, borrow(tablet.getTotalValueOccupation())));
+  }
+
+  private ByteBuffer compress(ByteBuffer buffer) throws BatchExecutionException {
+    if (compressor == null) {
+      return buffer;
+    }
+    int size = buffer.remaining();
+    // the estimation of GZIP is not an upper bound for incompressible data
+    int maxCompressedSize =
+        Math.max(compressor.getMaxBytesForCompression(size), size + size / 128 + 64);
+    if (compressedBytes.length < maxCompressedSize) {
+      compressedBytes = new byte[maxCompressedSize];
+    }
+    int compressedSize;
+    try {
+      compressedSize =
+          compressor.compress(
+              buffer.array(), buffer.arrayOffset() + buffer.position(), size, compressedBytes);
+    } catch (IOException e) {
+      throw new BatchExecutionException("Failed to compress the tablet: " + e.getMessage());
+    }
+    ByteBuffer compressed = borrow(Integer.BYTES + compressedSize);
+    compressed.putInt(size);
+    compressed.put(compressedBytes, 0, compressedSize);
+    compressed.flip();
+    return compressed;
+  }
+
+  private ByteBuffer borrow(int size) {
+    ByteBuffer buffer = null;
+    for (Iterator<ByteBuffer> iterator = freeBuffers.iterator(); iterator.hasNext(); ) {
+      ByteBuffer freeBuffer = iterator.next();
+      if (freeBuffer.capacity() >= size) {
+        iterator.remove();
+        buffer = freeBuffer;
+        break;
+      }
+    }
+    if (buffer == null) {
+      buffer = ByteBuffer.allocate(roundUpBufferSize(size));
+    }
+    buffer.clear();
+    usedBuffers.add(buffer);
+    return buffer;
+  }
+
+  /** Round up to a power of 2 so that the buffer can be reused by slightly larger tablets. */
+  private static int roundUpBufferSize(int size) {
+    if (size <= MIN_BUFFER_SIZE) {
+      return MIN_BUFFER_SIZE;
+    }
+    int roundedSize = Integer.highestOneBit(size - 1) << 1;
+    return roundedSize > 0 ? roundedSize : size;
+  }
+
+  /** Make the buffers returned before reusable, call it after the requests are sent. */
+  void release() {
+    for (ByteBuffer buffer : usedBuffers) {
+      if (buffer.capacity() <= MAX_REUSED_BUFFER_SIZE
+          && freeBuffers.size() < MAX_REUSED_BUFFER_NUM) {
+        freeBuffers.add(buffer);
+      }
+    }
+    usedBuffers.clear();
+  }
+}
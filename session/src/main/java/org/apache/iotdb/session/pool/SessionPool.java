@@ -20,8 +20,10 @@ package org.apache.iotdb.session.pool;
 
 import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.BatchWriterConfig;
 import org.apache.iotdb.session.Config;
 import org.apache.iotdb.session.Session;
+import org.apache.iotdb.session.SessionBatchWriter;
 import org.apache.iotdb.session.SessionDataSet;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -460,6 +462,17 @@ public class SessionPool {
     }
   }
 
+  /**
+   * Create a writer that buffers rows into tablets and sends them in the background, at most
+   * min(maxInFlightRequests, maxSize) batches are sent concurrently with different sessions.
+   */
+  public SessionBatchWriter newBatchWriter(BatchWriterConfig config) {
+    return new SessionBatchWriter(
+        tablets -> insertTablets(tablets, false),
+        config,
+        Math.min(config.getMaxInFlightRequests(), maxSize));
+  }
+
   /**
    * Insert data in batch format, which can reduce the overhead of network. This method is just like
    * jdbc batch insert, we pack some insert request in batch and send them to server If you want
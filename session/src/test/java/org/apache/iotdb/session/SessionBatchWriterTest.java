@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SessionBatchWriterTest {
+
+  private final List<Map<String, Tablet>> sentBatches = new CopyOnWriteArrayList<>();
+
+  private SessionBatchWriter newWriter(BatchWriterConfig config) {
+    return new SessionBatchWriter(sentBatches::add, config, config.getMaxInFlightRequests());
+  }
+
+  private CompletableFuture<Void> writeRow(SessionBatchWriter writer, String deviceId, long time)
+      throws InterruptedException {
+    return writer.write(
+        deviceId,
+        time,
+        Collections.singletonList("s1"),
+        Collections.singletonList(TSDataType.INT64),
+        Collections.singletonList(time));
+  }
+
+  @Test
+  public void testBatchSize() throws Exception {
+    BatchWriterConfig config =
+        BatchWriterConfig.builder().maxBatchRows(10).maxDelayMs(100_000).build();
+    SessionBatchWriter writer = newWriter(config);
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      futures.add(writeRow(writer, "root.sg.d" + (i % 2), i));
+    }
+    futures.get(9).get(10, TimeUnit.SECONDS);
+    futures.get(19).get(10, TimeUnit.SECONDS);
+    assertEquals(2, sentBatches.size());
+    assertFalse(futures.get(20).isDone());
+
+    writer.close();
+    assertEquals(3, sentBatches.size());
+    for (CompletableFuture<Void> future : futures) {
+      assertTrue(future.isDone());
+    }
+    long rowNum = 0;
+    for (Map<String, Tablet> batch : sentBatches) {
+      assertEquals(2, batch.size());
+      for (Tablet tablet : batch.values()) {
+        rowNum += tablet.rowSize;
+      }
+    }
+    assertEquals(25, rowNum);
+  }
+
+  @Test
+  public void testMaxDelay() throws Exception {
+    BatchWriterConfig config = BatchWriterConfig.builder().maxDelayMs(10).build();
+    SessionBatchWriter writer = newWriter(config);
+    writeRow(writer, "root.sg.d1", 1).get(10, TimeUnit.SECONDS);
+    assertEquals(1, sentBatches.size());
+    writer.close();
+  }
+
+  @Test
+  public void testMaxRowsPerDevice() throws Exception {
+    BatchWriterConfig config =
+        BatchWriterConfig.builder()
+            .maxRowsPerDevice(4)
+            .maxDelayMs(100_000)
+            .maxInFlightRequests(1)
+            .build();
+    SessionBatchWriter writer = newWriter(config);
+    for (int i = 0; i < 10; i++) {
+      writeRow(writer, "root.sg.d1", i);
+    }
+    writer.close();
+    assertEquals(3, sentBatches.size());
+    assertEquals(4, sentBatches.get(0).get("root.sg.d1").rowSize);
+    assertEquals(2, sentBatches.get(2).get("root.sg.d1").rowSize);
+  }
+
+  @Test
+  public void testVaryingMeasurements() throws Exception {
+    BatchWriterConfig config =
+        BatchWriterConfig.builder().maxDelayMs(100_000).maxInFlightRequests(1).build();
+    SessionBatchWriter writer = newWriter(config);
+    writer.write(
+        "root.sg.d1",
+        1,
+        Arrays.asList("s1", "s2"),
+        Arrays.asList(TSDataType.INT64, TSDataType.DOUBLE),
+        Arrays.asList(1L, 1.0));
+    // a subset of the measurements is put into the same tablet
+    writeRow(writer, "root.sg.d1", 2);
+    assertEquals(0, sentBatches.size());
+    // a new measurement starts a new batch
+    writer.write(
+        "root.sg.d1",
+        3,
+        Collections.singletonList("s3"),
+        Collections.singletonList(TSDataType.INT32),
+        Collections.singletonList(3));
+    writer.flush().get(10, TimeUnit.SECONDS);
+    writer.close();
+
+    assertEquals(2, sentBatches.size());
+    Tablet tablet = sentBatches.get(0).get("root.sg.d1");
+    assertEquals(2, tablet.rowSize);
+    assertEquals(2L, ((long[]) tablet.values[0])[1]);
+    assertTrue(tablet.bitMaps[1].isMarked(1));
+    assertEquals(1, sentBatches.get(1).get("root.sg.d1").rowSize);
+  }
+
+  @Test
+  public void testFailure() throws Exception {
+    SessionBatchWriter writer =
+        new SessionBatchWriter(
+            tablets -> {
+              throw new StatementExecutionException("write failed");
+            },
+            BatchWriterConfig.builder().build(),
+            1);
+    CompletableFuture<Void> future = writeRow(writer, "root.sg.d1", 1);
+    writer.close();
+    try {
+      future.get();
+      fail("the write should fail");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof StatementExecutionException);
+    }
+    try {
+      writeRow(writer, "root.sg.d1", 2);
+      fail("the writer is closed");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.db.utils.QueryDataSetUtils;
+import org.apache.iotdb.service.rpc.thrift.TSInsertTabletReq;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TabletEncoderTest {
+
+  private static final int ROW_NUM = 1000;
+
+  private Tablet genTablet() {
+    List<IMeasurementSchema> schemas = new ArrayList<>();
+    schemas.add(new MeasurementSchema("s1", TSDataType.INT64));
+    schemas.add(new MeasurementSchema("s2", TSDataType.DOUBLE));
+    schemas.add(new MeasurementSchema("s3", TSDataType.TEXT));
+    Tablet tablet = new Tablet("root.sg.d1", schemas, ROW_NUM);
+    Random random = new Random(0);
+    for (int i = 0; i < ROW_NUM; i++) {
+      tablet.addTimestamp(i, 1_600_000_000_000L + i * 1000L + random.nextInt(3));
+      tablet.addValue("s1", i, (long) i);
+      tablet.addValue("s2", i, i % 7 == 0 ? null : random.nextDouble());
+      tablet.addValue("s3", i, new Binary("v" + i));
+    }
+    tablet.rowSize = ROW_NUM;
+    return tablet;
+  }
+
+  @Test
+  public void testEncodeAndDecode() throws Exception {
+    for (TSEncoding timeEncoding : Arrays.asList(TSEncoding.PLAIN, TSEncoding.TS_2DIFF)) {
+      for (CompressionType compressionType :
+          Arrays.asList(
+              CompressionType.UNCOMPRESSED,
+              CompressionType.SNAPPY,
+              CompressionType.GZIP,
+              CompressionType.LZ4)) {
+        TabletEncoder encoder = new TabletEncoder();
+        encoder.setTimeEncoding(timeEncoding);
+        encoder.setCompressionType(compressionType);
+        Tablet tablet = genTablet();
+        TSInsertTabletReq request = new TSInsertTabletReq();
+        encoder.encode(tablet, request);
+        assertEquals(timeEncoding != TSEncoding.PLAIN, request.isSetTimeEncoding());
+        assertEquals(
+            compressionType != CompressionType.UNCOMPRESSED, request.isSetCompressionType());
+        checkDecoded(tablet, request.timestamps, request.values, timeEncoding, compressionType);
+        encoder.release();
+      }
+    }
+  }
+
+  private void checkDecoded(
+      Tablet tablet,
+      ByteBuffer timeBuffer,
+      ByteBuffer valueBuffer,
+      TSEncoding timeEncoding,
+      CompressionType compressionType)
+      throws Exception {
+    timeBuffer =
+        QueryDataSetUtils.uncompressTabletBuffer(
+            timeBuffer,
+            compressionType,
+            QueryDataSetUtils.getMaxTimeBufferSize(ROW_NUM, timeEncoding));
+    valueBuffer =
+        QueryDataSetUtils.uncompressTabletBuffer(
+            valueBuffer,
+            compressionType,
+            QueryDataSetUtils.getMaxValueBufferSize(
+                Arrays.asList(
+                    TSDataType.INT64.ordinal(),
+                    TSDataType.DOUBLE.ordinal(),
+                    TSDataType.TEXT.ordinal()),
+                ROW_NUM,
+                Integer.MAX_VALUE));
+    long[] times = QueryDataSetUtils.readTimesFromBuffer(timeBuffer, ROW_NUM, timeEncoding);
+    assertArrayEquals(tablet.timestamps, times);
+
+    TSDataType[] types = {TSDataType.INT64, TSDataType.DOUBLE, TSDataType.TEXT};
+    Object[] values = QueryDataSetUtils.readValuesFromBuffer(valueBuffer, types, 3, ROW_NUM);
+    BitMap[] bitMaps = QueryDataSetUtils.readBitMapsFromBuffer(valueBuffer, 3, ROW_NUM);
+    assertArrayEquals((long[]) tablet.values[0], (long[]) values[0]);
+    assertArrayEquals((Binary[]) tablet.values[2], (Binary[]) values[2]);
+    double[] expectedDoubles = (double[]) tablet.values[1];
+    double[] doubles = (double[]) values[1];
+    for (int i = 0; i < ROW_NUM; i++) {
+      assertEquals(i % 7 == 0, bitMaps[1].isMarked(i));
+      if (i % 7 != 0) {
+        assertEquals(expectedDoubles[i], doubles[i], 0);
+      }
+    }
+  }
+
+  @Test
+  public void testTimeEncodingShrinksTimestamps() throws Exception {
+    TabletEncoder encoder = new TabletEncoder();
+    Tablet tablet = genTablet();
+    int plainSize = encoder.encodeTimes(tablet).remaining();
+    encoder.setTimeEncoding(TSEncoding.TS_2DIFF);
+    int encodedSize = encoder.encodeTimes(tablet).remaining();
+    assertTrue(encodedSize * 4 < plainSize);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedCompressionType() {
+    new TabletEncoder().setCompressionType(CompressionType.SDT);
+  }
+
+  @Test
+  public void testIllegalUncompressedSize() throws Exception {
+    TabletEncoder encoder = new TabletEncoder();
+    encoder.setCompressionType(CompressionType.GZIP);
+    ByteBuffer timeBuffer = encoder.encodeTimes(genTablet());
+    // the uncompressed size claimed by a malicious client
+    timeBuffer.putInt(timeBuffer.position(), Integer.MAX_VALUE);
+    try {
+      QueryDataSetUtils.uncompressTabletBuffer(
+          timeBuffer,
+          CompressionType.GZIP,
+          QueryDataSetUtils.getMaxTimeBufferSize(ROW_NUM, TSEncoding.PLAIN));
+      fail();
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains(String.valueOf(Integer.MAX_VALUE)));
+    }
+  }
+
+  @Test
+  public void testReuseBuffers() throws Exception {
+    TabletEncoder encoder = new TabletEncoder();
+    Tablet tablet = genTablet();
+    ByteBuffer timeBuffer = encoder.encodeTimes(tablet);
+    ByteBuffer valueBuffer = encoder.encodeValues(tablet);
+    // the buffers are in use before release
+    ByteBuffer anotherTimeBuffer = encoder.encodeTimes(tablet);
+    assertFalse(anotherTimeBuffer == timeBuffer || anotherTimeBuffer == valueBuffer);
+    encoder.release();
+
+    ByteBuffer reusedValueBuffer = encoder.encodeValues(tablet);
+    assertTrue(reusedValueBuffer == valueBuffer || reusedValueBuffer == anotherTimeBuffer);
+    encoder.release();
+    assertSame(reusedValueBuffer, encoder.encodeValues(tablet));
+  }
+
+  @Test
+  public void testSortTimes() {
+    Random random = new Random(0);
+    for (int size : new int[] {0, 1, 10, 1000}) {
+      long[] times = new long[size + 5];
+      for (int i = 0; i < size; i++) {
+        // many duplicated timestamps to check the stability
+        times[i] = random.nextInt(size / 2 + 1);
+      }
+      long[] original = times.clone();
+      int[] index = SessionUtils.sortTimes(times, size);
+      for (int i = 0; i < size; i++) {
+        assertEquals(original[index[i]], times[i]);
+        if (i > 0) {
+          assertTrue(times[i - 1] <= times[i]);
+          if (times[i - 1] == times[i]) {
+            assertTrue(index[i - 1] < index[i]);
+          }
+        }
+      }
+      // the rows beyond size are untouched
+      for (int i = size; i < times.length; i++) {
+        assertEquals(original[i], times[i]);
+      }
+    }
+  }
+}
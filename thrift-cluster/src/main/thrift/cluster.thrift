@@ -56,6 +56,9 @@ struct HeartBeatResponse {
   // because a data server may play many data groups members, this is used to identify which
   // member should process the request or response. Only used in data group communication.
   7: optional Node header
+
+  // set by the followers that can read AppendEntriesRequest.compressedEntries
+  8: optional bool compressedEntriesSupported
 }
 
 struct RequestCommitIndexResponse {
@@ -102,6 +105,9 @@ struct AppendEntriesRequest {
   // because a data server may play many data groups members, this is used to identify which
   // member should process the request or response. Only used in data group communication.
   7: optional RaftNode header
+
+  // if set, "entries" is empty and this holds all entries compressed as a whole
+  8: optional binary compressedEntries
 }
 
 struct AddNodeResponse {
@@ -177,6 +183,9 @@ struct ExecutNonQueryReq {
 struct PullSchemaRequest {
   1: required list<string> prefixPaths
   2: optional RaftNode header
+  // if true, each prefix path is regarded as a device and only the measurements directly under it
+  // are returned, series of its sub-devices are ignored
+  3: optional bool directChildrenOnly
 }
 
 struct PullSchemaResp {
@@ -61,6 +61,8 @@ struct TSExecuteStatementResp {
   // for disable align statements, queryDataSet is null and nonAlignQueryDataSet is not null
   8: optional TSQueryNonAlignDataSet nonAlignQueryDataSet
   9: optional map<string, i32> columnNameIndexMap
+  // rows written by a non-query statement
+  10: optional i32 updateCount
 }
 
 enum TSProtocolVersion {
@@ -218,6 +220,10 @@ struct TSInsertTabletReq {
   6: required list<i32> types
   7: required i32 size
   8: optional bool isAligned
+  // TSEncoding of timestamps, PLAIN if not set
+  9: optional i32 timeEncoding
+  // CompressionType of timestamps and values, each compressed buffer starts with its original size
+  10: optional i32 compressionType
 }
 
 struct TSInsertTabletsReq {
@@ -228,6 +234,8 @@ struct TSInsertTabletsReq {
   5: required list<binary> timestampsList
   6: required list<list<i32>> typesList
   7: required list<i32> sizeList
+  8: optional i32 timeEncoding
+  9: optional i32 compressionType
 }
 
 struct TSInsertRecordsReq {
@@ -336,6 +344,36 @@ struct TSCreateSchemaTemplateReq {
   7: required list<i32> compressors
 }
 
+struct TSPrepareStatementReq {
+  1: required i64 sessionId
+  // The statement to be prepared, each "?" outside quotes is a parameter
+  2: required string statement
+}
+
+struct TSPrepareStatementResp {
+  1: required TSStatus status
+  2: optional i64 preparedStatementId
+  3: optional i32 parameterCount
+}
+
+struct TSExecutePreparedStatementReq {
+  1: required i64 sessionId
+  2: required i64 preparedStatementId
+  // The parameters in order, each one is a literal as it would be written in the statement
+  3: required list<string> parameters
+  4: required i64 statementId
+  5: optional i32 fetchSize
+  6: optional i64 timeout
+  7: optional bool enableRedirectQuery;
+  // The TSDataType ordinal of each parameter set by a typed setter, -1 for a literal
+  8: optional list<i32> parameterTypes
+}
+
+struct TSClosePreparedStatementReq {
+  1: required i64 sessionId
+  2: required i64 preparedStatementId
+}
+
 service TSIService {
   TSOpenSessionResp openSession(1:TSOpenSessionReq req);
 
@@ -414,4 +452,10 @@ service TSIService {
   TSStatus createSchemaTemplate(1:TSCreateSchemaTemplateReq req);
 
   TSStatus setSchemaTemplate(1:TSSetSchemaTemplateReq req);
+
+  TSPrepareStatementResp prepareStatement(1:TSPrepareStatementReq req);
+
+  TSExecuteStatementResp executePreparedStatement(1:TSExecutePreparedStatementReq req);
+
+  TSStatus closePreparedStatement(1:TSClosePreparedStatementReq req);
 }
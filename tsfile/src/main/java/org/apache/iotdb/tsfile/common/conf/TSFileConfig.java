@@ -142,6 +142,17 @@ public class TSFileConfig implements Serializable {
   private String kerberosPrincipal = "principal";
   /** The acceptable error rate of bloom filter */
   private double bloomFilterErrorRate = 0.05;
+  /**
+   * Whether to keep sketches of the values of numeric series in chunk metadata, which are used by
+   * approximate aggregations. TsFiles written with it cannot be read by older versions.
+   */
+  private boolean enableValueSketch = false;
+  /**
+   * When the chunk metadata kept by a TsFileIOWriter that allows spilling exceeds this size (in
+   * byte), it is sorted and spilled into a temporary file and merged back when the file is closed.
+   * A non-positive value disables spilling.
+   */
+  private long chunkMetadataSpillThresholdInByte = 64 * 1024 * 1024L;
   /** The amount of data iterate each time */
   private int batchSize = 1000;
 
@@ -331,6 +342,22 @@ public class TSFileConfig implements Serializable {
     this.bloomFilterErrorRate = bloomFilterErrorRate;
   }
 
+  public boolean isEnableValueSketch() {
+    return enableValueSketch;
+  }
+
+  public void setEnableValueSketch(boolean enableValueSketch) {
+    this.enableValueSketch = enableValueSketch;
+  }
+
+  public long getChunkMetadataSpillThresholdInByte() {
+    return chunkMetadataSpillThresholdInByte;
+  }
+
+  public void setChunkMetadataSpillThresholdInByte(long chunkMetadataSpillThresholdInByte) {
+    this.chunkMetadataSpillThresholdInByte = chunkMetadataSpillThresholdInByte;
+  }
+
   public FSType getTSFileStorageFs() {
     return this.TSFileStorageFs;
   }
@@ -143,6 +143,15 @@ public class TSFileDescriptor {
       conf.setBatchSize(
           Integer.parseInt(
               properties.getProperty("batch_size", Integer.toString(conf.getBatchSize()))));
+      conf.setEnableValueSketch(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_value_sketch", Boolean.toString(conf.isEnableValueSketch()))));
+      conf.setChunkMetadataSpillThresholdInByte(
+          Long.parseLong(
+              properties.getProperty(
+                  "chunk_metadata_spill_threshold_in_byte",
+                  Long.toString(conf.getChunkMetadataSpillThresholdInByte()))));
     } catch (IOException e) {
       logger.warn("Cannot load config file, use default configuration", e);
     } catch (Exception e) {
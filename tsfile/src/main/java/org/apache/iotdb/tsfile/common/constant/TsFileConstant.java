@@ -32,6 +32,10 @@ public class TsFileConstant {
 
   public static final byte TIME_COLUMN_MASK = (byte) 0x80;
   public static final byte VALUE_COLUMN_MASK = (byte) 0x40;
+  /** set in the TimeseriesMetadata type if the ValueSketches are serialized with the statistics */
+  public static final byte SKETCH_MASK = (byte) 0x20;
+  /** the bits of the TimeseriesMetadata type that tell whether there are multiple chunks */
+  public static final byte MULTI_CHUNK_MASK = (byte) 0x1F;
 
   private TsFileConstant() {}
 }
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.bitpacking;
+
+import java.util.Arrays;
+
+/**
+ * Pack (unpack) a block of values with the same bit-width to (from) a contiguous stream of bits,
+ * the first value takes the most significant bits of the first byte. This is the layout of both
+ * {@link IntPacker} and the TS_2DIFF encoding, but the bits are moved through a 64-bit buffer up to
+ * 32 bits at a time instead of one by one.
+ */
+public class BitPacking {
+
+  private BitPacking() {}
+
+  /**
+   * @param values values to be packed, each of them must be in [0, 2^width)
+   * @param count the number of values to be packed
+   * @param width in [0, 32]
+   * @param buf the result, at least ceil(count * width / 8) bytes
+   */
+  public static void packInts(int[] values, int count, int width, byte[] buf) {
+    long mask = (1L << width) - 1;
+    long buffer = 0;
+    int bits = 0;
+    int pos = 0;
+    for (int i = 0; i < count; i++) {
+      buffer = (buffer << width) | (values[i] & mask);
+      bits += width;
+      while (bits >= Byte.SIZE) {
+        bits -= Byte.SIZE;
+        buf[pos++] = (byte) (buffer >>> bits);
+      }
+    }
+    if (bits > 0) {
+      buf[pos] = (byte) (buffer << (Byte.SIZE - bits));
+    }
+  }
+
+  /**
+   * @param values values to be packed, each of them must be in [0, 2^width)
+   * @param count the number of values to be packed
+   * @param width in [0, 64]
+   * @param buf the result, at least ceil(count * width / 8) bytes
+   */
+  public static void packLongs(long[] values, int count, int width, byte[] buf) {
+    // a value wider than 32 bits is packed as its high (width - 32) bits and its low 32 bits
+    int highWidth = Math.max(width - Integer.SIZE, 0);
+    int lowWidth = width - highWidth;
+    long highMask = (1L << highWidth) - 1;
+    long lowMask = (1L << lowWidth) - 1;
+    long buffer = 0;
+    int bits = 0;
+    int pos = 0;
+    for (int i = 0; i < count; i++) {
+      if (highWidth > 0) {
+        buffer = (buffer << highWidth) | ((values[i] >>> Integer.SIZE) & highMask);
+        bits += highWidth;
+        while (bits >= Byte.SIZE) {
+          bits -= Byte.SIZE;
+          buf[pos++] = (byte) (buffer >>> bits);
+        }
+      }
+      buffer = (buffer << lowWidth) | (values[i] & lowMask);
+      bits += lowWidth;
+      while (bits >= Byte.SIZE) {
+        bits -= Byte.SIZE;
+        buf[pos++] = (byte) (buffer >>> bits);
+      }
+    }
+    if (bits > 0) {
+      buf[pos] = (byte) (buffer << (Byte.SIZE - bits));
+    }
+  }
+
+  /**
+   * @param buf packed values, the bytes after the packed ones may be read but are ignored
+   * @param offset the index of the byte where the first value starts
+   * @param width in [0, 32]
+   * @param values the result
+   * @param count the number of values to be unpacked
+   */
+  public static void unpackInts(byte[] buf, int offset, int width, int[] values, int count) {
+    if (width == 0) {
+      Arrays.fill(values, 0, count, 0);
+      return;
+    }
+    long mask = (1L << width) - 1;
+    // only the lowest "bits" bits of the buffer are not consumed, there are at most 63 of them
+    long buffer = 0;
+    int bits = 0;
+    int pos = offset;
+    for (int i = 0; i < count; i++) {
+      if (bits < width) {
+        if (pos + Integer.BYTES <= buf.length) {
+          buffer = (buffer << Integer.SIZE) | (readInt(buf, pos) & 0xFFFFFFFFL);
+          pos += Integer.BYTES;
+          bits += Integer.SIZE;
+        } else {
+          while (bits < width) {
+            buffer = (buffer << Byte.SIZE) | (buf[pos++] & 0xFF);
+            bits += Byte.SIZE;
+          }
+        }
+      }
+      bits -= width;
+      values[i] = (int) ((buffer >>> bits) & mask);
+    }
+  }
+
+  /**
+   * @param buf packed values, the bytes after the packed ones may be read but are ignored
+   * @param offset the index of the byte where the first value starts
+   * @param width in [0, 64]
+   * @param values the result
+   * @param count the number of values to be unpacked
+   */
+  public static void unpackLongs(byte[] buf, int offset, int width, long[] values, int count) {
+    if (width == 0) {
+      Arrays.fill(values, 0, count, 0);
+      return;
+    }
+    int highWidth = Math.max(width - Integer.SIZE, 0);
+    int lowWidth = width - highWidth;
+    long highMask = (1L << highWidth) - 1;
+    long lowMask = (1L << lowWidth) - 1;
+    long buffer = 0;
+    int bits = 0;
+    int pos = offset;
+    for (int i = 0; i < count; i++) {
+      long value = 0;
+      if (highWidth > 0) {
+        if (bits < highWidth) {
+          if (pos + Integer.BYTES <= buf.length) {
+            buffer = (buffer << Integer.SIZE) | (readInt(buf, pos) & 0xFFFFFFFFL);
+            pos += Integer.BYTES;
+            bits += Integer.SIZE;
+          } else {
+            while (bits < highWidth) {
+              buffer = (buffer << Byte.SIZE) | (buf[pos++] & 0xFF);
+              bits += Byte.SIZE;
+            }
+          }
+        }
+        bits -= highWidth;
+        value = ((buffer >>> bits) & highMask) << Integer.SIZE;
+      }
+      if (bits < lowWidth) {
+        if (pos + Integer.BYTES <= buf.length) {
+          buffer = (buffer << Integer.SIZE) | (readInt(buf, pos) & 0xFFFFFFFFL);
+          pos += Integer.BYTES;
+          bits += Integer.SIZE;
+        } else {
+          while (bits < lowWidth) {
+            buffer = (buffer << Byte.SIZE) | (buf[pos++] & 0xFF);
+            bits += Byte.SIZE;
+          }
+        }
+      }
+      bits -= lowWidth;
+      values[i] = value | ((buffer >>> bits) & lowMask);
+    }
+  }
+
+  private static int readInt(byte[] buf, int pos) {
+    return (buf[pos] << 24)
+        | ((buf[pos + 1] & 0xFF) << 16)
+        | ((buf[pos + 2] & 0xFF) << 8)
+        | (buf[pos + 3] & 0xFF);
+  }
+}
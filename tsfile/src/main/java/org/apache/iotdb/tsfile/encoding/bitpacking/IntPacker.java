@@ -144,16 +144,12 @@ public class IntPacker {
    * @param values decoded result.
    */
   public void unpackAllValues(byte[] buf, int length, int[] values) {
-    int idx = 0;
-    int k = 0;
-    while (idx < length) {
-      int[] tv = new int[8];
-      // decode 8 values one time, current result will be saved in the array named 'tv'
-      unpack8Values(buf, idx, tv);
-      System.arraycopy(tv, 0, values, k, 8);
-      idx += width;
-      k += 8;
+    if (width == 0) {
+      return;
     }
+    // each group of 8 values takes 'width' bytes
+    int count = (length + width - 1) / width * NUM_OF_INTS;
+    BitPacking.unpackInts(buf, 0, width, values, count);
   }
 
   public void setWidth(int width) {
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decoder of the Chimp128 encoding, see {@link
+ * org.apache.iotdb.tsfile.encoding.encoder.ChimpEncoder}. The next value is decoded in advance to
+ * know whether the stream ends.
+ */
+public abstract class ChimpDecoder extends Decoder {
+
+  protected static final int PREVIOUS_VALUES = 128;
+  protected static final int PREVIOUS_VALUES_LOG2 = 7;
+
+  /** 3-bit representation -> rounded number of leading zeros */
+  protected static final short[] LEADING_ZEROS = {0, 8, 12, 16, 18, 20, 22, 24};
+
+  protected boolean firstValueWasRead = false;
+  protected int storedLeadingZeros = Integer.MAX_VALUE;
+  /** the number of values read after the first one */
+  protected int index = 0;
+  protected boolean hasNext = true;
+
+  private byte buffer = 0;
+  private int bitsLeft = 0;
+
+  protected ChimpDecoder() {
+    super(TSEncoding.CHIMP);
+  }
+
+  @Override
+  public final boolean hasNext(ByteBuffer in) {
+    return firstValueWasRead ? hasNext : in.hasRemaining();
+  }
+
+  @Override
+  public void reset() {
+    firstValueWasRead = false;
+    storedLeadingZeros = Integer.MAX_VALUE;
+    index = 0;
+    hasNext = true;
+
+    buffer = 0;
+    bitsLeft = 0;
+  }
+
+  /**
+   * Reads a long from the next X bits that represent the least significant bits in the long value.
+   * Bytes are only read when their bits are needed, so the decoder stops at the last byte of its
+   * stream.
+   *
+   * @param bits How many next bits are read from the stream
+   * @return long value that was read from the stream
+   */
+  protected long readBits(int bits, ByteBuffer in) {
+    long value = 0;
+    while (bits > 0) {
+      if (bitsLeft == 0) {
+        buffer = in.get();
+        bitsLeft = Byte.SIZE;
+      }
+      int readBits = Math.min(bits, bitsLeft);
+      value = (value << readBits) | ((buffer >>> (bitsLeft - readBits)) & ((1 << readBits) - 1));
+      bitsLeft -= readBits;
+      bits -= readBits;
+    }
+    return value;
+  }
+}
@@ -19,9 +19,9 @@
 
 package org.apache.iotdb.tsfile.encoding.decoder;
 
+import org.apache.iotdb.tsfile.encoding.bitpacking.BitPacking;
 import org.apache.iotdb.tsfile.encoding.encoder.DeltaBinaryEncoder;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
-import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 import java.io.IOException;
@@ -59,8 +59,6 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
   protected abstract void allocateDataArray();
 
-  protected abstract void readValue(int i);
-
   /**
    * calculate the bytes length containing v bits.
    *
@@ -119,8 +117,10 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       readHeader(buffer);
 
       encodingLength = ceil(packNum * packWidth);
-      deltaBuf = new byte[encodingLength];
-      buffer.get(deltaBuf);
+      if (deltaBuf == null || deltaBuf.length < encodingLength) {
+        deltaBuf = new byte[encodingLength];
+      }
+      buffer.get(deltaBuf, 0, encodingLength);
       allocateDataArray();
 
       previous = firstValue;
@@ -130,10 +130,12 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return firstValue;
     }
 
+    /** unpack the two_diff values, then add the min delta and the previous value to each of them */
     private void readPack() {
+      BitPacking.unpackInts(deltaBuf, 0, packWidth, data, packNum);
       for (int i = 0; i < packNum; i++) {
-        readValue(i);
-        previous = data[i];
+        previous += minDeltaBase + data[i];
+        data[i] = previous;
       }
     }
 
@@ -145,13 +147,9 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
     @Override
     protected void allocateDataArray() {
-      data = new int[packNum];
-    }
-
-    @Override
-    protected void readValue(int i) {
-      int v = BytesUtils.bytesToInt(deltaBuf, packWidth * i, packWidth);
-      data[i] = previous + minDeltaBase + v;
+      if (data == null || data.length < packNum) {
+        data = new int[packNum];
+      }
     }
 
     @Override
@@ -198,8 +196,10 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       readHeader(buffer);
 
       encodingLength = ceil(packNum * packWidth);
-      deltaBuf = new byte[encodingLength];
-      buffer.get(deltaBuf);
+      if (deltaBuf == null || deltaBuf.length < encodingLength) {
+        deltaBuf = new byte[encodingLength];
+      }
+      buffer.get(deltaBuf, 0, encodingLength);
       allocateDataArray();
 
       previous = firstValue;
@@ -209,10 +209,12 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return firstValue;
     }
 
+    /** unpack the two_diff values, then add the min delta and the previous value to each of them */
     private void readPack() {
+      BitPacking.unpackLongs(deltaBuf, 0, packWidth, data, packNum);
       for (int i = 0; i < packNum; i++) {
-        readValue(i);
-        previous = data[i];
+        previous += minDeltaBase + data[i];
+        data[i] = previous;
       }
     }
 
@@ -230,13 +232,9 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
     @Override
     protected void allocateDataArray() {
-      data = new long[packNum];
-    }
-
-    @Override
-    protected void readValue(int i) {
-      long v = BytesUtils.bytesToLong(deltaBuf, packWidth * i, packWidth);
-      data[i] = previous + minDeltaBase + v;
+      if (data == null || data.length < packNum) {
+        data = new long[packNum];
+      }
     }
 
     @Override
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.VALUE_BITS_LENGTH_32BIT;
+
+/** Decoder of 32-bit values of the Chimp128 encoding. */
+public class IntChimpDecoder extends ChimpDecoder {
+
+  private final int[] storedValues = new int[PREVIOUS_VALUES];
+
+  protected int storedValue = 0;
+
+  @Override
+  public void reset() {
+    super.reset();
+    Arrays.fill(storedValues, 0);
+    storedValue = 0;
+  }
+
+  @Override
+  public final int readInt(ByteBuffer in) {
+    if (!firstValueWasRead) {
+      storedValue = (int) readBits(VALUE_BITS_LENGTH_32BIT, in);
+      storedValues[0] = storedValue;
+      firstValueWasRead = true;
+    }
+    int returnValue = storedValue;
+    readNext(in);
+    return returnValue;
+  }
+
+  private void readNext(ByteBuffer in) {
+    int flag = (int) readBits(2, in);
+    int value;
+    switch (flag) {
+      case 3: // '11': new leading zeros
+        storedLeadingZeros = LEADING_ZEROS[(int) readBits(3, in)];
+        value =
+            storedValues[index % PREVIOUS_VALUES]
+                ^ (int) readBits(VALUE_BITS_LENGTH_32BIT - storedLeadingZeros, in);
+        break;
+      case 2: // '10': stored leading zeros
+        value =
+            storedValues[index % PREVIOUS_VALUES]
+                ^ (int) readBits(VALUE_BITS_LENGTH_32BIT - storedLeadingZeros, in);
+        break;
+      case 1: // '01': referenced value and trailing zeros
+        int fill = (int) readBits(PREVIOUS_VALUES_LOG2 + 8, in);
+        int significantBits = fill & 0x1F;
+        if (significantBits == 0) {
+          hasNext = false;
+          return;
+        }
+        int previousIndex = fill >>> 8;
+        int leadingZeros = LEADING_ZEROS[(fill >>> 5) & 0x7];
+        int trailingZeros = VALUE_BITS_LENGTH_32BIT - leadingZeros - significantBits;
+        value =
+            storedValues[previousIndex] ^ ((int) readBits(significantBits, in) << trailingZeros);
+        storedLeadingZeros = VALUE_BITS_LENGTH_32BIT + 1;
+        break;
+      default: // '00': same as the referenced value
+        value = storedValues[(int) readBits(PREVIOUS_VALUES_LOG2, in)];
+        storedLeadingZeros = VALUE_BITS_LENGTH_32BIT + 1;
+        break;
+    }
+    index++;
+    storedValues[index % PREVIOUS_VALUES] = value;
+    storedValue = value;
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Chimp128 encoding (Liakos et al., "Chimp: Efficient Lossless Floating Point Compression for Time
+ * Series Databases", VLDB 2022). Like GORILLA, each value is XORed with a previous one, but the
+ * reference is chosen among the last 128 values by the least significant bits of the value, and
+ * the number of leading zeros is rounded to 8 levels so it takes 3 bits. Each value is written
+ * with a 2-bit flag:
+ *
+ * <ul>
+ *   <li>00: equal to the referenced value, followed by its index in the ring
+ *   <li>01: XOR with the referenced value has many trailing zeros, followed by the index, the
+ *       leading zeros, the number of significant bits and the significant bits. A significant
+ *       length of 0 never appears in the data, so it ends the stream
+ *   <li>10: XOR with the last value has the same leading zeros as the stored ones, followed by the
+ *       bits after them
+ *   <li>11: followed by the new leading zeros and the bits after them
+ * </ul>
+ *
+ * Unlike GORILLA, no value is reserved as the ending mark, so MIN_VALUE and NaN can be encoded.
+ */
+public abstract class ChimpEncoder extends Encoder {
+
+  protected static final int PREVIOUS_VALUES = 128;
+  protected static final int PREVIOUS_VALUES_LOG2 = 7;
+
+  /** rounded number of leading zeros -> its 3-bit representation */
+  protected static final short[] LEADING_REPRESENTATION = {
+    0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 3, 3, 4, 4, 5, 5, 6, 6, 7, 7, 7, 7, 7, 7, 7, 7,
+    7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7,
+    7
+  };
+
+  /** number of leading zeros -> the rounded one */
+  protected static final short[] LEADING_ROUND = {
+    0, 0, 0, 0, 0, 0, 0, 0, 8, 8, 8, 8, 12, 12, 12, 12, 16, 16, 18, 18, 20, 20, 22, 22, 24, 24, 24,
+    24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24,
+    24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24
+  };
+
+  protected boolean firstValueWasWritten = false;
+  /** more than the bits of a value means none, so the next XOR writes its leading zeros */
+  protected int storedLeadingZeros = Integer.MAX_VALUE;
+  /** the number of values written after the first one */
+  protected int index = 0;
+
+  /**
+   * the least significant bits of a value -> the lowest 16 bits of its index. It only helps to find
+   * a good reference, a stale entry still refers to a value of the ring that the decoder also has.
+   */
+  protected final char[] indices;
+
+  private byte buffer = 0;
+  protected int bitsLeft = Byte.SIZE;
+
+  protected ChimpEncoder(int indicesSize) {
+    super(TSEncoding.CHIMP);
+    indices = new char[indicesSize];
+  }
+
+  @Override
+  public final long getMaxByteSize() {
+    return 0;
+  }
+
+  /** The ring of previous values is cleared too, the decoder of the next stream starts empty */
+  protected void reset() {
+    firstValueWasWritten = false;
+    storedLeadingZeros = Integer.MAX_VALUE;
+    index = 0;
+
+    buffer = 0;
+    bitsLeft = Byte.SIZE;
+  }
+
+  /** @return whether the value of the given index may still be in the ring */
+  protected boolean isInRing(int candidateIndex) {
+    return ((index - candidateIndex) & 0xFFFF) < PREVIOUS_VALUES;
+  }
+
+  /** Writes the ending mark and the last partially filled byte. */
+  protected void writeEnding(int flagOneSize, ByteArrayOutputStream out) {
+    if (firstValueWasWritten) {
+      // flag 01 and zero significant bits
+      writeBits(1L << (flagOneSize - 2), flagOneSize, out);
+      if (bitsLeft < Byte.SIZE) {
+        bitsLeft = 0;
+        flipByte(out);
+      }
+    }
+    reset();
+  }
+
+  /**
+   * Writes the given long value using the defined amount of least significant bits.
+   *
+   * @param value The long value to be written
+   * @param bits How many bits are stored to the stream
+   */
+  protected void writeBits(long value, int bits, ByteArrayOutputStream out) {
+    while (bits > 0) {
+      int shift = bits - bitsLeft;
+      if (shift >= 0) {
+        buffer |= (byte) ((value >> shift) & ((1 << bitsLeft) - 1));
+        bits -= bitsLeft;
+        bitsLeft = 0;
+      } else {
+        shift = bitsLeft - bits;
+        buffer |= (byte) (value << shift);
+        bitsLeft -= bits;
+        bits = 0;
+      }
+      flipByte(out);
+    }
+  }
+
+  private void flipByte(ByteArrayOutputStream out) {
+    if (bitsLeft == 0) {
+      out.write(buffer);
+      buffer = 0;
+      bitsLeft = Byte.SIZE;
+    }
+  }
+}
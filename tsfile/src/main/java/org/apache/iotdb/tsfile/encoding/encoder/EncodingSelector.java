@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * EncodingSelector chooses the value encoding of a chunk whose series uses {@link TSEncoding#AUTO}.
+ * It keeps the first SAMPLE_SIZE values of the chunk, encodes them with each candidate encoding of
+ * the data type, and chooses the one with the smallest encoded size weighted by its relative
+ * decoding cost. Only lossless encodings are candidates, so RLE and TS_2DIFF, which keep a limited
+ * precision of FLOAT and DOUBLE values, are not chosen for them.
+ */
+public class EncodingSelector {
+
+  private static final Logger logger = LoggerFactory.getLogger(EncodingSelector.class);
+
+  public static final int SAMPLE_SIZE = 1024;
+
+  private static final TSEncoding[] BOOLEAN_CANDIDATES = {TSEncoding.RLE, TSEncoding.PLAIN};
+  // GORILLA is not a candidate of integers, it cannot encode MIN_VALUE, which may appear after the
+  // sampled values
+  private static final TSEncoding[] INTEGER_CANDIDATES = {
+    TSEncoding.TS_2DIFF, TSEncoding.RLE, TSEncoding.PLAIN
+  };
+  private static final TSEncoding[] FLOATING_CANDIDATES = {
+    TSEncoding.GORILLA, TSEncoding.CHIMP, TSEncoding.PLAIN
+  };
+  private static final TSEncoding[] TEXT_CANDIDATES = {TSEncoding.DICTIONARY, TSEncoding.PLAIN};
+
+  private final TSDataType dataType;
+
+  /** BOOLEAN (as 0 or 1), INT32 and INT64 values */
+  private long[] longValues;
+  /** FLOAT and DOUBLE values */
+  private double[] doubleValues;
+
+  private Binary[] binaryValues;
+
+  private int count;
+
+  private long sampleMemSize;
+
+  /** true until the encoding of the current chunk is chosen */
+  private boolean sampling = true;
+
+  public EncodingSelector(TSDataType dataType) {
+    this.dataType = dataType;
+    switch (dataType) {
+      case BOOLEAN:
+      case INT32:
+      case INT64:
+        longValues = new long[SAMPLE_SIZE];
+        break;
+      case FLOAT:
+      case DOUBLE:
+        doubleValues = new double[SAMPLE_SIZE];
+        break;
+      case TEXT:
+        binaryValues = new Binary[SAMPLE_SIZE];
+        break;
+      default:
+        throw new UnSupportedDataTypeException("AUTO doesn't support data type: " + dataType);
+    }
+  }
+
+  /** @return the encoding used when there are no values to sample */
+  public static TSEncoding getDefaultEncoding(TSDataType dataType) {
+    return getCandidates(dataType)[0];
+  }
+
+  private static TSEncoding[] getCandidates(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return BOOLEAN_CANDIDATES;
+      case INT32:
+      case INT64:
+        return INTEGER_CANDIDATES;
+      case FLOAT:
+      case DOUBLE:
+        return FLOATING_CANDIDATES;
+      case TEXT:
+        return TEXT_CANDIDATES;
+      default:
+        throw new UnSupportedDataTypeException("AUTO doesn't support data type: " + dataType);
+    }
+  }
+
+  /**
+   * The decoding cost relative to PLAIN, so that an encoding is only chosen if it saves more space
+   * than it costs in reading.
+   */
+  private static double getDecodingCost(TSEncoding encoding) {
+    switch (encoding) {
+      case DICTIONARY:
+        return 1.05;
+      case RLE:
+      case TS_2DIFF:
+        return 1.1;
+      case GORILLA:
+        return 1.2;
+      case CHIMP:
+        return 1.15;
+      case PLAIN:
+      default:
+        return 1.0;
+    }
+  }
+
+  public boolean isSampling() {
+    return sampling;
+  }
+
+  public boolean isFull() {
+    return count == SAMPLE_SIZE;
+  }
+
+  public void add(boolean value) {
+    longValues[count++] = value ? 1 : 0;
+  }
+
+  public void add(int value) {
+    longValues[count++] = value;
+  }
+
+  public void add(long value) {
+    longValues[count++] = value;
+  }
+
+  public void add(float value) {
+    doubleValues[count++] = value;
+  }
+
+  public void add(double value) {
+    doubleValues[count++] = value;
+  }
+
+  public void add(Binary value) {
+    binaryValues[count++] = value;
+    sampleMemSize += value.getLength();
+  }
+
+  /** @return the memory used by the sampled values */
+  public long getSampleMemSize() {
+    return sampling ? sampleMemSize + (long) count * Long.BYTES : 0;
+  }
+
+  /** @return the encoding with the least weighted size of the sampled values */
+  public TSEncoding select() {
+    TSEncoding[] candidates = getCandidates(dataType);
+    if (count == 0) {
+      return candidates[0];
+    }
+    TSEncoding selected = candidates[0];
+    double minCost = Double.MAX_VALUE;
+    PublicBAOS out = new PublicBAOS();
+    for (TSEncoding candidate : candidates) {
+      out.reset();
+      try {
+        Encoder encoder = TSEncodingBuilder.getEncodingBuilder(candidate).getEncoder(dataType);
+        encodeSample(encoder, out);
+        encoder.flush(out);
+      } catch (IOException e) {
+        logger.debug("Cannot encode the sampled values with {}", candidate, e);
+        continue;
+      }
+      double cost = out.size() * getDecodingCost(candidate);
+      if (cost < minCost) {
+        minCost = cost;
+        selected = candidate;
+      }
+    }
+    return selected;
+  }
+
+  /**
+   * Write the sampled values into the encoder of the chosen encoding and stop sampling until
+   * {@link #reset()}.
+   */
+  public void finish(Encoder encoder, ByteArrayOutputStream out) {
+    encodeSample(encoder, out);
+    count = 0;
+    sampleMemSize = 0;
+    if (binaryValues != null) {
+      // do not hold the values of the chunk
+      Arrays.fill(binaryValues, null);
+    }
+    sampling = false;
+  }
+
+  /** Start sampling for the next chunk. */
+  public void reset() {
+    count = 0;
+    sampleMemSize = 0;
+    sampling = true;
+  }
+
+  private void encodeSample(Encoder encoder, ByteArrayOutputStream out) {
+    for (int i = 0; i < count; i++) {
+      switch (dataType) {
+        case BOOLEAN:
+          encoder.encode(longValues[i] != 0, out);
+          break;
+        case INT32:
+          encoder.encode((int) longValues[i], out);
+          break;
+        case INT64:
+          encoder.encode(longValues[i], out);
+          break;
+        case FLOAT:
+          encoder.encode((float) doubleValues[i], out);
+          break;
+        case DOUBLE:
+          encoder.encode(doubleValues[i], out);
+          break;
+        case TEXT:
+          encoder.encode(binaryValues[i], out);
+          break;
+        default:
+          throw new UnSupportedDataTypeException(dataType.toString());
+      }
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.VALUE_BITS_LENGTH_64BIT;
+
+/** Chimp128 encoder of 64-bit values, see {@link ChimpEncoder}. */
+public class LongChimpEncoder extends ChimpEncoder {
+
+  /** a reference is used only if the XOR with it has more trailing zeros than this */
+  private static final int THRESHOLD = 6 + PREVIOUS_VALUES_LOG2;
+
+  private static final int SET_LSB = (1 << (THRESHOLD + 1)) - 1;
+  private static final int FLAG_ZERO_SIZE = PREVIOUS_VALUES_LOG2 + 2;
+  private static final int FLAG_ONE_SIZE = PREVIOUS_VALUES_LOG2 + 11;
+
+  private static final int ONE_ITEM_MAX_SIZE = (5 + VALUE_BITS_LENGTH_64BIT) / Byte.SIZE + 1;
+
+  private final long[] storedValues = new long[PREVIOUS_VALUES];
+
+  public LongChimpEncoder() {
+    super(SET_LSB + 1);
+  }
+
+  @Override
+  public final int getOneItemMaxSize() {
+    return ONE_ITEM_MAX_SIZE;
+  }
+
+  @Override
+  public final void encode(long value, ByteArrayOutputStream out) {
+    if (firstValueWasWritten) {
+      compressValue(value, out);
+    } else {
+      writeFirst(value, out);
+      firstValueWasWritten = true;
+    }
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) {
+    writeEnding(FLAG_ONE_SIZE, out);
+  }
+
+  @Override
+  protected void reset() {
+    super.reset();
+    Arrays.fill(storedValues, 0);
+  }
+
+  private void writeFirst(long value, ByteArrayOutputStream out) {
+    storedValues[0] = value;
+    indices[(int) value & SET_LSB] = 0;
+    writeBits(value, VALUE_BITS_LENGTH_64BIT, out);
+  }
+
+  private void compressValue(long value, ByteArrayOutputStream out) {
+    int key = (int) value & SET_LSB;
+    long xor;
+    int previousIndex;
+    int trailingZeros = 0;
+    int candidateIndex = indices[key];
+    if (isInRing(candidateIndex)) {
+      long candidateXor = value ^ storedValues[candidateIndex % PREVIOUS_VALUES];
+      trailingZeros = Long.numberOfTrailingZeros(candidateXor);
+      if (trailingZeros > THRESHOLD) {
+        previousIndex = candidateIndex % PREVIOUS_VALUES;
+        xor = candidateXor;
+      } else {
+        previousIndex = index % PREVIOUS_VALUES;
+        xor = storedValues[previousIndex] ^ value;
+      }
+    } else {
+      previousIndex = index % PREVIOUS_VALUES;
+      xor = storedValues[previousIndex] ^ value;
+    }
+
+    if (xor == 0) {
+      writeBits(previousIndex, FLAG_ZERO_SIZE, out);
+      storedLeadingZeros = VALUE_BITS_LENGTH_64BIT + 1;
+    } else {
+      int leadingZeros = LEADING_ROUND[Long.numberOfLeadingZeros(xor)];
+      if (trailingZeros > THRESHOLD) {
+        int significantBits = VALUE_BITS_LENGTH_64BIT - leadingZeros - trailingZeros;
+        writeBits(
+            512L * (PREVIOUS_VALUES + previousIndex)
+                + 64 * LEADING_REPRESENTATION[leadingZeros]
+                + significantBits,
+            FLAG_ONE_SIZE,
+            out);
+        writeBits(xor >>> trailingZeros, significantBits, out);
+        storedLeadingZeros = VALUE_BITS_LENGTH_64BIT + 1;
+      } else if (leadingZeros == storedLeadingZeros) {
+        writeBits(2, 2, out);
+        writeBits(xor, VALUE_BITS_LENGTH_64BIT - leadingZeros, out);
+      } else {
+        storedLeadingZeros = leadingZeros;
+        writeBits(24L + LEADING_REPRESENTATION[leadingZeros], 5, out);
+        writeBits(xor, VALUE_BITS_LENGTH_64BIT - leadingZeros, out);
+      }
+    }
+
+    index++;
+    storedValues[index % PREVIOUS_VALUES] = value;
+    indices[key] = (char) index;
+  }
+}
@@ -70,6 +70,10 @@ public abstract class TSEncodingBuilder {
         return new GorillaV2();
       case DICTIONARY:
         return new Dictionary();
+      case AUTO:
+        return new Auto();
+      case CHIMP:
+        return new Chimp();
       default:
         throw new UnsupportedOperationException(type.toString());
     }
@@ -314,4 +318,50 @@ public abstract class TSEncodingBuilder {
       // do nothing
     }
   }
+
+  /** for FLOAT, DOUBLE, INT32, INT64. */
+  public static class Chimp extends TSEncodingBuilder {
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      switch (type) {
+        case FLOAT:
+          return new SinglePrecisionChimpEncoder();
+        case DOUBLE:
+          return new DoublePrecisionChimpEncoder();
+        case INT32:
+          return new IntChimpEncoder();
+        case INT64:
+          return new LongChimpEncoder();
+        default:
+          throw new UnSupportedDataTypeException("CHIMP doesn't support data type: " + type);
+      }
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      // allowed do nothing
+    }
+  }
+
+  /**
+   * The encoding of a chunk is chosen when it is written, the encoder here is only used by the
+   * writers that do not choose encodings, e.g., the ones of aligned series.
+   */
+  public static class Auto extends TSEncodingBuilder {
+
+    private Map<String, String> props;
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      TSEncodingBuilder builder = getEncodingBuilder(EncodingSelector.getDefaultEncoding(type));
+      builder.initFromProps(props);
+      return builder.getEncoder(type);
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      this.props = props;
+    }
+  }
 }
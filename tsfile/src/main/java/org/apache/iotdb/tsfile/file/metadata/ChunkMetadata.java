@@ -22,6 +22,7 @@ import org.apache.iotdb.tsfile.common.cache.Accountable;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.file.metadata.statistics.ValueSketch;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.controller.IChunkLoader;
 import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
@@ -142,10 +143,26 @@ public class ChunkMetadata implements Accountable, IChunkMetadata {
    * @throws IOException IOException
    */
   public int serializeTo(OutputStream outputStream, boolean serializeStatistic) throws IOException {
+    return serializeTo(outputStream, serializeStatistic, false);
+  }
+
+  /**
+   * serialize to outputStream.
+   *
+   * @param serializeSketch whether to serialize the ValueSketch after the statistics, it only works
+   *     when serializeStatistic is true
+   * @return length
+   */
+  public int serializeTo(
+      OutputStream outputStream, boolean serializeStatistic, boolean serializeSketch)
+      throws IOException {
     int byteLen = 0;
     byteLen += ReadWriteIOUtils.write(offsetOfChunkHeader, outputStream);
     if (serializeStatistic) {
       byteLen += statistics.serialize(outputStream);
+      if (serializeSketch) {
+        byteLen += statistics.getSketch().serializeTo(outputStream);
+      }
     }
     return byteLen;
   }
@@ -165,8 +182,11 @@ public class ChunkMetadata implements Accountable, IChunkMetadata {
     chunkMetaData.offsetOfChunkHeader = ReadWriteIOUtils.readLong(buffer);
     // if the TimeSeriesMetadataType is not 0, it means it has more than one chunk
     // and each chunk's metadata has its own statistics
-    if ((timeseriesMetadata.getTimeSeriesMetadataType() & 0x3F) != 0) {
+    if ((timeseriesMetadata.getTimeSeriesMetadataType() & TsFileConstant.MULTI_CHUNK_MASK) != 0) {
       chunkMetaData.statistics = Statistics.deserialize(buffer, chunkMetaData.tsDataType);
+      if (timeseriesMetadata.hasSketch()) {
+        chunkMetaData.statistics.setSketch(ValueSketch.deserializeFrom(buffer));
+      }
     } else {
       // if the TimeSeriesMetadataType is 0, it means it has only one chunk
       // and that chunk's metadata has no statistic
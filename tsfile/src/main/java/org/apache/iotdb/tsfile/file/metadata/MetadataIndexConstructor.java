@@ -46,7 +46,6 @@ public class MetadataIndexConstructor {
    * @param deviceTimeseriesMetadataMap device => TimeseriesMetadata list
    * @param out tsfile output
    */
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   public static MetadataIndexNode constructMetadataIndex(
       Map<String, List<TimeseriesMetadata>> deviceTimeseriesMetadataMap, TsFileOutput out)
       throws IOException {
@@ -57,62 +56,89 @@ public class MetadataIndexConstructor {
       if (entry.getValue().isEmpty()) {
         continue;
       }
-      Queue<MetadataIndexNode> measurementMetadataIndexQueue = new ArrayDeque<>();
-      TimeseriesMetadata timeseriesMetadata;
-      MetadataIndexNode currentIndexNode =
-          new MetadataIndexNode(MetadataIndexNodeType.LEAF_MEASUREMENT);
-      int serializedTimeseriesMetadataNum = 0;
-      for (int i = 0; i < entry.getValue().size(); i++) {
-        timeseriesMetadata = entry.getValue().get(i);
-        if (timeseriesMetadata.isTimeColumn()) {
-          // calculate the number of value columns in this vector
-          int numOfValueColumns = 0;
-          for (int j = i + 1; j < entry.getValue().size(); j++) {
-            if (entry.getValue().get(j).isValueColumn()) {
-              numOfValueColumns++;
-            } else {
-              break;
-            }
+      deviceMetadataIndexMap.put(
+          entry.getKey(), constructMeasurementMetadataIndex(entry.getValue(), out));
+    }
+    return constructDeviceMetadataIndex(deviceMetadataIndexMap, out);
+  }
+
+  /**
+   * Serialize the TimeseriesMetadata of one device and construct the measurement level of the
+   * metadata index tree upon them, so that the devices can be handled one by one.
+   *
+   * @param timeseriesMetadataList non-empty TimeseriesMetadata list of a device, sorted by
+   *     measurement
+   * @param out tsfile output
+   * @return the root measurement node of the device
+   */
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  public static MetadataIndexNode constructMeasurementMetadataIndex(
+      List<TimeseriesMetadata> timeseriesMetadataList, TsFileOutput out) throws IOException {
+    Queue<MetadataIndexNode> measurementMetadataIndexQueue = new ArrayDeque<>();
+    TimeseriesMetadata timeseriesMetadata;
+    MetadataIndexNode currentIndexNode =
+        new MetadataIndexNode(MetadataIndexNodeType.LEAF_MEASUREMENT);
+    int serializedTimeseriesMetadataNum = 0;
+    for (int i = 0; i < timeseriesMetadataList.size(); i++) {
+      timeseriesMetadata = timeseriesMetadataList.get(i);
+      if (timeseriesMetadata.isTimeColumn()) {
+        // calculate the number of value columns in this vector
+        int numOfValueColumns = 0;
+        for (int j = i + 1; j < timeseriesMetadataList.size(); j++) {
+          if (timeseriesMetadataList.get(j).isValueColumn()) {
+            numOfValueColumns++;
+          } else {
+            break;
           }
+        }
 
-          // for each vector, add time column of vector into LEAF_MEASUREMENT node
-          currentIndexNode.addEntry(
-              new MetadataIndexEntry(timeseriesMetadata.getMeasurementId(), out.getPosition()));
-          serializedTimeseriesMetadataNum = 0;
+        // for each vector, add time column of vector into LEAF_MEASUREMENT node
+        currentIndexNode.addEntry(
+            new MetadataIndexEntry(timeseriesMetadata.getMeasurementId(), out.getPosition()));
+        serializedTimeseriesMetadataNum = 0;
 
+        timeseriesMetadata.serializeTo(out.wrapAsStream());
+        serializedTimeseriesMetadataNum++;
+        for (int j = 0; j < numOfValueColumns; j++) {
+          i++;
+          timeseriesMetadata = timeseriesMetadataList.get(i);
+          // value columns of vector should not be added into LEAF_MEASUREMENT node
           timeseriesMetadata.serializeTo(out.wrapAsStream());
           serializedTimeseriesMetadataNum++;
-          for (int j = 0; j < numOfValueColumns; j++) {
-            i++;
-            timeseriesMetadata = entry.getValue().get(i);
-            // value columns of vector should not be added into LEAF_MEASUREMENT node
-            timeseriesMetadata.serializeTo(out.wrapAsStream());
-            serializedTimeseriesMetadataNum++;
-          }
-        } else {
-          // when constructing from leaf node, every "degree number of nodes" are related to an
-          // entry
-          if (serializedTimeseriesMetadataNum == 0
-              || serializedTimeseriesMetadataNum >= config.getMaxDegreeOfIndexNode()) {
-            if (currentIndexNode.isFull()) {
-              addCurrentIndexNodeToQueue(currentIndexNode, measurementMetadataIndexQueue, out);
-              currentIndexNode = new MetadataIndexNode(MetadataIndexNodeType.LEAF_MEASUREMENT);
-            }
-            currentIndexNode.addEntry(
-                new MetadataIndexEntry(timeseriesMetadata.getMeasurementId(), out.getPosition()));
-            serializedTimeseriesMetadataNum = 0;
+        }
+      } else {
+        // when constructing from leaf node, every "degree number of nodes" are related to an
+        // entry
+        if (serializedTimeseriesMetadataNum == 0
+            || serializedTimeseriesMetadataNum >= config.getMaxDegreeOfIndexNode()) {
+          if (currentIndexNode.isFull()) {
+            addCurrentIndexNodeToQueue(currentIndexNode, measurementMetadataIndexQueue, out);
+            currentIndexNode = new MetadataIndexNode(MetadataIndexNodeType.LEAF_MEASUREMENT);
           }
-          timeseriesMetadata.serializeTo(out.wrapAsStream());
-          serializedTimeseriesMetadataNum++;
+          currentIndexNode.addEntry(
+              new MetadataIndexEntry(timeseriesMetadata.getMeasurementId(), out.getPosition()));
+          serializedTimeseriesMetadataNum = 0;
         }
+        timeseriesMetadata.serializeTo(out.wrapAsStream());
+        serializedTimeseriesMetadataNum++;
       }
-      addCurrentIndexNodeToQueue(currentIndexNode, measurementMetadataIndexQueue, out);
-      deviceMetadataIndexMap.put(
-          entry.getKey(),
-          generateRootNode(
-              measurementMetadataIndexQueue, out, MetadataIndexNodeType.INTERNAL_MEASUREMENT));
     }
+    addCurrentIndexNodeToQueue(currentIndexNode, measurementMetadataIndexQueue, out);
+    return generateRootNode(
+        measurementMetadataIndexQueue, out, MetadataIndexNodeType.INTERNAL_MEASUREMENT);
+  }
 
+  /**
+   * Construct the device level of the metadata index tree upon the measurement root nodes of all
+   * devices.
+   *
+   * @param deviceMetadataIndexMap device => root measurement node, sorted by device
+   * @param out tsfile output
+   * @return the root node of the metadata index tree
+   */
+  public static MetadataIndexNode constructDeviceMetadataIndex(
+      Map<String, MetadataIndexNode> deviceMetadataIndexMap, TsFileOutput out)
+      throws IOException {
     // if not exceed the max child nodes num, ignore the device index and directly point to the
     // measurement
     if (deviceMetadataIndexMap.size() <= config.getMaxDegreeOfIndexNode()) {
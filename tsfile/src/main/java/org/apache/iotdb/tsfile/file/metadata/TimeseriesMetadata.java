@@ -23,6 +23,7 @@ import org.apache.iotdb.tsfile.common.cache.Accountable;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.file.metadata.statistics.ValueSketch;
 import org.apache.iotdb.tsfile.read.controller.IChunkMetadataLoader;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
@@ -47,7 +48,9 @@ public class TimeseriesMetadata implements Accountable, ITimeSeriesMetadata {
    *
    * <p>if the 8th bit is 1, it means it is the time column of a vector series;
    *
-   * <p>if the 7th bit is 1, it means it is the value column of a vector series
+   * <p>if the 7th bit is 1, it means it is the value column of a vector series;
+   *
+   * <p>if the 6th bit is 1, it means the ValueSketch follows each serialized statistics
    */
   private byte timeSeriesMetadataType;
 
@@ -108,6 +111,9 @@ public class TimeseriesMetadata implements Accountable, ITimeSeriesMetadata {
     int chunkMetaDataListDataSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
     timeseriesMetaData.setDataSizeOfChunkMetaDataList(chunkMetaDataListDataSize);
     timeseriesMetaData.setStatistics(Statistics.deserialize(buffer, timeseriesMetaData.dataType));
+    if (timeseriesMetaData.hasSketch()) {
+      timeseriesMetaData.statistics.setSketch(ValueSketch.deserializeFrom(buffer));
+    }
     if (needChunkMetadata) {
       ByteBuffer byteBuffer = buffer.slice();
       byteBuffer.limit(chunkMetaDataListDataSize);
@@ -138,6 +144,9 @@ public class TimeseriesMetadata implements Accountable, ITimeSeriesMetadata {
     byteLen +=
         ReadWriteForEncodingUtils.writeUnsignedVarInt(chunkMetaDataListDataSize, outputStream);
     byteLen += statistics.serialize(outputStream);
+    if (hasSketch()) {
+      byteLen += statistics.getSketch().serializeTo(outputStream);
+    }
     chunkMetadataListBuffer.writeTo(outputStream);
     byteLen += chunkMetadataListBuffer.size();
     return byteLen;
@@ -155,6 +164,10 @@ public class TimeseriesMetadata implements Accountable, ITimeSeriesMetadata {
     return timeSeriesMetadataType == TsFileConstant.VALUE_COLUMN_MASK;
   }
 
+  public boolean hasSketch() {
+    return (timeSeriesMetadataType & TsFileConstant.SKETCH_MASK) != 0;
+  }
+
   public void setTimeSeriesMetadataType(byte timeSeriesMetadataType) {
     this.timeSeriesMetadataType = timeSeriesMetadataType;
   }
@@ -27,7 +27,14 @@ public enum TSEncoding {
   BITMAP((byte) 5),
   GORILLA_V1((byte) 6),
   REGULAR((byte) 7),
-  GORILLA((byte) 8);
+  GORILLA((byte) 8),
+  /**
+   * Only used in schemas, the writer chooses the encoding of each chunk by sampling its values, see
+   * {@link org.apache.iotdb.tsfile.encoding.encoder.EncodingSelector}. It never appears in a
+   * ChunkHeader.
+   */
+  AUTO((byte) 9),
+  CHIMP((byte) 10);
 
   private final byte type;
 
@@ -65,6 +72,10 @@ public enum TSEncoding {
         return TSEncoding.REGULAR;
       case 8:
         return TSEncoding.GORILLA;
+      case 9:
+        return TSEncoding.AUTO;
+      case 10:
+        return TSEncoding.CHIMP;
       default:
         throw new IllegalArgumentException("Invalid input: " + encoding);
     }
@@ -158,7 +158,7 @@ public class LongStatistics extends Statistics<Long> {
 
   @Override
   public long calculateRamSize() {
-    return LONG_STATISTICS_FIXED_RAM_SIZE;
+    return LONG_STATISTICS_FIXED_RAM_SIZE + calculateSketchRamSize();
   }
 
   @Override
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.tsfile.file.metadata.statistics;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.exception.filter.StatisticsClassException;
 import org.apache.iotdb.tsfile.exception.write.UnknownColumnTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -57,6 +58,13 @@ public abstract class Statistics<T> {
   private long startTime = Long.MAX_VALUE;
   private long endTime = Long.MIN_VALUE;
 
+  /**
+   * the sketch of the values, only numeric statistics that are built from data points have it when
+   * enableValueSketch is true. It is not serialized with the statistics, but is stored separately
+   * in ChunkMetadata and TimeseriesMetadata.
+   */
+  private ValueSketch sketch;
+
   /**
    * static method providing statistic instance for respective data type.
    *
@@ -64,6 +72,21 @@ public abstract class Statistics<T> {
    * @return Statistics
    */
   public static Statistics getStatsByType(TSDataType type) {
+    Statistics statistics = createStatsByType(type);
+    if (TSFileDescriptor.getInstance().getConfig().isEnableValueSketch() && hasSketch(type)) {
+      statistics.sketch = new ValueSketch();
+    }
+    return statistics;
+  }
+
+  private static boolean hasSketch(TSDataType type) {
+    return type == TSDataType.INT32
+        || type == TSDataType.INT64
+        || type == TSDataType.FLOAT
+        || type == TSDataType.DOUBLE;
+  }
+
+  private static Statistics createStatsByType(TSDataType type) {
     switch (type) {
       case INT32:
         return new IntegerStatistics();
@@ -179,6 +202,7 @@ public abstract class Statistics<T> {
       if (stats.endTime > this.endTime) {
         this.endTime = stats.endTime;
       }
+      mergeSketch(stats);
       // must be sure no overlap between two statistics
       this.count += stats.count;
       mergeStatisticsValue(stats);
@@ -192,6 +216,25 @@ public abstract class Statistics<T> {
     }
   }
 
+  /**
+   * The merged sketch is kept only if the sketches of both sides exist, otherwise it would not
+   * cover all the values. An empty statistics takes the sketch of the other side.
+   */
+  private void mergeSketch(Statistics stats) {
+    if (count == 0) {
+      if (stats.sketch == null) {
+        sketch = null;
+      } else {
+        sketch = new ValueSketch();
+        sketch.merge(stats.sketch);
+      }
+    } else if (sketch != null && stats.sketch != null) {
+      sketch.merge(stats.sketch);
+    } else {
+      sketch = null;
+    }
+  }
+
   public void update(long time, boolean value) {
     update(time);
     updateStats(value);
@@ -200,21 +243,33 @@ public abstract class Statistics<T> {
   public void update(long time, int value) {
     update(time);
     updateStats(value);
+    if (sketch != null) {
+      sketch.update(value);
+    }
   }
 
   public void update(long time, long value) {
     update(time);
     updateStats(value);
+    if (sketch != null) {
+      sketch.update(value);
+    }
   }
 
   public void update(long time, float value) {
     update(time);
     updateStats(value);
+    if (sketch != null) {
+      sketch.update(value);
+    }
   }
 
   public void update(long time, double value) {
     update(time);
     updateStats(value);
+    if (sketch != null) {
+      sketch.update(value);
+    }
   }
 
   public void update(long time, Binary value) {
@@ -240,21 +295,41 @@ public abstract class Statistics<T> {
   public void update(long[] time, int[] values, int batchSize) {
     update(time, batchSize);
     updateStats(values, batchSize);
+    if (sketch != null) {
+      for (int i = 0; i < batchSize; i++) {
+        sketch.update(values[i]);
+      }
+    }
   }
 
   public void update(long[] time, long[] values, int batchSize) {
     update(time, batchSize);
     updateStats(values, batchSize);
+    if (sketch != null) {
+      for (int i = 0; i < batchSize; i++) {
+        sketch.update(values[i]);
+      }
+    }
   }
 
   public void update(long[] time, float[] values, int batchSize) {
     update(time, batchSize);
     updateStats(values, batchSize);
+    if (sketch != null) {
+      for (int i = 0; i < batchSize; i++) {
+        sketch.update(values[i]);
+      }
+    }
   }
 
   public void update(long[] time, double[] values, int batchSize) {
     update(time, batchSize);
     updateStats(values, batchSize);
+    if (sketch != null) {
+      for (int i = 0; i < batchSize; i++) {
+        sketch.update(values[i]);
+      }
+    }
   }
 
   public void update(long[] time, Binary[] values, int batchSize) {
@@ -343,7 +418,7 @@ public abstract class Statistics<T> {
 
   public static Statistics deserialize(InputStream inputStream, TSDataType dataType)
       throws IOException {
-    Statistics statistics = getStatsByType(dataType);
+    Statistics statistics = createStatsByType(dataType);
     statistics.setCount(ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream));
     statistics.setStartTime(ReadWriteIOUtils.readLong(inputStream));
     statistics.setEndTime(ReadWriteIOUtils.readLong(inputStream));
@@ -353,7 +428,7 @@ public abstract class Statistics<T> {
   }
 
   public static Statistics deserialize(ByteBuffer buffer, TSDataType dataType) {
-    Statistics statistics = getStatsByType(dataType);
+    Statistics statistics = createStatsByType(dataType);
     statistics.setCount(ReadWriteForEncodingUtils.readUnsignedVarInt(buffer));
     statistics.setStartTime(ReadWriteIOUtils.readLong(buffer));
     statistics.setEndTime(ReadWriteIOUtils.readLong(buffer));
@@ -382,12 +457,25 @@ public abstract class Statistics<T> {
     this.endTime = endTime;
   }
 
+  public ValueSketch getSketch() {
+    return sketch;
+  }
+
+  public void setSketch(ValueSketch sketch) {
+    this.sketch = sketch;
+  }
+
   public void setCount(int count) {
     this.count = count;
   }
 
   public abstract long calculateRamSize();
 
+  /** @return the ram size of the sketch, which the numeric statistics add to their fixed size */
+  protected long calculateSketchRamSize() {
+    return sketch == null ? 0 : sketch.calculateRamSize();
+  }
+
   @Override
   public String toString() {
     return "startTime: " + startTime + " endTime: " + endTime + " count: " + count;
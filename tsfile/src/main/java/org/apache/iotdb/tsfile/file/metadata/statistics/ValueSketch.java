@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.file.metadata.statistics;
+
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * ValueSketch summarizes the values of a page, a chunk or a series, so that the number of distinct
+ * values and the quantiles can be estimated from the metadata without decoding the data. Two
+ * sketches of the same series can be merged as their Statistics are merged.
+ *
+ * <p>The distinct count is estimated by a HyperLogLog with 2^10 registers, whose standard error
+ * is about 3%. The quantiles are estimated by logarithmic buckets (as in DDSketch), the relative
+ * error of an estimated quantile is at most 1%.
+ */
+public class ValueSketch {
+
+  private static final int HLL_PRECISION = 10;
+  private static final int HLL_REGISTER_NUM = 1 << HLL_PRECISION;
+
+  private static final double RELATIVE_ACCURACY = 0.01;
+  private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+  private static final double LOG_GAMMA = Math.log(GAMMA);
+  /** values whose absolute values are less than it are counted as zero */
+  private static final double MIN_INDEXABLE_VALUE = Double.MIN_NORMAL * GAMMA;
+
+  private static final byte SPARSE_REGISTERS = 0;
+  private static final byte DENSE_REGISTERS = 1;
+
+  private final byte[] registers = new byte[HLL_REGISTER_NUM];
+
+  private final BucketStore positiveBuckets = new BucketStore();
+  private final BucketStore negativeBuckets = new BucketStore();
+  private long zeroCount;
+
+  public void update(int value) {
+    update((double) value);
+  }
+
+  public void update(long value) {
+    updateRegisters(value);
+    updateBuckets(value);
+  }
+
+  public void update(float value) {
+    update((double) value);
+  }
+
+  public void update(double value) {
+    updateRegisters(Double.doubleToLongBits(value));
+    updateBuckets(value);
+  }
+
+  private void updateRegisters(long bits) {
+    long hash = mix(bits);
+    int index = (int) (hash >>> (Long.SIZE - HLL_PRECISION));
+    // the rank is the position of the first 1 in the remaining bits, which is at most 55
+    byte rank = (byte) (Long.numberOfLeadingZeros((hash << HLL_PRECISION) | 1L) + 1);
+    if (rank > registers[index]) {
+      registers[index] = rank;
+    }
+  }
+
+  private void updateBuckets(double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    if (value >= MIN_INDEXABLE_VALUE) {
+      positiveBuckets.add(bucketIndex(value), 1);
+    } else if (value <= -MIN_INDEXABLE_VALUE) {
+      negativeBuckets.add(bucketIndex(-value), 1);
+    } else {
+      zeroCount++;
+    }
+  }
+
+  public void merge(ValueSketch another) {
+    for (int i = 0; i < HLL_REGISTER_NUM; i++) {
+      if (another.registers[i] > registers[i]) {
+        registers[i] = another.registers[i];
+      }
+    }
+    positiveBuckets.merge(another.positiveBuckets);
+    negativeBuckets.merge(another.negativeBuckets);
+    zeroCount += another.zeroCount;
+  }
+
+  /** @return the estimated number of distinct values */
+  public long getDistinctCount() {
+    double sum = 0;
+    int zeroRegisters = 0;
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0) {
+        zeroRegisters++;
+      }
+    }
+    double alpha = 0.7213 / (1 + 1.079 / HLL_REGISTER_NUM);
+    double estimate = alpha * HLL_REGISTER_NUM * HLL_REGISTER_NUM / sum;
+    if (estimate <= 2.5 * HLL_REGISTER_NUM && zeroRegisters > 0) {
+      // linear counting is more accurate for small cardinalities
+      estimate = HLL_REGISTER_NUM * Math.log((double) HLL_REGISTER_NUM / zeroRegisters);
+    }
+    return Math.round(estimate);
+  }
+
+  /** @return the number of values (except NaN) summarized by the sketch */
+  public long getCount() {
+    return zeroCount + positiveBuckets.getTotal() + negativeBuckets.getTotal();
+  }
+
+  /**
+   * @param quantile in [0, 1]
+   * @return the estimated value at the quantile, or NaN if the sketch is empty
+   */
+  public double getQuantile(double quantile) {
+    long count = getCount();
+    if (count == 0) {
+      return Double.NaN;
+    }
+    long rank = (long) (quantile * (count - 1));
+    // the negative values, from the smallest one, whose absolute value is the largest
+    long negativeTotal = negativeBuckets.getTotal();
+    if (rank < negativeTotal) {
+      return -bucketValue(negativeBuckets.getIndexOfRank(negativeTotal - 1 - rank));
+    }
+    rank -= negativeTotal;
+    if (rank < zeroCount) {
+      return 0;
+    }
+    rank -= zeroCount;
+    return bucketValue(positiveBuckets.getIndexOfRank(rank));
+  }
+
+  private static int bucketIndex(double absValue) {
+    return (int) Math.ceil(Math.log(absValue) / LOG_GAMMA);
+  }
+
+  /** @return the value whose relative error to any value in the bucket is within the accuracy */
+  private static double bucketValue(int index) {
+    return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+  }
+
+  /** the finalizer of MurmurHash3, which spreads the bits of a value over the hash */
+  private static long mix(long value) {
+    long h = value;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  public int serializeTo(OutputStream outputStream) throws IOException {
+    int byteLen = 0;
+    int nonZeroRegisters = 0;
+    for (byte register : registers) {
+      if (register != 0) {
+        nonZeroRegisters++;
+      }
+    }
+    // a sparse register costs 3 bytes (2 for the index and 1 for the register)
+    if (nonZeroRegisters * 3 < HLL_REGISTER_NUM) {
+      byteLen += ReadWriteIOUtils.write(SPARSE_REGISTERS, outputStream);
+      byteLen += ReadWriteIOUtils.write((short) nonZeroRegisters, outputStream);
+      for (int i = 0; i < HLL_REGISTER_NUM; i++) {
+        if (registers[i] != 0) {
+          byteLen += ReadWriteIOUtils.write((short) i, outputStream);
+          byteLen += ReadWriteIOUtils.write(registers[i], outputStream);
+        }
+      }
+    } else {
+      byteLen += ReadWriteIOUtils.write(DENSE_REGISTERS, outputStream);
+      outputStream.write(registers);
+      byteLen += registers.length;
+    }
+    byteLen += ReadWriteIOUtils.write(zeroCount, outputStream);
+    byteLen += positiveBuckets.serializeTo(outputStream);
+    byteLen += negativeBuckets.serializeTo(outputStream);
+    return byteLen;
+  }
+
+  public static ValueSketch deserializeFrom(ByteBuffer buffer) {
+    ValueSketch sketch = new ValueSketch();
+    if (ReadWriteIOUtils.readByte(buffer) == SPARSE_REGISTERS) {
+      int nonZeroRegisters = ReadWriteIOUtils.readShort(buffer);
+      for (int i = 0; i < nonZeroRegisters; i++) {
+        int index = ReadWriteIOUtils.readShort(buffer);
+        sketch.registers[index] = ReadWriteIOUtils.readByte(buffer);
+      }
+    } else {
+      buffer.get(sketch.registers);
+    }
+    sketch.zeroCount = ReadWriteIOUtils.readLong(buffer);
+    sketch.positiveBuckets.deserialize(buffer);
+    sketch.negativeBuckets.deserialize(buffer);
+    return sketch;
+  }
+
+  public long calculateRamSize() {
+    return HLL_REGISTER_NUM
+        + 8L * (positiveBuckets.counts.length + negativeBuckets.counts.length)
+        + 64;
+  }
+
+  /**
+   * The counts of contiguous buckets, the array grows when a bucket out of it is added. It holds at
+   * most MAX_BUCKET_NUM buckets, when the values span more than that, the lowest buckets (those of
+   * the smallest absolute values) are collapsed into the lowest bucket kept, so only the quantiles
+   * among these values lose their accuracy.
+   */
+  private static class BucketStore {
+
+    /** 2048 buckets cover a ratio of more than 10^17 between the largest and the smallest values */
+    private static final int MAX_BUCKET_NUM = 2048;
+
+    private long[] counts = new long[0];
+    /** the bucket index of counts[0] */
+    private int offset;
+
+    private long total;
+
+    private void add(int index, long count) {
+      if (counts.length == 0) {
+        counts = new long[16];
+        offset = index - counts.length / 2;
+      } else if (index < offset || index >= offset + counts.length) {
+        int end = Math.max(offset + counts.length, index + 1);
+        // leave some room for the following buckets on the side where the array grows
+        int newLength =
+            Math.min(Math.max(end - Math.min(offset, index), counts.length * 2), MAX_BUCKET_NUM);
+        int newOffset = index < offset ? end - newLength : Math.max(offset, end - newLength);
+        long[] newCounts = new long[newLength];
+        for (int i = 0; i < counts.length; i++) {
+          newCounts[Math.max(offset + i - newOffset, 0)] += counts[i];
+        }
+        counts = newCounts;
+        offset = newOffset;
+      }
+      counts[Math.max(index - offset, 0)] += count;
+      total += count;
+    }
+
+    private void merge(BucketStore another) {
+      for (int i = 0; i < another.counts.length; i++) {
+        if (another.counts[i] != 0) {
+          add(another.offset + i, another.counts[i]);
+        }
+      }
+    }
+
+    private long getTotal() {
+      return total;
+    }
+
+    /** @return the index of the bucket that contains the value of the given rank (from 0) */
+    private int getIndexOfRank(long rank) {
+      long accumulated = 0;
+      for (int i = 0; i < counts.length; i++) {
+        accumulated += counts[i];
+        if (accumulated > rank) {
+          return offset + i;
+        }
+      }
+      return offset + counts.length - 1;
+    }
+
+    private int serializeTo(OutputStream outputStream) throws IOException {
+      int first = 0;
+      while (first < counts.length && counts[first] == 0) {
+        first++;
+      }
+      int last = counts.length - 1;
+      while (last >= first && counts[last] == 0) {
+        last--;
+      }
+      int byteLen = ReadWriteIOUtils.write(last - first + 1, outputStream);
+      if (last >= first) {
+        byteLen += ReadWriteIOUtils.write(offset + first, outputStream);
+        for (int i = first; i <= last; i++) {
+          byteLen += ReadWriteIOUtils.write(counts[i], outputStream);
+        }
+      }
+      return byteLen;
+    }
+
+    private void deserialize(ByteBuffer buffer) {
+      int length = ReadWriteIOUtils.readInt(buffer);
+      if (length > 0) {
+        offset = ReadWriteIOUtils.readInt(buffer);
+        counts = new long[length];
+        for (int i = 0; i < length; i++) {
+          counts[i] = ReadWriteIOUtils.readLong(buffer);
+          total += counts[i];
+        }
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ValueSketch{distinct="
+        + getDistinctCount()
+        + ", median="
+        + getQuantile(0.5)
+        + ", count="
+        + getCount()
+        + '}';
+  }
+}
@@ -43,6 +43,7 @@ import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.controller.IMetadataIndexNodeCache;
 import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
 import org.apache.iotdb.tsfile.read.reader.TsFileInput;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
@@ -98,6 +99,8 @@ public class TsFileSequenceReader implements AutoCloseable {
   private boolean cacheDeviceMetadata;
   private long minPlanIndex = Long.MAX_VALUE;
   private long maxPlanIndex = Long.MIN_VALUE;
+  // null if the MetadataIndexNodes are always read from disk
+  private IMetadataIndexNodeCache metadataIndexNodeCache;
 
   /**
    * Create a file reader of the given file. The reader will read the tail of the file to get the
@@ -337,15 +340,10 @@ public class TsFileSequenceReader implements AutoCloseable {
       }
       throw new IOException("Device {" + path.getDevice() + "} is not in tsFileMetaData");
     }
-    ByteBuffer buffer = readData(metadataIndexPair.left.getOffset(), metadataIndexPair.right);
     MetadataIndexNode metadataIndexNode = deviceMetadataIndexNode;
     if (!metadataIndexNode.getNodeType().equals(MetadataIndexNodeType.LEAF_MEASUREMENT)) {
-      try {
-        metadataIndexNode = MetadataIndexNode.deserializeFrom(buffer);
-      } catch (BufferOverflowException e) {
-        logger.error(METADATA_INDEX_NODE_DESERIALIZE_ERROR, file);
-        throw e;
-      }
+      metadataIndexNode =
+          readMetadataIndexNode(metadataIndexPair.left.getOffset(), metadataIndexPair.right);
       metadataIndexPair =
           getMetadataAndEndOffset(metadataIndexNode, path.getMeasurement(), false, false);
     }
@@ -353,7 +351,7 @@ public class TsFileSequenceReader implements AutoCloseable {
       return null;
     }
     List<TimeseriesMetadata> timeseriesMetadataList = new ArrayList<>();
-    buffer = readData(metadataIndexPair.left.getOffset(), metadataIndexPair.right);
+    ByteBuffer buffer = readData(metadataIndexPair.left.getOffset(), metadataIndexPair.right);
     while (buffer.hasRemaining()) {
       try {
         timeseriesMetadataList.add(TimeseriesMetadata.deserializeFrom(buffer, true));
@@ -439,15 +437,10 @@ public class TsFileSequenceReader implements AutoCloseable {
     if (metadataIndexPair == null) {
       return null;
     }
-    ByteBuffer buffer = readData(metadataIndexPair.left.getOffset(), metadataIndexPair.right);
     MetadataIndexNode metadataIndexNode = deviceMetadataIndexNode;
     if (!metadataIndexNode.getNodeType().equals(MetadataIndexNodeType.LEAF_MEASUREMENT)) {
-      try {
-        metadataIndexNode = MetadataIndexNode.deserializeFrom(buffer);
-      } catch (BufferOverflowException e) {
-        logger.error(METADATA_INDEX_NODE_DESERIALIZE_ERROR, file);
-        throw e;
-      }
+      metadataIndexNode =
+          readMetadataIndexNode(metadataIndexPair.left.getOffset(), metadataIndexPair.right);
       metadataIndexPair =
           getMetadataAndEndOffset(metadataIndexNode, path.getMeasurement(), false, false);
     }
@@ -470,24 +463,19 @@ public class TsFileSequenceReader implements AutoCloseable {
       if (measurementsHadFound.contains(measurementList.get(i))) {
         continue;
       }
-      ByteBuffer buffer = readData(metadataIndexPair.left.getOffset(), metadataIndexPair.right);
       Pair<MetadataIndexEntry, Long> measurementMetadataIndexPair = metadataIndexPair;
       List<TimeseriesMetadata> timeseriesMetadataList = new ArrayList<>();
       MetadataIndexNode metadataIndexNode = deviceMetadataIndexNode;
       if (!metadataIndexNode.getNodeType().equals(MetadataIndexNodeType.LEAF_MEASUREMENT)) {
-        try {
-          metadataIndexNode = MetadataIndexNode.deserializeFrom(buffer);
-        } catch (BufferOverflowException e) {
-          logger.error(METADATA_INDEX_NODE_DESERIALIZE_ERROR, file);
-          throw e;
-        }
+        metadataIndexNode =
+            readMetadataIndexNode(metadataIndexPair.left.getOffset(), metadataIndexPair.right);
         measurementMetadataIndexPair =
             getMetadataAndEndOffset(metadataIndexNode, measurementList.get(i), false, false);
       }
       if (measurementMetadataIndexPair == null) {
         return Collections.emptyList();
       }
-      buffer =
+      ByteBuffer buffer =
           readData(
               measurementMetadataIndexPair.left.getOffset(), measurementMetadataIndexPair.right);
       while (buffer.hasRemaining()) {
@@ -771,9 +759,11 @@ public class TsFileSequenceReader implements AutoCloseable {
       } else {
         Pair<MetadataIndexEntry, Long> childIndexEntry =
             metadataIndex.getChildIndexEntry(name, false);
-        ByteBuffer buffer = readData(childIndexEntry.left.getOffset(), childIndexEntry.right);
         return getMetadataAndEndOffset(
-            MetadataIndexNode.deserializeFrom(buffer), name, isDeviceLevel, exactSearch);
+            readMetadataIndexNode(childIndexEntry.left.getOffset(), childIndexEntry.right),
+            name,
+            isDeviceLevel,
+            exactSearch);
       }
     } catch (BufferOverflowException e) {
       logger.error("Something error happened while deserializing MetadataIndex of file {}", file);
@@ -781,6 +771,32 @@ public class TsFileSequenceReader implements AutoCloseable {
     }
   }
 
+  /** read the MetadataIndexNode in [start, end) from the cache if there is one */
+  private MetadataIndexNode readMetadataIndexNode(long start, long end) throws IOException {
+    if (metadataIndexNodeCache != null) {
+      return metadataIndexNodeCache.get(this, start, end);
+    }
+    return readMetadataIndexNodeFromDisk(start, end);
+  }
+
+  public MetadataIndexNode readMetadataIndexNodeFromDisk(long start, long end) throws IOException {
+    ByteBuffer buffer = readData(start, end);
+    try {
+      return MetadataIndexNode.deserializeFrom(buffer);
+    } catch (BufferOverflowException e) {
+      logger.error(METADATA_INDEX_NODE_DESERIALIZE_ERROR, file);
+      throw e;
+    }
+  }
+
+  /**
+   * Set the cache shared by the readers of closed files. The nodes are cached by the file name and
+   * the offset, so the cache should be cleared when a file is removed or rewritten.
+   */
+  public void setMetadataIndexNodeCache(IMetadataIndexNodeCache metadataIndexNodeCache) {
+    this.metadataIndexNodeCache = metadataIndexNodeCache;
+  }
+
   /**
    * read data from current position of the input, and deserialize it to a CHUNK_GROUP_FOOTER. <br>
    * This method is not threadsafe.
@@ -80,7 +80,8 @@ public class BatchData {
   protected List<float[]> floatRet;
   protected List<double[]> doubleRet;
   protected List<Binary[]> binaryRet;
-  protected List<TsPrimitiveType[][]> vectorRet;
+  /** an element is null until the first vector is put, as the number of sub sensors is unknown */
+  protected List<VectorColumns> vectorRet;
 
   public BatchData() {
     dataType = null;
@@ -217,7 +218,7 @@ public class BatchData {
         break;
       case VECTOR:
         vectorRet = new ArrayList<>();
-        vectorRet.add(new TsPrimitiveType[capacity][]);
+        vectorRet.add(null);
         break;
       default:
         throw new UnSupportedDataTypeException(String.valueOf(dataType));
@@ -440,34 +441,59 @@ public class BatchData {
    * @param v vector data.
    */
   public void putVector(long t, TsPrimitiveType[] v) {
+    if (vectorRet.get(writeCurListIndex) == null) {
+      vectorRet.set(writeCurListIndex, new VectorColumns(v.length, capacity));
+    }
     if (writeCurArrayIndex == capacity) {
       if (capacity >= CAPACITY_THRESHOLD) {
         timeRet.add(new long[capacity]);
-        vectorRet.add(new TsPrimitiveType[capacity][]);
+        vectorRet.add(vectorRet.get(writeCurListIndex).newEmpty(capacity));
         writeCurListIndex++;
         writeCurArrayIndex = 0;
       } else {
         int newCapacity = capacity << 1;
 
         long[] newTimeData = new long[newCapacity];
-        TsPrimitiveType[][] newValueData = new TsPrimitiveType[newCapacity][];
-
         System.arraycopy(timeRet.get(0), 0, newTimeData, 0, capacity);
-        System.arraycopy(vectorRet.get(0), 0, newValueData, 0, capacity);
 
         timeRet.set(0, newTimeData);
-        vectorRet.set(0, newValueData);
+        vectorRet.set(0, vectorRet.get(0).copyOf(newCapacity));
 
         capacity = newCapacity;
       }
     }
     timeRet.get(writeCurListIndex)[writeCurArrayIndex] = t;
-    vectorRet.get(writeCurListIndex)[writeCurArrayIndex] = v;
+    vectorRet.get(writeCurListIndex).put(writeCurArrayIndex, v);
 
     writeCurArrayIndex++;
     count++;
   }
 
+  /**
+   * put the first "count" rows of the vectors in a page. If this batch is empty, the arrays are
+   * taken as they are instead of being copied, so they should not be modified by the caller later.
+   *
+   * @param times timestamps of the rows
+   * @param columns values of the rows
+   * @param count the number of rows
+   */
+  public void putVectors(long[] times, VectorColumns columns, int count) {
+    if (count == 0) {
+      return;
+    }
+    if (!isEmpty()) {
+      for (int i = 0; i < count; i++) {
+        putVector(times[i], columns.get(i));
+      }
+      return;
+    }
+    timeRet.set(0, times);
+    vectorRet.set(0, columns);
+    capacity = times.length;
+    writeCurArrayIndex = count;
+    this.count = count;
+  }
+
   public boolean getBoolean() {
     return this.booleanRet.get(readCurListIndex)[readCurArrayIndex];
   }
@@ -516,12 +542,21 @@ public class BatchData {
     this.binaryRet.get(readCurListIndex)[readCurArrayIndex] = v;
   }
 
+  /** @return the values of the current row, {@link #currentVectorColumns()} avoids boxing them */
   public TsPrimitiveType[] getVector() {
-    return this.vectorRet.get(readCurListIndex)[readCurArrayIndex];
+    return this.vectorRet.get(readCurListIndex).get(readCurArrayIndex);
   }
 
   public void setVector(TsPrimitiveType[] v) {
-    this.vectorRet.get(readCurListIndex)[readCurArrayIndex] = v;
+    this.vectorRet.get(readCurListIndex).put(readCurArrayIndex, v);
+  }
+
+  /**
+   * @return the columns where the current row is, the row is at {@link #getReadCurArrayIndex()} of
+   *     them
+   */
+  public VectorColumns currentVectorColumns() {
+    return this.vectorRet.get(readCurListIndex);
   }
 
   public void setTime(long v) {
@@ -595,7 +630,7 @@ public class BatchData {
   }
 
   public TsPrimitiveType[] getVectorByIndex(int idx) {
-    return vectorRet.get(idx / capacity)[idx % capacity];
+    return vectorRet.get(idx / capacity).get(idx % capacity);
   }
 
   public TimeValuePair getLastPairBeforeOrEqualTimestamp(long queryTime) {
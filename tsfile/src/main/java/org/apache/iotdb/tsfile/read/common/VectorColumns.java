@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.read.common;
+
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+/**
+ * The values of the sub sensors of an aligned timeseries in one array of a VECTOR {@link
+ * BatchData}. Each sub sensor is a column of a primitive array, and its bitmap marks the rows where
+ * it is null, so that the values can be read without creating one object per value.
+ */
+public class VectorColumns {
+
+  private final int capacity;
+  /** the type of a column is null before its first value is put if it is not given */
+  private final TSDataType[] dataTypes;
+  /** boolean[], int[], long[], float[], double[] or Binary[] of each column */
+  private final Object[] values;
+
+  private final BitMap[] bitMaps;
+
+  /** The type of each column is decided by its first value put by {@link #put}. */
+  public VectorColumns(int columnNum, int capacity) {
+    this(new TSDataType[columnNum], capacity);
+  }
+
+  public VectorColumns(TSDataType[] dataTypes, int capacity) {
+    this.capacity = capacity;
+    this.dataTypes = dataTypes.clone();
+    this.values = new Object[dataTypes.length];
+    this.bitMaps = new BitMap[dataTypes.length];
+    for (int i = 0; i < dataTypes.length; i++) {
+      if (dataTypes[i] != null) {
+        values[i] = createColumn(dataTypes[i], capacity);
+      }
+      bitMaps[i] = new BitMap(capacity);
+    }
+  }
+
+  private static Object createColumn(TSDataType dataType, int capacity) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new boolean[capacity];
+      case INT32:
+        return new int[capacity];
+      case INT64:
+        return new long[capacity];
+      case FLOAT:
+        return new float[capacity];
+      case DOUBLE:
+        return new double[capacity];
+      case TEXT:
+        return new Binary[capacity];
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public int getColumnNum() {
+    return dataTypes.length;
+  }
+
+  /** @return null if the column has not had any value */
+  public TSDataType getDataType(int column) {
+    return dataTypes[column];
+  }
+
+  /** @return an empty VectorColumns whose columns have the same types as this one */
+  public VectorColumns newEmpty(int capacity) {
+    return new VectorColumns(dataTypes, capacity);
+  }
+
+  /** @return a copy of this one with a larger capacity */
+  public VectorColumns copyOf(int newCapacity) {
+    VectorColumns copy = newEmpty(newCapacity);
+    for (int i = 0; i < dataTypes.length; i++) {
+      if (values[i] != null) {
+        System.arraycopy(values[i], 0, copy.values[i], 0, capacity);
+      }
+      System.arraycopy(
+          bitMaps[i].getByteArray(),
+          0,
+          copy.bitMaps[i].getByteArray(),
+          0,
+          bitMaps[i].getByteArray().length);
+    }
+    return copy;
+  }
+
+  public boolean isNull(int column, int row) {
+    return bitMaps[column].isMarked(row);
+  }
+
+  public void setNull(int column, int row) {
+    bitMaps[column].mark(row);
+  }
+
+  public boolean getBoolean(int column, int row) {
+    return ((boolean[]) values[column])[row];
+  }
+
+  public int getInt(int column, int row) {
+    return ((int[]) values[column])[row];
+  }
+
+  public long getLong(int column, int row) {
+    return ((long[]) values[column])[row];
+  }
+
+  public float getFloat(int column, int row) {
+    return ((float[]) values[column])[row];
+  }
+
+  public double getDouble(int column, int row) {
+    return ((double[]) values[column])[row];
+  }
+
+  public Binary getBinary(int column, int row) {
+    return ((Binary[]) values[column])[row];
+  }
+
+  /** @return the boxed value, or null if the sub sensor is null in the row */
+  public Object getValue(int column, int row) {
+    if (bitMaps[column].isMarked(row)) {
+      return null;
+    }
+    switch (dataTypes[column]) {
+      case BOOLEAN:
+        return getBoolean(column, row);
+      case INT32:
+        return getInt(column, row);
+      case INT64:
+        return getLong(column, row);
+      case FLOAT:
+        return getFloat(column, row);
+      case DOUBLE:
+        return getDouble(column, row);
+      case TEXT:
+        return getBinary(column, row);
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataTypes[column]));
+    }
+  }
+
+  public void putBoolean(int column, int row, boolean v) {
+    ((boolean[]) values[column])[row] = v;
+    bitMaps[column].unmark(row);
+  }
+
+  public void putInt(int column, int row, int v) {
+    ((int[]) values[column])[row] = v;
+    bitMaps[column].unmark(row);
+  }
+
+  public void putLong(int column, int row, long v) {
+    ((long[]) values[column])[row] = v;
+    bitMaps[column].unmark(row);
+  }
+
+  public void putFloat(int column, int row, float v) {
+    ((float[]) values[column])[row] = v;
+    bitMaps[column].unmark(row);
+  }
+
+  public void putDouble(int column, int row, double v) {
+    ((double[]) values[column])[row] = v;
+    bitMaps[column].unmark(row);
+  }
+
+  public void putBinary(int column, int row, Binary v) {
+    ((Binary[]) values[column])[row] = v;
+    bitMaps[column].unmark(row);
+  }
+
+  /** Put the values of a row, a null element means the sub sensor is null in the row. */
+  public void put(int row, TsPrimitiveType[] v) {
+    for (int i = 0; i < dataTypes.length; i++) {
+      if (v[i] == null) {
+        bitMaps[i].mark(row);
+        continue;
+      }
+      if (dataTypes[i] == null) {
+        dataTypes[i] = v[i].getDataType();
+        values[i] = createColumn(dataTypes[i], capacity);
+      }
+      switch (dataTypes[i]) {
+        case BOOLEAN:
+          putBoolean(i, row, v[i].getBoolean());
+          break;
+        case INT32:
+          putInt(i, row, v[i].getInt());
+          break;
+        case INT64:
+          putLong(i, row, v[i].getLong());
+          break;
+        case FLOAT:
+          putFloat(i, row, v[i].getFloat());
+          break;
+        case DOUBLE:
+          putDouble(i, row, v[i].getDouble());
+          break;
+        case TEXT:
+          putBinary(i, row, v[i].getBinary());
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataTypes[i]));
+      }
+    }
+  }
+
+  /** @return the values of a row as objects, a null element means the sub sensor is null */
+  public TsPrimitiveType[] get(int row) {
+    TsPrimitiveType[] v = new TsPrimitiveType[dataTypes.length];
+    for (int i = 0; i < dataTypes.length; i++) {
+      if (bitMaps[i].isMarked(row)) {
+        continue;
+      }
+      switch (dataTypes[i]) {
+        case BOOLEAN:
+          v[i] = new TsPrimitiveType.TsBoolean(getBoolean(i, row));
+          break;
+        case INT32:
+          v[i] = new TsPrimitiveType.TsInt(getInt(i, row));
+          break;
+        case INT64:
+          v[i] = new TsPrimitiveType.TsLong(getLong(i, row));
+          break;
+        case FLOAT:
+          v[i] = new TsPrimitiveType.TsFloat(getFloat(i, row));
+          break;
+        case DOUBLE:
+          v[i] = new TsPrimitiveType.TsDouble(getDouble(i, row));
+          break;
+        case TEXT:
+          v[i] = new TsPrimitiveType.TsBinary(getBinary(i, row));
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataTypes[i]));
+      }
+    }
+    return v;
+  }
+
+  /** Copy a row to another row, which is used to remove the rows that are filtered out. */
+  public void moveRow(int from, int to) {
+    for (int i = 0; i < dataTypes.length; i++) {
+      if (bitMaps[i].isMarked(from)) {
+        bitMaps[i].mark(to);
+        continue;
+      }
+      bitMaps[i].unmark(to);
+      switch (dataTypes[i]) {
+        case BOOLEAN:
+          ((boolean[]) values[i])[to] = getBoolean(i, from);
+          break;
+        case INT32:
+          ((int[]) values[i])[to] = getInt(i, from);
+          break;
+        case INT64:
+          ((long[]) values[i])[to] = getLong(i, from);
+          break;
+        case FLOAT:
+          ((float[]) values[i])[to] = getFloat(i, from);
+          break;
+        case DOUBLE:
+          ((double[]) values[i])[to] = getDouble(i, from);
+          break;
+        case TEXT:
+          ((Binary[]) values[i])[to] = getBinary(i, from);
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataTypes[i]));
+      }
+    }
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.read.controller;
+
+import org.apache.iotdb.tsfile.file.metadata.MetadataIndexNode;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+
+import java.io.IOException;
+
+/**
+ * A cache of deserialized MetadataIndexNodes, which may be shared by the readers of many files, so
+ * that the internal levels of the metadata index are not read and deserialized again and again.
+ */
+public interface IMetadataIndexNodeCache {
+
+  /**
+   * @return the MetadataIndexNode serialized in [start, end) of the file of the reader, which is
+   *     loaded by {@link TsFileSequenceReader#readMetadataIndexNodeFromDisk(long, long)} if it is
+   *     not cached
+   */
+  MetadataIndexNode get(TsFileSequenceReader reader, long start, long end) throws IOException;
+}
@@ -26,6 +26,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.BitSet;
 import java.util.Objects;
 
 public class GroupByFilter implements Filter, Serializable {
@@ -56,6 +57,16 @@ public class GroupByFilter implements Filter, Serializable {
     else return (time - startTime) % slidingStep < interval;
   }
 
+  @Override
+  public void satisfyBatch(long[] times, Object values, int length, BitSet selection) {
+    // only the times are examined, so the values are never boxed
+    for (int i = selection.nextSetBit(0); i >= 0 && i < length; i = selection.nextSetBit(i + 1)) {
+      if (!satisfy(times[i], null)) {
+        selection.clear(i);
+      }
+    }
+  }
+
   @Override
   public boolean satisfyStartEndTime(long startTime, long endTime) {
     if (endTime < this.startTime || startTime >= this.endTime) return false;
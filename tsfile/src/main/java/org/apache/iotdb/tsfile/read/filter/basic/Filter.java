@@ -22,7 +22,9 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
 
 import java.io.DataOutputStream;
+import java.lang.reflect.Array;
 import java.nio.ByteBuffer;
+import java.util.BitSet;
 
 /** Filter is a top level filter abstraction. */
 public interface Filter {
@@ -42,6 +44,25 @@ public interface Filter {
    */
   boolean satisfy(long time, Object value);
 
+  /**
+   * To examine a batch of points, the points that are not satisfied with the filter are cleared
+   * from the selection. Filters on times or primitive values should override it to avoid boxing
+   * each value and calling satisfy(long, Object) for each point.
+   *
+   * @param times times of the points
+   * @param values values of the points, which is a boolean[], int[], long[], float[], double[] or
+   *     Binary[] according to the data type
+   * @param length number of points in the arrays
+   * @param selection the points to be examined
+   */
+  default void satisfyBatch(long[] times, Object values, int length, BitSet selection) {
+    for (int i = selection.nextSetBit(0); i >= 0 && i < length; i = selection.nextSetBit(i + 1)) {
+      if (!satisfy(times[i], Array.get(values, i))) {
+        selection.clear(i);
+      }
+    }
+  }
+
   /**
    * To examine whether the min time and max time are satisfied with the filter.
    *
@@ -25,6 +25,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.BitSet;
 import java.util.Objects;
 
 /**
@@ -58,6 +59,69 @@ public abstract class UnaryFilter<T extends Comparable<T>> implements Filter, Se
     return filterType;
   }
 
+  /**
+   * @param comparison the result of comparing the time or value of a point with the value of the
+   *     filter, i.e., a negative integer, zero, or a positive integer as the former is less than,
+   *     equal to, or greater than the latter
+   * @return whether the point is satisfied with the filter
+   */
+  protected abstract boolean satisfyComparison(int comparison);
+
+  @Override
+  public void satisfyBatch(long[] times, Object values, int length, BitSet selection) {
+    if (filterType == FilterType.TIME_FILTER && value instanceof Long) {
+      long v = (Long) value;
+      for (int i = selection.nextSetBit(0); i >= 0 && i < length; i = selection.nextSetBit(i + 1)) {
+        if (!satisfyComparison(Long.compare(times[i], v))) {
+          selection.clear(i);
+        }
+      }
+    } else if (filterType == FilterType.VALUE_FILTER
+        && values instanceof int[]
+        && value instanceof Integer) {
+      int[] ints = (int[]) values;
+      int v = (Integer) value;
+      for (int i = selection.nextSetBit(0); i >= 0 && i < length; i = selection.nextSetBit(i + 1)) {
+        if (!satisfyComparison(Integer.compare(ints[i], v))) {
+          selection.clear(i);
+        }
+      }
+    } else if (filterType == FilterType.VALUE_FILTER
+        && values instanceof long[]
+        && value instanceof Long) {
+      long[] longs = (long[]) values;
+      long v = (Long) value;
+      for (int i = selection.nextSetBit(0); i >= 0 && i < length; i = selection.nextSetBit(i + 1)) {
+        if (!satisfyComparison(Long.compare(longs[i], v))) {
+          selection.clear(i);
+        }
+      }
+    } else if (filterType == FilterType.VALUE_FILTER
+        && values instanceof float[]
+        && value instanceof Float) {
+      float[] floats = (float[]) values;
+      float v = (Float) value;
+      for (int i = selection.nextSetBit(0); i >= 0 && i < length; i = selection.nextSetBit(i + 1)) {
+        if (!satisfyComparison(Float.compare(floats[i], v))) {
+          selection.clear(i);
+        }
+      }
+    } else if (filterType == FilterType.VALUE_FILTER
+        && values instanceof double[]
+        && value instanceof Double) {
+      double[] doubles = (double[]) values;
+      double v = (Double) value;
+      for (int i = selection.nextSetBit(0); i >= 0 && i < length; i = selection.nextSetBit(i + 1)) {
+        if (!satisfyComparison(Double.compare(doubles[i], v))) {
+          selection.clear(i);
+        }
+      }
+    } else {
+      // e.g., TEXT or BOOLEAN values, or a value whose type differs from the series
+      Filter.super.satisfyBatch(times, values, length, selection);
+    }
+  }
+
   @Override
   public abstract String toString();
 
@@ -23,6 +23,8 @@ import org.apache.iotdb.tsfile.read.filter.basic.BinaryFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
 
+import java.util.BitSet;
+
 /** Both the left and right operators of AndExpression must satisfy the condition. */
 public class AndFilter extends BinaryFilter {
 
@@ -44,6 +46,12 @@ public class AndFilter extends BinaryFilter {
     return left.satisfy(time, value) && right.satisfy(time, value);
   }
 
+  @Override
+  public void satisfyBatch(long[] times, Object values, int length, BitSet selection) {
+    left.satisfyBatch(times, values, length, selection);
+    right.satisfyBatch(times, values, length, selection);
+  }
+
   @Override
   public boolean satisfyStartEndTime(long startTime, long endTime) {
     return left.satisfyStartEndTime(startTime, endTime)
@@ -58,6 +58,11 @@ public class LtEq<T extends Comparable<T>> extends UnaryFilter<T> {
     return this.value.compareTo((T) v) >= 0;
   }
 
+  @Override
+  protected boolean satisfyComparison(int comparison) {
+    return comparison <= 0;
+  }
+
   @Override
   public boolean satisfyStartEndTime(long startTime, long endTime) {
     if (filterType == FilterType.TIME_FILTER) {
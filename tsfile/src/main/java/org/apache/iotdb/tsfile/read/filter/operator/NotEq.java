@@ -60,6 +60,11 @@ public class NotEq<T extends Comparable<T>> extends UnaryFilter<T> {
     return !this.value.equals(v);
   }
 
+  @Override
+  protected boolean satisfyComparison(int comparison) {
+    return comparison != 0;
+  }
+
   @Override
   public boolean satisfyStartEndTime(long startTime, long endTime) {
     if (filterType == FilterType.TIME_FILTER) {
@@ -27,6 +27,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.BitSet;
 import java.util.Objects;
 
 /** NotFilter necessary. Use InvertExpressionVisitor */
@@ -51,6 +52,13 @@ public class NotFilter implements Filter, Serializable {
     return !that.satisfy(time, value);
   }
 
+  @Override
+  public void satisfyBatch(long[] times, Object values, int length, BitSet selection) {
+    BitSet satisfied = (BitSet) selection.clone();
+    that.satisfyBatch(times, values, length, satisfied);
+    selection.andNot(satisfied);
+  }
+
   /**
    * Notice that, if the not filter only contains value filter, this method may return false, this
    * may cause misunderstanding.
@@ -24,6 +24,7 @@ import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
 
 import java.io.Serializable;
+import java.util.BitSet;
 
 /** Either of the left and right operators of AndExpression must satisfy the condition. */
 public class OrFilter extends BinaryFilter implements Serializable {
@@ -56,6 +57,16 @@ public class OrFilter extends BinaryFilter implements Serializable {
     return left.satisfy(time, value) || right.satisfy(time, value);
   }
 
+  @Override
+  public void satisfyBatch(long[] times, Object values, int length, BitSet selection) {
+    BitSet leftSelection = (BitSet) selection.clone();
+    left.satisfyBatch(times, values, length, leftSelection);
+    // only the points not satisfied with the left filter are examined by the right filter
+    selection.andNot(leftSelection);
+    right.satisfyBatch(times, values, length, selection);
+    selection.or(leftSelection);
+  }
+
   @Override
   public boolean satisfyStartEndTime(long startTime, long endTime) {
     return left.satisfyStartEndTime(startTime, endTime)
@@ -34,6 +34,7 @@ import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.BitSet;
 import java.util.List;
 
 public class PageReader implements IPageReader {
@@ -61,6 +62,9 @@ public class PageReader implements IPageReader {
 
   private int deleteCursor = 0;
 
+  /** number of points decoded and examined by the filter at once */
+  private static final int FILTER_BATCH_SIZE = 1024;
+
   public PageReader(
       ByteBuffer pageData,
       TSDataType dataType,
@@ -106,6 +110,9 @@ public class PageReader implements IPageReader {
   public BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
 
     BatchData pageData = BatchDataFactory.createBatchData(dataType, ascending, false);
+    if (filter != null && dataType != TSDataType.BOOLEAN && dataType != TSDataType.TEXT) {
+      return getAllSatisfiedPageDataInBatches(pageData);
+    }
 
     while (timeDecoder.hasNext(timeBuffer)) {
       long timestamp = timeDecoder.readLong(timeBuffer);
@@ -153,6 +160,115 @@ public class PageReader implements IPageReader {
     return pageData.flip();
   }
 
+  /**
+   * Decode the points of a numeric page in batches and examine each batch with the filter at once,
+   * so that the values are not boxed one by one.
+   */
+  private BatchData getAllSatisfiedPageDataInBatches(BatchData pageData) throws IOException {
+    long[] times = new long[FILTER_BATCH_SIZE];
+    Object values;
+    switch (dataType) {
+      case INT32:
+        values = new int[FILTER_BATCH_SIZE];
+        break;
+      case INT64:
+        values = new long[FILTER_BATCH_SIZE];
+        break;
+      case FLOAT:
+        values = new float[FILTER_BATCH_SIZE];
+        break;
+      case DOUBLE:
+        values = new double[FILTER_BATCH_SIZE];
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    BitSet selection = new BitSet(FILTER_BATCH_SIZE);
+
+    int length;
+    while ((length = decodeBatch(times, values)) > 0) {
+      selection.clear();
+      selection.set(0, length);
+      for (int i = 0; i < length; i++) {
+        if (isDeleted(times[i])) {
+          selection.clear(i);
+        }
+      }
+      filter.satisfyBatch(times, values, length, selection);
+      putBatch(pageData, times, values, selection);
+    }
+    return pageData.flip();
+  }
+
+  /** @return the number of decoded points, which is 0 if the page is exhausted */
+  private int decodeBatch(long[] times, Object values) throws IOException {
+    int length = 0;
+    switch (dataType) {
+      case INT32:
+        int[] ints = (int[]) values;
+        while (length < times.length && timeDecoder.hasNext(timeBuffer)) {
+          times[length] = timeDecoder.readLong(timeBuffer);
+          ints[length++] = valueDecoder.readInt(valueBuffer);
+        }
+        break;
+      case INT64:
+        long[] longs = (long[]) values;
+        while (length < times.length && timeDecoder.hasNext(timeBuffer)) {
+          times[length] = timeDecoder.readLong(timeBuffer);
+          longs[length++] = valueDecoder.readLong(valueBuffer);
+        }
+        break;
+      case FLOAT:
+        float[] floats = (float[]) values;
+        while (length < times.length && timeDecoder.hasNext(timeBuffer)) {
+          times[length] = timeDecoder.readLong(timeBuffer);
+          floats[length++] = valueDecoder.readFloat(valueBuffer);
+        }
+        break;
+      case DOUBLE:
+        double[] doubles = (double[]) values;
+        while (length < times.length && timeDecoder.hasNext(timeBuffer)) {
+          times[length] = timeDecoder.readLong(timeBuffer);
+          doubles[length++] = valueDecoder.readDouble(valueBuffer);
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    return length;
+  }
+
+  private void putBatch(BatchData pageData, long[] times, Object values, BitSet selection) {
+    switch (dataType) {
+      case INT32:
+        int[] ints = (int[]) values;
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+          pageData.putInt(times[i], ints[i]);
+        }
+        break;
+      case INT64:
+        long[] longs = (long[]) values;
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+          pageData.putLong(times[i], longs[i]);
+        }
+        break;
+      case FLOAT:
+        float[] floats = (float[]) values;
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+          pageData.putFloat(times[i], floats[i]);
+        }
+        break;
+      case DOUBLE:
+        double[] doubles = (double[]) values;
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+          pageData.putDouble(times[i], doubles[i]);
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
   @Override
   public Statistics getStatistics() {
     return pageHeader.getStatistics();
@@ -26,6 +26,7 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.VectorColumns;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
@@ -191,6 +192,73 @@ public class ValuePageReader {
     return valueBatch;
   }
 
+  /**
+   * decode the values of the corresponding time into a column of {@code columns}, the rows where
+   * this sub sensor doesn't have a value are set to null
+   */
+  public void nextValueColumn(long[] timeBatch, VectorColumns columns, int column) {
+    for (int i = 0; i < timeBatch.length; i++) {
+      if (valueBuffer == null
+          || i >= size
+          || ((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
+        columns.setNull(column, i);
+        continue;
+      }
+      switch (dataType) {
+        case BOOLEAN:
+          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          if (!isDeleted(timeBatch[i])) {
+            columns.putBoolean(column, i, aBoolean);
+          } else {
+            columns.setNull(column, i);
+          }
+          break;
+        case INT32:
+          int anInt = valueDecoder.readInt(valueBuffer);
+          if (!isDeleted(timeBatch[i])) {
+            columns.putInt(column, i, anInt);
+          } else {
+            columns.setNull(column, i);
+          }
+          break;
+        case INT64:
+          long aLong = valueDecoder.readLong(valueBuffer);
+          if (!isDeleted(timeBatch[i])) {
+            columns.putLong(column, i, aLong);
+          } else {
+            columns.setNull(column, i);
+          }
+          break;
+        case FLOAT:
+          float aFloat = valueDecoder.readFloat(valueBuffer);
+          if (!isDeleted(timeBatch[i])) {
+            columns.putFloat(column, i, aFloat);
+          } else {
+            columns.setNull(column, i);
+          }
+          break;
+        case DOUBLE:
+          double aDouble = valueDecoder.readDouble(valueBuffer);
+          if (!isDeleted(timeBatch[i])) {
+            columns.putDouble(column, i, aDouble);
+          } else {
+            columns.setNull(column, i);
+          }
+          break;
+        case TEXT:
+          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          if (!isDeleted(timeBatch[i])) {
+            columns.putBinary(column, i, aBinary);
+          } else {
+            columns.setNull(column, i);
+          }
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      }
+    }
+  }
+
   public Statistics getStatistics() {
     return pageHeader.getStatistics();
   }
@@ -25,9 +25,9 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.VectorColumns;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
-import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -77,31 +77,43 @@ public class VectorPageReader implements IPageReader {
       return valuePageReaderList.get(0).nextBatch(timeBatch, ascending, filter);
     }
 
-    // if the vector contains more than on sub sensor, the BatchData's DataType is Vector
-    List<TsPrimitiveType[]> valueBatchList = new ArrayList<>(valueCount);
-    for (ValuePageReader valuePageReader : valuePageReaderList) {
-      valueBatchList.add(valuePageReader.nextValueBatch(timeBatch));
+    // if the vector contains more than one sub sensor, the BatchData's DataType is Vector, whose
+    // values are decoded column by column
+    TSDataType[] dataTypes = new TSDataType[valueCount];
+    for (int i = 0; i < valueCount; i++) {
+      dataTypes[i] = valuePageReaderList.get(i).getDataType();
     }
-    BatchData pageData = BatchDataFactory.createBatchData(TSDataType.VECTOR, ascending, false);
-    boolean isNull;
+    VectorColumns columns = new VectorColumns(dataTypes, timeBatch.length);
+    for (int i = 0; i < valueCount; i++) {
+      valuePageReaderList.get(i).nextValueColumn(timeBatch, columns, i);
+    }
+    // if all the sub sensors' value are null in current time
+    // or current row is not satisfied with the filter, just discard it
+    int count = 0;
     for (int i = 0; i < timeBatch.length; i++) {
-      // used to record whether the sub sensors are all null in current time
-      isNull = true;
-      TsPrimitiveType[] v = new TsPrimitiveType[valueCount];
-      for (int j = 0; j < v.length; j++) {
-        v[j] = valueBatchList.get(j)[i];
-        if (v[j] != null) {
-          isNull = false;
-        }
+      // like the row-based reading before, the value of the first sub sensor is filtered
+      if (isAllNull(columns, i)
+          || (filter != null && !filter.satisfy(timeBatch[i], columns.getValue(0, i)))) {
+        continue;
+      }
+      if (count != i) {
+        timeBatch[count] = timeBatch[i];
+        columns.moveRow(i, count);
       }
-      // if all the sub sensors' value are null in current time
-      // or current row is not satisfied with the filter, just discard it
-      // TODO fix value filter v[0].getValue()
-      if (!isNull && (filter == null || filter.satisfy(timeBatch[i], v[0].getValue()))) {
-        pageData.putVector(timeBatch[i], v);
+      count++;
+    }
+    BatchData pageData = BatchDataFactory.createBatchData(TSDataType.VECTOR, ascending, false);
+    pageData.putVectors(timeBatch, columns, count);
+    return pageData.flip();
+  }
+
+  private boolean isAllNull(VectorColumns columns, int row) {
+    for (int i = 0; i < valueCount; i++) {
+      if (!columns.isNull(i, row)) {
+        return false;
       }
     }
-    return pageData;
+    return true;
   }
 
   public void setDeleteIntervalList(List<List<TimeRange>> list) {
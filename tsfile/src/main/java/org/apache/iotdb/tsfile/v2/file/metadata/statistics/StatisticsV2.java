@@ -37,6 +37,8 @@ public class StatisticsV2 {
   public static Statistics deserialize(InputStream inputStream, TSDataType dataType)
       throws IOException {
     Statistics<?> statistics = Statistics.getStatsByType(dataType);
+    // v2 files store no sketch, an empty one would be taken as the sketch of all the values
+    statistics.setSketch(null);
     statistics.setCount((int) ReadWriteIOUtils.readLong(inputStream));
     statistics.setStartTime(ReadWriteIOUtils.readLong(inputStream));
     statistics.setEndTime(ReadWriteIOUtils.readLong(inputStream));
@@ -71,6 +73,8 @@ public class StatisticsV2 {
   @SuppressWarnings("rawtypes")
   public static Statistics deserialize(ByteBuffer buffer, TSDataType dataType) {
     Statistics<?> statistics = Statistics.getStatsByType(dataType);
+    // v2 files store no sketch, an empty one would be taken as the sketch of all the values
+    statistics.setSketch(null);
     statistics.setCount((int) ReadWriteIOUtils.readLong(buffer));
     statistics.setStartTime(ReadWriteIOUtils.readLong(buffer));
     statistics.setEndTime(ReadWriteIOUtils.readLong(buffer));
@@ -20,11 +20,13 @@ package org.apache.iotdb.tsfile.write.chunk;
 
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.encoding.encoder.EncodingSelector;
 import org.apache.iotdb.tsfile.encoding.encoder.SDTEncoder;
 import org.apache.iotdb.tsfile.exception.write.PageException;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
@@ -91,6 +93,9 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   private Statistics<?> firstPageStatistics;
 
+  /** the value encoding of this chunk chosen by the pageWriter if the schema uses AUTO */
+  private TSEncoding chunkEncoding;
+
   /** @param schema schema of this measurement */
   public ChunkWriterImpl(IMeasurementSchema schema) {
     this.measurementSchema = schema;
@@ -110,6 +115,10 @@ public class ChunkWriterImpl implements IChunkWriter {
 
     this.pageWriter.setTimeEncoder(measurementSchema.getTimeEncoder());
     this.pageWriter.setValueEncoder(measurementSchema.getValueEncoder());
+    if (measurementSchema.getEncodingType() == TSEncoding.AUTO) {
+      // the encoding of each chunk is chosen when its first page is sealed
+      this.pageWriter.enableAutoEncoding(measurementSchema.getType());
+    }
 
     // check if the measurement schema uses SDT
     checkSdtEncoding();
@@ -299,6 +308,7 @@ public class ChunkWriterImpl implements IChunkWriter {
       if (numOfPages == 0) { // record the firstPageStatistics
         this.firstPageStatistics = pageWriter.getStatistics();
         this.sizeWithoutStatistic = pageWriter.writePageHeaderAndDataIntoBuff(pageBuffer, true);
+        this.chunkEncoding = pageWriter.getValueEncoding();
       } else if (numOfPages == 1) { // put the firstPageStatistics into pageBuffer
         byte[] b = pageBuffer.toByteArray();
         pageBuffer.reset();
@@ -328,6 +338,10 @@ public class ChunkWriterImpl implements IChunkWriter {
     writeAllPagesOfChunkToTsFile(tsfileWriter, statistics);
 
     // reinit this chunk writer
+    if (pageWriter != null) {
+      pageWriter.resetValueEncoding();
+    }
+    chunkEncoding = null;
     pageBuffer.reset();
     numOfPages = 0;
     firstPageStatistics = null;
@@ -428,7 +442,7 @@ public class ChunkWriterImpl implements IChunkWriter {
         measurementSchema.getMeasurementId(),
         compressor.getType(),
         measurementSchema.getType(),
-        measurementSchema.getEncodingType(),
+        getChunkEncoding(),
         statistics,
         pageBuffer.size(),
         numOfPages,
@@ -452,6 +466,17 @@ public class ChunkWriterImpl implements IChunkWriter {
     writer.endCurrentChunk();
   }
 
+  private TSEncoding getChunkEncoding() {
+    TSEncoding encoding = measurementSchema.getEncodingType();
+    if (encoding != TSEncoding.AUTO) {
+      return encoding;
+    }
+    // the pages are written by writePageHeaderAndDataIntoBuff() with the default encoder
+    return chunkEncoding != null
+        ? chunkEncoding
+        : EncodingSelector.getDefaultEncoding(measurementSchema.getType());
+  }
+
   public void setIsMerging(boolean isMerging) {
     this.isMerging = isMerging;
   }
@@ -19,6 +19,7 @@
 package org.apache.iotdb.tsfile.write.chunk;
 
 import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.EncodingSelector;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -56,7 +57,7 @@ public class VectorChunkWriterImpl implements IChunkWriter {
               valueMeasurementIdList.get(i),
               schema.getCompressor(),
               valueTSDataTypeList.get(i),
-              valueTSEncodingList.get(i),
+              resolveEncoding(valueTSEncodingList.get(i), valueTSDataTypeList.get(i)),
               valueEncoderList.get(i)));
     }
 
@@ -182,6 +183,14 @@ public class VectorChunkWriterImpl implements IChunkWriter {
     }
   }
 
+  /**
+   * The encodings of aligned series are not chosen per chunk, AUTO uses the default encoding of the
+   * data type, which is also the one of the encoder got from the schema.
+   */
+  private static TSEncoding resolveEncoding(TSEncoding encoding, TSDataType dataType) {
+    return encoding == TSEncoding.AUTO ? EncodingSelector.getDefaultEncoding(dataType) : encoding;
+  }
+
   @Override
   public void clearPageWriter() {
     timeChunkWriter.clearPageWriter();
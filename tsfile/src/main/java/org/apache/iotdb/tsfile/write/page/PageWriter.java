@@ -20,8 +20,11 @@ package org.apache.iotdb.tsfile.write.page;
 
 import org.apache.iotdb.tsfile.compress.ICompressor;
 import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.EncodingSelector;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
@@ -52,6 +55,10 @@ public class PageWriter {
   // value
   private Encoder valueEncoder;
   private PublicBAOS valueOut;
+  // not null if the value encoding is chosen by sampling the first values of each chunk
+  private EncodingSelector encodingSelector;
+  private TSEncoding valueEncoding;
+  private TSDataType dataType;
 
   /**
    * statistic of current page. It will be reset after calling {@code
@@ -79,7 +86,7 @@ public class PageWriter {
   /** write a time value pair into encoder */
   public void write(long time, boolean value) {
     timeEncoder.encode(time, timeOut);
-    valueEncoder.encode(value, valueOut);
+    encodeValue(value);
     statistics.update(time, value);
   }
 
@@ -93,35 +100,35 @@ public class PageWriter {
   /** write a time value pair into encoder */
   public void write(long time, int value) {
     timeEncoder.encode(time, timeOut);
-    valueEncoder.encode(value, valueOut);
+    encodeValue(value);
     statistics.update(time, value);
   }
 
   /** write a time value pair into encoder */
   public void write(long time, long value) {
     timeEncoder.encode(time, timeOut);
-    valueEncoder.encode(value, valueOut);
+    encodeValue(value);
     statistics.update(time, value);
   }
 
   /** write a time value pair into encoder */
   public void write(long time, float value) {
     timeEncoder.encode(time, timeOut);
-    valueEncoder.encode(value, valueOut);
+    encodeValue(value);
     statistics.update(time, value);
   }
 
   /** write a time value pair into encoder */
   public void write(long time, double value) {
     timeEncoder.encode(time, timeOut);
-    valueEncoder.encode(value, valueOut);
+    encodeValue(value);
     statistics.update(time, value);
   }
 
   /** write a time value pair into encoder */
   public void write(long time, Binary value) {
     timeEncoder.encode(time, timeOut);
-    valueEncoder.encode(value, valueOut);
+    encodeValue(value);
     statistics.update(time, value);
   }
 
@@ -129,7 +136,7 @@ public class PageWriter {
   public void write(long[] timestamps, boolean[] values, int batchSize) {
     for (int i = 0; i < batchSize; i++) {
       timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+      encodeValue(values[i]);
     }
     statistics.update(timestamps, values, batchSize);
   }
@@ -138,7 +145,7 @@ public class PageWriter {
   public void write(long[] timestamps, int[] values, int batchSize) {
     for (int i = 0; i < batchSize; i++) {
       timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+      encodeValue(values[i]);
     }
     statistics.update(timestamps, values, batchSize);
   }
@@ -147,7 +154,7 @@ public class PageWriter {
   public void write(long[] timestamps, long[] values, int batchSize) {
     for (int i = 0; i < batchSize; i++) {
       timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+      encodeValue(values[i]);
     }
     statistics.update(timestamps, values, batchSize);
   }
@@ -156,7 +163,7 @@ public class PageWriter {
   public void write(long[] timestamps, float[] values, int batchSize) {
     for (int i = 0; i < batchSize; i++) {
       timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+      encodeValue(values[i]);
     }
     statistics.update(timestamps, values, batchSize);
   }
@@ -165,7 +172,7 @@ public class PageWriter {
   public void write(long[] timestamps, double[] values, int batchSize) {
     for (int i = 0; i < batchSize; i++) {
       timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+      encodeValue(values[i]);
     }
     statistics.update(timestamps, values, batchSize);
   }
@@ -174,13 +181,89 @@ public class PageWriter {
   public void write(long[] timestamps, Binary[] values, int batchSize) {
     for (int i = 0; i < batchSize; i++) {
       timeEncoder.encode(timestamps[i], timeOut);
-      valueEncoder.encode(values[i], valueOut);
+      encodeValue(values[i]);
     }
     statistics.update(timestamps, values, batchSize);
   }
 
+  private void encodeValue(boolean value) {
+    if (encodingSelector != null && encodingSelector.isSampling()) {
+      encodingSelector.add(value);
+      if (encodingSelector.isFull()) {
+        selectValueEncoder();
+      }
+    } else {
+      valueEncoder.encode(value, valueOut);
+    }
+  }
+
+  private void encodeValue(int value) {
+    if (encodingSelector != null && encodingSelector.isSampling()) {
+      encodingSelector.add(value);
+      if (encodingSelector.isFull()) {
+        selectValueEncoder();
+      }
+    } else {
+      valueEncoder.encode(value, valueOut);
+    }
+  }
+
+  private void encodeValue(long value) {
+    if (encodingSelector != null && encodingSelector.isSampling()) {
+      encodingSelector.add(value);
+      if (encodingSelector.isFull()) {
+        selectValueEncoder();
+      }
+    } else {
+      valueEncoder.encode(value, valueOut);
+    }
+  }
+
+  private void encodeValue(float value) {
+    if (encodingSelector != null && encodingSelector.isSampling()) {
+      encodingSelector.add(value);
+      if (encodingSelector.isFull()) {
+        selectValueEncoder();
+      }
+    } else {
+      valueEncoder.encode(value, valueOut);
+    }
+  }
+
+  private void encodeValue(double value) {
+    if (encodingSelector != null && encodingSelector.isSampling()) {
+      encodingSelector.add(value);
+      if (encodingSelector.isFull()) {
+        selectValueEncoder();
+      }
+    } else {
+      valueEncoder.encode(value, valueOut);
+    }
+  }
+
+  private void encodeValue(Binary value) {
+    if (encodingSelector != null && encodingSelector.isSampling()) {
+      encodingSelector.add(value);
+      if (encodingSelector.isFull()) {
+        selectValueEncoder();
+      }
+    } else {
+      valueEncoder.encode(value, valueOut);
+    }
+  }
+
+  /** Choose the value encoding with the sampled values and encode them with it. */
+  private void selectValueEncoder() {
+    valueEncoding = encodingSelector.select();
+    valueEncoder = TSEncodingBuilder.getEncodingBuilder(valueEncoding).getEncoder(dataType);
+    encodingSelector.finish(valueEncoder, valueOut);
+  }
+
   /** flush all data remained in encoders. */
   private void prepareEndWriteOnePage() throws IOException {
+    if (encodingSelector != null && encodingSelector.isSampling()) {
+      selectValueEncoder();
+    }
     timeEncoder.flush(timeOut);
     valueEncoder.flush(valueOut);
   }
@@ -259,7 +342,8 @@ public class PageWriter {
     return timeOut.size()
         + valueOut.size()
         + timeEncoder.getMaxByteSize()
-        + valueEncoder.getMaxByteSize();
+        + valueEncoder.getMaxByteSize()
+        + (encodingSelector == null ? 0 : encodingSelector.getSampleMemSize());
   }
 
   /** reset this page */
@@ -277,6 +361,27 @@ public class PageWriter {
     this.valueEncoder = encoder;
   }
 
+  /**
+   * Choose the value encoding of each chunk by sampling its first values instead of using the
+   * value encoder. Call {@link #resetValueEncoding()} before writing the next chunk.
+   */
+  public void enableAutoEncoding(TSDataType dataType) {
+    this.dataType = dataType;
+    this.encodingSelector = new EncodingSelector(dataType);
+  }
+
+  public void resetValueEncoding() {
+    if (encodingSelector != null) {
+      encodingSelector.reset();
+      valueEncoding = null;
+    }
+  }
+
+  /** @return the value encoding chosen for the current chunk, null if it is not chosen yet */
+  public TSEncoding getValueEncoding() {
+    return valueEncoding;
+  }
+
   public void initStatistics(TSDataType dataType) {
     statistics = Statistics.getStatsByType(dataType);
   }
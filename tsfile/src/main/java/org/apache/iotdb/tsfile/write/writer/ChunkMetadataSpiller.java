@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.write.writer;
+
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.file.metadata.statistics.ValueSketch;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * ChunkMetadataSpiller moves the ChunkMetadata of common series out of the memory of a
+ * TsFileIOWriter. Each spill sorts the ChunkMetadata by device and measurement and writes them as a
+ * run into a temporary file next to the TsFile, and the runs are merged back series by series when
+ * the TsFile is closed, so that only the ChunkMetadata of one series are in memory at a time. The
+ * ChunkMetadata of vector series are not spilled.
+ */
+class ChunkMetadataSpiller implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(ChunkMetadataSpiller.class);
+
+  static final String RUN_FILE_SUFFIX = ".cmt";
+
+  private static final Comparator<SpilledChunkMetadata> SERIES_ORDER =
+      (o1, o2) ->
+          compareSeries(
+              o1.device,
+              o1.chunkMetadata.getMeasurementUid(),
+              o2.device,
+              o2.chunkMetadata.getMeasurementUid());
+
+  private final String runFilePrefix;
+  private final List<File> runFiles = new ArrayList<>();
+
+  ChunkMetadataSpiller(File tsFile) {
+    this.runFilePrefix = tsFile.getPath() + RUN_FILE_SUFFIX;
+  }
+
+  /** Compare two series by device first and then by measurement. */
+  static int compareSeries(
+      String device1, String measurement1, String device2, String measurement2) {
+    int cmp = device1.compareTo(device2);
+    return cmp != 0 ? cmp : measurement1.compareTo(measurement2);
+  }
+
+  boolean hasSpilled() {
+    return !runFiles.isEmpty();
+  }
+
+  /**
+   * Write the ChunkMetadata of common series in the given ChunkGroupMetadata as a new run and
+   * remove them from the list. ChunkGroupMetadata that only contain vector series are left in the
+   * list.
+   */
+  void spill(List<ChunkGroupMetadata> chunkGroupMetadataList) throws IOException {
+    List<SpilledChunkMetadata> spilledChunkMetadataList = new ArrayList<>();
+    List<ChunkGroupMetadata> remainingChunkGroupMetadataList = new ArrayList<>();
+    for (ChunkGroupMetadata chunkGroupMetadata : chunkGroupMetadataList) {
+      List<ChunkMetadata> vectorChunkMetadataList = new ArrayList<>();
+      for (ChunkMetadata chunkMetadata : chunkGroupMetadata.getChunkMetadataList()) {
+        if (chunkMetadata.getMask() == 0) {
+          spilledChunkMetadataList.add(
+              new SpilledChunkMetadata(chunkGroupMetadata.getDevice(), chunkMetadata));
+        } else {
+          vectorChunkMetadataList.add(chunkMetadata);
+        }
+      }
+      if (!vectorChunkMetadataList.isEmpty()) {
+        remainingChunkGroupMetadataList.add(
+            new ChunkGroupMetadata(chunkGroupMetadata.getDevice(), vectorChunkMetadataList));
+      }
+    }
+    chunkGroupMetadataList.clear();
+    chunkGroupMetadataList.addAll(remainingChunkGroupMetadataList);
+    if (spilledChunkMetadataList.isEmpty()) {
+      return;
+    }
+
+    // the sort is stable, so the chunks of a series are still in the order of their offsets
+    spilledChunkMetadataList.sort(SERIES_ORDER);
+    File runFile = new File(runFilePrefix + runFiles.size());
+    runFiles.add(runFile);
+    PublicBAOS recordBuffer = new PublicBAOS();
+    try (DataOutputStream outputStream =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(runFile)))) {
+      for (SpilledChunkMetadata spilledChunkMetadata : spilledChunkMetadataList) {
+        recordBuffer.reset();
+        spilledChunkMetadata.serializeTo(recordBuffer);
+        outputStream.writeInt(recordBuffer.size());
+        recordBuffer.writeTo(outputStream);
+      }
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          "spilled {} chunk metadata into {}", spilledChunkMetadataList.size(), runFile.getPath());
+    }
+  }
+
+  /**
+   * Open all runs and merge them. The caller should close the returned reader, which does not
+   * delete the runs.
+   */
+  SeriesReader openSeriesReader() throws IOException {
+    return new SeriesReader(runFiles);
+  }
+
+  /** Delete all runs. */
+  @Override
+  public void close() throws IOException {
+    for (File runFile : runFiles) {
+      Files.deleteIfExists(runFile.toPath());
+    }
+    runFiles.clear();
+  }
+
+  /** Reads the merged runs series by series, in the order of device and measurement. */
+  static class SeriesReader implements Closeable {
+
+    private final List<RunReader> runReaders = new ArrayList<>();
+    // ordered by the current series of each run and then by the order of the runs, so that the
+    // chunks of a series are returned in the order they were written
+    private final PriorityQueue<RunReader> heap =
+        new PriorityQueue<>(
+            (o1, o2) -> {
+              int cmp = SERIES_ORDER.compare(o1.current, o2.current);
+              return cmp != 0 ? cmp : Integer.compare(o1.runIndex, o2.runIndex);
+            });
+
+    private SeriesReader(List<File> runFiles) throws IOException {
+      try {
+        for (int i = 0; i < runFiles.size(); i++) {
+          RunReader runReader = new RunReader(runFiles.get(i), i);
+          runReaders.add(runReader);
+          if (runReader.advance()) {
+            heap.add(runReader);
+          }
+        }
+      } catch (IOException e) {
+        close();
+        throw e;
+      }
+    }
+
+    boolean hasNext() {
+      return !heap.isEmpty();
+    }
+
+    /** @return the path of the next series, its chunks are returned by {@link #next()} */
+    Path peekPath() {
+      SpilledChunkMetadata head = heap.peek().current;
+      return new Path(head.device, head.chunkMetadata.getMeasurementUid());
+    }
+
+    /** @return all ChunkMetadata of the next series in the runs */
+    List<IChunkMetadata> next() throws IOException {
+      SpilledChunkMetadata head = heap.peek().current;
+      String device = head.device;
+      String measurement = head.chunkMetadata.getMeasurementUid();
+      List<IChunkMetadata> chunkMetadataList = new ArrayList<>();
+      while (!heap.isEmpty()) {
+        RunReader runReader = heap.peek();
+        if (compareSeries(
+                device,
+                measurement,
+                runReader.current.device,
+                runReader.current.chunkMetadata.getMeasurementUid())
+            != 0) {
+          break;
+        }
+        heap.poll();
+        chunkMetadataList.add(runReader.current.chunkMetadata);
+        if (runReader.advance()) {
+          heap.add(runReader);
+        }
+      }
+      return chunkMetadataList;
+    }
+
+    @Override
+    public void close() throws IOException {
+      IOException exception = null;
+      for (RunReader runReader : runReaders) {
+        try {
+          runReader.inputStream.close();
+        } catch (IOException e) {
+          exception = e;
+        }
+      }
+      runReaders.clear();
+      heap.clear();
+      if (exception != null) {
+        throw exception;
+      }
+    }
+  }
+
+  private static class RunReader {
+
+    private final DataInputStream inputStream;
+    private final int runIndex;
+    private SpilledChunkMetadata current;
+
+    private RunReader(File runFile, int runIndex) throws IOException {
+      this.inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(runFile)));
+      this.runIndex = runIndex;
+    }
+
+    /** @return false if the run is exhausted */
+    private boolean advance() throws IOException {
+      int recordSize;
+      try {
+        recordSize = inputStream.readInt();
+      } catch (EOFException e) {
+        current = null;
+        return false;
+      }
+      byte[] record = new byte[recordSize];
+      inputStream.readFully(record);
+      current = SpilledChunkMetadata.deserializeFrom(ByteBuffer.wrap(record));
+      return true;
+    }
+  }
+
+  private static class SpilledChunkMetadata {
+
+    private final String device;
+    private final ChunkMetadata chunkMetadata;
+
+    private SpilledChunkMetadata(String device, ChunkMetadata chunkMetadata) {
+      this.device = device;
+      this.chunkMetadata = chunkMetadata;
+    }
+
+    private void serializeTo(PublicBAOS outputStream) throws IOException {
+      boolean hasSketch = chunkMetadata.getStatistics().getSketch() != null;
+      ReadWriteIOUtils.write(device, outputStream);
+      ReadWriteIOUtils.write(chunkMetadata.getMeasurementUid(), outputStream);
+      ReadWriteIOUtils.write(chunkMetadata.getDataType(), outputStream);
+      ReadWriteIOUtils.write(hasSketch, outputStream);
+      chunkMetadata.serializeTo(outputStream, true, hasSketch);
+    }
+
+    private static SpilledChunkMetadata deserializeFrom(ByteBuffer buffer) {
+      String device = ReadWriteIOUtils.readString(buffer);
+      String measurement = ReadWriteIOUtils.readString(buffer);
+      TSDataType dataType = ReadWriteIOUtils.readDataType(buffer);
+      boolean hasSketch = ReadWriteIOUtils.readBool(buffer);
+      long offsetOfChunkHeader = ReadWriteIOUtils.readLong(buffer);
+      Statistics<?> statistics = Statistics.deserialize(buffer, dataType);
+      if (hasSketch) {
+        statistics.setSketch(ValueSketch.deserializeFrom(buffer));
+      }
+      return new SpilledChunkMetadata(
+          device, new ChunkMetadata(measurement, dataType, offsetOfChunkHeader, statistics));
+    }
+  }
+}
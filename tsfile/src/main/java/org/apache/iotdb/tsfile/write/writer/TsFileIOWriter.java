@@ -20,6 +20,7 @@ package org.apache.iotdb.tsfile.write.writer;
 
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkGroupHeader;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
@@ -48,10 +49,12 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 /**
@@ -81,6 +84,12 @@ public class TsFileIOWriter {
   // all flushed ChunkGroups
   protected List<ChunkGroupMetadata> chunkGroupMetadataList = new ArrayList<>();
 
+  // non-null if the ChunkMetadata can be spilled into temporary files
+  private ChunkMetadataSpiller chunkMetadataSpiller;
+  private long chunkMetadataSpillThreshold;
+  // estimated ram size of the ChunkMetadata in chunkGroupMetadataList
+  private long chunkMetadataRamSize;
+
   private long markedPosition;
   private String currentChunkGroupDeviceId;
 
@@ -108,6 +117,7 @@ public class TsFileIOWriter {
       resourceLogger.debug("{} writer is opened.", file.getName());
     }
     startFile();
+    setChunkMetadataSpillThreshold(config.getChunkMetadataSpillThresholdInByte());
   }
 
   /**
@@ -163,6 +173,26 @@ public class TsFileIOWriter {
     currentChunkGroupDeviceId = null;
     chunkMetadataList = null;
     out.flush();
+    if (chunkMetadataSpiller != null
+        && chunkMetadataSpillThreshold > 0
+        && chunkMetadataRamSize > chunkMetadataSpillThreshold) {
+      chunkMetadataSpiller.spill(chunkGroupMetadataList);
+      chunkMetadataRamSize = 0;
+    }
+  }
+
+  /**
+   * Allow the ChunkMetadata of common series to be spilled into temporary files next to the TsFile
+   * when their estimated ram size exceeds the threshold. Writers whose users read the ChunkMetadata
+   * of the unclosed file, e.g., for queries or for recovery, should not enable it.
+   *
+   * @param chunkMetadataSpillThreshold in byte, a non-positive value disables spilling
+   */
+  public void setChunkMetadataSpillThreshold(long chunkMetadataSpillThreshold) {
+    this.chunkMetadataSpillThreshold = chunkMetadataSpillThreshold;
+    if (chunkMetadataSpillThreshold > 0 && file != null && chunkMetadataSpiller == null) {
+      chunkMetadataSpiller = new ChunkMetadataSpiller(file);
+    }
   }
 
   /**
@@ -226,6 +256,9 @@ public class TsFileIOWriter {
   /** end chunk and write some log. */
   public void endCurrentChunk() {
     chunkMetadataList.add(currentChunkMetadata);
+    if (chunkMetadataSpiller != null) {
+      chunkMetadataRamSize += currentChunkMetadata.calculateRamSize();
+    }
     currentChunkMetadata = null;
   }
 
@@ -241,6 +274,12 @@ public class TsFileIOWriter {
     // serialize the SEPARATOR of MetaData
     ReadWriteIOUtils.write(MetaMarker.SEPARATOR, out.wrapAsStream());
 
+    boolean spilled = chunkMetadataSpiller != null && chunkMetadataSpiller.hasSpilled();
+    if (spilled) {
+      // the remaining common series are merged with the spilled ones, only vector series are left
+      chunkMetadataSpiller.spill(chunkGroupMetadataList);
+    }
+
     // group ChunkMetadata by series
     // only contains ordinary path and time column of vector series
     Map<Path, List<IChunkMetadata>> chunkMetadataListMap = new TreeMap<>();
@@ -279,7 +318,20 @@ public class TsFileIOWriter {
       }
     }
 
-    MetadataIndexNode metadataIndex = flushMetadataIndex(chunkMetadataListMap, vectorToPathsMap);
+    Set<Path> paths;
+    MetadataIndexNode metadataIndex;
+    if (spilled) {
+      paths = new HashSet<>();
+      try {
+        metadataIndex =
+            flushMetadataIndexWithSpilledRuns(chunkMetadataListMap, vectorToPathsMap, paths);
+      } finally {
+        chunkMetadataSpiller.close();
+      }
+    } else {
+      paths = chunkMetadataListMap.keySet();
+      metadataIndex = flushMetadataIndex(chunkMetadataListMap, vectorToPathsMap);
+    }
     TsFileMetadata tsFileMetaData = new TsFileMetadata();
     tsFileMetaData.setMetadataIndex(metadataIndex);
     tsFileMetaData.setMetaOffset(metaOffset);
@@ -296,7 +348,7 @@ public class TsFileIOWriter {
     }
 
     // write bloom filter
-    size += tsFileMetaData.serializeBloomFilter(out.wrapAsStream(), chunkMetadataListMap.keySet());
+    size += tsFileMetaData.serializeBloomFilter(out.wrapAsStream(), paths);
     if (logger.isDebugEnabled()) {
       logger.debug("finish flushing the bloom filter file pos:{}", out.getPosition());
     }
@@ -337,6 +389,91 @@ public class TsFileIOWriter {
     return MetadataIndexConstructor.constructMetadataIndex(deviceTimeseriesMetadataMap, out);
   }
 
+  /**
+   * Flush TsFileMetadata like {@link #flushMetadataIndex}, but merge the spilled ChunkMetadata with
+   * the in-memory ones series by series and flush the TimeseriesMetadata of each device as soon as
+   * the device is finished, so that only the ChunkMetadata of one series and the
+   * TimeseriesMetadata of one device are in memory at a time. The TimeseriesMetadata kept in
+   * deviceTimeseriesMetadataMap no longer hold their serialized ChunkMetadata.
+   *
+   * @param paths collects the paths for the bloom filter
+   * @return MetadataIndexEntry list in TsFileMetadata
+   */
+  private MetadataIndexNode flushMetadataIndexWithSpilledRuns(
+      Map<Path, List<IChunkMetadata>> chunkMetadataListMap,
+      Map<Path, Map<Path, List<IChunkMetadata>>> vectorToPathsMap,
+      Set<Path> paths)
+      throws IOException {
+    deviceTimeseriesMetadataMap = new LinkedHashMap<>();
+    Map<String, MetadataIndexNode> deviceMetadataIndexMap = new TreeMap<>();
+
+    // the in-memory series are sorted by full path, resort them like the spilled ones
+    List<Path> inMemoryPaths = new ArrayList<>(chunkMetadataListMap.keySet());
+    inMemoryPaths.sort(
+        (o1, o2) ->
+            ChunkMetadataSpiller.compareSeries(
+                o1.getDevice(), o1.getMeasurement(), o2.getDevice(), o2.getMeasurement()));
+    int inMemoryIdx = 0;
+    String currentDevice = null;
+    try (ChunkMetadataSpiller.SeriesReader seriesReader =
+        chunkMetadataSpiller.openSeriesReader()) {
+      while (seriesReader.hasNext() || inMemoryIdx < inMemoryPaths.size()) {
+        Path path;
+        List<IChunkMetadata> seriesChunkMetadataList;
+        Path inMemoryPath =
+            inMemoryIdx < inMemoryPaths.size() ? inMemoryPaths.get(inMemoryIdx) : null;
+        Path spilledPath = seriesReader.hasNext() ? seriesReader.peekPath() : null;
+        int cmp;
+        if (spilledPath == null) {
+          cmp = 1;
+        } else if (inMemoryPath == null) {
+          cmp = -1;
+        } else {
+          cmp =
+              ChunkMetadataSpiller.compareSeries(
+                  spilledPath.getDevice(),
+                  spilledPath.getMeasurement(),
+                  inMemoryPath.getDevice(),
+                  inMemoryPath.getMeasurement());
+        }
+        if (cmp <= 0) {
+          path = spilledPath;
+          seriesChunkMetadataList = seriesReader.next();
+          if (cmp == 0) {
+            seriesChunkMetadataList.addAll(chunkMetadataListMap.get(inMemoryPath));
+            inMemoryIdx++;
+          }
+        } else {
+          path = inMemoryPath;
+          seriesChunkMetadataList = chunkMetadataListMap.get(inMemoryPath);
+          inMemoryIdx++;
+        }
+
+        if (currentDevice != null && !currentDevice.equals(path.getDevice())) {
+          flushDeviceMetadataIndex(currentDevice, deviceMetadataIndexMap);
+        }
+        currentDevice = path.getDevice();
+        paths.add(path);
+        flushOneChunkMetadata(path, seriesChunkMetadataList, vectorToPathsMap);
+      }
+    }
+    if (currentDevice != null) {
+      flushDeviceMetadataIndex(currentDevice, deviceMetadataIndexMap);
+    }
+    return MetadataIndexConstructor.constructDeviceMetadataIndex(deviceMetadataIndexMap, out);
+  }
+
+  private void flushDeviceMetadataIndex(
+      String device, Map<String, MetadataIndexNode> deviceMetadataIndexMap) throws IOException {
+    List<TimeseriesMetadata> timeseriesMetadataList = deviceTimeseriesMetadataMap.get(device);
+    deviceMetadataIndexMap.put(
+        device,
+        MetadataIndexConstructor.constructMeasurementMetadataIndex(timeseriesMetadataList, out));
+    for (TimeseriesMetadata timeseriesMetadata : timeseriesMetadataList) {
+      timeseriesMetadata.setChunkMetadataListBuffer(null);
+    }
+  }
+
   private void flushOneChunkMetadata(
       Path path,
       List<IChunkMetadata> chunkMetadataList,
@@ -349,19 +486,36 @@ public class TsFileIOWriter {
 
     int chunkMetadataListLength = 0;
     boolean serializeStatistic = (chunkMetadataList.size() > 1);
+    // the sketches are kept only for common series whose chunks all have sketches
+    boolean serializeSketch = chunkMetadataList.get(0).getMask() == 0;
+    for (IChunkMetadata chunkMetadata : chunkMetadataList) {
+      if (chunkMetadata.getDataType().equals(dataType)
+          && chunkMetadata.getStatistics().getSketch() == null) {
+        serializeSketch = false;
+        break;
+      }
+    }
     // flush chunkMetadataList one by one
     for (IChunkMetadata chunkMetadata : chunkMetadataList) {
       if (!chunkMetadata.getDataType().equals(dataType)) {
         continue;
       }
-      chunkMetadataListLength += chunkMetadata.serializeTo(publicBAOS, serializeStatistic);
+      chunkMetadataListLength +=
+          serializeSketch
+              ? ((ChunkMetadata) chunkMetadata)
+                  .serializeTo(publicBAOS, serializeStatistic, serializeSketch)
+              : chunkMetadata.serializeTo(publicBAOS, serializeStatistic);
       seriesStatistics.mergeStatistics(chunkMetadata.getStatistics());
     }
 
+    byte type =
+        (byte) ((serializeStatistic ? (byte) 1 : (byte) 0) | chunkMetadataList.get(0).getMask());
+    if (serializeSketch) {
+      type |= TsFileConstant.SKETCH_MASK;
+    }
     TimeseriesMetadata timeseriesMetadata =
         new TimeseriesMetadata(
-            (byte)
-                ((serializeStatistic ? (byte) 1 : (byte) 0) | chunkMetadataList.get(0).getMask()),
+            type,
             chunkMetadataListLength,
             path.getMeasurement(),
             dataType,
@@ -394,8 +548,13 @@ public class TsFileIOWriter {
     return out.getPosition();
   }
 
-  // device -> ChunkMetadataList
+  /**
+   * device -> ChunkMetadataList. It only works for writers whose ChunkMetadata are not spilled.
+   */
   public Map<String, List<ChunkMetadata>> getDeviceChunkMetadataMap() {
+    if (chunkMetadataSpiller != null && chunkMetadataSpiller.hasSpilled()) {
+      throw new IllegalStateException("Cannot get spilled chunk metadata of " + file);
+    }
     Map<String, List<ChunkMetadata>> deviceChunkMetadataMap = new HashMap<>();
 
     for (ChunkGroupMetadata chunkGroupMetadata : chunkGroupMetadataList) {
@@ -425,6 +584,9 @@ public class TsFileIOWriter {
   public void close() throws IOException {
     canWrite = false;
     out.close();
+    if (chunkMetadataSpiller != null) {
+      chunkMetadataSpiller.close();
+    }
   }
 
   void writeSeparatorMaskForTest() throws IOException {
@@ -443,8 +605,14 @@ public class TsFileIOWriter {
     this.file = file;
   }
 
-  /** Remove such ChunkMetadata that its startTime is not in chunkStartTimes */
+  /**
+   * Remove such ChunkMetadata that its startTime is not in chunkStartTimes. It only works for
+   * writers whose ChunkMetadata are not spilled.
+   */
   public void filterChunks(Map<Path, List<Long>> chunkStartTimes) {
+    if (chunkMetadataSpiller != null && chunkMetadataSpiller.hasSpilled()) {
+      throw new IllegalStateException("Cannot filter spilled chunk metadata of " + file);
+    }
     Map<Path, Integer> startTimeIdxes = new HashMap<>();
     chunkStartTimes.forEach((p, t) -> startTimeIdxes.put(p, 0));
 
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding;
+
+import org.apache.iotdb.tsfile.encoding.bitpacking.BitPacking;
+import org.apache.iotdb.tsfile.encoding.bitpacking.IntPacker;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.BytesUtils;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Compare unpacking values bit by bit (BytesUtils, as TS_2DIFF did) and 8 at a time (IntPacker, as
+ * RLE did) with BitPacking, and measure the decoding of INT64 encoded with TS_2DIFF and RLE.
+ */
+public class BitPackingBenchmark {
+
+  private static final int BLOCK_SIZE = 128;
+  private static final int BLOCK_NUM = 8192;
+  private static final int POINT_NUM = 1_000_000;
+  private static final int ROUNDS = 20;
+  private static final int[] WIDTHS = {3, 8, 13, 21, 30};
+
+  private static long blackhole;
+
+  public static void main(String[] args) throws IOException {
+    Random random = new Random(0);
+    System.out.println(
+        String.format(
+            "%-6s %18s %18s %18s", "Width", "BitByBit(ns/pt)", "IntPacker(ns/pt)", "Bulk(ns/pt)"));
+    for (int width : WIDTHS) {
+      int[] values = new int[BLOCK_SIZE];
+      for (int i = 0; i < BLOCK_SIZE; i++) {
+        values[i] = random.nextInt(1 << width);
+      }
+      byte[] buf = new byte[BLOCK_SIZE * width / 8];
+      BitPacking.packInts(values, BLOCK_SIZE, width, buf);
+      System.out.println(
+          String.format(
+              "%-6d %18.2f %18.2f %18.2f",
+              width,
+              measure(() -> unpackBitByBit(buf, width, values)),
+              measure(() -> unpackWithIntPacker(buf, width, values)),
+              measure(() -> BitPacking.unpackInts(buf, 0, width, values, BLOCK_SIZE))));
+    }
+
+    long[] timestamps = new long[POINT_NUM];
+    long[] counters = new long[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      timestamps[i] = 1_600_000_000_000L + i * 1000L + random.nextInt(20);
+      counters[i] = random.nextInt(1000);
+    }
+    System.out.println();
+    System.out.println(String.format("%-12s %-10s %14s", "Dataset", "Encoding", "Decode(ns/pt)"));
+    benchmarkDecoding("timestamp", timestamps, TSEncoding.TS_2DIFF);
+    benchmarkDecoding("counter", counters, TSEncoding.RLE);
+  }
+
+  private static void unpackBitByBit(byte[] buf, int width, int[] values) {
+    for (int i = 0; i < BLOCK_SIZE; i++) {
+      values[i] = BytesUtils.bytesToInt(buf, width * i, width);
+    }
+  }
+
+  private static void unpackWithIntPacker(byte[] buf, int width, int[] values) {
+    IntPacker packer = new IntPacker(width);
+    int[] tv = new int[8];
+    for (int i = 0; i < BLOCK_SIZE; i += 8) {
+      packer.unpack8Values(buf, i / 8 * width, tv);
+      System.arraycopy(tv, 0, values, i, 8);
+    }
+  }
+
+  /** @return the minimum ns per value of unpacking BLOCK_NUM blocks in ROUNDS rounds */
+  private static double measure(Runnable unpackOneBlock) {
+    long best = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < BLOCK_NUM; i++) {
+        unpackOneBlock.run();
+      }
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return (double) best / BLOCK_NUM / BLOCK_SIZE;
+  }
+
+  private static void benchmarkDecoding(String name, long[] values, TSEncoding encoding)
+      throws IOException {
+    Encoder encoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(TSDataType.INT64);
+    PublicBAOS out = new PublicBAOS();
+    for (long value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+
+    long best = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      ByteBuffer buffer = ByteBuffer.wrap(out.getBuf(), 0, out.size());
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT64);
+      while (decoder.hasNext(buffer)) {
+        blackhole += decoder.readLong(buffer);
+      }
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    System.out.println(
+        String.format("%-12s %-10s %14.2f", name, encoding, (double) best / values.length));
+  }
+}
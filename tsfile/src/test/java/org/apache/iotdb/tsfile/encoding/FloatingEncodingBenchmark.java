@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding;
+
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compare the size and the encoding/decoding speed of the lossless encodings of DOUBLE on IoT-like
+ * data. Values are encoded in pages of PAGE_SIZE points, like the ones of a chunk.
+ */
+public class FloatingEncodingBenchmark {
+
+  private static final int POINT_NUM = 1_000_000;
+  private static final int PAGE_SIZE = 10_000;
+  private static final int ROUNDS = 5;
+
+  private static final TSEncoding[] ENCODINGS = {
+    TSEncoding.PLAIN, TSEncoding.GORILLA, TSEncoding.CHIMP
+  };
+
+  public static void main(String[] args) throws IOException {
+    Map<String, double[]> datasets = generateDatasets(new Random(0));
+    System.out.println(
+        String.format(
+            "%-14s %-8s %12s %14s %14s",
+            "Dataset", "Encoding", "Bits/point", "Encode(ns/pt)", "Decode(ns/pt)"));
+    for (Map.Entry<String, double[]> dataset : datasets.entrySet()) {
+      for (TSEncoding encoding : ENCODINGS) {
+        benchmark(dataset.getKey(), dataset.getValue(), encoding);
+      }
+    }
+  }
+
+  private static Map<String, double[]> generateDatasets(Random random) {
+    Map<String, double[]> datasets = new LinkedHashMap<>();
+    double[] temperature = new double[POINT_NUM];
+    double[] vibration = new double[POINT_NUM];
+    double[] meter = new double[POINT_NUM];
+    double[] status = new double[POINT_NUM];
+    double[] noise = new double[POINT_NUM];
+    double value = 20.0;
+    for (int i = 0; i < POINT_NUM; i++) {
+      // random walk with 1 decimal place
+      value += random.nextInt(3) - 1;
+      temperature[i] = (20.0 + value) / 10;
+      // sine with noise, 3 decimal places
+      vibration[i] = Math.round((Math.sin(i / 50.0) * 5 + random.nextGaussian()) * 1000) / 1000.0;
+      // accumulated energy, 2 decimal places
+      meter[i] = i == 0 ? 100 : Math.round((meter[i - 1] + random.nextDouble()) * 100) / 100.0;
+      // a few states that rarely change
+      status[i] = i % 1000 < 990 ? 1.0 : 3.5;
+      noise[i] = random.nextDouble();
+    }
+    datasets.put("temperature", temperature);
+    datasets.put("vibration", vibration);
+    datasets.put("energy-meter", meter);
+    datasets.put("status", status);
+    datasets.put("random", noise);
+    return datasets;
+  }
+
+  private static void benchmark(String name, double[] values, TSEncoding encoding)
+      throws IOException {
+    Encoder encoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(TSDataType.DOUBLE);
+    PublicBAOS[] pages = new PublicBAOS[(POINT_NUM + PAGE_SIZE - 1) / PAGE_SIZE];
+    long encodeTime = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int page = 0; page < pages.length; page++) {
+        pages[page] = new PublicBAOS();
+        int end = Math.min((page + 1) * PAGE_SIZE, POINT_NUM);
+        for (int i = page * PAGE_SIZE; i < end; i++) {
+          encoder.encode(values[i], pages[page]);
+        }
+        encoder.flush(pages[page]);
+      }
+      encodeTime = Math.min(encodeTime, System.nanoTime() - start);
+    }
+
+    long size = 0;
+    for (PublicBAOS page : pages) {
+      size += page.size();
+    }
+    long decodeTime = Long.MAX_VALUE;
+    double checksum = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (PublicBAOS page : pages) {
+        ByteBuffer buffer = ByteBuffer.wrap(page.getBuf(), 0, page.size());
+        Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.DOUBLE);
+        while (decoder.hasNext(buffer)) {
+          checksum += decoder.readDouble(buffer);
+        }
+      }
+      decodeTime = Math.min(decodeTime, System.nanoTime() - start);
+    }
+    if (Double.isNaN(checksum)) {
+      System.out.println("unexpected NaN");
+    }
+
+    System.out.println(
+        String.format(
+            "%-14s %-8s %12.2f %14.2f %14.2f",
+            name,
+            encoding,
+            size * 8.0 / POINT_NUM,
+            (double) encodeTime / POINT_NUM,
+            (double) decodeTime / POINT_NUM));
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.bitpacking;
+
+import org.apache.iotdb.tsfile.utils.BytesUtils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class BitPackingTest {
+
+  private static final int COUNT = 1001;
+
+  @Test
+  public void testInt() {
+    Random random = new Random(0);
+    for (int width = 0; width <= 32; width++) {
+      int[] values = new int[COUNT];
+      for (int i = 0; i < COUNT; i++) {
+        values[i] = (int) (random.nextLong() & ((1L << width) - 1));
+      }
+      int length = (COUNT * width + 7) / 8;
+      byte[] buf = new byte[length];
+      BitPacking.packInts(values, COUNT, width, buf);
+
+      // the layout is the same as the one written bit by bit
+      byte[] expected = new byte[length];
+      for (int i = 0; i < COUNT; i++) {
+        BytesUtils.intToBytes(values[i], expected, width * i, width);
+      }
+      assertArrayEquals(expected, buf);
+
+      int[] result = new int[COUNT];
+      BitPacking.unpackInts(buf, 0, width, result, COUNT);
+      assertArrayEquals(values, result);
+    }
+  }
+
+  @Test
+  public void testLong() {
+    Random random = new Random(0);
+    for (int width = 0; width <= 64; width++) {
+      long[] values = new long[COUNT];
+      for (int i = 0; i < COUNT; i++) {
+        values[i] = width == 64 ? random.nextLong() : random.nextLong() & ((1L << width) - 1);
+      }
+      int length = (COUNT * width + 7) / 8;
+      byte[] buf = new byte[length];
+      BitPacking.packLongs(values, COUNT, width, buf);
+
+      byte[] expected = new byte[length];
+      for (int i = 0; i < COUNT; i++) {
+        BytesUtils.longToBytes(values[i], expected, width * i, width);
+      }
+      assertArrayEquals(expected, buf);
+
+      long[] result = new long[COUNT];
+      BitPacking.unpackLongs(buf, 0, width, result, COUNT);
+      assertArrayEquals(values, result);
+    }
+  }
+
+  @Test
+  public void testOffset() {
+    int width = 5;
+    int[] values = {1, 31, 0, 17, 8, 2, 30, 9};
+    byte[] buf = new byte[3 + width];
+    buf[0] = (byte) 0xFF;
+    buf[1] = (byte) 0xFF;
+    buf[2] = (byte) 0xFF;
+    byte[] packed = new byte[width];
+    new IntPacker(width).pack8Values(values, 0, packed);
+    System.arraycopy(packed, 0, buf, 3, width);
+
+    int[] result = new int[values.length];
+    BitPacking.unpackInts(buf, 3, width, result, values.length);
+    assertArrayEquals(values, result);
+    assertEquals(0, result[2]);
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionChimpEncoder;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChimpDecoderTest {
+
+  private static final int ROW_NUM = 10000;
+
+  @Test
+  public void testSingleValue() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Encoder encoder = new DoublePrecisionChimpEncoder();
+    encoder.encode(Double.MAX_VALUE, out);
+    encoder.flush(out);
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new DoublePrecisionChimpDecoder();
+    assertTrue(decoder.hasNext(buffer));
+    assertEquals(Double.MAX_VALUE, decoder.readDouble(buffer), 0);
+    assertFalse(decoder.hasNext(buffer));
+    assertFalse(buffer.hasRemaining());
+  }
+
+  @Test
+  public void testSpecialValues() throws IOException {
+    // the ending marks of GORILLA can be encoded
+    long[] longs = {Long.MIN_VALUE, 0, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE, -1};
+    int[] ints = {Integer.MIN_VALUE, 0, Integer.MAX_VALUE, Integer.MIN_VALUE, -1};
+    double[] doubles = {Double.NaN, 0.0, -0.0, Double.POSITIVE_INFINITY, Double.NaN, 1.5};
+    float[] floats = {Float.NaN, 0.0f, -0.0f, Float.NEGATIVE_INFINITY, Float.NaN, 1.5f};
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Encoder longEncoder = new LongChimpEncoder();
+    for (long value : longs) {
+      longEncoder.encode(value, out);
+    }
+    longEncoder.flush(out);
+    Encoder intEncoder = new IntChimpEncoder();
+    for (int value : ints) {
+      intEncoder.encode(value, out);
+    }
+    intEncoder.flush(out);
+    Encoder doubleEncoder = new DoublePrecisionChimpEncoder();
+    for (double value : doubles) {
+      doubleEncoder.encode(value, out);
+    }
+    doubleEncoder.flush(out);
+    Encoder floatEncoder = new SinglePrecisionChimpEncoder();
+    for (float value : floats) {
+      floatEncoder.encode(value, out);
+    }
+    floatEncoder.flush(out);
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new LongChimpDecoder();
+    for (long value : longs) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(value, decoder.readLong(buffer));
+    }
+    assertFalse(decoder.hasNext(buffer));
+    decoder = new IntChimpDecoder();
+    for (int value : ints) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(value, decoder.readInt(buffer));
+    }
+    assertFalse(decoder.hasNext(buffer));
+    decoder = new DoublePrecisionChimpDecoder();
+    for (double value : doubles) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(
+          Double.doubleToRawLongBits(value),
+          Double.doubleToRawLongBits(decoder.readDouble(buffer)));
+    }
+    assertFalse(decoder.hasNext(buffer));
+    decoder = new SinglePrecisionChimpDecoder();
+    for (float value : floats) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(
+          Float.floatToRawIntBits(value), Float.floatToRawIntBits(decoder.readFloat(buffer)));
+    }
+    assertFalse(decoder.hasNext(buffer));
+    assertFalse(buffer.hasRemaining());
+  }
+
+  @Test
+  public void testDouble() throws IOException {
+    Random random = new Random(0);
+    double[] values = new double[ROW_NUM];
+    double value = 20.0;
+    for (int i = 0; i < ROW_NUM; i++) {
+      // sensor-like readings with 1 or 2 decimal places, repeated values and random noise
+      if (i % 1000 < 500) {
+        value = Math.round((value + random.nextGaussian() * 0.1) * 100) / 100.0;
+      } else if (i % 1000 < 700) {
+        value = i % 7 == 0 ? 1.5 : value;
+      } else {
+        value = random.nextDouble() * 1000;
+      }
+      values[i] = value;
+    }
+    // several streams written by the same encoder, like the pages of a chunk
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Encoder encoder = new DoublePrecisionChimpEncoder();
+    for (int repeat = 0; repeat < 3; repeat++) {
+      for (double v : values) {
+        encoder.encode(v, out);
+      }
+      encoder.flush(out);
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    for (int repeat = 0; repeat < 3; repeat++) {
+      Decoder decoder = new DoublePrecisionChimpDecoder();
+      for (double v : values) {
+        assertTrue(decoder.hasNext(buffer));
+        assertEquals(v, decoder.readDouble(buffer), 0);
+      }
+      assertFalse(decoder.hasNext(buffer));
+    }
+    assertFalse(buffer.hasRemaining());
+  }
+
+  @Test
+  public void testFloat() throws IOException {
+    Random random = new Random(0);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Encoder encoder = new SinglePrecisionChimpEncoder();
+    float[] values = new float[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      values[i] = i % 3 == 0 ? random.nextFloat() : Math.round(random.nextGaussian() * 10) / 10f;
+      encoder.encode(values[i], out);
+    }
+    encoder.flush(out);
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new SinglePrecisionChimpDecoder();
+    for (float v : values) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(v, decoder.readFloat(buffer), 0);
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testIntegerAndLong() throws IOException {
+    Random random = new Random(0);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Encoder intEncoder = new IntChimpEncoder();
+    Encoder longEncoder = new LongChimpEncoder();
+    int[] ints = new int[ROW_NUM];
+    long[] longs = new long[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      ints[i] = i % 2 == 0 ? random.nextInt() : random.nextInt(100);
+      intEncoder.encode(ints[i], out);
+    }
+    intEncoder.flush(out);
+    for (int i = 0; i < ROW_NUM; i++) {
+      longs[i] = i % 2 == 0 ? random.nextLong() : i;
+      longEncoder.encode(longs[i], out);
+    }
+    longEncoder.flush(out);
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new IntChimpDecoder();
+    for (int v : ints) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(v, decoder.readInt(buffer));
+    }
+    assertFalse(decoder.hasNext(buffer));
+    decoder = new LongChimpDecoder();
+    for (long v : longs) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(v, decoder.readLong(buffer));
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+}
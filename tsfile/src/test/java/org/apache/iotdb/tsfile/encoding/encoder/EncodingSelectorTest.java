@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.constant.TestConstant;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EncodingSelectorTest {
+
+  @Test
+  public void testSelect() {
+    EncodingSelector selector = new EncodingSelector(TSDataType.INT64);
+    for (int i = 0; i < EncodingSelector.SAMPLE_SIZE; i++) {
+      selector.add(1_600_000_000_000L + i * 1000L);
+    }
+    assertEquals(TSEncoding.TS_2DIFF, selector.select());
+
+    selector = new EncodingSelector(TSDataType.INT32);
+    for (int i = 0; i < EncodingSelector.SAMPLE_SIZE; i++) {
+      selector.add(i / 256);
+    }
+    assertEquals(TSEncoding.RLE, selector.select());
+
+    selector = new EncodingSelector(TSDataType.DOUBLE);
+    for (int i = 0; i < EncodingSelector.SAMPLE_SIZE; i++) {
+      selector.add(20.5);
+    }
+    assertEquals(TSEncoding.GORILLA, selector.select());
+
+    Random random = new Random(0);
+    selector = new EncodingSelector(TSDataType.DOUBLE);
+    for (int i = 0; i < EncodingSelector.SAMPLE_SIZE; i++) {
+      selector.add(random.nextDouble());
+    }
+    assertEquals(TSEncoding.PLAIN, selector.select());
+
+    selector = new EncodingSelector(TSDataType.TEXT);
+    for (int i = 0; i < EncodingSelector.SAMPLE_SIZE; i++) {
+      selector.add(Binary.valueOf(i % 2 == 0 ? "running" : "stopped"));
+    }
+    assertEquals(TSEncoding.DICTIONARY, selector.select());
+  }
+
+  @Test
+  public void testChunkEncoding() throws IOException, WriteProcessException {
+    File file = new File(TestConstant.BASE_OUTPUT_PATH.concat("auto_encoding.tsfile"));
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      writer.registerTimeseries(
+          new Path("d1", "s1"), new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.AUTO));
+      writer.registerTimeseries(
+          new Path("d1", "s2"), new MeasurementSchema("s2", TSDataType.DOUBLE, TSEncoding.AUTO));
+      for (long i = 0; i < 3000; i++) {
+        TSRecord record = new TSRecord(i, "d1");
+        record.addTuple(new LongDataPoint("s1", i * 1000));
+        record.addTuple(new DoubleDataPoint("s2", 1.5));
+        writer.write(record);
+      }
+    }
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      for (ChunkMetadata chunkMetadata : reader.getChunkMetadataList(new Path("d1", "s1"))) {
+        assertEquals(
+            TSEncoding.TS_2DIFF, reader.readMemChunk(chunkMetadata).getHeader().getEncodingType());
+      }
+      for (ChunkMetadata chunkMetadata : reader.getChunkMetadataList(new Path("d1", "s2"))) {
+        assertEquals(
+            TSEncoding.GORILLA, reader.readMemChunk(chunkMetadata).getHeader().getEncodingType());
+      }
+    } finally {
+      assertTrue(file.delete());
+    }
+  }
+}
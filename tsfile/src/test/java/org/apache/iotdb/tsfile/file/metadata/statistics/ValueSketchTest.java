@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.file.metadata.statistics;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.v2.file.metadata.statistics.StatisticsV2;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ValueSketchTest {
+
+  private boolean enableValueSketch;
+
+  @Before
+  public void setUp() {
+    enableValueSketch = TSFileDescriptor.getInstance().getConfig().isEnableValueSketch();
+    TSFileDescriptor.getInstance().getConfig().setEnableValueSketch(true);
+  }
+
+  @After
+  public void tearDown() {
+    TSFileDescriptor.getInstance().getConfig().setEnableValueSketch(enableValueSketch);
+  }
+
+  @Test
+  public void testDistinctCount() {
+    ValueSketch sketch = new ValueSketch();
+    for (int i = 0; i < 100000; i++) {
+      sketch.update((long) (i % 20000));
+    }
+    assertEquals(20000, sketch.getDistinctCount(), 20000 * 0.1);
+
+    ValueSketch smallSketch = new ValueSketch();
+    for (int i = 0; i < 100; i++) {
+      smallSketch.update(i % 10 * 1.5);
+    }
+    assertEquals(10, smallSketch.getDistinctCount());
+  }
+
+  @Test
+  public void testQuantile() {
+    ValueSketch sketch = new ValueSketch();
+    assertTrue(Double.isNaN(sketch.getQuantile(0.5)));
+    for (int i = -5000; i <= 5000; i++) {
+      sketch.update(i * 0.1);
+    }
+    assertEquals(10001, sketch.getCount());
+    assertEquals(0, sketch.getQuantile(0.5), 0.0);
+    assertEquals(250, sketch.getQuantile(0.75), 250 * 0.01);
+    assertEquals(-250, sketch.getQuantile(0.25), 250 * 0.01);
+    assertEquals(500, sketch.getQuantile(1), 500 * 0.01);
+    assertEquals(-500, sketch.getQuantile(0), 500 * 0.01);
+  }
+
+  @Test
+  public void testMergeAndSerialize() throws IOException {
+    ValueSketch sketch1 = new ValueSketch();
+    ValueSketch sketch2 = new ValueSketch();
+    for (int i = 1; i <= 1000; i++) {
+      sketch1.update(i);
+      sketch2.update(i + 1000);
+    }
+    sketch1.merge(sketch2);
+    assertEquals(2000, sketch1.getCount());
+    assertEquals(2000, sketch1.getDistinctCount(), 2000 * 0.1);
+    assertEquals(1000, sketch1.getQuantile(0.5), 1000 * 0.01);
+
+    PublicBAOS out = new PublicBAOS();
+    int size = sketch1.serializeTo(out);
+    assertEquals(size, out.size());
+    ValueSketch deserialized = ValueSketch.deserializeFrom(ByteBuffer.wrap(out.toByteArray()));
+    assertEquals(sketch1.getCount(), deserialized.getCount());
+    assertEquals(sketch1.getDistinctCount(), deserialized.getDistinctCount());
+    assertEquals(sketch1.getQuantile(0.5), deserialized.getQuantile(0.5), 0.0);
+  }
+
+  @Test
+  public void testWideRange() throws IOException {
+    ValueSketch sketch = new ValueSketch();
+    ValueSketch negativeSketch = new ValueSketch();
+    for (int i = 0; i <= 6000; i++) {
+      sketch.update(Math.pow(10, i / 10.0 - 300));
+      negativeSketch.update(-Math.pow(10, 300 - i / 10.0));
+    }
+    // the buckets are bounded however wide the values spread
+    long maxRamSize = 1024 + 8L * 2 * 2048 + 64;
+    assertTrue(sketch.calculateRamSize() <= maxRamSize);
+    assertTrue(negativeSketch.calculateRamSize() <= maxRamSize);
+    assertEquals(6001, sketch.getCount());
+    // the quantiles of the largest absolute values keep their accuracy
+    assertEquals(1e300, sketch.getQuantile(1), 1e300 * 0.01);
+    assertEquals(1e294, sketch.getQuantile(0.99), 1e294 * 0.01);
+    assertEquals(-1e300, negativeSketch.getQuantile(0), 1e300 * 0.01);
+    assertEquals(-1e294, negativeSketch.getQuantile(0.01), 1e294 * 0.01);
+    // while the smallest ones are collapsed into a larger bucket
+    assertTrue(sketch.getQuantile(0) > 1e-300);
+
+    ValueSketch merged = new ValueSketch();
+    merged.merge(sketch);
+    merged.merge(negativeSketch);
+    assertTrue(merged.calculateRamSize() <= maxRamSize);
+    assertEquals(12002, merged.getCount());
+    assertEquals(1e300, merged.getQuantile(1), 1e300 * 0.01);
+
+    PublicBAOS out = new PublicBAOS();
+    merged.serializeTo(out);
+    ValueSketch deserialized = ValueSketch.deserializeFrom(ByteBuffer.wrap(out.toByteArray()));
+    assertEquals(merged.getCount(), deserialized.getCount());
+    assertEquals(merged.getQuantile(0.99), deserialized.getQuantile(0.99), 0.0);
+  }
+
+  @Test
+  public void testStatisticsRamSize() {
+    Statistics statistics = Statistics.getStatsByType(TSDataType.DOUBLE);
+    long ramSizeWithoutValues = statistics.calculateRamSize();
+    for (int i = 0; i < 1000; i++) {
+      statistics.update(i, i * 1.5);
+    }
+    assertEquals(
+        ramSizeWithoutValues
+            - new ValueSketch().calculateRamSize()
+            + statistics.getSketch().calculateRamSize(),
+        statistics.calculateRamSize());
+    assertTrue(statistics.calculateRamSize() > ramSizeWithoutValues);
+
+    statistics.setSketch(null);
+    assertEquals(
+        ramSizeWithoutValues - new ValueSketch().calculateRamSize(), statistics.calculateRamSize());
+  }
+
+  @Test
+  public void testStatisticsMerge() {
+    Statistics statistics1 = Statistics.getStatsByType(TSDataType.INT64);
+    Statistics statistics2 = Statistics.getStatsByType(TSDataType.INT64);
+    assertNotNull(statistics1.getSketch());
+    assertNull(Statistics.getStatsByType(TSDataType.TEXT).getSketch());
+    for (long i = 0; i < 100; i++) {
+      statistics1.update(i, i);
+      statistics2.update(i + 100, i + 100);
+    }
+    Statistics merged = Statistics.getStatsByType(TSDataType.INT64);
+    merged.mergeStatistics(statistics1);
+    merged.mergeStatistics(statistics2);
+    assertEquals(200, merged.getSketch().getCount());
+    assertEquals(99, merged.getSketch().getQuantile(0.5), 99 * 0.01);
+
+    // a statistics without sketch does not cover all the values of the merged one
+    Statistics noSketch = Statistics.getStatsByType(TSDataType.INT64);
+    noSketch.setSketch(null);
+    noSketch.update(300, 300L);
+    merged.mergeStatistics(noSketch);
+    assertNull(merged.getSketch());
+  }
+
+  @Test
+  public void testV2StatisticsHaveNoSketch() throws IOException {
+    // count, start time, end time, min, max, first, last and sum of an INT64 series in a v2 file
+    ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * 7 + Double.BYTES);
+    buffer.putLong(3).putLong(1).putLong(3);
+    buffer.putLong(1).putLong(3).putLong(1).putLong(3).putDouble(6);
+    buffer.flip();
+    Statistics<?> statistics = StatisticsV2.deserialize(buffer.duplicate(), TSDataType.INT64);
+    assertEquals(3, statistics.getCount());
+    assertNull(statistics.getSketch());
+    statistics =
+        StatisticsV2.deserialize(new ByteArrayInputStream(buffer.array()), TSDataType.INT64);
+    assertNull(statistics.getSketch());
+  }
+
+  @Test
+  public void testTimeseriesMetadataSerialization() throws IOException {
+    Statistics statistics1 = Statistics.getStatsByType(TSDataType.DOUBLE);
+    Statistics statistics2 = Statistics.getStatsByType(TSDataType.DOUBLE);
+    Statistics seriesStatistics = Statistics.getStatsByType(TSDataType.DOUBLE);
+    for (int i = 0; i < 100; i++) {
+      statistics1.update(i, i * 2.0);
+      statistics2.update(i + 100, i * 3.0);
+    }
+    seriesStatistics.mergeStatistics(statistics1);
+    seriesStatistics.mergeStatistics(statistics2);
+
+    PublicBAOS chunkMetadataBuffer = new PublicBAOS();
+    int chunkMetadataSize =
+        new ChunkMetadata("s1", TSDataType.DOUBLE, 0, statistics1)
+            .serializeTo(chunkMetadataBuffer, true, true);
+    chunkMetadataSize +=
+        new ChunkMetadata("s1", TSDataType.DOUBLE, 100, statistics2)
+            .serializeTo(chunkMetadataBuffer, true, true);
+    TimeseriesMetadata timeseriesMetadata =
+        new TimeseriesMetadata(
+            (byte) (1 | TsFileConstant.SKETCH_MASK),
+            chunkMetadataSize,
+            "s1",
+            TSDataType.DOUBLE,
+            seriesStatistics,
+            chunkMetadataBuffer);
+    PublicBAOS out = new PublicBAOS();
+    timeseriesMetadata.serializeTo(out);
+
+    TimeseriesMetadata deserialized =
+        TimeseriesMetadata.deserializeFrom(ByteBuffer.wrap(out.toByteArray()), true);
+    assertTrue(deserialized.hasSketch());
+    assertEquals(200, deserialized.getStatistics().getSketch().getCount());
+    List<IChunkMetadata> chunkMetadataList = deserialized.getChunkMetadataList();
+    assertEquals(2, chunkMetadataList.size());
+    assertEquals(
+        statistics1.getSketch().getDistinctCount(),
+        chunkMetadataList.get(0).getStatistics().getSketch().getDistinctCount());
+    assertEquals(
+        statistics2.getSketch().getQuantile(0.5),
+        chunkMetadataList.get(1).getStatistics().getSketch().getQuantile(0.5),
+        0.0);
+  }
+}
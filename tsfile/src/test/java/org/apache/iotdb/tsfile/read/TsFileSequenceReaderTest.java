@@ -25,6 +25,9 @@ import org.apache.iotdb.tsfile.file.header.ChunkGroupHeader;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.MetadataIndexNode;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.FileGenerator;
 import org.apache.iotdb.tsfile.utils.Pair;
 
@@ -39,6 +42,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TsFileSequenceReaderTest {
 
@@ -125,4 +129,43 @@ public class TsFileSequenceReaderTest {
     Assert.assertTrue(reader.readChunkMetadataInDevice("d3").isEmpty());
     reader.close();
   }
+
+  @Test
+  public void testReadTimeseriesMetadataWithMetadataIndexNodeCache() throws IOException {
+    Map<Long, MetadataIndexNode> cachedNodes = new HashMap<>();
+    AtomicInteger getCount = new AtomicInteger();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH);
+        TsFileSequenceReader cachedReader = new TsFileSequenceReader(FILE_PATH)) {
+      cachedReader.setMetadataIndexNodeCache(
+          (fileReader, start, end) -> {
+            getCount.incrementAndGet();
+            MetadataIndexNode node = cachedNodes.get(start);
+            if (node == null) {
+              node = fileReader.readMetadataIndexNodeFromDisk(start, end);
+              cachedNodes.put(start, node);
+            }
+            return node;
+          });
+
+      for (int round = 0; round < 2; round++) {
+        for (String device : new String[] {"d1", "d2", "d3"}) {
+          for (int i = 1; i <= 4; i++) {
+            Path path = new Path(device, "s" + i);
+            TimeseriesMetadata expected = reader.readTimeseriesMetadata(path, true);
+            TimeseriesMetadata actual = cachedReader.readTimeseriesMetadata(path, true);
+            if (expected == null) {
+              Assert.assertNull(actual);
+            } else {
+              Assert.assertEquals(expected.getMeasurementId(), actual.getMeasurementId());
+              Assert.assertEquals(
+                  expected.getStatistics().getCount(), actual.getStatistics().getCount());
+            }
+          }
+        }
+      }
+    }
+    // the nodes are read from disk only once
+    Assert.assertFalse(cachedNodes.isEmpty());
+    Assert.assertTrue(getCount.get() > cachedNodes.size());
+  }
 }
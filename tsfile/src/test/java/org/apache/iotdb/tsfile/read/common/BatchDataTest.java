@@ -22,6 +22,8 @@ package org.apache.iotdb.tsfile.read.common;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import org.junit.Test;
 
@@ -69,6 +71,85 @@ public class BatchDataTest {
     }
   }
 
+  @Test
+  public void testVector() {
+    BatchData batchData = new BatchData(TSDataType.VECTOR);
+    // more than the initial capacity, the first sub sensor is null in the first rows
+    for (int time = 0; time < 100; time++) {
+      TsPrimitiveType[] v = new TsPrimitiveType[2];
+      if (time >= 10) {
+        v[0] = new TsPrimitiveType.TsInt(time);
+      }
+      if (time % 3 != 0) {
+        v[1] = new TsPrimitiveType.TsBinary(new Binary(String.valueOf(time)));
+      }
+      batchData.putVector(time, v);
+    }
+    assertEquals(100, batchData.length());
+
+    int time = 0;
+    while (batchData.hasCurrent()) {
+      assertEquals(time, batchData.currentTime());
+      VectorColumns columns = batchData.currentVectorColumns();
+      int row = batchData.getReadCurArrayIndex();
+      assertEquals(time < 10, columns.isNull(0, row));
+      assertEquals(time % 3 == 0, columns.isNull(1, row));
+      if (time >= 10) {
+        assertEquals(TSDataType.INT32, columns.getDataType(0));
+        assertEquals(time, columns.getInt(0, row));
+      }
+      TsPrimitiveType[] v = batchData.getVector();
+      if (time % 3 != 0) {
+        assertEquals(String.valueOf(time), v[1].getBinary().getStringValue());
+      } else {
+        assertNull(v[1]);
+      }
+      assertEquals(v[0], batchData.getVectorByIndex(time)[0]);
+      batchData.next();
+      time++;
+    }
+    assertEquals(100, time);
+  }
+
+  @Test
+  public void testPutVectors() {
+    long[] times = {1, 2, 3, 4};
+    VectorColumns columns =
+        new VectorColumns(new TSDataType[] {TSDataType.INT64, TSDataType.DOUBLE}, times.length);
+    for (int i = 0; i < times.length; i++) {
+      columns.putLong(0, i, i * 10L);
+      if (i == 1) {
+        columns.setNull(1, i);
+      } else {
+        columns.putDouble(1, i, i * 0.5);
+      }
+    }
+    // the last row is discarded
+    BatchData batchData = BatchDataFactory.createBatchData(TSDataType.VECTOR, false, false);
+    batchData.putVectors(times, columns, 3);
+    batchData.flip();
+    long time = 3;
+    while (batchData.hasCurrent()) {
+      assertEquals(time, batchData.currentTime());
+      TsPrimitiveType[] v = (TsPrimitiveType[]) batchData.currentValue();
+      assertEquals((time - 1) * 10, v[0].getLong());
+      if (time == 2) {
+        assertNull(v[1]);
+      } else {
+        assertEquals((time - 1) * 0.5, v[1].getDouble(), 0);
+      }
+      batchData.next();
+      time--;
+    }
+    assertEquals(0, time);
+
+    // more rows can be put after them
+    batchData.putVector(5, new TsPrimitiveType[] {new TsPrimitiveType.TsLong(40), null});
+    assertEquals(4, batchData.length());
+    assertEquals(40, batchData.getVectorByIndex(3)[0].getLong());
+    assertNull(batchData.getVectorByIndex(3)[1]);
+  }
+
   @Test
   public void testSignal() {
     BatchData batchData = SignalBatchData.getInstance();
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.read.filter;
+
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Random;
+
+public class SatisfyBatchTest {
+
+  private static final int BATCH_SIZE = 1000;
+
+  private final long[] times = new long[BATCH_SIZE];
+  private final int[] ints = new int[BATCH_SIZE];
+  private final long[] longs = new long[BATCH_SIZE];
+  private final float[] floats = new float[BATCH_SIZE];
+  private final double[] doubles = new double[BATCH_SIZE];
+
+  public SatisfyBatchTest() {
+    Random random = new Random(42);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      times[i] = i * 3L;
+      ints[i] = random.nextInt(100);
+      longs[i] = random.nextInt(100);
+      floats[i] = random.nextInt(100) / 2.0f;
+      doubles[i] = random.nextInt(100) / 2.0;
+    }
+    floats[0] = Float.NaN;
+    doubles[0] = Double.NaN;
+  }
+
+  @Test
+  public void testUnaryFilter() {
+    checkBatch(ValueFilter.gt(50), ints);
+    checkBatch(ValueFilter.gtEq(50L), longs);
+    checkBatch(ValueFilter.lt(20.5f), floats);
+    checkBatch(ValueFilter.ltEq(20.5), doubles);
+    checkBatch(ValueFilter.eq(10.0), doubles);
+    checkBatch(ValueFilter.notEq(10), ints);
+    checkBatch(TimeFilter.gt(1500L), doubles);
+    checkBatch(TimeFilter.eq(300L), ints);
+  }
+
+  @Test
+  public void testBinaryFilter() {
+    checkBatch(FilterFactory.and(TimeFilter.gtEq(30L), ValueFilter.lt(40.0)), doubles);
+    checkBatch(FilterFactory.or(TimeFilter.lt(100L), ValueFilter.gt(45L)), longs);
+    checkBatch(FilterFactory.not(FilterFactory.or(TimeFilter.lt(100L), ValueFilter.gt(45))), ints);
+  }
+
+  @Test
+  public void testOtherFilter() {
+    checkBatch(new GroupByFilter(10, 25, 7, 2000), floats);
+    checkBatch(ValueFilter.in(new HashSet<>(Arrays.asList(1, 2, 3)), false), ints);
+    // the type of the value differs from the series, the points are examined one by one
+    checkBatch(ValueFilter.eq(10), longs);
+  }
+
+  /** The result of examining in batch must be the same as examining the points one by one. */
+  private void checkBatch(Filter filter, Object values) {
+    BitSet selection = new BitSet(BATCH_SIZE);
+    selection.set(0, BATCH_SIZE);
+    // a deleted point
+    selection.clear(7);
+    filter.satisfyBatch(times, values, BATCH_SIZE, selection);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      boolean expected = i != 7 && filter.satisfy(times[i], Array.get(values, i));
+      Assert.assertEquals(filter + " at " + i, expected, selection.get(i));
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.decoder.PlainDecoder;
+import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.VectorColumns;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.reader.page.VectorPageReader;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class VectorPageReaderTest {
+
+  private static final int POINTS_COUNT_IN_ONE_PAGE = 100;
+
+  @Test
+  public void testAscending() throws IOException {
+    BatchData batchData = createReader(null).getAllSatisfiedPageData(true);
+    int count = 0;
+    while (batchData.hasCurrent()) {
+      long time = batchData.currentTime();
+      checkRow(time, batchData.currentVectorColumns(), batchData.getReadCurArrayIndex());
+      checkRow(time, batchData.getVector());
+      count++;
+      batchData.next();
+    }
+    // the rows whose time is a multiple of 6 are all null
+    Assert.assertEquals(POINTS_COUNT_IN_ONE_PAGE - 17, count);
+  }
+
+  @Test
+  public void testDescending() throws IOException {
+    BatchData batchData = createReader(TimeFilter.gtEq(50L)).getAllSatisfiedPageData(false);
+    long lastTime = Long.MAX_VALUE;
+    int count = 0;
+    while (batchData.hasCurrent()) {
+      long time = batchData.currentTime();
+      Assert.assertTrue(time >= 50 && time < lastTime);
+      checkRow(time, batchData.currentVectorColumns(), batchData.getReadCurArrayIndex());
+      lastTime = time;
+      count++;
+      batchData.next();
+    }
+    Assert.assertEquals(50 - 8, count);
+  }
+
+  private void checkRow(long time, VectorColumns columns, int row) {
+    Assert.assertEquals(time % 2 == 0, columns.isNull(0, row));
+    Assert.assertEquals(time % 3 == 0, columns.isNull(1, row));
+    if (time % 2 != 0) {
+      Assert.assertEquals(time * 10, columns.getLong(0, row));
+    }
+    if (time % 3 != 0) {
+      Assert.assertEquals(time / 2.0, columns.getDouble(1, row), 0);
+    }
+  }
+
+  private void checkRow(long time, TsPrimitiveType[] vector) {
+    Assert.assertEquals(time % 2 == 0, vector[0] == null);
+    Assert.assertEquals(time % 3 == 0, vector[1] == null);
+  }
+
+  /**
+   * The first sub sensor is null in the even rows and the second one is null in the rows whose time
+   * is a multiple of 3.
+   */
+  private VectorPageReader createReader(Filter filter) throws IOException {
+    Statistics<?> timeStatistics = Statistics.getStatsByType(TSDataType.VECTOR);
+    PublicBAOS timeOut = new PublicBAOS();
+    PlainEncoder timeEncoder = new PlainEncoder(TSDataType.INT64, 0);
+    for (long time = 0; time < POINTS_COUNT_IN_ONE_PAGE; time++) {
+      timeEncoder.encode(time, timeOut);
+      timeStatistics.update(time);
+    }
+    timeEncoder.flush(timeOut);
+    ByteBuffer timeBuffer = ByteBuffer.wrap(timeOut.getBuf(), 0, timeOut.size());
+
+    List<PageHeader> valuePageHeaders = new ArrayList<>();
+    List<ByteBuffer> valueBuffers = new ArrayList<>();
+    List<Decoder> valueDecoders = new ArrayList<>();
+    for (int column = 0; column < 2; column++) {
+      TSDataType dataType = column == 0 ? TSDataType.INT64 : TSDataType.DOUBLE;
+      int nullEvery = column == 0 ? 2 : 3;
+      Statistics<?> statistics = Statistics.getStatsByType(dataType);
+      PublicBAOS valueOut = new PublicBAOS();
+      PlainEncoder valueEncoder = new PlainEncoder(dataType, 0);
+      byte[] bitmap = new byte[(POINTS_COUNT_IN_ONE_PAGE + 7) / 8];
+      for (int time = 0; time < POINTS_COUNT_IN_ONE_PAGE; time++) {
+        if (time % nullEvery == 0) {
+          continue;
+        }
+        bitmap[time / 8] |= 0x80 >>> (time % 8);
+        if (column == 0) {
+          valueEncoder.encode(time * 10L, valueOut);
+          statistics.update(time, time * 10L);
+        } else {
+          valueEncoder.encode(time / 2.0, valueOut);
+          statistics.update(time, time / 2.0);
+        }
+      }
+      valueEncoder.flush(valueOut);
+      ByteBuffer valueBuffer = ByteBuffer.allocate(Integer.BYTES + bitmap.length + valueOut.size());
+      ReadWriteIOUtils.write(POINTS_COUNT_IN_ONE_PAGE, valueBuffer);
+      valueBuffer.put(bitmap);
+      valueBuffer.put(valueOut.getBuf(), 0, valueOut.size());
+      valueBuffer.flip();
+
+      valuePageHeaders.add(
+          new PageHeader(valueBuffer.remaining(), valueBuffer.remaining(), statistics));
+      valueBuffers.add(valueBuffer);
+      valueDecoders.add(new PlainDecoder());
+    }
+    return new VectorPageReader(
+        new PageHeader(timeBuffer.remaining(), timeBuffer.remaining(), timeStatistics),
+        timeBuffer,
+        new PlainDecoder(),
+        valuePageHeaders,
+        valueBuffers,
+        Arrays.asList(TSDataType.INT64, TSDataType.DOUBLE),
+        valueDecoders,
+        filter);
+  }
+}
@@ -81,7 +81,9 @@ public class TsFileReadWriteTest {
             TSEncoding.RLE,
             TSEncoding.TS_2DIFF,
             TSEncoding.REGULAR,
-            TSEncoding.GORILLA);
+            TSEncoding.GORILLA,
+            TSEncoding.AUTO,
+            TSEncoding.CHIMP);
     for (TSEncoding encoding : encodings) {
       intTest(encoding);
     }
@@ -100,7 +102,9 @@ public class TsFileReadWriteTest {
             TSEncoding.RLE,
             TSEncoding.TS_2DIFF,
             TSEncoding.REGULAR,
-            TSEncoding.GORILLA);
+            TSEncoding.GORILLA,
+            TSEncoding.AUTO,
+            TSEncoding.CHIMP);
     for (TSEncoding encoding : encodings) {
       longTest(encoding);
     }
@@ -119,7 +123,9 @@ public class TsFileReadWriteTest {
             TSEncoding.RLE,
             TSEncoding.TS_2DIFF,
             TSEncoding.GORILLA_V1,
-            TSEncoding.GORILLA);
+            TSEncoding.GORILLA,
+            TSEncoding.AUTO,
+            TSEncoding.CHIMP);
     for (TSEncoding encoding : encodings) {
       floatTest(encoding);
     }
@@ -139,7 +145,9 @@ public class TsFileReadWriteTest {
             TSEncoding.RLE,
             TSEncoding.TS_2DIFF,
             TSEncoding.GORILLA_V1,
-            TSEncoding.GORILLA);
+            TSEncoding.GORILLA,
+            TSEncoding.AUTO,
+            TSEncoding.CHIMP);
     for (TSEncoding encoding : encodings) {
       doubleTest(encoding);
     }
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.write.writer;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.constant.TestConstant;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TsFileIOWriterSpillTest {
+
+  private static final String SPILLED_FILE =
+      TestConstant.BASE_OUTPUT_PATH.concat("spilled.tsfile");
+  private static final String IN_MEMORY_FILE =
+      TestConstant.BASE_OUTPUT_PATH.concat("inMemory.tsfile");
+  // "root.sg.d1.a" is between the series of "root.sg.d1" when sorted by full path
+  private static final String[] DEVICES = {
+    "root.sg.d1", "root.sg.d1.a", "root.sg.d2", "root.sg.d3"
+  };
+  private static final int MEASUREMENT_NUM = 7;
+  private static final int CHUNK_GROUP_NUM = 10;
+
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private long prevSpillThreshold;
+  private int prevMaxDegreeOfIndexNode;
+
+  @Before
+  public void setUp() {
+    prevSpillThreshold = config.getChunkMetadataSpillThresholdInByte();
+    prevMaxDegreeOfIndexNode = config.getMaxDegreeOfIndexNode();
+    // make the metadata index have multiple levels
+    config.setMaxDegreeOfIndexNode(3);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    config.setChunkMetadataSpillThresholdInByte(prevSpillThreshold);
+    config.setMaxDegreeOfIndexNode(prevMaxDegreeOfIndexNode);
+    Files.deleteIfExists(new File(SPILLED_FILE).toPath());
+    Files.deleteIfExists(new File(IN_MEMORY_FILE).toPath());
+  }
+
+  @Test
+  public void testSpilledMetadataEqualsInMemoryMetadata() throws Exception {
+    // spill after every chunk group
+    config.setChunkMetadataSpillThresholdInByte(1);
+    writeFile(SPILLED_FILE);
+    config.setChunkMetadataSpillThresholdInByte(0);
+    writeFile(IN_MEMORY_FILE);
+
+    File[] leftRuns =
+        new File(SPILLED_FILE)
+            .getAbsoluteFile()
+            .getParentFile()
+            .listFiles((dir, name) -> name.contains(ChunkMetadataSpiller.RUN_FILE_SUFFIX));
+    assertEquals(0, leftRuns == null ? 0 : leftRuns.length);
+
+    try (TsFileSequenceReader spilledReader = new TsFileSequenceReader(SPILLED_FILE);
+        TsFileSequenceReader inMemoryReader = new TsFileSequenceReader(IN_MEMORY_FILE)) {
+      assertEquals(inMemoryReader.getAllDevices(), spilledReader.getAllDevices());
+      assertEquals(inMemoryReader.getAllPaths(), spilledReader.getAllPaths());
+      for (String device : DEVICES) {
+        Map<String, List<ChunkMetadata>> spilledMap =
+            spilledReader.readChunkMetadataInDevice(device);
+        Map<String, List<ChunkMetadata>> inMemoryMap =
+            inMemoryReader.readChunkMetadataInDevice(device);
+        assertEquals(MEASUREMENT_NUM, spilledMap.size());
+        assertEquals(inMemoryMap.keySet(), spilledMap.keySet());
+        for (Map.Entry<String, List<ChunkMetadata>> entry : inMemoryMap.entrySet()) {
+          List<ChunkMetadata> expected = entry.getValue();
+          List<ChunkMetadata> actual = spilledMap.get(entry.getKey());
+          assertEquals(CHUNK_GROUP_NUM, actual.size());
+          for (int i = 0; i < expected.size(); i++) {
+            assertEquals(
+                expected.get(i).getOffsetOfChunkHeader(), actual.get(i).getOffsetOfChunkHeader());
+            assertEquals(expected.get(i).getStatistics(), actual.get(i).getStatistics());
+          }
+        }
+      }
+      BloomFilter bloomFilter = spilledReader.readBloomFilter();
+      for (String device : DEVICES) {
+        assertTrue(bloomFilter.contains(new Path(device, "s0").getFullPath()));
+      }
+    }
+  }
+
+  @Test
+  public void testDeviceTimeseriesMetadataMap() throws Exception {
+    config.setChunkMetadataSpillThresholdInByte(1);
+    TsFileIOWriter ioWriter = writeFile(SPILLED_FILE);
+    assertEquals(DEVICES.length, ioWriter.getDeviceTimeseriesMetadataMap().size());
+    ioWriter
+        .getDeviceTimeseriesMetadataMap()
+        .forEach(
+            (device, timeseriesMetadataList) -> {
+              assertEquals(MEASUREMENT_NUM, timeseriesMetadataList.size());
+              assertEquals(0, timeseriesMetadataList.get(0).getStatistics().getStartTime());
+              assertEquals(
+                  CHUNK_GROUP_NUM - 1L, timeseriesMetadataList.get(0).getStatistics().getEndTime());
+            });
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testGetSpilledChunkMetadata() throws Exception {
+    config.setChunkMetadataSpillThresholdInByte(1);
+    TsFileIOWriter ioWriter = new TsFileIOWriter(new File(SPILLED_FILE));
+    try {
+      Statistics<?> statistics = Statistics.getStatsByType(TSDataType.INT64);
+      statistics.update(0L, 0L);
+      ioWriter.startChunkGroup(DEVICES[0]);
+      ioWriter.startFlushChunk(
+          "s0", config.getCompressor(), TSDataType.INT64, TSEncoding.PLAIN, statistics, 0, 0, 0);
+      ioWriter.endCurrentChunk();
+      ioWriter.endChunkGroup();
+      ioWriter.getDeviceChunkMetadataMap();
+    } finally {
+      ioWriter.close();
+    }
+  }
+
+  private TsFileIOWriter writeFile(String filePath) throws Exception {
+    TsFileIOWriter ioWriter = new TsFileIOWriter(new File(filePath));
+    try (TsFileWriter writer = new TsFileWriter(ioWriter)) {
+      for (String device : DEVICES) {
+        for (int i = 0; i < MEASUREMENT_NUM; i++) {
+          writer.registerTimeseries(
+              new Path(device, "s" + i),
+              new MeasurementSchema("s" + i, TSDataType.INT64, TSEncoding.RLE));
+        }
+      }
+      for (long time = 0; time < CHUNK_GROUP_NUM; time++) {
+        for (String device : DEVICES) {
+          TSRecord record = new TSRecord(time, device);
+          for (int i = 0; i < MEASUREMENT_NUM; i++) {
+            record.addTuple(new LongDataPoint("s" + i, time * i));
+          }
+          writer.write(record);
+        }
+        // each flush generates one chunk for each series
+        writer.flushAllChunkGroups();
+      }
+    }
+    return ioWriter;
+  }
+}